@@ -0,0 +1,72 @@
+#!/usr/bin/env bash
+# 起動から最初のリクエストが成功するまでの時間（time-to-first-successful-request）を計測します。
+#
+# 使い方:
+#   scripts/startup-benchmark.sh [-n 回数] [-p ポート] [-u パス] [-o CSV] [-l ラベル] [-t タイムアウト秒] -- 起動コマンド...
+#
+# 例:
+#   scripts/startup-benchmark.sh -l jar -- java -jar target/stock-service-0.0.1-SNAPSHOT.jar
+#   scripts/startup-benchmark.sh -l docker -- docker run --rm -p 8080:8080 stock-service
+#
+# 起動コマンドには SERVER_PORT と、計測ごとに新しい SQLite ファイルを指す SPRING_DATASOURCE_URL を環境変数で渡します
+# （コンテナは実行ごとに新しいファイルシステムで起動するため、docker run には渡す必要はありません）。
+# 結果は CSV（label,run,millis）に追記し、最後に最小値・中央値・最大値を表示します。
+set -euo pipefail
+
+runs=5
+port=8080
+path=/login.html
+output=target/startup-benchmark.csv
+label=default
+timeout_seconds=120
+
+while getopts "n:p:u:o:l:t:" option; do
+    case "$option" in
+        n) runs="$OPTARG" ;;
+        p) port="$OPTARG" ;;
+        u) path="$OPTARG" ;;
+        o) output="$OPTARG" ;;
+        l) label="$OPTARG" ;;
+        t) timeout_seconds="$OPTARG" ;;
+        *) sed -n '2,14p' "$0"; exit 2 ;;
+    esac
+done
+shift $((OPTIND - 1))
+[[ "${1:-}" == "--" ]] && shift
+if [[ $# -eq 0 ]]; then
+    sed -n '2,14p' "$0"
+    exit 2
+fi
+
+workdir=$(mktemp -d)
+trap 'rm -rf "$workdir"' EXIT
+mkdir -p "$(dirname "$output")"
+[[ -f "$output" ]] || echo "label,run,millis" > "$output"
+
+results=()
+for run in $(seq 1 "$runs"); do
+    export SERVER_PORT="$port"
+    export SPRING_DATASOURCE_URL="jdbc:sqlite:$workdir/benchmark-$run.db"
+    started=$(date +%s%N)
+    "$@" > "$workdir/run-$run.log" 2>&1 &
+    pid=$!
+    deadline=$((started + timeout_seconds * 1000000000))
+    until curl -fs -o /dev/null "http://localhost:$port$path"; do
+        if ! kill -0 "$pid" 2>/dev/null || [[ $(date +%s%N) -gt $deadline ]]; then
+            echo "run $run: application did not answer $path (log: $workdir/run-$run.log)" >&2
+            tail -20 "$workdir/run-$run.log" >&2
+            kill "$pid" 2>/dev/null || true
+            exit 1
+        fi
+        sleep 0.05
+    done
+    millis=$((($(date +%s%N) - started) / 1000000))
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$label,$run,$millis" >> "$output"
+    echo "run $run: ${millis} ms"
+    results+=("$millis")
+done
+
+sorted=($(printf '%s\n' "${results[@]}" | sort -n))
+echo "$label: min ${sorted[0]} ms, median ${sorted[$((${#sorted[@]} / 2))]} ms, max ${sorted[-1]} ms (n=$runs)"
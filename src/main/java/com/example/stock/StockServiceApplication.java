@@ -2,11 +2,13 @@ package com.example.stock;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * アプリケーションを起動するエントリーポイントです。
  */
 @SpringBootApplication
+@EnableScheduling
 public class StockServiceApplication {
 
     /**
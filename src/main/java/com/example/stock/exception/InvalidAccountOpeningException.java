@@ -0,0 +1,15 @@
+package com.example.stock.exception;
+
+/**
+ * 不正な口座開設要求を表す例外です。
+ */
+public class InvalidAccountOpeningException extends RuntimeException {
+    /**
+     * 不正な口座開設要求に関するメッセージを指定して例外を生成します。
+     *
+     * @param message エラーメッセージ
+     */
+    public InvalidAccountOpeningException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.stock.exception;
+
+/**
+ * 処理能力を超えたため要求を受け付けられなかったことを表す例外です。
+ */
+public class ServiceOverloadedException extends RuntimeException {
+    /**
+     * 過負荷に関するメッセージを指定して例外を生成します。
+     *
+     * @param message エラーメッセージ
+     */
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
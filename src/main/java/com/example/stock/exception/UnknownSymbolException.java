@@ -0,0 +1,15 @@
+package com.example.stock.exception;
+
+/**
+ * 銘柄マスタに登録されていない銘柄、または登録と異なる取引市場が指定されたことを表す例外です。
+ */
+public class UnknownSymbolException extends RuntimeException {
+    /**
+     * エラーメッセージを指定して例外を生成します。
+     *
+     * @param message エラーメッセージ
+     */
+    public UnknownSymbolException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.stock.exception;
+
+/**
+ * 為替レートが登録されていない、または形式が不正な通貨コードが指定されたことを表す例外です。
+ */
+public class UnsupportedCurrencyException extends RuntimeException {
+    /**
+     * 通貨コードを指定して例外を生成します。
+     *
+     * @param currency 指定された通貨コード
+     */
+    public UnsupportedCurrencyException(String currency) {
+        super("Unsupported currency: " + currency);
+    }
+}
@@ -1,44 +1,25 @@
 package com.example.stock.model;
 
-import jakarta.persistence.Column;
-import jakarta.persistence.Entity;
-import jakarta.persistence.Id;
-import jakarta.persistence.PrePersist;
-import jakarta.persistence.Table;
-
 import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
 import java.util.Objects;
 import java.util.UUID;
 
 /**
- * 画面アクセスの監査ログを表すエンティティです。
+ * 画面アクセスの監査ログを表すモデルです。
+ * <p>
+ * アクセスログは月単位のパーティションテーブルへ保存されるため JPA エンティティではなく、
+ * {@link com.example.stock.repository.AccessLogPartitionRepository} が永続化を担います。
  */
-@Entity
-@Table(name = "access_logs")
 public class AccessLog {
 
-    @Id
-    @Column(name = "id", columnDefinition = "TEXT")
-    private UUID id;
-
-    @Column(name = "page", nullable = false, length = 100)
-    private String page;
-
-    @Column(name = "path", nullable = false, length = 255)
-    private String path;
-
-    @Column(name = "ip_address", nullable = false, length = 100)
-    private String ipAddress;
-
-    @Column(name = "user_agent")
-    private String userAgent;
-
-    @Column(name = "accessed_at", nullable = false)
-    private Instant accessedAt;
-
-    protected AccessLog() {
-        // JPA 用のデフォルトコンストラクタ
-    }
+    private final UUID id;
+    private final String page;
+    private final String path;
+    private final String ipAddress;
+    private final String userAgent;
+    private final Instant accessedAt;
 
     /**
      * アクセスログを生成します。
@@ -49,22 +30,41 @@ public class AccessLog {
      * @param userAgent ユーザーエージェント
      */
     public AccessLog(String page, String path, String ipAddress, String userAgent) {
-        this.id = UUID.randomUUID();
+        this(UUID.randomUUID(), page, path, ipAddress, userAgent, Instant.now());
+    }
+
+    private AccessLog(UUID id, String page, String path, String ipAddress, String userAgent, Instant accessedAt) {
+        this.id = Objects.requireNonNull(id, "id");
         this.page = Objects.requireNonNull(page, "page");
         this.path = Objects.requireNonNull(path, "path");
         this.ipAddress = Objects.requireNonNull(ipAddress, "ipAddress");
         this.userAgent = userAgent;
-        this.accessedAt = Instant.now();
+        this.accessedAt = Objects.requireNonNull(accessedAt, "accessedAt");
     }
 
-    @PrePersist
-    void initialize() {
-        if (id == null) {
-            id = UUID.randomUUID();
-        }
-        if (accessedAt == null) {
-            accessedAt = Instant.now();
-        }
+    /**
+     * 保存済みの値からアクセスログを復元します。
+     *
+     * @param id         ログ識別子
+     * @param page       アクセスした画面種別
+     * @param path       リクエストパス
+     * @param ipAddress  アクセス元 IP
+     * @param userAgent  ユーザーエージェント
+     * @param accessedAt アクセス日時
+     * @return 復元したアクセスログ
+     */
+    public static AccessLog restore(UUID id, String page, String path, String ipAddress, String userAgent,
+                                    Instant accessedAt) {
+        return new AccessLog(id, page, path, ipAddress, userAgent, accessedAt);
+    }
+
+    /**
+     * このログが格納される月パーティションを取得します。
+     *
+     * @return アクセス日時（UTC）の年月
+     */
+    public YearMonth getPartition() {
+        return YearMonth.from(accessedAt.atOffset(ZoneOffset.UTC));
     }
 
     public UUID getId() {
@@ -91,4 +91,3 @@ public class AccessLog {
         return accessedAt;
     }
 }
-
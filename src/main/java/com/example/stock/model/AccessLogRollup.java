@@ -0,0 +1,104 @@
+package com.example.stock.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * ページ・時間バケット単位のアクセス件数とユニーク IP スケッチを保持するエンティティです。
+ */
+@Entity
+@Table(name = "access_log_rollups", indexes = {
+        @Index(name = "idx_access_log_rollups_bucket", columnList = "granularity, bucket_start, page", unique = true)
+})
+public class AccessLogRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 8)
+    private RollupGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+
+    @Column(name = "page", nullable = false, length = 100)
+    private String page;
+
+    @Column(name = "hits", nullable = false)
+    private long hits;
+
+    @Column(name = "unique_ip_sketch", nullable = false, columnDefinition = "BLOB")
+    private byte[] uniqueIpSketch;
+
+    protected AccessLogRollup() {
+        // JPA 用のデフォルトコンストラクタ
+    }
+
+    /**
+     * 空の集計バケットを生成します。
+     *
+     * @param granularity 時間粒度
+     * @param bucketStart バケット開始時刻
+     * @param page        画面種別
+     */
+    public AccessLogRollup(RollupGranularity granularity, Instant bucketStart, String page) {
+        this.granularity = Objects.requireNonNull(granularity, "granularity");
+        this.bucketStart = Objects.requireNonNull(bucketStart, "bucketStart");
+        this.page = Objects.requireNonNull(page, "page");
+        this.uniqueIpSketch = new byte[0];
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public RollupGranularity getGranularity() {
+        return granularity;
+    }
+
+    public Instant getBucketStart() {
+        return bucketStart;
+    }
+
+    public String getPage() {
+        return page;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * アクセス件数を加算します。
+     *
+     * @param count 加算する件数
+     */
+    public void addHits(long count) {
+        hits += count;
+    }
+
+    /**
+     * ユニーク IP を推定する HyperLogLog のレジスタ配列を取得します。
+     *
+     * @return レジスタ配列
+     */
+    public byte[] getUniqueIpSketch() {
+        return uniqueIpSketch;
+    }
+
+    public void setUniqueIpSketch(byte[] uniqueIpSketch) {
+        this.uniqueIpSketch = Objects.requireNonNull(uniqueIpSketch, "uniqueIpSketch");
+    }
+}
@@ -3,6 +3,8 @@ package com.example.stock.model;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
@@ -25,6 +27,13 @@ import java.util.UUID;
 @Entity
 @Table(name = "accounts")
 public class Account {
+
+    /** 現金残高と入出金の通貨。 */
+    public static final String DEFAULT_CASH_CURRENCY = "USD";
+
+    /** 評価額を表示する基準通貨の既定値。 */
+    public static final String DEFAULT_BASE_CURRENCY = "JPY";
+
     @Id
     @Column(name = "id", columnDefinition = "TEXT")
     private UUID id;
@@ -35,6 +44,22 @@ public class Account {
     @Column(name = "cash_balance", precision = 19, scale = 4, nullable = false)
     private BigDecimal cashBalance = BigDecimal.ZERO;
 
+    @Column(name = "cash_currency", length = 3, nullable = false)
+    private String cashCurrency = DEFAULT_CASH_CURRENCY;
+
+    @Column(name = "base_currency", length = 3, nullable = false)
+    private String baseCurrency = DEFAULT_BASE_CURRENCY;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "cost_basis_method", length = 16)
+    private CostBasisMethod costBasisMethod = CostBasisMethod.FIFO;
+
+    @Column(name = "realized_pnl", precision = 19, scale = 4)
+    private BigDecimal realizedPnl = BigDecimal.ZERO;
+
+    @Column(name = "change_count")
+    private Long changeCount = 0L;
+
     @OneToMany(mappedBy = "account", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
     @OrderBy("symbol ASC")
     private List<Holding> holdings = new ArrayList<>();
@@ -53,9 +78,35 @@ public class Account {
      * @param initialBalance 初期残高
      */
     public Account(String ownerName, BigDecimal initialBalance) {
+        this(ownerName, initialBalance, CostBasisMethod.FIFO);
+    }
+
+    /**
+     * 取得原価の算定方法を指定してアカウントを生成します。
+     *
+     * @param ownerName 口座名義
+     * @param initialBalance 初期残高
+     * @param costBasisMethod 取得原価の算定方法
+     */
+    public Account(String ownerName, BigDecimal initialBalance, CostBasisMethod costBasisMethod) {
+        this(ownerName, initialBalance, costBasisMethod, null);
+    }
+
+    /**
+     * 取得原価の算定方法と基準通貨を指定してアカウントを生成します。
+     *
+     * @param ownerName 口座名義
+     * @param initialBalance 初期残高
+     * @param costBasisMethod 取得原価の算定方法
+     * @param baseCurrency 評価額の基準通貨（省略時は円）
+     */
+    public Account(String ownerName, BigDecimal initialBalance, CostBasisMethod costBasisMethod,
+                   String baseCurrency) {
         this.id = UUID.randomUUID();
         this.ownerName = Objects.requireNonNull(ownerName, "ownerName");
         this.cashBalance = initialBalance == null ? BigDecimal.ZERO : initialBalance;
+        this.costBasisMethod = costBasisMethod == null ? CostBasisMethod.FIFO : costBasisMethod;
+        this.baseCurrency = baseCurrency == null ? DEFAULT_BASE_CURRENCY : baseCurrency;
         this.createdAt = Instant.now();
     }
 
@@ -70,6 +121,21 @@ public class Account {
         if (cashBalance == null) {
             cashBalance = BigDecimal.ZERO;
         }
+        if (costBasisMethod == null) {
+            costBasisMethod = CostBasisMethod.FIFO;
+        }
+        if (cashCurrency == null) {
+            cashCurrency = DEFAULT_CASH_CURRENCY;
+        }
+        if (baseCurrency == null) {
+            baseCurrency = DEFAULT_BASE_CURRENCY;
+        }
+        if (realizedPnl == null) {
+            realizedPnl = BigDecimal.ZERO;
+        }
+        if (changeCount == null) {
+            changeCount = 0L;
+        }
     }
 
     /**
@@ -108,6 +174,69 @@ public class Account {
         this.cashBalance = cashBalance;
     }
 
+    /**
+     * 現金残高の通貨を取得します。
+     *
+     * @return ISO 4217 の通貨コード
+     */
+    public String getCashCurrency() {
+        return cashCurrency == null ? DEFAULT_CASH_CURRENCY : cashCurrency;
+    }
+
+    /**
+     * 評価額を表示する基準通貨を取得します。
+     *
+     * @return ISO 4217 の通貨コード
+     */
+    public String getBaseCurrency() {
+        return baseCurrency == null ? DEFAULT_BASE_CURRENCY : baseCurrency;
+    }
+
+    /**
+     * 売却時の取得原価の算定方法を取得します。
+     *
+     * @return 取得原価の算定方法（ロット導入前のアカウントは先入先出法）
+     */
+    public CostBasisMethod getCostBasisMethod() {
+        return costBasisMethod == null ? CostBasisMethod.FIFO : costBasisMethod;
+    }
+
+    /**
+     * 累計の実現損益を取得します。
+     *
+     * @return 実現損益の累計
+     */
+    public BigDecimal getRealizedPnl() {
+        return realizedPnl == null ? BigDecimal.ZERO : realizedPnl;
+    }
+
+    /**
+     * 売却で確定した実現損益を累計へ加算します。
+     *
+     * @param amount 加算する実現損益
+     */
+    public void addRealizedPnl(BigDecimal amount) {
+        this.realizedPnl = getRealizedPnl().add(amount);
+    }
+
+    /**
+     * 残高・保有・取引履歴が更新された回数を取得します。
+     * <p>
+     * 更新のたびに単調増加するため、HTTP の ETag の算出に使用します。
+     *
+     * @return 更新回数（カウンター導入前のアカウントは 0 から開始）
+     */
+    public long getChangeCount() {
+        return changeCount == null ? 0 : changeCount;
+    }
+
+    /**
+     * 更新回数を 1 増やします。
+     */
+    public void markChanged() {
+        this.changeCount = getChangeCount() + 1;
+    }
+
     /**
      * 保有銘柄の読み取り専用リストを取得します。
      *
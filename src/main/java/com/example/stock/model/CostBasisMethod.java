@@ -0,0 +1,12 @@
+package com.example.stock.model;
+
+/**
+ * 売却時の取得原価の算定方法を表す列挙型です。
+ */
+public enum CostBasisMethod {
+    /** 先に取得したロットから順に払い出す先入先出法。 */
+    FIFO,
+
+    /** 保有全体の平均取得単価を原価とする総平均法。 */
+    AVERAGE_COST
+}
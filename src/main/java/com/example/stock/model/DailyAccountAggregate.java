@@ -0,0 +1,143 @@
+package com.example.stock.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * アカウント・営業日・取引種別ごとのトランザクション集計値を保持するエンティティです。
+ */
+@Entity
+@Table(name = "daily_account_aggregates", indexes = {
+        @Index(name = "idx_daily_aggregates_account_date", columnList = "account_id, business_date")
+})
+public class DailyAccountAggregate {
+
+    private static final MathContext MATH_CONTEXT = new MathContext(19, RoundingMode.HALF_UP);
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false, columnDefinition = "TEXT")
+    private UUID accountId;
+
+    @Column(name = "business_date", nullable = false)
+    private LocalDate businessDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 32)
+    private TransactionType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "trade_side", length = 8)
+    private TradeSide tradeSide;
+
+    @Column(name = "transaction_count", nullable = false)
+    private long transactionCount;
+
+    @Column(name = "cash_amount", precision = 19, scale = 4, nullable = false)
+    private BigDecimal cashAmount = BigDecimal.ZERO;
+
+    @Column(name = "gross_amount", precision = 19, scale = 4, nullable = false)
+    private BigDecimal grossAmount = BigDecimal.ZERO;
+
+    @Column(name = "quantity", precision = 19, scale = 6, nullable = false)
+    private BigDecimal quantity = BigDecimal.ZERO;
+
+    protected DailyAccountAggregate() {
+        // JPA 用のデフォルトコンストラクタ
+    }
+
+    /**
+     * 空の集計行を生成します。
+     *
+     * @param accountId    アカウント識別子
+     * @param businessDate 営業日（UTC）
+     * @param type         トランザクション種別
+     * @param tradeSide    売買区分（売買以外は {@code null}）
+     */
+    public DailyAccountAggregate(UUID accountId, LocalDate businessDate, TransactionType type, TradeSide tradeSide) {
+        this.accountId = Objects.requireNonNull(accountId, "accountId");
+        this.businessDate = Objects.requireNonNull(businessDate, "businessDate");
+        this.type = Objects.requireNonNull(type, "type");
+        this.tradeSide = tradeSide;
+    }
+
+    /**
+     * トランザクション 1 件分の値を集計へ加算します。
+     * <p>
+     * 約定金額は取引ごとに通貨が異なるため、現金残高の通貨で記録された受渡金額（現金増減額の絶対値）を合計します。
+     *
+     * @param transaction 加算するトランザクション
+     */
+    public void apply(Transaction transaction) {
+        transactionCount++;
+        cashAmount = cashAmount.add(transaction.getCashAmount(), MATH_CONTEXT);
+        if (type == TransactionType.TRADE) {
+            grossAmount = grossAmount.add(transaction.getCashAmount().abs(), MATH_CONTEXT);
+        }
+        if (transaction.getQuantity() != null) {
+            quantity = quantity.add(transaction.getQuantity(), MATH_CONTEXT);
+        }
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public UUID getAccountId() {
+        return accountId;
+    }
+
+    public LocalDate getBusinessDate() {
+        return businessDate;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    public TradeSide getTradeSide() {
+        return tradeSide;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    /**
+     * 現金増減額の合計を取得します（入金・売却は正、出金・買付は負）。
+     *
+     * @return 現金増減額
+     */
+    public BigDecimal getCashAmount() {
+        return cashAmount;
+    }
+
+    /**
+     * 受渡金額（現金残高の通貨建ての絶対値）の合計を取得します。
+     *
+     * @return 受渡金額
+     */
+    public BigDecimal getGrossAmount() {
+        return grossAmount;
+    }
+
+    public BigDecimal getQuantity() {
+        return quantity;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.stock.model;
 
+import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -8,9 +9,17 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
 import jakarta.persistence.Table;
 
 import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -20,6 +29,8 @@ import java.util.Objects;
 @Table(name = "holdings")
 public class Holding {
 
+    private static final MathContext MATH_CONTEXT = new MathContext(12, RoundingMode.HALF_UP);
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -30,16 +41,30 @@ public class Holding {
     @Column(name = "exchange", nullable = false)
     private String exchange;
 
+    @Column(name = "currency", length = 3, nullable = false)
+    private String currency = Account.DEFAULT_CASH_CURRENCY;
+
     @Column(name = "quantity", precision = 19, scale = 6, nullable = false)
     private BigDecimal quantity;
 
     @Column(name = "average_cost", precision = 19, scale = 6, nullable = false)
     private BigDecimal averageCost;
 
+    @Column(name = "average_settlement_cost", precision = 19, scale = 6)
+    private BigDecimal averageSettlementCost;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id", nullable = false, columnDefinition = "TEXT")
     private Account account;
 
+    /**
+     * 取得日時の古い順に並べた未売却ロットです。買付は末尾へ追加し、売却は先頭から払い出す FIFO のキューとして扱います。
+     * 払い出しは消費したロットだけを読み、全量を払い出したロットは売却ごとに先頭からまとめて取り除きます。
+     */
+    @OneToMany(mappedBy = "holding", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("acquiredAt ASC, id ASC")
+    private List<TaxLot> lots = new ArrayList<>();
+
     protected Holding() {
         // JPA 用のデフォルトコンストラクタ
     }
@@ -53,10 +78,43 @@ public class Holding {
      * @param averageCost 平均取得単価
      */
     public Holding(String symbol, String exchange, BigDecimal quantity, BigDecimal averageCost) {
+        this(symbol, exchange, Account.DEFAULT_CASH_CURRENCY, quantity, averageCost);
+    }
+
+    /**
+     * 取得単価の通貨を指定して保有銘柄を生成します。
+     * <p>
+     * 現金残高の通貨で換算した取得単価は不明として扱い、売却時点のレートで換算します。
+     *
+     * @param symbol 銘柄コード
+     * @param exchange 取引市場
+     * @param currency 取得単価の通貨
+     * @param quantity 保有数量
+     * @param averageCost 平均取得単価
+     */
+    public Holding(String symbol, String exchange, String currency, BigDecimal quantity, BigDecimal averageCost) {
+        this(symbol, exchange, currency, quantity, averageCost, null);
+    }
+
+    /**
+     * 現金残高の通貨で換算した取得単価を含めて保有銘柄を生成します。
+     *
+     * @param symbol 銘柄コード
+     * @param exchange 取引市場
+     * @param currency 取得単価の通貨
+     * @param quantity 保有数量
+     * @param averageCost 平均取得単価
+     * @param settlementCostPerShare 受渡時点のレートで現金残高の通貨へ換算した取得単価（不明な場合は {@code null}）
+     */
+    public Holding(String symbol, String exchange, String currency, BigDecimal quantity, BigDecimal averageCost,
+                   BigDecimal settlementCostPerShare) {
         this.symbol = Objects.requireNonNull(symbol, "symbol").toUpperCase();
         this.exchange = Objects.requireNonNull(exchange, "exchange");
+        this.currency = Objects.requireNonNull(currency, "currency");
         this.quantity = quantity;
         this.averageCost = averageCost;
+        this.averageSettlementCost = settlementCostPerShare;
+        appendLot(new TaxLot(quantity, averageCost, settlementCostPerShare, Instant.now()));
     }
 
     public Long getId() {
@@ -89,6 +147,15 @@ public class Holding {
         this.exchange = Objects.requireNonNull(exchange, "exchange");
     }
 
+    /**
+     * 平均取得単価と税務ロットの取得単価の通貨を取得します。
+     *
+     * @return ISO 4217 の通貨コード
+     */
+    public String getCurrency() {
+        return currency == null ? Account.DEFAULT_CASH_CURRENCY : currency;
+    }
+
     /**
      * 保有数量を取得します。
      *
@@ -125,6 +192,15 @@ public class Holding {
         this.averageCost = averageCost;
     }
 
+    /**
+     * 受渡時点のレートで現金残高の通貨へ換算した平均取得単価を取得します。
+     *
+     * @return 換算後の平均取得単価（通貨導入前に外貨で取得した保有銘柄など、不明な場合は {@code null}）
+     */
+    public BigDecimal getAverageSettlementCost() {
+        return averageSettlementCost;
+    }
+
     public Account getAccount() {
         return account;
     }
@@ -132,4 +208,129 @@ public class Holding {
     public void setAccount(Account account) {
         this.account = account;
     }
+
+    /**
+     * 未売却の税務ロットを取得日時の古い順に取得します。
+     *
+     * @return 税務ロットの読み取り専用リスト
+     */
+    public List<TaxLot> getLots() {
+        return Collections.unmodifiableList(lots);
+    }
+
+    /**
+     * 買付分を保有数量と平均取得単価へ反映し、税務ロットを追加します。
+     * <p>
+     * ロット導入前に作成された保有銘柄は、買付前の数量と平均取得単価で単一ロットを補完してから追加します。
+     * 現金残高の通貨で換算した平均取得単価が不明な場合、買付前の保有分は買付時点のレートで換算して平均します。
+     *
+     * @param quantity     取得数量
+     * @param costPerShare 取得単価
+     * @param fxRate       取得単価の通貨から現金残高の通貨への換算レート（同一通貨の場合は {@code null}）
+     * @param acquiredAt   取得日時
+     */
+    public void buy(BigDecimal quantity, BigDecimal costPerShare, BigDecimal fxRate, Instant acquiredAt) {
+        ensureLots();
+        BigDecimal settlementCostPerShare = convert(costPerShare, fxRate);
+        BigDecimal newQuantity = this.quantity.add(quantity, MATH_CONTEXT);
+        BigDecimal totalCost = averageCost.multiply(this.quantity, MATH_CONTEXT)
+                .add(costPerShare.multiply(quantity, MATH_CONTEXT), MATH_CONTEXT);
+        BigDecimal totalSettlementCost = averageSettlementCost(fxRate).multiply(this.quantity, MATH_CONTEXT)
+                .add(settlementCostPerShare.multiply(quantity, MATH_CONTEXT), MATH_CONTEXT);
+        this.averageCost = totalCost.divide(newQuantity, MATH_CONTEXT);
+        this.averageSettlementCost = totalSettlementCost.divide(newQuantity, MATH_CONTEXT);
+        this.quantity = newQuantity;
+        appendLot(new TaxLot(quantity, costPerShare, settlementCostPerShare, acquiredAt));
+    }
+
+    /**
+     * 売却数量分のロットを古い順に払い出し、現金残高の通貨で実現損益を算出します。
+     * <p>
+     * 取得原価は買付時の受渡金額（受渡時点のレートで換算した取得単価）で計上するため、保有期間中の為替変動も
+     * 実現損益に含まれます。換算後の取得単価が不明なロットは売却時点のレートで換算します。
+     * 保有数量自体は呼び出し側で更新してください。先入先出法では払い出し後の残ロットから平均取得単価を再計算します。
+     *
+     * @param sellQuantity 売却数量
+     * @param proceeds     現金残高の通貨建ての受渡金額
+     * @param method       取得原価の算定方法
+     * @param fxRate       取得単価の通貨から現金残高の通貨への売却時点の換算レート（同一通貨の場合は {@code null}）
+     * @return 実現損益（受渡金額 − 現金残高の通貨建ての取得原価）
+     */
+    public BigDecimal relieveLots(BigDecimal sellQuantity, BigDecimal proceeds, CostBasisMethod method,
+                                  BigDecimal fxRate) {
+        ensureLots();
+        BigDecimal remaining = sellQuantity;
+        BigDecimal lotCost = BigDecimal.ZERO;
+        int consumed = 0;
+        while (remaining.signum() > 0 && consumed < lots.size()) {
+            TaxLot lot = lots.get(consumed);
+            BigDecimal taken = lot.getQuantity().min(remaining);
+            lotCost = lotCost.add(taken.multiply(settlementCost(lot, fxRate), MATH_CONTEXT), MATH_CONTEXT);
+            remaining = remaining.subtract(taken, MATH_CONTEXT);
+            if (taken.compareTo(lot.getQuantity()) < 0) {
+                lot.setQuantity(lot.getQuantity().subtract(taken, MATH_CONTEXT));
+                break;
+            }
+            consumed++;
+        }
+        if (remaining.signum() > 0) {
+            // 丸め差などでロット残高が不足した分は平均取得単価で払い出す
+            lotCost = lotCost.add(remaining.multiply(averageSettlementCost(fxRate), MATH_CONTEXT), MATH_CONTEXT);
+        }
+        // 払い出し済みのロットは常に先頭から連続するため、まとめて 1 回で取り除く
+        lots.subList(0, consumed).clear();
+
+        BigDecimal costBasis = method == CostBasisMethod.AVERAGE_COST
+                ? averageSettlementCost(fxRate).multiply(sellQuantity, MATH_CONTEXT)
+                : lotCost;
+        if (method == CostBasisMethod.FIFO && !lots.isEmpty()) {
+            BigDecimal remainingQuantity = remainingLotQuantity();
+            averageCost = remainingLotCost().divide(remainingQuantity, MATH_CONTEXT);
+            if (lots.stream().allMatch(lot -> lot.getSettlementCostPerShare() != null)) {
+                averageSettlementCost = lots.stream()
+                        .map(lot -> lot.getQuantity().multiply(lot.getSettlementCostPerShare(), MATH_CONTEXT))
+                        .reduce(BigDecimal.ZERO, BigDecimal::add)
+                        .divide(remainingQuantity, MATH_CONTEXT);
+            }
+        }
+        BigDecimal realizedPnl = proceeds.subtract(costBasis, MATH_CONTEXT);
+        return fxRate == null ? realizedPnl : realizedPnl.setScale(4, RoundingMode.HALF_UP);
+    }
+
+    private void appendLot(TaxLot lot) {
+        lot.setHolding(this);
+        lots.add(lot);
+    }
+
+    /**
+     * ロット導入前に作成された保有銘柄について、平均取得単価で単一ロットを補完します。
+     */
+    private void ensureLots() {
+        if (lots.isEmpty() && quantity != null && quantity.signum() > 0) {
+            appendLot(new TaxLot(quantity, averageCost, averageSettlementCost, Instant.EPOCH));
+        }
+    }
+
+    private BigDecimal averageSettlementCost(BigDecimal fxRate) {
+        return averageSettlementCost != null ? averageSettlementCost : convert(averageCost, fxRate);
+    }
+
+    private static BigDecimal settlementCost(TaxLot lot, BigDecimal fxRate) {
+        return lot.getSettlementCostPerShare() != null ? lot.getSettlementCostPerShare()
+                : convert(lot.getCostPerShare(), fxRate);
+    }
+
+    private static BigDecimal convert(BigDecimal amount, BigDecimal fxRate) {
+        return fxRate == null ? amount : amount.multiply(fxRate, MATH_CONTEXT);
+    }
+
+    private BigDecimal remainingLotQuantity() {
+        return lots.stream().map(TaxLot::getQuantity).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private BigDecimal remainingLotCost() {
+        return lots.stream()
+                .map(lot -> lot.getQuantity().multiply(lot.getCostPerShare(), MATH_CONTEXT))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
 }
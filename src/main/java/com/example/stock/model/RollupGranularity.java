@@ -0,0 +1,44 @@
+package com.example.stock.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * アクセスログ集計の時間粒度を表す列挙型です。
+ */
+public enum RollupGranularity {
+    /** 1 分単位。 */
+    MINUTE(ChronoUnit.MINUTES),
+
+    /** 1 時間単位。 */
+    HOUR(ChronoUnit.HOURS),
+
+    /** 1 日単位（UTC）。 */
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * 指定時刻を含むバケットの開始時刻を取得します。
+     *
+     * @param instant 対象時刻
+     * @return バケット開始時刻
+     */
+    public Instant bucketStart(Instant instant) {
+        return instant.truncatedTo(unit);
+    }
+
+    /**
+     * バケット 1 つ分の長さを取得します。
+     *
+     * @return バケット幅
+     */
+    public Duration bucketSize() {
+        return unit.getDuration();
+    }
+}
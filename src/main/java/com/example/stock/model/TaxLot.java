@@ -0,0 +1,105 @@
+package com.example.stock.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * 保有銘柄を取得単位ごとに管理する税務ロットです。
+ */
+@Entity
+@Table(name = "tax_lots")
+public class TaxLot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "holding_id", nullable = false)
+    private Holding holding;
+
+    @Column(name = "quantity", precision = 19, scale = 6, nullable = false)
+    private BigDecimal quantity;
+
+    @Column(name = "cost_per_share", precision = 19, scale = 6, nullable = false)
+    private BigDecimal costPerShare;
+
+    @Column(name = "settlement_cost_per_share", precision = 19, scale = 6)
+    private BigDecimal settlementCostPerShare;
+
+    @Column(name = "acquired_at", nullable = false)
+    private Instant acquiredAt;
+
+    protected TaxLot() {
+        // JPA 用のデフォルトコンストラクタ
+    }
+
+    /**
+     * ロットを生成します。
+     *
+     * @param quantity               残数量
+     * @param costPerShare           取得単価
+     * @param settlementCostPerShare 受渡時点のレートで現金残高の通貨へ換算した取得単価（不明な場合は {@code null}）
+     * @param acquiredAt             取得日時
+     */
+    public TaxLot(BigDecimal quantity, BigDecimal costPerShare, BigDecimal settlementCostPerShare,
+                  Instant acquiredAt) {
+        this.quantity = Objects.requireNonNull(quantity, "quantity");
+        this.costPerShare = Objects.requireNonNull(costPerShare, "costPerShare");
+        this.settlementCostPerShare = settlementCostPerShare;
+        this.acquiredAt = Objects.requireNonNull(acquiredAt, "acquiredAt");
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Holding getHolding() {
+        return holding;
+    }
+
+    void setHolding(Holding holding) {
+        this.holding = holding;
+    }
+
+    /**
+     * 未売却の残数量を取得します。
+     *
+     * @return 残数量
+     */
+    public BigDecimal getQuantity() {
+        return quantity;
+    }
+
+    void setQuantity(BigDecimal quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getCostPerShare() {
+        return costPerShare;
+    }
+
+    /**
+     * 受渡時点のレートで現金残高の通貨へ換算した取得単価を取得します。
+     *
+     * @return 換算後の取得単価（通貨導入前に外貨で取得したロットなど、不明な場合は {@code null}）
+     */
+    public BigDecimal getSettlementCostPerShare() {
+        return settlementCostPerShare;
+    }
+
+    public Instant getAcquiredAt() {
+        return acquiredAt;
+    }
+}
@@ -52,6 +52,12 @@ public class Transaction {
     @Column(name = "price_per_share", precision = 19, scale = 6)
     private BigDecimal pricePerShare;
 
+    @Column(name = "currency", length = 3, nullable = false)
+    private String currency;
+
+    @Column(name = "fx_rate", precision = 19, scale = 10)
+    private BigDecimal fxRate;
+
     @Column(name = "cash_amount", precision = 19, scale = 4, nullable = false)
     private BigDecimal cashAmount;
 
@@ -61,6 +67,9 @@ public class Transaction {
     @Column(name = "cash_balance_after", precision = 19, scale = 4, nullable = false)
     private BigDecimal cashBalanceAfter;
 
+    @Column(name = "realized_pnl", precision = 19, scale = 4)
+    private BigDecimal realizedPnl;
+
     @Column(name = "occurred_at", nullable = false)
     private Instant occurredAt;
 
@@ -69,8 +78,9 @@ public class Transaction {
     }
 
     private Transaction(Account account, TransactionType type, TradeSide tradeSide, String symbol, String exchange,
-                         BigDecimal quantity, BigDecimal pricePerShare, BigDecimal cashAmount, BigDecimal grossAmount,
-                         BigDecimal cashBalanceAfter, Instant occurredAt) {
+                         BigDecimal quantity, BigDecimal pricePerShare, String currency, BigDecimal fxRate,
+                         BigDecimal cashAmount, BigDecimal grossAmount, BigDecimal cashBalanceAfter,
+                         BigDecimal realizedPnl, Instant occurredAt) {
         this.account = Objects.requireNonNull(account, "account");
         this.type = Objects.requireNonNull(type, "type");
         this.tradeSide = tradeSide;
@@ -78,9 +88,12 @@ public class Transaction {
         this.exchange = exchange;
         this.quantity = quantity;
         this.pricePerShare = pricePerShare;
+        this.currency = Objects.requireNonNull(currency, "currency");
+        this.fxRate = fxRate;
         this.cashAmount = Objects.requireNonNull(cashAmount, "cashAmount");
         this.grossAmount = grossAmount;
         this.cashBalanceAfter = Objects.requireNonNull(cashBalanceAfter, "cashBalanceAfter");
+        this.realizedPnl = realizedPnl;
         this.occurredAt = occurredAt != null ? occurredAt : Instant.now();
     }
 
@@ -97,7 +110,8 @@ public class Transaction {
         Objects.requireNonNull(amount, "amount");
         Objects.requireNonNull(balanceAfter, "balanceAfter");
         BigDecimal normalized = TransactionType.WITHDRAWAL.equals(type) ? amount.negate() : amount;
-        return new Transaction(account, type, null, null, null, null, null, normalized, null, balanceAfter, Instant.now());
+        return new Transaction(account, type, null, null, null, null, null, account.getCashCurrency(), null,
+                normalized, null, balanceAfter, null, Instant.now());
     }
 
     /**
@@ -116,16 +130,102 @@ public class Transaction {
     public static Transaction trade(Account account, TradeSide side, String symbol, String exchange,
                                     BigDecimal quantity, BigDecimal pricePerShare, BigDecimal grossAmount,
                                     BigDecimal balanceAfter) {
+        return trade(account, side, symbol, exchange, quantity, pricePerShare, grossAmount, balanceAfter, null);
+    }
+
+    /**
+     * 実現損益を伴う株式の売買トランザクションを生成します。
+     *
+     * @param account トランザクション対象のアカウント
+     * @param side 売買区分
+     * @param symbol 銘柄コード
+     * @param exchange 取引所
+     * @param quantity 約定数量
+     * @param pricePerShare 約定単価
+     * @param grossAmount 約定金額（絶対値）
+     * @param balanceAfter 取引後の残高
+     * @param realizedPnl 売却時の実現損益（買付時は {@code null}）
+     * @return 生成されたトランザクション
+     */
+    public static Transaction trade(Account account, TradeSide side, String symbol, String exchange,
+                                    BigDecimal quantity, BigDecimal pricePerShare, BigDecimal grossAmount,
+                                    BigDecimal balanceAfter, BigDecimal realizedPnl) {
+        return trade(account, side, symbol, exchange, account.getCashCurrency(), quantity, pricePerShare,
+                grossAmount, null, grossAmount, balanceAfter, realizedPnl);
+    }
+
+    /**
+     * 現金残高と異なる通貨で約定した株式の売買トランザクションを生成します。
+     *
+     * @param account トランザクション対象のアカウント
+     * @param side 売買区分
+     * @param symbol 銘柄コード
+     * @param exchange 取引所
+     * @param currency 約定単価と約定金額の通貨
+     * @param quantity 約定数量
+     * @param pricePerShare 約定単価
+     * @param grossAmount 約定金額（絶対値、約定通貨建て）
+     * @param fxRate 約定通貨から現金残高の通貨への換算レート（同一通貨の場合は {@code null}）
+     * @param settlementAmount 受渡金額（絶対値、現金残高の通貨建て）
+     * @param balanceAfter 取引後の残高
+     * @param realizedPnl 売却時の実現損益（現金残高の通貨建て、買付時は {@code null}）
+     * @return 生成されたトランザクション
+     */
+    public static Transaction trade(Account account, TradeSide side, String symbol, String exchange, String currency,
+                                    BigDecimal quantity, BigDecimal pricePerShare, BigDecimal grossAmount,
+                                    BigDecimal fxRate, BigDecimal settlementAmount, BigDecimal balanceAfter,
+                                    BigDecimal realizedPnl) {
         Objects.requireNonNull(side, "side");
         Objects.requireNonNull(symbol, "symbol");
         Objects.requireNonNull(exchange, "exchange");
         Objects.requireNonNull(quantity, "quantity");
         Objects.requireNonNull(pricePerShare, "pricePerShare");
         Objects.requireNonNull(grossAmount, "grossAmount");
+        Objects.requireNonNull(settlementAmount, "settlementAmount");
         Objects.requireNonNull(balanceAfter, "balanceAfter");
-        BigDecimal cashAmount = side == TradeSide.BUY ? grossAmount.negate() : grossAmount;
+        BigDecimal cashAmount = side == TradeSide.BUY ? settlementAmount.negate() : settlementAmount;
         return new Transaction(account, TransactionType.TRADE, side, symbol, exchange, quantity, pricePerShare,
-                cashAmount, grossAmount, balanceAfter, Instant.now());
+                currency, fxRate, cashAmount, grossAmount, balanceAfter, realizedPnl, Instant.now());
+    }
+
+    /**
+     * 他社からの移管による株式の入庫トランザクションを生成します。現金残高は変化しません。
+     *
+     * @param account トランザクション対象のアカウント
+     * @param symbol 銘柄コード
+     * @param exchange 取引所
+     * @param quantity 入庫数量
+     * @param costPerShare 取得単価
+     * @param balanceAfter 取引後の残高
+     * @return 生成されたトランザクション
+     */
+    public static Transaction transferIn(Account account, String symbol, String exchange, BigDecimal quantity,
+                                         BigDecimal costPerShare, BigDecimal balanceAfter) {
+        return transferIn(account, symbol, exchange, account.getCashCurrency(), quantity, costPerShare,
+                balanceAfter);
+    }
+
+    /**
+     * 取得単価の通貨を指定して、他社からの移管による株式の入庫トランザクションを生成します。
+     *
+     * @param account トランザクション対象のアカウント
+     * @param symbol 銘柄コード
+     * @param exchange 取引所
+     * @param currency 取得単価の通貨
+     * @param quantity 入庫数量
+     * @param costPerShare 取得単価
+     * @param balanceAfter 取引後の残高
+     * @return 生成されたトランザクション
+     */
+    public static Transaction transferIn(Account account, String symbol, String exchange, String currency,
+                                         BigDecimal quantity, BigDecimal costPerShare, BigDecimal balanceAfter) {
+        Objects.requireNonNull(symbol, "symbol");
+        Objects.requireNonNull(exchange, "exchange");
+        Objects.requireNonNull(quantity, "quantity");
+        Objects.requireNonNull(costPerShare, "costPerShare");
+        Objects.requireNonNull(balanceAfter, "balanceAfter");
+        return new Transaction(account, TransactionType.TRANSFER_IN, null, symbol, exchange, quantity, costPerShare,
+                currency, null, BigDecimal.ZERO, null, balanceAfter, null, Instant.now());
     }
 
     @PrePersist
@@ -170,6 +270,24 @@ public class Transaction {
         return pricePerShare;
     }
 
+    /**
+     * 約定単価・約定金額の通貨を取得します。入出金の場合は現金残高の通貨です。
+     *
+     * @return ISO 4217 の通貨コード
+     */
+    public String getCurrency() {
+        return currency;
+    }
+
+    /**
+     * 約定通貨から現金残高の通貨への換算レートを取得します。
+     *
+     * @return 換算レート（同一通貨の場合は {@code null}）
+     */
+    public BigDecimal getFxRate() {
+        return fxRate;
+    }
+
     public BigDecimal getCashAmount() {
         return cashAmount;
     }
@@ -182,6 +300,15 @@ public class Transaction {
         return cashBalanceAfter;
     }
 
+    /**
+     * 売却時に確定した実現損益を取得します。
+     *
+     * @return 実現損益（売却以外は {@code null}）
+     */
+    public BigDecimal getRealizedPnl() {
+        return realizedPnl;
+    }
+
     public Instant getOccurredAt() {
         return occurredAt;
     }
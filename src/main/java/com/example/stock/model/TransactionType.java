@@ -11,5 +11,8 @@ public enum TransactionType {
     WITHDRAWAL,
 
     /** 株式の売買。 */
-    TRADE
+    TRADE,
+
+    /** 他社からの移管による株式の入庫（現金の増減を伴いません）。 */
+    TRANSFER_IN
 }
@@ -0,0 +1,196 @@
+package com.example.stock.repository;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * アクセスログの文字列項目（ページ・パス・IP・ユーザーエージェント）を整数コードへ符号化する辞書です。
+ * <p>
+ * 辞書は {@code access_log_dimensions} テーブルに保存し、書き込み経路ではメモリ上のインターンキャッシュで
+ * コードを引くため、既知の値であればデータベースへ問い合わせません。ページ名は登録簿として別途保持し、
+ * ページ一覧をログ全体の走査なしで返します。
+ * <p>
+ * パーティションのアーカイブ後は、稼働中のパーティションから参照されなくなったパス・IP・ユーザーエージェントを
+ * {@link #purgeUnreferenced(List)} で削除します。ページはアーカイブ済みの月を含む登録簿のため削除しません。
+ */
+@Repository
+public class AccessLogDictionary {
+
+    /** 次元ごとにキャッシュする値の上限。これを超えた値はキャッシュせずデータベースで解決します。 */
+    static final int MAX_CACHED_VALUES = 100_000;
+
+    private static final String TABLE = "access_log_dimensions";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Dimension, Map<String, Integer>> codes = new EnumMap<>(Dimension.class);
+    private final NavigableSet<String> pageRegistry = new ConcurrentSkipListSet<>();
+
+    public AccessLogDictionary(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        for (Dimension dimension : Dimension.values()) {
+            codes.put(dimension, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * 辞書テーブルを用意し、件数の少ないページとユーザーエージェントをキャッシュへ読み込みます。
+     */
+    @PostConstruct
+    void initialize() {
+        jdbcTemplate.execute("create table if not exists " + TABLE + " ("
+                + "id integer primary key, "
+                + "kind varchar(16) not null, "
+                + "value text not null, "
+                + "unique (kind, value))");
+        for (Dimension dimension : List.of(Dimension.PAGE, Dimension.USER_AGENT)) {
+            jdbcTemplate.query("select id, value from " + TABLE + " where kind = ? limit ?",
+                    (RowCallbackHandler) rs -> cache(dimension, rs.getString("value"), rs.getInt("id")),
+                    dimension.name(), MAX_CACHED_VALUES);
+        }
+    }
+
+    /**
+     * 値に対応するコードを取得し、未登録であれば採番します。
+     * <p>
+     * 実行中のトランザクションがある場合、キャッシュへの反映はコミット後に行います。
+     * ロールバックされた採番がキャッシュに残り、存在しないコードを参照することを防ぐためです。
+     *
+     * @param dimension 次元
+     * @param value     値
+     * @return コード
+     */
+    public int intern(Dimension dimension, String value) {
+        Integer cached = codes.get(dimension).get(value);
+        if (cached != null) {
+            return cached;
+        }
+        jdbcTemplate.update("insert or ignore into " + TABLE + " (kind, value) values (?, ?)", dimension.name(), value);
+        Integer code = jdbcTemplate.queryForObject("select id from " + TABLE + " where kind = ? and value = ?",
+                Integer.class, dimension.name(), value);
+        if (code == null) {
+            throw new IllegalStateException("Failed to intern " + dimension + " value");
+        }
+        afterCommit(() -> cache(dimension, value, code));
+        return code;
+    }
+
+    /**
+     * 登録済みの値に対応するコードを取得します。採番は行いません。
+     *
+     * @param dimension 次元
+     * @param value     値
+     * @return コード（未登録の場合は空）
+     */
+    public Optional<Integer> find(Dimension dimension, String value) {
+        Integer cached = codes.get(dimension).get(value);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return jdbcTemplate.queryForList("select id from " + TABLE + " where kind = ? and value = ?",
+                Integer.class, dimension.name(), value).stream().findFirst();
+    }
+
+    /**
+     * 指定したパーティションのいずれからも参照されていないページ以外の値を削除し、キャッシュからも取り除きます。
+     * <p>
+     * 削除中に削除対象のコードで行が書き込まれないよう、呼び出し側が保存を止めたうえで
+     * トランザクション内で呼び出してください。
+     *
+     * @param partitionTables 稼働中のパーティションのテーブル名
+     * @return 削除した値の件数
+     */
+    int purgeUnreferenced(List<String> partitionTables) {
+        StringBuilder sql = new StringBuilder("select id, kind, value from " + TABLE + " where kind <> ?");
+        if (!partitionTables.isEmpty()) {
+            List<String> references = new ArrayList<>();
+            for (String table : partitionTables) {
+                references.add("select path_id from " + table);
+                references.add("select ip_address_id from " + table);
+                references.add("select user_agent_id from " + table + " where user_agent_id is not null");
+            }
+            sql.append(" and id not in (").append(String.join(" union ", references)).append(")");
+        }
+        List<Entry> unreferenced = jdbcTemplate.query(sql.toString(),
+                (rs, rowNum) -> new Entry(rs.getInt("id"), Dimension.valueOf(rs.getString("kind")),
+                        rs.getString("value")),
+                Dimension.PAGE.name());
+        jdbcTemplate.batchUpdate("delete from " + TABLE + " where id = ?",
+                unreferenced.stream().map(entry -> new Object[]{entry.id()}).toList());
+        unreferenced.forEach(entry -> codes.get(entry.dimension()).remove(entry.value(), entry.id()));
+        return unreferenced.size();
+    }
+
+    /**
+     * 登録済みのページ名を昇順で取得します。
+     *
+     * @return ページ名の一覧
+     */
+    public List<String> getPages() {
+        return List.copyOf(pageRegistry);
+    }
+
+    /**
+     * 辞書テーブル名を取得します（パーティションとの結合用）。
+     *
+     * @return テーブル名
+     */
+    static String tableName() {
+        return TABLE;
+    }
+
+    private void cache(Dimension dimension, String value, int code) {
+        Map<String, Integer> dimensionCodes = codes.get(dimension);
+        if (dimensionCodes.size() < MAX_CACHED_VALUES) {
+            dimensionCodes.put(value, code);
+        }
+        if (dimension == Dimension.PAGE) {
+            pageRegistry.add(value);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record Entry(int id, Dimension dimension, String value) {
+    }
+
+    /**
+     * 辞書で符号化するアクセスログの項目です。
+     */
+    public enum Dimension {
+        /** 画面種別。 */
+        PAGE,
+
+        /** リクエストパス。 */
+        PATH,
+
+        /** アクセス元 IP。 */
+        IP_ADDRESS,
+
+        /** ユーザーエージェント。 */
+        USER_AGENT
+    }
+}
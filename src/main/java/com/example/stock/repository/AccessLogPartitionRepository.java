@@ -0,0 +1,392 @@
+package com.example.stock.repository;
+
+import com.example.stock.model.AccessLog;
+import com.example.stock.repository.AccessLogDictionary.Dimension;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * アクセスログを月単位のパーティションテーブル（{@code access_logs_yyyyMM}）へ保存するリポジトリです。
+ * <p>
+ * 書き込みはアクセス日時の月のテーブルへ振り分け、参照は新しい月から必要な分だけを走査します。
+ * 保持期間を過ぎた月はテーブルごと削除できるため、行単位の削除で長時間の書き込みロックを取ることがありません。
+ * 文字列項目は {@link AccessLogDictionary} の整数コードで保存し、参照時に辞書テーブルと結合して復元します。
+ * <p>
+ * パーティションのテーブルと索引は、マイグレーションで管理するテンプレートテーブル（{@code access_logs_template}）の
+ * 定義を複製して作成します。
+ */
+@Repository
+public class AccessLogPartitionRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessLogPartitionRepository.class);
+
+    private static final String TABLE_PREFIX = "access_logs_";
+    private static final String LEGACY_TABLE = "access_logs";
+    private static final String TEMPLATE_TABLE = "access_logs_template";
+    private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final DateTimeFormatter LEGACY_TIMESTAMP_FORMAT = new DateTimeFormatterBuilder()
+            .appendPattern("yyyy-MM-dd HH:mm:ss")
+            .optionalStart().appendFraction(ChronoField.NANO_OF_SECOND, 0, 9, true).optionalEnd()
+            .toFormatter();
+    private static final int MIGRATION_CHUNK_SIZE = 1000;
+    private static final String TEXT_LAYOUT_SUFFIX = "_text";
+    private static final String COLUMNS = "id, page, path, ip_address, user_agent, accessed_at";
+    private static final String ENCODED_COLUMNS = "id, page_id, path_id, ip_address_id, user_agent_id, accessed_at";
+    private static final long PURGE_LOCK_TIMEOUT_MILLIS = 5_000;
+
+    private static final RowMapper<AccessLog> ROW_MAPPER = (rs, rowNum) -> AccessLog.restore(
+            UUID.fromString(rs.getString("id")), rs.getString("page"), rs.getString("path"),
+            rs.getString("ip_address"), rs.getString("user_agent"), Instant.ofEpochMilli(rs.getLong("accessed_at")));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AccessLogDictionary dictionary;
+    private final NavigableSet<YearMonth> partitions = new ConcurrentSkipListSet<>(Comparator.reverseOrder());
+    /** 書き込み（読み取りロック）と辞書の削除（書き込みロック）を排他し、削除中のコードが参照されないようにします。 */
+    private final ReadWriteLock dictionaryLock = new ReentrantReadWriteLock();
+    private List<String> partitionDdl;
+
+    public AccessLogPartitionRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                        AccessLogDictionary dictionary) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * パーティションのテンプレートと既存のパーティションを読み込み、
+     * 文字列のまま保存された旧形式のテーブルがあれば符号化形式へ移行します。
+     */
+    @PostConstruct
+    void initialize() {
+        partitionDdl = loadPartitionTemplate();
+        List<String> textLayoutTables = new ArrayList<>();
+        jdbcTemplate.queryForList("select name from sqlite_master where type = 'table' and name like ?",
+                        String.class, TABLE_PREFIX + "%").stream()
+                .filter(name -> name.matches(TABLE_PREFIX + "\\d{6}(" + TEXT_LAYOUT_SUFFIX + ")?"))
+                .forEach(name -> {
+                    if (name.endsWith(TEXT_LAYOUT_SUFFIX)) {
+                        textLayoutTables.add(name);
+                    } else if (hasColumn(name, "page")) {
+                        textLayoutTables.add(retireTextLayoutPartition(name));
+                    } else {
+                        partitions.add(YearMonth.parse(name.substring(TABLE_PREFIX.length()), SUFFIX_FORMAT));
+                    }
+                });
+        if (tableExists(LEGACY_TABLE)) {
+            textLayoutTables.add(LEGACY_TABLE);
+        }
+        textLayoutTables.forEach(this::migrateTextLayoutTable);
+    }
+
+    /**
+     * アクセスログを該当月のパーティションへ保存します。
+     *
+     * @param accessLog 保存対象のログ
+     * @return 保存したログ
+     */
+    public AccessLog save(AccessLog accessLog) {
+        insert(accessLog, "insert into ");
+        return accessLog;
+    }
+
+    /**
+     * 同じ ID のログが保存されていない場合に限り、アクセスログを該当月のパーティションへ保存します。
+     *
+     * @param accessLog 保存対象のログ
+     * @return 保存した場合は {@code true}
+     */
+    public boolean saveIfAbsent(AccessLog accessLog) {
+        return insert(accessLog, "insert or ignore into ") > 0;
+    }
+
+    /**
+     * 新しい順にアクセスログを取得します。新しい月のパーティションから順に、件数が満たされるまで参照します。
+     *
+     * @param page  画面種別（{@code null} の場合は全件）
+     * @param limit 最大取得件数
+     * @return アクセスログ一覧
+     */
+    public List<AccessLog> findRecent(String page, int limit) {
+        Optional<Integer> pageId = page != null ? dictionary.find(Dimension.PAGE, page) : Optional.empty();
+        if (page != null && pageId.isEmpty()) {
+            return List.of();
+        }
+        List<AccessLog> result = new ArrayList<>(limit);
+        for (YearMonth partition : partitions) {
+            int remaining = limit - result.size();
+            if (remaining <= 0) {
+                break;
+            }
+            if (page != null) {
+                result.addAll(jdbcTemplate.query(decodingSelect(partition, "")
+                        + " where l.page_id = ? order by l.accessed_at desc limit ?", ROW_MAPPER, pageId.get(), remaining));
+            } else {
+                result.addAll(jdbcTemplate.query(decodingSelect(partition, "")
+                        + " order by l.accessed_at desc limit ?", ROW_MAPPER, remaining));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 記録されたことのあるページ名を重複なしで取得します。
+     * <p>
+     * 辞書が保持するページ登録簿を返すため、ログの件数に依存せず一定時間で応答します。
+     * アーカイブ済みの月にのみ存在するページも含まれます。
+     *
+     * @return ページ名の一覧（昇順）
+     */
+    public List<String> findDistinctPages() {
+        return dictionary.getPages();
+    }
+
+    /**
+     * 保存中のパーティションを新しい順に取得します。
+     *
+     * @return パーティション（年月）の一覧
+     */
+    public List<YearMonth> findPartitions() {
+        return List.copyOf(partitions);
+    }
+
+    /**
+     * 指定パーティションの行数を取得します。
+     *
+     * @param partition 対象の年月
+     * @return 行数
+     */
+    public long countPartition(YearMonth partition) {
+        Long count = jdbcTemplate.queryForObject("select count(*) from " + tableName(partition), Long.class);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * 指定パーティションの全行を格納順に少量ずつ読み出します。
+     * <p>
+     * チャンクごとに個別のクエリを発行するため、読み出し中もコネクションを他の処理へ明け渡せます。
+     *
+     * @param partition 対象の年月
+     * @param chunkSize 1 回のクエリで読み出す行数
+     * @param consumer  読み出した行の処理
+     * @return 読み出した行数
+     */
+    public long forEachInPartition(YearMonth partition, int chunkSize, Consumer<AccessLog> consumer) {
+        String sql = decodingSelect(partition, "l.rowid as row_id, ")
+                + " where l.rowid > ? order by l.rowid limit ?";
+        long lastRowId = 0;
+        long processed = 0;
+        while (true) {
+            List<Long> rowIds = new ArrayList<>(chunkSize);
+            List<AccessLog> chunk = jdbcTemplate.query(sql, (rs, rowNum) -> {
+                rowIds.add(rs.getLong("row_id"));
+                return ROW_MAPPER.mapRow(rs, rowNum);
+            }, lastRowId, chunkSize);
+            chunk.forEach(consumer);
+            processed += chunk.size();
+            if (chunk.size() < chunkSize) {
+                return processed;
+            }
+            lastRowId = rowIds.get(rowIds.size() - 1);
+        }
+    }
+
+    /**
+     * 指定パーティションをテーブルごと削除します。
+     *
+     * @param partition 対象の年月
+     */
+    public void dropPartition(YearMonth partition) {
+        jdbcTemplate.execute("drop table if exists " + tableName(partition));
+        partitions.remove(partition);
+    }
+
+    /**
+     * 稼働中のどのパーティションからも参照されなくなった辞書の値を削除します。
+     * <p>
+     * 削除中は保存を待たせ、削除対象のコードで新しい行が書き込まれないようにします。
+     * 実行中の保存がコネクションの解放を待っている場合は、デッドロックを避けるため今回の削除を見送ります。
+     *
+     * @return 削除した値の件数（見送った場合は {@code -1}）
+     */
+    public int purgeDictionary() {
+        Integer purged = transactionTemplate.execute(status -> {
+            try {
+                if (!dictionaryLock.writeLock().tryLock(PURGE_LOCK_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return -1;
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return -1;
+            }
+            try {
+                return dictionary.purgeUnreferenced(
+                        partitions.stream().map(AccessLogPartitionRepository::tableName).toList());
+            } finally {
+                dictionaryLock.writeLock().unlock();
+            }
+        });
+        return purged == null ? -1 : purged;
+    }
+
+    private String ensurePartition(YearMonth partition) {
+        String table = tableName(partition);
+        if (!partitions.contains(partition)) {
+            partitionDdl.forEach(ddl -> jdbcTemplate.execute(ddl.replace(TEMPLATE_TABLE, table)));
+            partitions.add(partition);
+        }
+        return table;
+    }
+
+    /**
+     * テンプレートテーブルとその索引の定義を、テーブル・索引の順に読み出します。
+     * {@code sqlite_master} は {@code if not exists} を除いた定義を保持するため、再実行できるよう補います。
+     */
+    private List<String> loadPartitionTemplate() {
+        List<String> ddl = jdbcTemplate.queryForList("select sql from sqlite_master where tbl_name = ? "
+                        + "and sql is not null order by case type when 'table' then 0 else 1 end, name",
+                String.class, TEMPLATE_TABLE);
+        if (ddl.isEmpty()) {
+            throw new IllegalStateException("Access log partition template " + TEMPLATE_TABLE
+                    + " does not exist; apply the schema migrations first");
+        }
+        return ddl.stream()
+                .map(sql -> sql.replaceFirst("(?i)^\\s*(create\\s+(?:unique\\s+)?(?:table|index))\\s+",
+                        "$1 if not exists "))
+                .toList();
+    }
+
+    private int insert(AccessLog accessLog, String insertClause) {
+        dictionaryLock.readLock().lock();
+        try {
+            String table = ensurePartition(accessLog.getPartition());
+            Integer userAgentId = accessLog.getUserAgent() != null
+                    ? dictionary.intern(Dimension.USER_AGENT, accessLog.getUserAgent())
+                    : null;
+            return jdbcTemplate.update(insertClause + table + " (" + ENCODED_COLUMNS + ") values (?, ?, ?, ?, ?, ?)",
+                    accessLog.getId().toString(),
+                    dictionary.intern(Dimension.PAGE, accessLog.getPage()),
+                    dictionary.intern(Dimension.PATH, accessLog.getPath()),
+                    dictionary.intern(Dimension.IP_ADDRESS, accessLog.getIpAddress()),
+                    userAgentId,
+                    accessLog.getAccessedAt().toEpochMilli());
+        } finally {
+            dictionaryLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 辞書テーブルと結合して文字列項目を復元する SELECT 句を組み立てます。
+     */
+    private static String decodingSelect(YearMonth partition, String extraColumns) {
+        String dictionaryTable = AccessLogDictionary.tableName();
+        return "select " + extraColumns + "l.id as id, p.value as page, pa.value as path, ip.value as ip_address, "
+                + "ua.value as user_agent, l.accessed_at as accessed_at from " + tableName(partition) + " l "
+                + "join " + dictionaryTable + " p on p.id = l.page_id "
+                + "join " + dictionaryTable + " pa on pa.id = l.path_id "
+                + "join " + dictionaryTable + " ip on ip.id = l.ip_address_id "
+                + "left join " + dictionaryTable + " ua on ua.id = l.user_agent_id";
+    }
+
+    private static String tableName(YearMonth partition) {
+        return TABLE_PREFIX + partition.format(SUFFIX_FORMAT);
+    }
+
+    private boolean tableExists(String table) {
+        Integer count = jdbcTemplate.queryForObject(
+                "select count(*) from sqlite_master where type = 'table' and name = ?", Integer.class, table);
+        return count != null && count > 0;
+    }
+
+    private boolean hasColumn(String table, String column) {
+        return jdbcTemplate.queryForList("select name from pragma_table_info(?)", String.class, table)
+                .contains(column);
+    }
+
+    /**
+     * 文字列形式のパーティションを退避名へ変更し、新形式のテーブルと索引名が衝突しないようにします。
+     */
+    private String retireTextLayoutPartition(String table) {
+        String retired = table + TEXT_LAYOUT_SUFFIX;
+        jdbcTemplate.execute("drop index if exists idx_" + table + "_accessed_at");
+        jdbcTemplate.execute("drop index if exists idx_" + table + "_page_accessed_at");
+        jdbcTemplate.execute("alter table " + table + " rename to " + retired);
+        return retired;
+    }
+
+    /**
+     * 文字列形式のテーブル（単一テーブル時代の {@code access_logs} や符号化導入前の月パーティション）を
+     * チャンク単位で符号化形式の月パーティションへ移し、最後に削除します。
+     * 途中で停止しても再実行時に重複しないよう {@code insert or ignore} を使用します。
+     *
+     * @param sourceTable 移行元テーブル
+     */
+    private void migrateTextLayoutTable(String sourceTable) {
+        String sql = "select rowid as row_id, " + COLUMNS + ", typeof(accessed_at) as accessed_at_type from "
+                + sourceTable + " where rowid > ? order by rowid limit ?";
+        long lastRowId = 0;
+        long migrated = 0;
+        while (true) {
+            List<Long> rowIds = new ArrayList<>();
+            List<AccessLog> chunk = jdbcTemplate.query(sql, (rs, rowNum) -> {
+                rowIds.add(rs.getLong("row_id"));
+                Instant accessedAt = "integer".equals(rs.getString("accessed_at_type"))
+                        ? Instant.ofEpochMilli(rs.getLong("accessed_at"))
+                        : parseLegacyTimestamp(rs.getString("accessed_at"));
+                return AccessLog.restore(toUuid(rs.getObject("id")), rs.getString("page"), rs.getString("path"),
+                        rs.getString("ip_address"), rs.getString("user_agent"), accessedAt);
+            }, lastRowId, MIGRATION_CHUNK_SIZE);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            transactionTemplate.executeWithoutResult(status ->
+                    chunk.forEach(entry -> insert(entry, "insert or ignore into ")));
+            migrated += chunk.size();
+            lastRowId = rowIds.get(rowIds.size() - 1);
+        }
+        jdbcTemplate.execute("drop table " + sourceTable);
+        log.info("Migrated {} access logs from {} into encoded monthly partitions", migrated, sourceTable);
+    }
+
+    private static UUID toUuid(Object value) {
+        if (value instanceof byte[] bytes && bytes.length == 16) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            return new UUID(buffer.getLong(), buffer.getLong());
+        }
+        return UUID.fromString(String.valueOf(value));
+    }
+
+    private static Instant parseLegacyTimestamp(String value) {
+        String normalized = value.trim().replace('T', ' ');
+        if (normalized.endsWith("Z")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return LocalDateTime.parse(normalized, LEGACY_TIMESTAMP_FORMAT).toInstant(ZoneOffset.UTC);
+    }
+}
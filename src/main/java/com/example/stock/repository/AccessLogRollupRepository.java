@@ -0,0 +1,69 @@
+package com.example.stock.repository;
+
+import com.example.stock.model.AccessLogRollup;
+import com.example.stock.model.RollupGranularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * アクセスログ集計バケットを永続化するリポジトリです。
+ */
+public interface AccessLogRollupRepository extends JpaRepository<AccessLogRollup, Long> {
+
+    Optional<AccessLogRollup> findByGranularityAndBucketStartAndPage(RollupGranularity granularity,
+                                                                     Instant bucketStart, String page);
+
+    /**
+     * 指定時刻以降で最も古い集計バケットを取得します。
+     *
+     * @param granularity 時間粒度
+     * @param from        開始時刻（含む）
+     * @return 集計バケット（存在しない場合は空）
+     */
+    Optional<AccessLogRollup> findFirstByGranularityAndBucketStartGreaterThanEqualOrderByBucketStartAsc(
+            RollupGranularity granularity, Instant from);
+
+    /**
+     * 指定期間の全ページの集計バケットを取得します。
+     *
+     * @param granularity 時間粒度
+     * @param from        開始時刻（含む）
+     * @param to          終了時刻（含まない）
+     * @return 集計バケット一覧
+     */
+    List<AccessLogRollup> findByGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+            RollupGranularity granularity, Instant from, Instant to);
+
+    List<AccessLogRollup> findByGranularityAndPageAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+            RollupGranularity granularity, String page, Instant from, Instant to);
+
+    /**
+     * 時・日のバケットへ反映済みの分バケットの終端を取得します。
+     *
+     * @return この時刻より前の分バケットは時・日のバケットへ反映済みです
+     */
+    default Instant findCompactedUntil() {
+        return Instant.ofEpochMilli(findCompactedUntilMillis());
+    }
+
+    /**
+     * 時・日のバケットへ反映済みの分バケットの終端を記録します。
+     *
+     * @param compactedUntil この時刻より前の分バケットを反映済みとします
+     */
+    default void saveCompactedUntil(Instant compactedUntil) {
+        updateCompactedUntilMillis(compactedUntil.toEpochMilli());
+    }
+
+    @Query(value = "select compacted_until from access_log_rollup_state where id = 1", nativeQuery = true)
+    long findCompactedUntilMillis();
+
+    @Modifying
+    @Query(value = "update access_log_rollup_state set compacted_until = :millis where id = 1", nativeQuery = true)
+    void updateCompactedUntilMillis(long millis);
+}
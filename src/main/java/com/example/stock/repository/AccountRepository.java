@@ -1,6 +1,7 @@
 package com.example.stock.repository;
 
 import com.example.stock.model.Account;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
@@ -20,4 +21,21 @@ public interface AccountRepository extends JpaRepository<Account, UUID> {
     @Override
     @EntityGraph(attributePaths = "holdings")
     List<Account> findAll();
+
+    /**
+     * 識別子順で先頭のアカウントを取得します。
+     *
+     * @param pageable 取得件数
+     * @return アカウント一覧
+     */
+    List<Account> findAllByOrderByIdAsc(Pageable pageable);
+
+    /**
+     * 指定した識別子より後ろのアカウントを識別子順に取得します。
+     *
+     * @param afterId  直前に取得したアカウントの識別子
+     * @param pageable 取得件数
+     * @return アカウント一覧
+     */
+    List<Account> findByIdGreaterThanOrderByIdAsc(UUID afterId, Pageable pageable);
 }
@@ -0,0 +1,209 @@
+package com.example.stock.repository;
+
+import com.example.stock.model.CostBasisMethod;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 口座の参照用に非正規化した読み取りモデル（{@code account_summaries}）を JDBC で読み書きするリポジトリです。
+ * <p>
+ * 1 アカウントを 1 行に集約し、保有銘柄は JSON で保存します。金額は丸めずに文字列で保存するため、
+ * 書き込み時点の値をそのまま返します。
+ */
+@Repository
+public class AccountSummaryRepository {
+
+    private static final TypeReference<List<HoldingSummary>> HOLDINGS_TYPE = new TypeReference<>() {
+    };
+    private static final String COLUMNS = "account_id, owner_name, cash_balance, cash_currency, base_currency,"
+            + " cost_basis_method, realized_pnl, change_count, holding_count, total_cost_basis, holdings, created_at,"
+            + " last_activity_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final RowMapper<Summary> rowMapper;
+
+    public AccountSummaryRepository(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.rowMapper = (rs, rowNum) -> new Summary(UuidBytes.toUuid(rs.getBytes("account_id")),
+                rs.getString("owner_name"), new BigDecimal(rs.getString("cash_balance")),
+                rs.getString("cash_currency"), rs.getString("base_currency"),
+                CostBasisMethod.valueOf(rs.getString("cost_basis_method")),
+                new BigDecimal(rs.getString("realized_pnl")), rs.getLong("change_count"),
+                readHoldings(rs.getString("holdings")), rs.getInt("holding_count"),
+                new BigDecimal(rs.getString("total_cost_basis")), Instant.ofEpochMilli(rs.getLong("created_at")),
+                Instant.ofEpochMilli(rs.getLong("last_activity_at")));
+    }
+
+    /**
+     * アカウントの読み取りモデルを取得します。
+     *
+     * @param accountId アカウント ID
+     * @return 読み取りモデル（未作成の場合は空）
+     */
+    public Optional<Summary> find(UUID accountId) {
+        return jdbcTemplate.query("select " + COLUMNS + " from account_summaries where account_id = ?", rowMapper,
+                UuidBytes.toBytes(accountId)).stream().findFirst();
+    }
+
+    /**
+     * すべての読み取りモデルを開設日時順に取得します。
+     *
+     * @return 読み取りモデル一覧
+     */
+    public List<Summary> findAll() {
+        return jdbcTemplate.query("select " + COLUMNS + " from account_summaries order by created_at, account_id",
+                rowMapper);
+    }
+
+    /**
+     * 読み取りモデルの件数を取得します。
+     *
+     * @return 件数
+     */
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("select count(*) from account_summaries", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * 読み取りモデルをまとめて保存します。同じアカウントの既存の行は置き換えます。
+     *
+     * @param summaries 保存する読み取りモデル
+     */
+    public void saveAll(List<Summary> summaries) {
+        if (summaries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("insert or replace into account_summaries (" + COLUMNS + ")"
+                        + " values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                summaries.stream()
+                        .map(summary -> new Object[]{UuidBytes.toBytes(summary.id()), summary.ownerName(),
+                                summary.cashBalance().toPlainString(), summary.cashCurrency(),
+                                summary.baseCurrency(), summary.costBasisMethod().name(),
+                                summary.realizedPnl().toPlainString(), summary.changeCount(), summary.holdingCount(),
+                                summary.totalCostBasis().toPlainString(), writeHoldings(summary.holdings()),
+                                summary.createdAt().toEpochMilli(), summary.lastActivityAt().toEpochMilli()})
+                        .toList());
+    }
+
+    /**
+     * アカウントが削除された読み取りモデルを削除します。
+     *
+     * @return 削除した件数
+     */
+    public int deleteOrphans() {
+        return jdbcTemplate.update("delete from account_summaries"
+                + " where not exists (select 1 from accounts a where a.id = account_summaries.account_id)");
+    }
+
+    /**
+     * 正規化テーブルのアカウント件数を取得します。
+     *
+     * @return 件数
+     */
+    public long countAccounts() {
+        Long count = jdbcTemplate.queryForObject("select count(*) from accounts", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * 指定したアカウントごとの最終取引日時を取得します。
+     *
+     * @param accountIds アカウント ID
+     * @return アカウント ID と最終取引日時
+     */
+    public Map<UUID, Instant> findLastActivities(Collection<UUID> accountIds) {
+        Map<UUID, Instant> activities = new HashMap<>();
+        if (accountIds.isEmpty()) {
+            return activities;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(accountIds.size(), "?"));
+        jdbcTemplate.query("select account_id, max(occurred_at) as last_activity from transactions"
+                        + " where account_id in (" + placeholders + ") group by account_id",
+                rs -> {
+                    activities.put(UuidBytes.toUuid(rs.getBytes("account_id")),
+                            Instant.ofEpochMilli(rs.getLong("last_activity")));
+                }, accountIds.stream().map(UuidBytes::toBytes).toArray());
+        return activities;
+    }
+
+    /**
+     * アカウントの最終取引日時を取得します。
+     *
+     * @param accountId アカウント ID
+     * @return 最終取引日時（取引がない場合は空）
+     */
+    public Optional<Instant> findLastActivity(UUID accountId) {
+        Long millis = jdbcTemplate.queryForObject("select max(occurred_at) from transactions where account_id = ?",
+                Long.class, UuidBytes.toBytes(accountId));
+        return Optional.ofNullable(millis).map(Instant::ofEpochMilli);
+    }
+
+    private List<HoldingSummary> readHoldings(String json) {
+        try {
+            return objectMapper.readValue(json, HOLDINGS_TYPE);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Corrupted account summary", ex);
+        }
+    }
+
+    private String writeHoldings(List<HoldingSummary> holdings) {
+        try {
+            return objectMapper.writeValueAsString(holdings);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * 口座の読み取りモデルです。
+     *
+     * @param id              アカウント ID
+     * @param ownerName       口座名義
+     * @param cashBalance     現金残高
+     * @param cashCurrency    現金残高の通貨
+     * @param baseCurrency    評価額の基準通貨
+     * @param costBasisMethod 取得原価の算定方法
+     * @param realizedPnl     累計実現損益
+     * @param changeCount     更新回数
+     * @param holdings        保有銘柄（銘柄コード順）
+     * @param holdingCount    保有銘柄数
+     * @param totalCostBasis  保有銘柄の取得原価の合計（受渡時点のレートで換算した現金残高の通貨建て）
+     * @param createdAt       開設日時
+     * @param lastActivityAt  最終更新日時
+     */
+    public record Summary(UUID id, String ownerName, BigDecimal cashBalance, String cashCurrency,
+                          String baseCurrency, CostBasisMethod costBasisMethod,
+                          BigDecimal realizedPnl, long changeCount, List<HoldingSummary> holdings, int holdingCount,
+                          BigDecimal totalCostBasis, Instant createdAt, Instant lastActivityAt) {
+    }
+
+    /**
+     * 読み取りモデルに含める保有銘柄です。
+     *
+     * @param symbol      銘柄コード
+     * @param exchange    取引市場
+     * @param currency    平均取得単価の通貨
+     * @param quantity    保有数量
+     * @param averageCost 平均取得単価
+     */
+    public record HoldingSummary(String symbol, String exchange, String currency, BigDecimal quantity,
+                                 BigDecimal averageCost) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.stock.repository;
+
+import com.example.stock.model.DailyAccountAggregate;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 日次アカウント集計へアクセスするためのリポジトリです。
+ */
+public interface DailyAccountAggregateRepository extends JpaRepository<DailyAccountAggregate, Long> {
+
+    /**
+     * 指定期間の集計行を日付順に取得します。
+     *
+     * @param accountId アカウント識別子
+     * @param from      開始日（含む）
+     * @param to        終了日（含む）
+     * @return 集計行一覧
+     */
+    List<DailyAccountAggregate> findByAccountIdAndBusinessDateBetweenOrderByBusinessDateAsc(
+            UUID accountId, LocalDate from, LocalDate to);
+
+    /**
+     * 集計行へ加算します。同じキー（アカウント・営業日・取引種別・売買区分）の行がなければ作成します。
+     * <p>
+     * 一意索引 {@code ux_daily_aggregates_key} に対する 1 文の upsert で、既存の行を読み込まずに加算します。
+     * 集計行以外のテーブルを変更しないため、実行前に永続化コンテキストをフラッシュしません（一括口座開設で
+     * 集計行ごとに保留中のエンティティを検査しないため）。永続化コンテキストに読み込み済みの集計行は更新されません。
+     *
+     * @param delta 加算する値（アカウント・営業日・取引種別・売買区分がキー）
+     */
+    default void add(DailyAccountAggregate delta) {
+        upsert(delta.getAccountId(), delta.getBusinessDate(), delta.getType().name(),
+                delta.getTradeSide() == null ? null : delta.getTradeSide().name(), delta.getTransactionCount(),
+                delta.getCashAmount(), delta.getGrossAmount(), delta.getQuantity());
+    }
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query(value = """
+            insert into daily_account_aggregates (account_id, business_date, type, trade_side, transaction_count,
+                                                  cash_amount, gross_amount, quantity)
+            values (:accountId, :businessDate, :type, :tradeSide, :transactionCount, :cashAmount, :grossAmount,
+                    :quantity)
+            on conflict (account_id, business_date, type, ifnull(trade_side, '')) do update set
+                transaction_count = transaction_count + excluded.transaction_count,
+                cash_amount = cash_amount + excluded.cash_amount,
+                gross_amount = gross_amount + excluded.gross_amount,
+                quantity = quantity + excluded.quantity
+            """, nativeQuery = true)
+    void upsert(UUID accountId, LocalDate businessDate, String type, String tradeSide, long transactionCount,
+                BigDecimal cashAmount, BigDecimal grossAmount, BigDecimal quantity);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from DailyAccountAggregate a where a.accountId = :accountId")
+    void deleteByAccountId(UUID accountId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from DailyAccountAggregate a")
+    void deleteAllAggregates();
+}
@@ -0,0 +1,284 @@
+package com.example.stock.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 日次の時価評価バッチ向けに、口座の残高と保有銘柄・終値・評価額スナップショット・実行状況を JDBC で直接読み書きするリポジトリです。
+ * <p>
+ * 口座は ID 順のキーセットページングで読み出します。前回の最終 ID より大きい範囲だけを読むため、
+ * 何チャンク目であっても 1 回の読み取りにかかる時間は変わりません。
+ */
+@Repository
+public class EndOfDayValuationRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EndOfDayValuationRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 指定したアカウント ID より後のアカウントを ID 順に最大 {@code limit} 件、保有銘柄とともに読み出します。
+     *
+     * @param afterAccountId この ID より後のアカウントのみを対象にします（先頭から読む場合は {@code null}）
+     * @param limit          最大件数
+     * @return アカウントの残高と保有銘柄（ID 順）
+     */
+    public List<AccountPosition> findAccountChunk(UUID afterAccountId, int limit) {
+        Map<UUID, AccountPosition> accounts = new LinkedHashMap<>();
+        String accountSql = "select id, cash_balance, cash_currency from accounts"
+                + (afterAccountId != null ? " where id > ?" : "") + " order by id limit ?";
+        Object[] accountArgs = afterAccountId != null
+                ? new Object[]{UuidBytes.toBytes(afterAccountId), limit} : new Object[]{limit};
+        jdbcTemplate.query(accountSql, rs -> {
+            UUID id = UuidBytes.toUuid(rs.getBytes("id"));
+            accounts.put(id, new AccountPosition(id, rs.getBigDecimal("cash_balance"), rs.getString("cash_currency"),
+                    new ArrayList<>()));
+        }, accountArgs);
+        if (accounts.isEmpty()) {
+            return List.of();
+        }
+        UUID first = accounts.keySet().iterator().next();
+        UUID last = null;
+        for (UUID id : accounts.keySet()) {
+            last = id;
+        }
+        jdbcTemplate.query("select account_id, symbol, currency, quantity, average_cost from holdings"
+                        + " where account_id >= ? and account_id <= ?",
+                rs -> {
+                    AccountPosition account = accounts.get(UuidBytes.toUuid(rs.getBytes("account_id")));
+                    if (account != null) {
+                        account.holdings().add(new HoldingPosition(rs.getString("symbol"), rs.getString("currency"),
+                                rs.getBigDecimal("quantity"), rs.getBigDecimal("average_cost")));
+                    }
+                }, UuidBytes.toBytes(first), UuidBytes.toBytes(last));
+        return List.copyOf(accounts.values());
+    }
+
+    /**
+     * アカウント数を取得します。
+     *
+     * @return アカウント数
+     */
+    public long countAccounts() {
+        Long count = jdbcTemplate.queryForObject("select count(*) from accounts", Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * 指定日の終値を取得します。
+     *
+     * @param businessDate 営業日
+     * @return 銘柄コードごとの終値
+     */
+    public Map<String, ClosingPrice> findClosingPrices(LocalDate businessDate) {
+        Map<String, ClosingPrice> prices = new HashMap<>();
+        jdbcTemplate.query("select symbol, currency, price from closing_prices where business_date = ?",
+                rs -> {
+                    String symbol = rs.getString("symbol");
+                    prices.put(symbol, new ClosingPrice(symbol, rs.getString("currency"),
+                            new BigDecimal(rs.getString("price"))));
+                }, businessDate.toString());
+        return prices;
+    }
+
+    /**
+     * 指定日の終値をまとめて保存します。同じ銘柄の既存の終値は置き換えます。
+     *
+     * @param businessDate 営業日
+     * @param prices       終値
+     * @param updatedAt    更新日時
+     */
+    public void saveClosingPrices(LocalDate businessDate, List<ClosingPrice> prices, Instant updatedAt) {
+        jdbcTemplate.batchUpdate("insert or replace into closing_prices (business_date, symbol, currency, price,"
+                        + " updated_at) values (?, ?, ?, ?, ?)",
+                prices.stream()
+                        .map(price -> new Object[]{businessDate.toString(), price.symbol(), price.currency(),
+                                price.price().toPlainString(), updatedAt.toEpochMilli()})
+                        .toList());
+    }
+
+    /**
+     * 評価額スナップショットをまとめて保存します。同じアカウント・営業日の既存のスナップショットは置き換えます。
+     *
+     * @param snapshots 保存するスナップショット
+     */
+    public void saveSnapshots(List<EquitySnapshot> snapshots) {
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("insert or replace into equity_snapshots (account_id, business_date, currency,"
+                        + " cash_balance, market_value, cost_basis, equity, holding_count, unpriced_holdings, valued_at)"
+                        + " values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                snapshots.stream()
+                        .map(snapshot -> new Object[]{UuidBytes.toBytes(snapshot.accountId()),
+                                snapshot.businessDate().toString(), snapshot.currency(),
+                                snapshot.cashBalance().toPlainString(), snapshot.marketValue().toPlainString(),
+                                snapshot.costBasis().toPlainString(), snapshot.equity().toPlainString(),
+                                snapshot.holdingCount(), snapshot.unpricedHoldings(),
+                                snapshot.valuedAt().toEpochMilli()})
+                        .toList());
+    }
+
+    /**
+     * アカウントの評価額スナップショットを営業日順に取得します。
+     *
+     * @param accountId アカウント ID
+     * @param from      開始日
+     * @param to        終了日
+     * @return スナップショット一覧
+     */
+    public List<EquitySnapshot> findSnapshots(UUID accountId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("select account_id, business_date, currency, cash_balance, market_value, cost_basis,"
+                        + " equity, holding_count, unpriced_holdings, valued_at from equity_snapshots"
+                        + " where account_id = ? and business_date between ? and ? order by business_date",
+                (rs, rowNum) -> toSnapshot(rs), UuidBytes.toBytes(accountId), from.toString(), to.toString());
+    }
+
+    /**
+     * 指定日の実行状況を取得します。
+     *
+     * @param businessDate 営業日
+     * @return 実行状況（未実行の場合は空）
+     */
+    public Optional<RunState> findRun(LocalDate businessDate) {
+        return jdbcTemplate.query("select business_date, status, last_account_id, accounts_total, accounts_valued,"
+                        + " resumed_accounts, chunks_completed, unpriced_holdings, started_at, updated_at, completed_at"
+                        + " from end_of_day_runs where business_date = ?",
+                (rs, rowNum) -> {
+                    byte[] lastAccountId = rs.getBytes("last_account_id");
+                    long completedAt = rs.getLong("completed_at");
+                    boolean completed = !rs.wasNull();
+                    return new RunState(LocalDate.parse(rs.getString("business_date")),
+                            RunStatus.valueOf(rs.getString("status")), lastAccountId != null ? UuidBytes.toUuid(lastAccountId) : null,
+                            rs.getLong("accounts_total"), rs.getLong("accounts_valued"),
+                            rs.getLong("resumed_accounts"), rs.getLong("chunks_completed"),
+                            rs.getLong("unpriced_holdings"), Instant.ofEpochMilli(rs.getLong("started_at")),
+                            Instant.ofEpochMilli(rs.getLong("updated_at")),
+                            completed ? Instant.ofEpochMilli(completedAt) : null);
+                }, businessDate.toString()).stream().findFirst();
+    }
+
+    /**
+     * 実行状況を保存します。同じ営業日の既存の実行状況は置き換えます。
+     *
+     * @param state 実行状況
+     */
+    public void saveRun(RunState state) {
+        jdbcTemplate.update("insert or replace into end_of_day_runs (business_date, status, last_account_id,"
+                        + " accounts_total, accounts_valued, resumed_accounts, chunks_completed, unpriced_holdings,"
+                        + " started_at, updated_at, completed_at) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                state.businessDate().toString(), state.status().name(),
+                state.lastAccountId() != null ? UuidBytes.toBytes(state.lastAccountId()) : null,
+                state.accountsTotal(), state.accountsValued(), state.resumedAccounts(), state.chunksCompleted(),
+                state.unpricedHoldings(), state.startedAt().toEpochMilli(), state.updatedAt().toEpochMilli(),
+                state.completedAt() != null ? state.completedAt().toEpochMilli() : null);
+    }
+
+    private static EquitySnapshot toSnapshot(ResultSet rs) throws SQLException {
+        return new EquitySnapshot(UuidBytes.toUuid(rs.getBytes("account_id")),
+                LocalDate.parse(rs.getString("business_date")), rs.getString("currency"),
+                new BigDecimal(rs.getString("cash_balance")), new BigDecimal(rs.getString("market_value")),
+                new BigDecimal(rs.getString("cost_basis")), new BigDecimal(rs.getString("equity")),
+                rs.getInt("holding_count"), rs.getInt("unpriced_holdings"),
+                Instant.ofEpochMilli(rs.getLong("valued_at")));
+    }
+
+    /**
+     * 評価対象のアカウントの残高と保有銘柄です。
+     *
+     * @param accountId    アカウント ID
+     * @param cashBalance  現金残高
+     * @param cashCurrency 現金残高の通貨
+     * @param holdings     保有銘柄
+     */
+    public record AccountPosition(UUID accountId, BigDecimal cashBalance, String cashCurrency,
+                                  List<HoldingPosition> holdings) {
+    }
+
+    /**
+     * 評価対象の保有銘柄です。
+     *
+     * @param symbol      銘柄コード
+     * @param currency    取得単価の通貨
+     * @param quantity    保有数量
+     * @param averageCost 平均取得単価
+     */
+    public record HoldingPosition(String symbol, String currency, BigDecimal quantity, BigDecimal averageCost) {
+    }
+
+    /**
+     * 銘柄の終値です。
+     *
+     * @param symbol   銘柄コード
+     * @param currency 終値の通貨
+     * @param price    終値
+     */
+    public record ClosingPrice(String symbol, String currency, BigDecimal price) {
+    }
+
+    /**
+     * アカウントの営業日ごとの評価額です。金額はすべて現金残高の通貨建てです。
+     *
+     * @param accountId        アカウント ID
+     * @param businessDate     営業日
+     * @param currency         金額の通貨
+     * @param cashBalance      現金残高
+     * @param marketValue      保有銘柄の時価評価額
+     * @param costBasis        保有銘柄の取得原価
+     * @param equity           現金残高と時価評価額の合計
+     * @param holdingCount     保有銘柄数
+     * @param unpricedHoldings 終値がなく取得原価で評価した保有銘柄数
+     * @param valuedAt         評価日時
+     */
+    public record EquitySnapshot(UUID accountId, LocalDate businessDate, String currency, BigDecimal cashBalance,
+                                 BigDecimal marketValue, BigDecimal costBasis, BigDecimal equity, int holdingCount,
+                                 int unpricedHoldings, Instant valuedAt) {
+    }
+
+    /**
+     * 営業日ごとのバッチの実行状況です。
+     *
+     * @param businessDate     営業日
+     * @param status           状態
+     * @param lastAccountId    完了したチャンクのうち連続して完了している範囲の最終アカウント ID
+     * @param accountsTotal    開始時点のアカウント数
+     * @param accountsValued   評価済みのアカウント数（再開前の分を含む）
+     * @param resumedAccounts  今回の実行を再開した時点で評価済みだったアカウント数
+     * @param chunksCompleted  完了したチャンク数（再開前の分を含む）
+     * @param unpricedHoldings 終値がなく取得原価で評価した保有銘柄数
+     * @param startedAt        今回の実行の開始日時
+     * @param updatedAt        最終更新日時
+     * @param completedAt      完了日時（未完了の場合は {@code null}）
+     */
+    public record RunState(LocalDate businessDate, RunStatus status, UUID lastAccountId, long accountsTotal,
+                           long accountsValued, long resumedAccounts, long chunksCompleted, long unpricedHoldings,
+                           Instant startedAt, Instant updatedAt, Instant completedAt) {
+    }
+
+    /**
+     * バッチの状態です。
+     */
+    public enum RunStatus {
+        /** 実行中、または実行中に停止した */
+        RUNNING,
+        /** すべてのアカウントを評価した */
+        COMPLETED,
+        /** チャンクの評価に失敗した */
+        FAILED
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.stock.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 為替レート（{@code fx_rates}）を JDBC で読み書きするリポジトリです。レートは丸めずに文字列で保存します。
+ */
+@Repository
+public class FxRateRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FxRateRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 保存されているすべてのレートを取得します。
+     *
+     * @return 通貨コードごとの 1 米ドルあたりの額
+     */
+    public Map<String, BigDecimal> findAll() {
+        Map<String, BigDecimal> rates = new LinkedHashMap<>();
+        jdbcTemplate.query("select currency, units_per_usd from fx_rates order by currency",
+                rs -> {
+                    rates.put(rs.getString("currency"), new BigDecimal(rs.getString("units_per_usd")));
+                });
+        return rates;
+    }
+
+    /**
+     * 保存されているレートのうち最も新しい更新日時を取得します。
+     *
+     * @return 更新日時（レートがない場合は {@code null}）
+     */
+    public Instant findLastUpdatedAt() {
+        Long millis = jdbcTemplate.queryForObject("select max(updated_at) from fx_rates", Long.class);
+        return millis == null ? null : Instant.ofEpochMilli(millis);
+    }
+
+    /**
+     * レートをまとめて保存します。同じ通貨の既存のレートは置き換えます。
+     *
+     * @param rates     通貨コードごとの 1 米ドルあたりの額
+     * @param updatedAt 更新日時
+     */
+    public void saveAll(Map<String, BigDecimal> rates, Instant updatedAt) {
+        if (rates.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = rates.entrySet().stream()
+                .map(entry -> new Object[]{entry.getKey(), entry.getValue().toPlainString(), updatedAt.toEpochMilli()})
+                .toList();
+        jdbcTemplate.batchUpdate("insert or replace into fx_rates (currency, units_per_usd, updated_at)"
+                + " values (?, ?, ?)", rows);
+    }
+}
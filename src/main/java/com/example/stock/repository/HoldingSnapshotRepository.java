@@ -0,0 +1,56 @@
+package com.example.stock.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * 保有銘柄の分析用スナップショットを作るため、すべての保有銘柄をエンティティを生成せずに読み出すリポジトリです。
+ */
+@Repository
+public class HoldingSnapshotRepository {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public HoldingSnapshotRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * すべての保有銘柄をアカウント順に 1 行ずつ読み出します。
+     *
+     * @param consumer 1 件ごとに呼び出すコールバック
+     */
+    public void streamHoldings(Consumer<HoldingRow> consumer) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement("select h.account_id, a.change_count, h.symbol, h.exchange,"
+                    + " h.currency, h.quantity, h.average_cost from holdings h join accounts a on a.id = h.account_id"
+                    + " order by h.account_id");
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, rs -> {
+            consumer.accept(new HoldingRow(UuidBytes.toUuid(rs.getBytes("account_id")), rs.getLong("change_count"),
+                    rs.getString("symbol"), rs.getString("exchange"), rs.getString("currency"),
+                    rs.getDouble("quantity"), rs.getDouble("average_cost")));
+        });
+    }
+
+    /**
+     * 分析用に読み出した保有銘柄の 1 行です。
+     *
+     * @param accountId   アカウント ID
+     * @param changeCount 読み出した時点のアカウントの更新回数
+     * @param symbol      銘柄コード
+     * @param exchange    取引市場
+     * @param currency    平均取得単価の通貨
+     * @param quantity    保有数量
+     * @param averageCost 平均取得単価
+     */
+    public record HoldingRow(UUID accountId, long changeCount, String symbol, String exchange, String currency,
+                             double quantity, double averageCost) {
+    }
+}
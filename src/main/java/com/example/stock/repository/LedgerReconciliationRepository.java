@@ -0,0 +1,189 @@
+package com.example.stock.repository;
+
+import com.example.stock.model.TradeSide;
+import com.example.stock.model.TransactionType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * 台帳照合ジョブ向けに、取引履歴・残高・保有数量とチェックポイントを JDBC で直接読み書きするリポジトリです。
+ * <p>
+ * 取引はエンティティを生成せず 1 行ずつコールバックへ渡すため、履歴の長いアカウントでもメモリ使用量が増えません。
+ * Hibernate は UUID を 16 バイトの BLOB として保存するため、アカウント ID は同じ形式で受け渡しします。
+ */
+@Repository
+public class LedgerReconciliationRepository {
+
+    private static final TypeReference<TreeMap<String, BigDecimal>> QUANTITIES_TYPE = new TypeReference<>() {
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public LedgerReconciliationRepository(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * すべてのアカウント ID を取得します。
+     *
+     * @return アカウント ID 一覧
+     */
+    public List<UUID> findAccountIds() {
+        return jdbcTemplate.query("select id from accounts order by id",
+                (rs, rowNum) -> UuidBytes.toUuid(rs.getBytes("id")));
+    }
+
+    /**
+     * アカウントの現金残高を取得します。
+     *
+     * @param accountId アカウント ID
+     * @return 現金残高（アカウントが存在しない場合は空）
+     */
+    public Optional<BigDecimal> findCashBalance(UUID accountId) {
+        return jdbcTemplate.query("select cash_balance from accounts where id = ?",
+                (rs, rowNum) -> rs.getBigDecimal("cash_balance"), UuidBytes.toBytes(accountId)).stream().findFirst();
+    }
+
+    /**
+     * アカウントの銘柄別の保有数量を取得します。
+     *
+     * @param accountId アカウント ID
+     * @return 銘柄コードと保有数量
+     */
+    public Map<String, BigDecimal> findHoldingQuantities(UUID accountId) {
+        Map<String, BigDecimal> quantities = new HashMap<>();
+        jdbcTemplate.query("select symbol, quantity from holdings where account_id = ?",
+                rs -> {
+                    quantities.merge(rs.getString("symbol"), rs.getBigDecimal("quantity"), BigDecimal::add);
+                }, UuidBytes.toBytes(accountId));
+        return quantities;
+    }
+
+    /**
+     * 指定した取引 ID より後に記録された取引を発生日時順（同時刻は ID 順）に読み出します。
+     *
+     * @param accountId         アカウント ID
+     * @param afterTransactionId この ID より大きい取引のみを対象にします（先頭から読む場合は 0）
+     * @param consumer          1 件ごとに呼び出すコールバック
+     */
+    public void streamTransactions(UUID accountId, long afterTransactionId, Consumer<LedgerEntry> consumer) {
+        jdbcTemplate.query("select id, type, trade_side, symbol, quantity, cash_amount, cash_balance_after, occurred_at"
+                        + " from transactions where account_id = ? and id > ? order by occurred_at, id",
+                rs -> {
+                    String side = rs.getString("trade_side");
+                    consumer.accept(new LedgerEntry(rs.getLong("id"), TransactionType.valueOf(rs.getString("type")),
+                            side != null ? TradeSide.valueOf(side) : null, rs.getString("symbol"),
+                            rs.getBigDecimal("quantity"), rs.getBigDecimal("cash_amount"),
+                            rs.getBigDecimal("cash_balance_after"), Instant.ofEpochMilli(rs.getLong("occurred_at"))));
+                }, UuidBytes.toBytes(accountId), afterTransactionId);
+    }
+
+    /**
+     * すべてのチェックポイントを取得します。
+     *
+     * @return アカウント ID ごとのチェックポイント
+     */
+    public Map<UUID, Checkpoint> findCheckpoints() {
+        Map<UUID, Checkpoint> checkpoints = new HashMap<>();
+        jdbcTemplate.query("select account_id, last_transaction_id, transaction_count, cash_balance,"
+                        + " holding_quantities, reconciled_at from reconciliation_checkpoints",
+                rs -> {
+                    UUID accountId = UuidBytes.toUuid(rs.getBytes("account_id"));
+                    checkpoints.put(accountId, new Checkpoint(accountId, rs.getLong("last_transaction_id"),
+                            rs.getLong("transaction_count"), new BigDecimal(rs.getString("cash_balance")),
+                            readQuantities(rs.getString("holding_quantities")),
+                            Instant.ofEpochMilli(rs.getLong("reconciled_at"))));
+                });
+        return checkpoints;
+    }
+
+    /**
+     * チェックポイントをまとめて保存します。同じアカウントの既存のチェックポイントは置き換えます。
+     *
+     * @param checkpoints 保存するチェックポイント
+     */
+    public void saveCheckpoints(List<Checkpoint> checkpoints) {
+        if (checkpoints.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("insert or replace into reconciliation_checkpoints (account_id, last_transaction_id,"
+                        + " transaction_count, cash_balance, holding_quantities, reconciled_at) values (?, ?, ?, ?, ?, ?)",
+                checkpoints.stream()
+                        .map(checkpoint -> new Object[]{UuidBytes.toBytes(checkpoint.accountId()),
+                                checkpoint.lastTransactionId(), checkpoint.transactionCount(),
+                                checkpoint.cashBalance().toPlainString(),
+                                writeQuantities(checkpoint.holdingQuantities()),
+                                checkpoint.reconciledAt().toEpochMilli()})
+                        .toList());
+    }
+
+    /**
+     * すべてのチェックポイントを削除します。
+     *
+     * @return 削除した件数
+     */
+    public int deleteCheckpoints() {
+        return jdbcTemplate.update("delete from reconciliation_checkpoints");
+    }
+
+    private Map<String, BigDecimal> readQuantities(String json) {
+        try {
+            return objectMapper.readValue(json, QUANTITIES_TYPE);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Corrupted reconciliation checkpoint", ex);
+        }
+    }
+
+    private String writeQuantities(Map<String, BigDecimal> quantities) {
+        try {
+            return objectMapper.writeValueAsString(new TreeMap<>(quantities));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * 照合に必要な取引の項目です。
+     *
+     * @param id               取引 ID
+     * @param type             取引種別
+     * @param side             売買区分（売買以外は {@code null}）
+     * @param symbol           銘柄コード（売買以外は {@code null}）
+     * @param quantity         数量（売買以外は {@code null}）
+     * @param cashAmount       現金の増減額
+     * @param cashBalanceAfter 取引後の現金残高
+     * @param occurredAt       発生日時
+     */
+    public record LedgerEntry(long id, TransactionType type, TradeSide side, String symbol, BigDecimal quantity,
+                              BigDecimal cashAmount, BigDecimal cashBalanceAfter, Instant occurredAt) {
+    }
+
+    /**
+     * アカウントごとの照合済み位置と、その時点までの取引から求めた残高・保有数量です。
+     *
+     * @param accountId         アカウント ID
+     * @param lastTransactionId 照合済みの最大の取引 ID
+     * @param transactionCount  照合済みの取引件数
+     * @param cashBalance       照合済みの取引の現金増減額の合計
+     * @param holdingQuantities 照合済みの売買から求めた銘柄別の純保有数量
+     * @param reconciledAt      照合日時
+     */
+    public record Checkpoint(UUID accountId, long lastTransactionId, long transactionCount, BigDecimal cashBalance,
+                             Map<String, BigDecimal> holdingQuantities, Instant reconciledAt) {
+    }
+}
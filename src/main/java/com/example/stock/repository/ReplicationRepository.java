@@ -0,0 +1,171 @@
+package com.example.stock.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 変更ログによるレプリケーションのために、アカウント単位の行イメージを読み書きするリポジトリです。
+ * <p>
+ * 行イメージは列名と SQLite に保存されている値（整数・実数・文字列・BLOB）の組で、型を変換せずにそのまま写します。
+ * 適用時はアカウントの保有銘柄と税務ロットを削除してから書き直すため、同じイメージを何度適用しても結果は変わりません。
+ * レプリケーションの位置は {@code replication_state} の 1 行に保存します。
+ */
+@Repository
+public class ReplicationRepository {
+
+    private static final Pattern COLUMN_NAME = Pattern.compile("[a-z_]+");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReplicationRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * アカウントと保有銘柄・税務ロット・読み取りモデルの現在の行イメージを取得します。
+     *
+     * @param accountId アカウント ID
+     * @return 行イメージ（アカウントが存在しない場合は空）
+     */
+    public Optional<AccountImage> findAccountImage(UUID accountId) {
+        byte[] id = UuidBytes.toBytes(accountId);
+        List<Map<String, Object>> account = jdbcTemplate.queryForList("select * from accounts where id = ?", id);
+        if (account.isEmpty()) {
+            return Optional.empty();
+        }
+        List<Map<String, Object>> holdings = jdbcTemplate.queryForList(
+                "select * from holdings where account_id = ? order by id", id);
+        List<Map<String, Object>> taxLots = jdbcTemplate.queryForList(
+                "select l.* from tax_lots l join holdings h on h.id = l.holding_id where h.account_id = ? "
+                        + "order by l.id", id);
+        List<Map<String, Object>> summary = jdbcTemplate.queryForList(
+                "select * from account_summaries where account_id = ?", id);
+        return Optional.of(new AccountImage(accountId, account.get(0), holdings, taxLots,
+                summary.isEmpty() ? null : summary.get(0)));
+    }
+
+    /**
+     * 指定 ID より後に記録された取引の行イメージを ID 順に取得します。
+     *
+     * @param afterId この ID より大きい取引を対象にします
+     * @return 取引の行イメージ
+     */
+    public List<Map<String, Object>> findTransactionsAfter(long afterId) {
+        return jdbcTemplate.queryForList("select * from transactions where id > ? order by id", afterId);
+    }
+
+    /**
+     * 記録済みの取引 ID の最大値を取得します。
+     *
+     * @return 取引 ID の最大値（取引がない場合は 0）
+     */
+    public long findMaxTransactionId() {
+        Long id = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from transactions", Long.class);
+        return id == null ? 0 : id;
+    }
+
+    /**
+     * アカウントの行イメージを適用します。
+     *
+     * @param image 行イメージ
+     */
+    public void applyAccountImage(AccountImage image) {
+        byte[] id = UuidBytes.toBytes(image.accountId());
+        jdbcTemplate.update("delete from tax_lots where holding_id in (select id from holdings where account_id = ?)",
+                id);
+        jdbcTemplate.update("delete from holdings where account_id = ?", id);
+        upsert("accounts", "id", image.account());
+        image.holdings().forEach(row -> upsert("holdings", "id", row));
+        image.taxLots().forEach(row -> upsert("tax_lots", "id", row));
+        if (image.summary() != null) {
+            upsert("account_summaries", "account_id", image.summary());
+        }
+    }
+
+    /**
+     * 取引の行イメージを適用します。
+     *
+     * @param rows 取引の行イメージ
+     */
+    public void applyTransactions(List<Map<String, Object>> rows) {
+        rows.forEach(row -> upsert("transactions", "id", row));
+    }
+
+    /**
+     * 保存済みのレプリケーションの位置を取得します。
+     *
+     * @return レプリケーションの位置
+     */
+    public State loadState() {
+        return jdbcTemplate.queryForObject("select last_seq, log_offset, updated_at from replication_state where id = 1",
+                (rs, rowNum) -> new State(rs.getLong("last_seq"), rs.getLong("log_offset"),
+                        Instant.ofEpochMilli(rs.getLong("updated_at"))));
+    }
+
+    /**
+     * レプリケーションの位置を保存します。
+     *
+     * @param lastSeq   最後に発番または適用した変更ログの連番
+     * @param logOffset 変更ログの読み取り位置（プライマリでは 0）
+     * @param updatedAt 更新日時
+     */
+    public void saveState(long lastSeq, long logOffset, Instant updatedAt) {
+        jdbcTemplate.update("update replication_state set last_seq = ?, log_offset = ?, updated_at = ? where id = 1",
+                lastSeq, logOffset, updatedAt.toEpochMilli());
+    }
+
+    private void upsert(String table, String key, Map<String, Object> row) {
+        List<String> columns = new ArrayList<>(row.keySet());
+        for (String column : columns) {
+            if (!COLUMN_NAME.matcher(column).matches()) {
+                throw new IllegalArgumentException("Invalid column name in row image of " + table + ": " + column);
+            }
+        }
+        String updates = columns.stream()
+                .filter(column -> !column.equals(key))
+                .map(column -> column + " = excluded." + column)
+                .collect(Collectors.joining(", "));
+        String sql = "insert into " + table + " (" + String.join(", ", columns) + ") values ("
+                + columns.stream().map(column -> "?").collect(Collectors.joining(", ")) + ") on conflict (" + key
+                + ") do " + (updates.isEmpty() ? "nothing" : "update set " + updates);
+        jdbcTemplate.update(sql, columns.stream().map(row::get).toArray());
+    }
+
+    /**
+     * 1 アカウント分の行イメージです。
+     *
+     * @param accountId アカウント ID
+     * @param account   {@code accounts} の行
+     * @param holdings  {@code holdings} の行
+     * @param taxLots   {@code tax_lots} の行
+     * @param summary   {@code account_summaries} の行（未作成の場合は {@code null}）
+     */
+    public record AccountImage(UUID accountId, Map<String, Object> account, List<Map<String, Object>> holdings,
+                               List<Map<String, Object>> taxLots, Map<String, Object> summary) {
+        public AccountImage {
+            account = new LinkedHashMap<>(account);
+            holdings = List.copyOf(holdings);
+            taxLots = List.copyOf(taxLots);
+        }
+    }
+
+    /**
+     * レプリケーションの位置です。
+     *
+     * @param lastSeq   最後に発番または適用した変更ログの連番
+     * @param logOffset 変更ログの読み取り位置
+     * @param updatedAt 更新日時
+     */
+    public record State(long lastSeq, long logOffset, Instant updatedAt) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.stock.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * 起動時のスキーマ移行を構成します。
+ * <p>
+ * Hibernate がスキーマを参照する前に移行を終えるよう、{@code entityManagerFactory} を {@link SchemaMigrator} に依存させます。
+ */
+@Configuration
+public class SchemaMigrationConfiguration {
+
+    static final String MIGRATOR_BEAN = "schemaMigrator";
+
+    @Bean(MIGRATOR_BEAN)
+    public SchemaMigrator schemaMigrator(DataSource dataSource,
+                                         @Value("${app.schema.migrate-on-startup:true}") boolean migrateOnStartup) {
+        SchemaMigrator migrator = new SchemaMigrator(dataSource);
+        if (migrateOnStartup) {
+            migrator.migrate();
+        }
+        return migrator;
+    }
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor schemaMigratorDependsOnPostProcessor() {
+        return new EntityManagerFactoryDependsOnPostProcessor(MIGRATOR_BEAN);
+    }
+}
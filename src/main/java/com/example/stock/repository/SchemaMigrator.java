@@ -0,0 +1,145 @@
+package com.example.stock.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * {@code db/migration} 配下の SQL スクリプトでスキーマをバージョン管理するマイグレーターです。
+ * <p>
+ * 適用済みのバージョンは {@code schema_version} テーブルに記録し、起動時は最新バージョンを 1 回読み取るだけで
+ * 適用の要否を判定します。スクリプトはクラスパスを走査せず {@link #MIGRATIONS} に列挙した順に適用し、
+ * 1 バージョンごとにスクリプトと履歴の記録を同一トランザクションで実行します。
+ */
+public class SchemaMigrator {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrator.class);
+
+    /** 適用順に並べたマイグレーションスクリプト。新しいスクリプトは末尾へ追加します。 */
+    static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "baseline", "db/migration/V1__baseline.sql"),
+            new Migration(2, "ledger_reconciliation", "db/migration/V2__ledger_reconciliation.sql"),
+            new Migration(3, "transfer_in_type", "db/migration/V3__transfer_in_type.sql"),
+            new Migration(4, "account_summaries", "db/migration/V4__account_summaries.sql"),
+            new Migration(5, "currencies", "db/migration/V5__currencies.sql"),
+            new Migration(6, "end_of_day_valuation", "db/migration/V6__end_of_day_valuation.sql"),
+            new Migration(7, "transaction_search_indexes", "db/migration/V7__transaction_search_indexes.sql"),
+            new Migration(8, "replication_state", "db/migration/V8__replication_state.sql"),
+            new Migration(9, "settlement_cost", "db/migration/V9__settlement_cost.sql"),
+            new Migration(10, "aggregate_settlement_amounts", "db/migration/V10__aggregate_settlement_amounts.sql"),
+            new Migration(11, "daily_aggregate_key", "db/migration/V11__daily_aggregate_key.sql"),
+            new Migration(12, "access_log_rollup_compaction", "db/migration/V12__access_log_rollup_compaction.sql"),
+            new Migration(13, "access_log_partition_template", "db/migration/V13__access_log_partition_template.sql"));
+
+    private static final String TABLE = "schema_version";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public SchemaMigrator(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * 未適用のマイグレーションを順に適用します。
+     *
+     * @return 適用後のスキーマバージョン
+     */
+    public int migrate() {
+        int current = currentVersion();
+        int latest = MIGRATIONS.get(MIGRATIONS.size() - 1).version();
+        if (current >= latest) {
+            log.debug("Schema is up to date at version {}", current);
+            return current;
+        }
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version() > current) {
+                apply(migration);
+                current = migration.version();
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 適用済みの最新バージョンを取得します。
+     *
+     * @return スキーマバージョン（未適用の場合は 0）
+     */
+    public int currentVersion() {
+        try {
+            Integer version = jdbcTemplate.queryForObject("select max(version) from " + TABLE, Integer.class);
+            return version == null ? 0 : version;
+        } catch (DataAccessException ex) {
+            if (tableExists()) {
+                throw ex;
+            }
+            return 0;
+        }
+    }
+
+    private boolean tableExists() {
+        Integer count = jdbcTemplate.queryForObject(
+                "select count(*) from sqlite_master where type = 'table' and name = ?", Integer.class, TABLE);
+        return count != null && count > 0;
+    }
+
+    private void apply(Migration migration) {
+        long started = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("create table if not exists " + TABLE + " ("
+                            + "version integer primary key, "
+                            + "description varchar(200) not null, "
+                            + "installed_at varchar(40) not null)");
+                }
+                ScriptUtils.executeSqlScript(connection,
+                        new EncodedResource(new ClassPathResource(migration.script()), StandardCharsets.UTF_8));
+                try (PreparedStatement insert = connection.prepareStatement(
+                        "insert into " + TABLE + " (version, description, installed_at) values (?, ?, ?)")) {
+                    insert.setInt(1, migration.version());
+                    insert.setString(2, migration.description());
+                    insert.setString(3, Instant.now().toString());
+                    insert.executeUpdate();
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to apply schema migration V" + migration.version(), ex);
+        }
+        log.info("Applied schema migration V{} ({}) in {} ms", migration.version(), migration.description(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * マイグレーションスクリプトの定義です。
+     *
+     * @param version     スキーマバージョン
+     * @param description 説明
+     * @param script      クラスパス上のスクリプト
+     */
+    record Migration(int version, String description, String script) {
+    }
+}
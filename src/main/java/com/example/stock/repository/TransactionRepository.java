@@ -1,6 +1,7 @@
 package com.example.stock.repository;
 
 import com.example.stock.model.Transaction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
@@ -18,4 +19,21 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
      * @return トランザクション一覧
      */
     List<Transaction> findByAccountIdOrderByOccurredAtDesc(UUID accountId);
+
+    /**
+     * 指定されたアカウントのトランザクションを発生順に取得します。
+     *
+     * @param accountId アカウント識別子
+     * @return トランザクション一覧
+     */
+    List<Transaction> findByAccountIdOrderByIdAsc(UUID accountId);
+
+    /**
+     * 指定 ID より後のトランザクションを ID 順に取得します（キーセットページング用）。
+     *
+     * @param afterId  直前ページの最終 ID
+     * @param pageable 取得件数
+     * @return トランザクション一覧
+     */
+    List<Transaction> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
 }
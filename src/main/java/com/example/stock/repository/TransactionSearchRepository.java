@@ -0,0 +1,172 @@
+package com.example.stock.repository;
+
+import com.example.stock.model.TradeSide;
+import com.example.stock.model.TransactionType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 取引履歴を条件で絞り込み、発生日時の新しい順にキーセットページングで読み出すリポジトリです。
+ * <p>
+ * 条件ごとに {@code V7__transaction_search_indexes.sql} の複合索引のいずれかを使えるよう、
+ * 等価条件の列を先頭に、並び順の {@code (occurred_at, id)} を末尾に置いた索引に合わせて SQL を組み立てます。
+ * 続きのページは直前のページの最後の {@code (occurred_at, id)} より前の行として読むため、
+ * 何ページ目であっても読み飛ばす行は発生しません。
+ */
+@Repository
+public class TransactionSearchRepository {
+
+    private static final String COLUMNS = "id, account_id, type, trade_side, symbol, exchange, quantity,"
+            + " price_per_share, currency, fx_rate, cash_amount, gross_amount, cash_balance_after, realized_pnl,"
+            + " occurred_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransactionSearchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 条件に一致する取引を発生日時の新しい順（同時刻は ID の大きい順）に取得します。
+     *
+     * @param criteria 検索条件
+     * @param after    この位置より後（古い側）の取引のみを対象にします（先頭から読む場合は {@code null}）
+     * @param limit    最大件数
+     * @return 取引一覧
+     */
+    public List<TransactionMatch> search(Criteria criteria, Cursor after, int limit) {
+        Query query = buildQuery(criteria, after, limit);
+        return jdbcTemplate.query(query.sql(), (rs, rowNum) -> toMatch(rs), query.args().toArray());
+    }
+
+    /**
+     * 検索条件から SQL とバインド値を組み立てます。
+     * <p>
+     * 売買区分だけを指定した場合は売買の取引に限られるため、取引種別 {@code TRADE} の条件を補って
+     * {@code (type, trade_side, occurred_at, id)} の索引を使えるようにします。
+     */
+    static Query buildQuery(Criteria criteria, Cursor after, int limit) {
+        StringBuilder sql = new StringBuilder("select ").append(COLUMNS).append(" from transactions where 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (criteria.accountId() != null) {
+            sql.append(" and account_id = ?");
+            args.add(UuidBytes.toBytes(criteria.accountId()));
+        }
+        if (criteria.symbol() != null) {
+            sql.append(" and symbol = ?");
+            args.add(criteria.symbol());
+        }
+        if (criteria.exchange() != null) {
+            sql.append(" and exchange = ?");
+            args.add(criteria.exchange());
+        }
+        TransactionType type = criteria.type() == null && criteria.side() != null
+                ? TransactionType.TRADE : criteria.type();
+        if (type != null) {
+            sql.append(" and type = ?");
+            args.add(type.name());
+        }
+        if (criteria.side() != null) {
+            sql.append(" and trade_side = ?");
+            args.add(criteria.side().name());
+        }
+        // 式と比較するため、文字列ではなく数値としてバインドします。
+        if (criteria.minAmount() != null) {
+            sql.append(" and abs(cash_amount) >= ?");
+            args.add(criteria.minAmount().doubleValue());
+        }
+        if (criteria.maxAmount() != null) {
+            sql.append(" and abs(cash_amount) <= ?");
+            args.add(criteria.maxAmount().doubleValue());
+        }
+        if (criteria.from() != null) {
+            sql.append(" and occurred_at >= ?");
+            args.add(criteria.from().toEpochMilli());
+        }
+        if (criteria.to() != null) {
+            sql.append(" and occurred_at < ?");
+            args.add(criteria.to().toEpochMilli());
+        }
+        if (after != null) {
+            sql.append(" and (occurred_at, id) < (?, ?)");
+            args.add(after.occurredAt().toEpochMilli());
+            args.add(after.id());
+        }
+        sql.append(" order by occurred_at desc, id desc limit ?");
+        args.add(limit);
+        return new Query(sql.toString(), args);
+    }
+
+    private static TransactionMatch toMatch(ResultSet rs) throws SQLException {
+        String side = rs.getString("trade_side");
+        return new TransactionMatch(rs.getLong("id"), UuidBytes.toUuid(rs.getBytes("account_id")),
+                TransactionType.valueOf(rs.getString("type")), side != null ? TradeSide.valueOf(side) : null,
+                rs.getString("symbol"), rs.getString("exchange"), rs.getBigDecimal("quantity"),
+                rs.getBigDecimal("price_per_share"), rs.getString("currency"), rs.getBigDecimal("fx_rate"),
+                rs.getBigDecimal("cash_amount"), rs.getBigDecimal("gross_amount"),
+                rs.getBigDecimal("cash_balance_after"), rs.getBigDecimal("realized_pnl"),
+                Instant.ofEpochMilli(rs.getLong("occurred_at")));
+    }
+
+    /**
+     * 取引の検索条件です。{@code null} の項目は条件に含めません。
+     *
+     * @param accountId アカウント ID
+     * @param symbol    銘柄コード
+     * @param exchange  取引市場
+     * @param type      取引種別
+     * @param side      売買区分
+     * @param minAmount 現金の増減額の絶対値の下限（以上）
+     * @param maxAmount 現金の増減額の絶対値の上限（以下）
+     * @param from      発生日時の下限（以上）
+     * @param to        発生日時の上限（未満）
+     */
+    public record Criteria(UUID accountId, String symbol, String exchange, TransactionType type, TradeSide side,
+                           BigDecimal minAmount, BigDecimal maxAmount, Instant from, Instant to) {
+    }
+
+    /**
+     * キーセットページングの位置です。
+     *
+     * @param occurredAt 直前のページの最後の取引の発生日時
+     * @param id         直前のページの最後の取引 ID
+     */
+    public record Cursor(Instant occurredAt, long id) {
+    }
+
+    /**
+     * 検索に一致した取引です。
+     *
+     * @param id               取引 ID
+     * @param accountId        アカウント ID
+     * @param type             取引種別
+     * @param side             売買区分
+     * @param symbol           銘柄コード
+     * @param exchange         取引市場
+     * @param quantity         数量
+     * @param pricePerShare    約定単価
+     * @param currency         約定単価の通貨
+     * @param fxRate           受渡金額の換算に使った為替レート
+     * @param cashAmount       現金の増減額
+     * @param grossAmount      約定金額
+     * @param cashBalanceAfter 取引後の現金残高
+     * @param realizedPnl      実現損益
+     * @param occurredAt       発生日時
+     */
+    public record TransactionMatch(long id, UUID accountId, TransactionType type, TradeSide side, String symbol,
+                                   String exchange, BigDecimal quantity, BigDecimal pricePerShare, String currency,
+                                   BigDecimal fxRate, BigDecimal cashAmount, BigDecimal grossAmount,
+                                   BigDecimal cashBalanceAfter, BigDecimal realizedPnl, Instant occurredAt) {
+    }
+
+    record Query(String sql, List<Object> args) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.stock.repository;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Hibernate が 16 バイトの BLOB として保存する UUID を JDBC で読み書きするための変換です。
+ */
+final class UuidBytes {
+
+    private UuidBytes() {
+    }
+
+    static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    static UUID toUuid(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.stock.service;
+
+import com.example.stock.model.AccessLog;
+
+import java.util.Objects;
+
+/**
+ * {@link AccessLogService} がアクセスログを保存した直後に発行されるイベントです。
+ * <p>
+ * 同一トランザクション内で同期的に配信されます。
+ *
+ * @param accessLog 保存済みのアクセスログ
+ */
+public record AccessLogRecordedEvent(AccessLog accessLog) {
+    public AccessLogRecordedEvent {
+        Objects.requireNonNull(accessLog, "accessLog");
+    }
+}
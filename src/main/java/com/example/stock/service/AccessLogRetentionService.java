@@ -0,0 +1,172 @@
+package com.example.stock.service;
+
+import com.example.stock.model.AccessLog;
+import com.example.stock.repository.AccessLogPartitionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 保持期間を過ぎたアクセスログの月パーティションを圧縮アーカイブへ退避し、稼働中のデータベースから削除します。
+ * <p>
+ * パーティションはチャンク単位の読み出しで gzip 圧縮した NDJSON へ書き出し、
+ * 書き込みが完了した後にテーブルごと削除するため、取引の書き込みを長時間ブロックしません。
+ * 削除後は、稼働中のパーティションから参照されなくなった辞書の値も削除します。
+ */
+@Service
+public class AccessLogRetentionService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessLogRetentionService.class);
+
+    private static final int EXPORT_CHUNK_SIZE = 1000;
+    private static final String ARCHIVE_PREFIX = "access_logs_";
+    private static final String ARCHIVE_SUFFIX = ".ndjson.gz";
+    private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final AccessLogPartitionRepository repository;
+    private final ObjectMapper objectMapper;
+    private final int retentionMonths;
+    private final Path archiveDirectory;
+
+    public AccessLogRetentionService(
+            AccessLogPartitionRepository repository,
+            ObjectMapper objectMapper,
+            @Value("${app.access-log.retention-months:6}") int retentionMonths,
+            @Value("${app.access-log.archive-dir:archive/access-logs}") String archiveDirectory) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.retentionMonths = Math.max(1, retentionMonths);
+        this.archiveDirectory = Path.of(archiveDirectory);
+    }
+
+    /**
+     * 保持期間（当月を含まない過去 N か月）より古いパーティションをすべてアーカイブします。
+     *
+     * @return アーカイブしたパーティション
+     */
+    @Scheduled(cron = "${app.access-log.retention-cron:0 30 3 * * *}", zone = "UTC")
+    public synchronized List<ArchivedPartition> archiveExpiredPartitions() {
+        YearMonth cutoff = YearMonth.now(ZoneOffset.UTC).minusMonths(retentionMonths);
+        List<ArchivedPartition> archived = new ArrayList<>();
+        for (YearMonth partition : repository.findPartitions()) {
+            if (partition.isBefore(cutoff)) {
+                archived.add(archive(partition));
+            }
+        }
+        if (!archived.isEmpty()) {
+            int purged = repository.purgeDictionary();
+            if (purged < 0) {
+                log.warn("Skipped purging the access log dictionary because concurrent writes held the lock");
+            } else {
+                log.info("Purged {} access log dictionary values no longer referenced by live partitions", purged);
+            }
+        }
+        return archived;
+    }
+
+    /**
+     * 指定パーティションを圧縮アーカイブへ書き出し、テーブルを削除します。
+     *
+     * @param partition 対象の年月
+     * @return アーカイブ結果
+     */
+    public synchronized ArchivedPartition archive(YearMonth partition) {
+        Path target = archiveDirectory.resolve(ARCHIVE_PREFIX + partition.format(SUFFIX_FORMAT) + ARCHIVE_SUFFIX);
+        try {
+            Files.createDirectories(archiveDirectory);
+            Path temporary = Files.createTempFile(archiveDirectory, ARCHIVE_PREFIX, ".tmp");
+            long rows;
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(temporary)), StandardCharsets.UTF_8))) {
+                rows = repository.forEachInPartition(partition, EXPORT_CHUNK_SIZE, entry -> writeLine(writer, entry));
+            } catch (IOException | UncheckedIOException ex) {
+                Files.deleteIfExists(temporary);
+                throw ex;
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            repository.dropPartition(partition);
+            log.info("Archived {} access logs of {} to {}", rows, partition, target);
+            return new ArchivedPartition(partition, rows, target.toString(), Files.size(target));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to archive access log partition " + partition, ex);
+        }
+    }
+
+    /**
+     * アーカイブ済みのファイルを新しい順に取得します。
+     *
+     * @return アーカイブ一覧（行数は不明のため {@code -1}）
+     */
+    public List<ArchivedPartition> getArchives() {
+        if (!Files.isDirectory(archiveDirectory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(archiveDirectory)) {
+            return files
+                    .filter(file -> file.getFileName().toString().matches(ARCHIVE_PREFIX + "\\d{6}\\.ndjson\\.gz"))
+                    .map(this::describeArchive)
+                    .sorted((a, b) -> b.partition().compareTo(a.partition()))
+                    .toList();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to list access log archives", ex);
+        }
+    }
+
+    private ArchivedPartition describeArchive(Path file) {
+        String name = file.getFileName().toString();
+        YearMonth partition = YearMonth.parse(
+                name.substring(ARCHIVE_PREFIX.length(), name.length() - ARCHIVE_SUFFIX.length()), SUFFIX_FORMAT);
+        try {
+            return new ArchivedPartition(partition, -1, file.toString(), Files.size(file));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void writeLine(Writer writer, AccessLog entry) {
+        try {
+            writer.write(objectMapper.writeValueAsString(new ArchivedAccessLog(entry.getId(), entry.getPage(),
+                    entry.getPath(), entry.getIpAddress(), entry.getUserAgent(), entry.getAccessedAt())));
+            writer.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private record ArchivedAccessLog(UUID id, String page, String path, String ipAddress, String userAgent,
+                                     Instant accessedAt) {
+    }
+
+    /**
+     * アーカイブ済みパーティションの情報です。
+     *
+     * @param partition 対象の年月
+     * @param rows      書き出した行数（不明な場合は {@code -1}）
+     * @param file      アーカイブファイルのパス
+     * @param bytes     アーカイブファイルのサイズ
+     */
+    public record ArchivedPartition(YearMonth partition, long rows, String file, long bytes) {
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.stock.service;
+
+import com.example.stock.model.AccessLog;
+import com.example.stock.model.AccessLogRollup;
+import com.example.stock.model.RollupGranularity;
+import com.example.stock.repository.AccessLogRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * アクセスログをページ・時間バケット単位で集計するサービスです。
+ * <p>
+ * 取り込み時は分バケットのアクセス件数とユニーク IP の HyperLogLog スケッチだけを更新し、時・日のバケットは
+ * {@link #compactClosedHours()} が締まった時間帯の分バケットをまとめて作成します。まだまとめていない分バケットは
+ * 時・日の問い合わせ時に合算するため、トラフィック分析は {@code access_logs} を走査せずに集計バケットのみで回答できます。
+ * まとめ済みの時間帯のアクセスログを後から取り込んだ場合（変更ログの適用など）は、時・日のバケットも直接更新します。
+ */
+@Service
+@Transactional
+public class AccessLogRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessLogRollupService.class);
+
+    /** 1 回の問い合わせで返却するバケット数の上限。 */
+    public static final int MAX_BUCKETS = 1500;
+
+    private final AccessLogRollupRepository repository;
+
+    public AccessLogRollupService(AccessLogRollupRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * 保存されたアクセスログを分バケットへ反映します。時・日のバケットへまとめ済みの時刻の場合はそれらも更新します。
+     *
+     * @param accessLog 保存済みのアクセスログ
+     */
+    public void record(AccessLog accessLog) {
+        HyperLogLog sketch = new HyperLogLog();
+        sketch.add(accessLog.getIpAddress());
+        Instant minute = RollupGranularity.MINUTE.bucketStart(accessLog.getAccessedAt());
+        add(RollupGranularity.MINUTE, minute, accessLog.getPage(), 1, sketch);
+        if (minute.isBefore(repository.findCompactedUntil())) {
+            add(RollupGranularity.HOUR, RollupGranularity.HOUR.bucketStart(minute), accessLog.getPage(), 1, sketch);
+            add(RollupGranularity.DAY, RollupGranularity.DAY.bucketStart(minute), accessLog.getPage(), 1, sketch);
+        }
+    }
+
+    /**
+     * 締まった時間帯（現在の正時より前）の分バケットを時・日のバケットへまとめます。
+     */
+    @Scheduled(cron = "${app.access-log.rollup-compaction-cron:0 5 * * * *}", zone = "UTC")
+    public void compactClosedHours() {
+        compact(Instant.now());
+    }
+
+    /**
+     * 指定時刻を含む時間帯より前の、まだまとめていない分バケットを時・日のバケットへまとめます。
+     * <p>
+     * 分バケットのある時間帯だけを古い順に読み、ページごとに合算して時・日のバケットへ加算します。
+     *
+     * @param until この時刻を含む時間帯の直前までをまとめます
+     * @return まとめた分バケット数
+     */
+    public long compact(Instant until) {
+        Instant target = RollupGranularity.HOUR.bucketStart(until);
+        Instant compactedUntil = repository.findCompactedUntil();
+        if (!compactedUntil.isBefore(target)) {
+            return 0;
+        }
+        long compacted = 0;
+        while (compactedUntil.isBefore(target)) {
+            Optional<AccessLogRollup> next = repository
+                    .findFirstByGranularityAndBucketStartGreaterThanEqualOrderByBucketStartAsc(
+                            RollupGranularity.MINUTE, compactedUntil);
+            if (next.isEmpty() || !next.get().getBucketStart().isBefore(target)) {
+                compactedUntil = target;
+                break;
+            }
+            Instant hour = RollupGranularity.HOUR.bucketStart(next.get().getBucketStart());
+            Instant hourEnd = hour.plus(RollupGranularity.HOUR.bucketSize());
+            Instant from = hour.isBefore(compactedUntil) ? compactedUntil : hour;
+            Map<String, BucketAccumulator> pages = new TreeMap<>();
+            for (AccessLogRollup minute : repository
+                    .findByGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+                            RollupGranularity.MINUTE, from, hourEnd)) {
+                pages.computeIfAbsent(minute.getPage(), key -> new BucketAccumulator())
+                        .add(minute, HyperLogLog.fromBytes(minute.getUniqueIpSketch()));
+                compacted++;
+            }
+            pages.forEach((page, accumulator) -> {
+                add(RollupGranularity.HOUR, hour, page, accumulator.hits, accumulator.sketch);
+                add(RollupGranularity.DAY, RollupGranularity.DAY.bucketStart(hour), page, accumulator.hits,
+                        accumulator.sketch);
+            });
+            compactedUntil = hourEnd;
+        }
+        repository.saveCompactedUntil(compactedUntil);
+        log.debug("Compacted {} minute rollups into hours and days until {}", compacted, compactedUntil);
+        return compacted;
+    }
+
+    /**
+     * 指定期間の時系列集計を取得します。
+     * <p>
+     * 時・日の粒度では、まだまとめていない分バケットを同じ粒度のバケットへ合算して返します。
+     *
+     * @param granularity 時間粒度
+     * @param page        画面種別（{@code null} の場合は全ページ合算）
+     * @param from        開始時刻（含む）
+     * @param to          終了時刻（含まない）
+     * @return 時系列集計
+     */
+    @Transactional(readOnly = true)
+    public TrafficStats getStats(RollupGranularity granularity, String page, Instant from, Instant to) {
+        Instant start = granularity.bucketStart(from);
+        List<AccessLogRollup> rollups = new ArrayList<>(find(granularity, page, start, to));
+        if (granularity != RollupGranularity.MINUTE) {
+            // 終端を含むバケットはバケット全体を返すため、まとめていない分バケットもバケットの終わりまで読みます
+            Instant end = granularity.bucketStart(to).equals(to) ? to
+                    : granularity.bucketStart(to).plus(granularity.bucketSize());
+            Instant compactedUntil = repository.findCompactedUntil();
+            Instant pendingFrom = compactedUntil.isAfter(start) ? compactedUntil : start;
+            if (pendingFrom.isBefore(end)) {
+                rollups.addAll(find(RollupGranularity.MINUTE, page, pendingFrom, end));
+            }
+        }
+
+        Map<Instant, BucketAccumulator> buckets = new TreeMap<>();
+        HyperLogLog overall = new HyperLogLog();
+        long totalHits = 0;
+        for (AccessLogRollup rollup : rollups) {
+            HyperLogLog sketch = HyperLogLog.fromBytes(rollup.getUniqueIpSketch());
+            buckets.computeIfAbsent(granularity.bucketStart(rollup.getBucketStart()), key -> new BucketAccumulator())
+                    .add(rollup, sketch);
+            overall.merge(sketch);
+            totalHits += rollup.getHits();
+        }
+
+        List<Bucket> series = new ArrayList<>(buckets.size());
+        buckets.forEach((bucketStart, accumulator) ->
+                series.add(new Bucket(bucketStart, accumulator.hits, accumulator.sketch.estimate())));
+        return new TrafficStats(granularity, page, start, to, totalHits, overall.estimate(), series);
+    }
+
+    private List<AccessLogRollup> find(RollupGranularity granularity, String page, Instant from, Instant to) {
+        return page == null
+                ? repository.findByGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+                        granularity, from, to)
+                : repository.findByGranularityAndPageAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+                        granularity, page, from, to);
+    }
+
+    private void add(RollupGranularity granularity, Instant bucketStart, String page, long hits, HyperLogLog sketch) {
+        AccessLogRollup rollup = repository.findByGranularityAndBucketStartAndPage(granularity, bucketStart, page)
+                .orElseGet(() -> new AccessLogRollup(granularity, bucketStart, page));
+        HyperLogLog merged = HyperLogLog.fromBytes(rollup.getUniqueIpSketch());
+        merged.merge(sketch);
+        rollup.setUniqueIpSketch(merged.toBytes());
+        rollup.addHits(hits);
+        repository.save(rollup);
+    }
+
+    private static final class BucketAccumulator {
+        private long hits;
+        private final HyperLogLog sketch = new HyperLogLog();
+
+        void add(AccessLogRollup rollup, HyperLogLog rollupSketch) {
+            hits += rollup.getHits();
+            sketch.merge(rollupSketch);
+        }
+    }
+
+    /**
+     * 時系列集計の結果です。
+     *
+     * @param granularity 時間粒度
+     * @param page        画面種別（全ページの場合は {@code null}）
+     * @param from        開始時刻
+     * @param to          終了時刻
+     * @param totalHits   期間内のアクセス件数
+     * @param uniqueIps   期間内のユニーク IP 推定数
+     * @param series      アクセスのあったバケットの一覧（時刻順）
+     */
+    public record TrafficStats(RollupGranularity granularity, String page, Instant from, Instant to,
+                               long totalHits, long uniqueIps, List<Bucket> series) {
+    }
+
+    /**
+     * 時間バケット 1 つ分の集計値です。
+     *
+     * @param bucketStart バケット開始時刻
+     * @param hits        アクセス件数
+     * @param uniqueIps   ユニーク IP 推定数
+     */
+    public record Bucket(Instant bucketStart, long hits, long uniqueIps) {
+    }
+}
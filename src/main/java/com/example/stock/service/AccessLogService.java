@@ -1,9 +1,8 @@
 package com.example.stock.service;
 
 import com.example.stock.model.AccessLog;
-import com.example.stock.repository.AccessLogRepository;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import com.example.stock.repository.AccessLogPartitionRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,21 +16,46 @@ public class AccessLogService {
 
     private static final int MAX_LIMIT = 500;
 
-    private final AccessLogRepository repository;
+    private final AccessLogPartitionRepository repository;
+    private final AccessLogRollupService rollupService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public AccessLogService(AccessLogRepository repository) {
+    public AccessLogService(AccessLogPartitionRepository repository, AccessLogRollupService rollupService,
+                            ApplicationEventPublisher eventPublisher) {
         this.repository = repository;
+        this.rollupService = rollupService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
-     * アクセスログを永続化します。
+     * アクセスログを永続化し、同一トランザクションで時間バケット集計へ反映します。
      *
      * @param log 保存対象のログ
      * @return 保存済みログ
      */
     @Transactional
     public AccessLog save(AccessLog log) {
-        return repository.save(log);
+        AccessLog saved = repository.save(log);
+        rollupService.record(saved);
+        eventPublisher.publishEvent(new AccessLogRecordedEvent(saved));
+        return saved;
+    }
+
+    /**
+     * 変更ログから受け取ったアクセスログを、未保存の場合に限り保存して集計へ反映します。
+     * <p>
+     * 同じログを再度適用しても件数が二重に数えられることはありません。
+     *
+     * @param log 保存対象のログ
+     * @return 保存した場合は {@code true}、保存済みだった場合は {@code false}
+     */
+    @Transactional
+    public boolean replicate(AccessLog log) {
+        if (!repository.saveIfAbsent(log)) {
+            return false;
+        }
+        rollupService.record(log);
+        return true;
     }
 
     /**
@@ -44,11 +68,10 @@ public class AccessLogService {
     @Transactional(readOnly = true)
     public List<AccessLog> getRecentLogs(String pageName, int limit) {
         int size = Math.max(1, Math.min(limit, MAX_LIMIT));
-        Pageable pageable = PageRequest.of(0, size);
         if (pageName != null && !pageName.isBlank()) {
-            return repository.findByPageOrderByAccessedAtDesc(pageName, pageable);
+            return repository.findRecent(pageName, size);
         }
-        return repository.findAllByOrderByAccessedAtDesc(pageable);
+        return repository.findRecent(null, size);
     }
 
     /**
@@ -61,4 +84,3 @@ public class AccessLogService {
         return repository.findDistinctPages();
     }
 }
-
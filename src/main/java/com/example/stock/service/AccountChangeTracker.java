@@ -0,0 +1,59 @@
+package com.example.stock.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * アカウントごとの最新の更新回数をメモリ上に保持します。
+ * <p>
+ * 条件付き GET で ETag を照合する際に参照し、一致すればデータベースへ問い合わせずに 304 を返せるようにします。
+ * 値はコミット後に更新され、取り込む値は常に大きい方を採用するため、読み込みと更新が競合しても古い値へ戻りません。
+ */
+@Component
+public class AccountChangeTracker {
+
+    /** 保持するアカウント数の上限。超えた場合は新しいアカウントを記録せず、データベースの値で照合します。 */
+    static final int MAX_TRACKED_ACCOUNTS = 10_000;
+
+    private final ConcurrentHashMap<UUID, Long> versions = new ConcurrentHashMap<>();
+
+    /**
+     * 記録済みの更新回数を取得します。
+     *
+     * @param accountId アカウント識別子
+     * @return 更新回数（未記録の場合は空）
+     */
+    public OptionalLong cachedVersion(UUID accountId) {
+        Long version = versions.get(accountId);
+        return version == null ? OptionalLong.empty() : OptionalLong.of(version);
+    }
+
+    /**
+     * データベースから読み込んだ更新回数を記録します。
+     *
+     * @param accountId アカウント識別子
+     * @param version   更新回数
+     */
+    public void remember(UUID accountId, long version) {
+        if (versions.size() >= MAX_TRACKED_ACCOUNTS && !versions.containsKey(accountId)) {
+            return;
+        }
+        versions.merge(accountId, version, Math::max);
+    }
+
+    /**
+     * コミットされた取引の更新回数を反映します。
+     *
+     * @param event トランザクション保存イベント
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTransactionRecorded(TransactionRecordedEvent event) {
+        var account = event.transaction().getAccount();
+        remember(account.getId(), account.getChangeCount());
+    }
+}
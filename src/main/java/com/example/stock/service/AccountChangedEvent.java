@@ -0,0 +1,20 @@
+package com.example.stock.service;
+
+import com.example.stock.model.Account;
+
+import java.util.Objects;
+
+/**
+ * {@link AccountService} がアカウントを作成・更新した直後に発行されるイベントです。
+ * <p>
+ * 取引を伴わない口座開設でも発行されます。同一トランザクション内で同期的に配信されるため、
+ * リスナーはコミット前の最新状態のアカウントを参照できます。
+ *
+ * @param account 作成・更新したアカウント
+ */
+public record AccountChangedEvent(Account account) {
+
+    public AccountChangedEvent {
+        Objects.requireNonNull(account, "account");
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.stock.service;
+
+import com.example.stock.exception.InvalidAccountOpeningException;
+import com.example.stock.model.Account;
+import com.example.stock.model.Transaction;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 他社からの移管などで大量のアカウントをまとめて開設するサービスです。
+ * <p>
+ * 1 件ずつ {@link AccountService#createAccount(AccountOpening)} を呼び出すとアカウントごとにコミットが発生するため、
+ * 指定件数ごとに 1 つのトランザクションでアカウント・保有銘柄・初期入金と入庫の取引・日次集計をまとめて保存します。
+ * 既存行の存在確認が不要な新規行だけを {@link EntityManager#persist} で登録し、チャンクごとに
+ * フラッシュと永続化コンテキストのクリアを行うため、件数が増えてもメモリ使用量は一定です。
+ * <p>
+ * 取引ごとの {@link TransactionRecordedEvent} は発行しません。日次集計は同じトランザクション内でまとめて作成し、
+ * 更新イベントの購読者へは配信しません。読み取りモデルへはアカウントごとに {@link AccountChangedEvent} を発行し、
+ * チャンクのコミット時にまとめて書き込みます。
+ */
+@Service
+public class AccountOnboardingService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountOnboardingService.class);
+
+    private final EntityManager entityManager;
+    private final DailyAggregateService dailyAggregateService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FxRateCache fxRateCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAccounts;
+
+    public AccountOnboardingService(EntityManager entityManager, DailyAggregateService dailyAggregateService,
+                                    ApplicationEventPublisher eventPublisher, FxRateCache fxRateCache,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.onboarding.batch-size:500}") int batchSize,
+                                    @Value("${app.onboarding.max-accounts:10000}") int maxAccounts) {
+        this.entityManager = entityManager;
+        this.dailyAggregateService = dailyAggregateService;
+        this.eventPublisher = eventPublisher;
+        this.fxRateCache = fxRateCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAccounts = Math.max(1, maxAccounts);
+    }
+
+    /**
+     * 1 回の一括開設で受け付けるアカウント数の上限を取得します。
+     *
+     * @return 上限件数
+     */
+    public int getMaxAccounts() {
+        return maxAccounts;
+    }
+
+    /**
+     * アカウントを一括で開設します。
+     * <p>
+     * すべての開設内容を先に検証し、1 件でも不正な場合はどのアカウントも作成しません。
+     * 保存はチャンク単位でコミットするため、保存中に障害が発生した場合はそれまでのチャンクが残ります。
+     *
+     * @param openings 開設内容（指定順に開設します）
+     * @return 開設結果
+     * @throws InvalidAccountOpeningException 件数が上限を超える場合、または開設内容が不正な場合
+     */
+    public Result openAccounts(List<AccountOpening> openings) {
+        if (openings.isEmpty()) {
+            throw new InvalidAccountOpeningException("At least one account is required");
+        }
+        if (openings.size() > maxAccounts) {
+            throw new InvalidAccountOpeningException("Bulk onboarding accepts at most " + maxAccounts + " accounts");
+        }
+        FxRateMatrix rates = fxRateCache.current();
+        for (int i = 0; i < openings.size(); i++) {
+            try {
+                AccountService.validateOpening(openings.get(i), rates);
+            } catch (InvalidAccountOpeningException ex) {
+                throw new InvalidAccountOpeningException("Account #" + (i + 1) + ": " + ex.getMessage());
+            }
+        }
+
+        long started = System.nanoTime();
+        List<UUID> ids = new ArrayList<>(openings.size());
+        long transactions = 0;
+        for (int from = 0; from < openings.size(); from += batchSize) {
+            List<AccountOpening> chunk = openings.subList(from, Math.min(from + batchSize, openings.size()));
+            Long saved = transactionTemplate.execute(status -> persistChunk(chunk, ids, rates));
+            transactions += saved == null ? 0 : saved;
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        Result result = new Result(List.copyOf(ids), transactions, elapsed);
+        log.info("Opened {} accounts ({} transactions) in {} ms ({} accounts/s)", ids.size(), transactions,
+                elapsed.toMillis(), Math.round(result.accountsPerSecond()));
+        return result;
+    }
+
+    private long persistChunk(List<AccountOpening> chunk, List<UUID> ids, FxRateMatrix rates) {
+        List<UUID> chunkIds = new ArrayList<>(chunk.size());
+        List<Transaction> transactions = new ArrayList<>();
+        for (AccountOpening opening : chunk) {
+            Account account = AccountService.newAccount(opening, rates);
+            entityManager.persist(account);
+            transactions.addAll(AccountService.openingTransactions(account, opening));
+            chunkIds.add(account.getId());
+            eventPublisher.publishEvent(new AccountChangedEvent(account));
+        }
+        transactions.forEach(entityManager::persist);
+        dailyAggregateService.aggregateOpenedAccounts(transactions);
+        entityManager.flush();
+        entityManager.clear();
+        ids.addAll(chunkIds);
+        return transactions.size();
+    }
+
+    /**
+     * 一括開設の結果です。
+     *
+     * @param accountIds   開設したアカウントの ID（指定順）
+     * @param transactions 記録した初期入金・入庫の取引件数
+     * @param elapsed      所要時間
+     */
+    public record Result(List<UUID> accountIds, long transactions, Duration elapsed) {
+
+        /**
+         * 1 秒あたりの開設件数を取得します。
+         *
+         * @return 開設件数（件/秒）
+         */
+        public double accountsPerSecond() {
+            long nanos = Math.max(1, elapsed.toNanos());
+            return accountIds.size() * 1_000_000_000.0 / nanos;
+        }
+    }
+}
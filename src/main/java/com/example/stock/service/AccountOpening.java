@@ -0,0 +1,55 @@
+package com.example.stock.service;
+
+import com.example.stock.model.CostBasisMethod;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 口座開設の内容です。
+ *
+ * @param ownerName       口座名義
+ * @param initialDeposit  初期入金額（省略可）
+ * @param costBasisMethod 売却時の取得原価の算定方法（省略時は先入先出法）
+ * @param positions       他社から移管する保有銘柄（省略可）
+ * @param baseCurrency    評価額の基準通貨（省略時は円）
+ */
+public record AccountOpening(String ownerName, BigDecimal initialDeposit, CostBasisMethod costBasisMethod,
+                             List<OpeningPosition> positions, String baseCurrency) {
+
+    public AccountOpening {
+        positions = positions == null ? List.of() : List.copyOf(positions);
+        baseCurrency = upperCase(baseCurrency);
+    }
+
+    public AccountOpening(String ownerName, BigDecimal initialDeposit, CostBasisMethod costBasisMethod,
+                          List<OpeningPosition> positions) {
+        this(ownerName, initialDeposit, costBasisMethod, positions, null);
+    }
+
+    private static String upperCase(String currency) {
+        return currency == null || currency.isBlank() ? null : currency.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * 口座開設時に移管する保有銘柄です。
+     *
+     * @param symbol       銘柄コード
+     * @param exchange     取引市場
+     * @param quantity     保有数量
+     * @param costPerShare 取得単価
+     * @param currency     取得単価の通貨（省略時は現金残高の通貨）
+     */
+    public record OpeningPosition(String symbol, String exchange, BigDecimal quantity, BigDecimal costPerShare,
+                                  String currency) {
+
+        public OpeningPosition {
+            currency = upperCase(currency);
+        }
+
+        public OpeningPosition(String symbol, String exchange, BigDecimal quantity, BigDecimal costPerShare) {
+            this(symbol, exchange, quantity, costPerShare, null);
+        }
+    }
+}
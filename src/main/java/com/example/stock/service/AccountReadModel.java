@@ -0,0 +1,241 @@
+package com.example.stock.service;
+
+import com.example.stock.exception.AccountNotFoundException;
+import com.example.stock.model.Account;
+import com.example.stock.model.Holding;
+import com.example.stock.repository.AccountRepository;
+import com.example.stock.repository.AccountSummaryRepository;
+import com.example.stock.repository.AccountSummaryRepository.HoldingSummary;
+import com.example.stock.repository.AccountSummaryRepository.Summary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 口座一覧・詳細の参照に使う読み取りモデル（{@code account_summaries}）を管理します。
+ * <p>
+ * {@link AccountChangedEvent} を受けて更新対象のアカウントをトランザクションごとに記録し、コミット直前に
+ * 1 アカウント 1 行へまとめて書き込みます。同じトランザクションで同じアカウントを何度更新しても書き込みは 1 回で、
+ * ロールバックした更新は反映されません。参照はエンティティと保有銘柄を読み込まず、1 行の読み出しだけで応答します。
+ * <p>
+ * 読み取りモデルは {@code accounts}・{@code holdings}・{@code transactions} から {@link #rebuild()} で再構築できます。
+ * 起動時に件数がアカウント数と一致しない場合（移行直後など）は自動的に再構築します。
+ */
+@Service
+public class AccountReadModel implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountReadModel.class);
+
+    /**
+     * コミット直前の書き込みの実行順。変更ログの書き出し（{@link ChangeLogPublisher}）が書き込み後の
+     * {@code account_summaries} を読み出せるよう、既定の最低優先度より先に実行します。
+     */
+    static final int SYNCHRONIZATION_ORDER = 0;
+
+    private static final MathContext MATH_CONTEXT = new MathContext(12, RoundingMode.HALF_UP);
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final AccountSummaryRepository summaryRepository;
+    private final AccountRepository accountRepository;
+    private final FxRateCache fxRateCache;
+    private final TransactionTemplate transactionTemplate;
+
+    public AccountReadModel(AccountSummaryRepository summaryRepository, AccountRepository accountRepository,
+                            FxRateCache fxRateCache, PlatformTransactionManager transactionManager) {
+        this.summaryRepository = summaryRepository;
+        this.accountRepository = accountRepository;
+        this.fxRateCache = fxRateCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long accounts = summaryRepository.countAccounts();
+        long summaries = summaryRepository.count();
+        if (accounts != summaries) {
+            log.info("Account read model has {} rows for {} accounts; rebuilding", summaries, accounts);
+            rebuild();
+        }
+    }
+
+    /**
+     * 更新されたアカウントを、実行中のトランザクションのコミット直前に書き込む対象として記録します。
+     *
+     * @param event アカウント更新イベント
+     */
+    @EventListener
+    public void onAccountChanged(AccountChangedEvent event) {
+        Account account = event.account();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            summaryRepository.saveAll(List.of(summarize(account, Instant.now(), fxRateCache.current())));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<UUID, Account> pending = (Map<UUID, Account>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<UUID, Account> changed = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, changed);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    return SYNCHRONIZATION_ORDER;
+                }
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    Instant now = Instant.now();
+                    FxRateMatrix rates = fxRateCache.current();
+                    summaryRepository.saveAll(changed.values().stream()
+                            .map(changedAccount -> summarize(changedAccount, now, rates))
+                            .toList());
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AccountReadModel.this);
+                }
+            });
+            pending = changed;
+        }
+        pending.put(account.getId(), account);
+    }
+
+    /**
+     * アカウントの読み取りモデルを取得します。未作成の場合は正規化テーブルから作成します。
+     *
+     * @param id アカウント識別子
+     * @return 読み取りモデル
+     * @throws AccountNotFoundException アカウントが存在しない場合
+     */
+    public Summary getSummary(UUID id) {
+        return summaryRepository.find(id).orElseGet(() -> refresh(id));
+    }
+
+    /**
+     * すべてのアカウントの読み取りモデルを開設日時順に取得します。
+     *
+     * @return 読み取りモデル一覧
+     */
+    public List<Summary> getSummaries() {
+        return summaryRepository.findAll();
+    }
+
+    /**
+     * 指定アカウントの読み取りモデルを正規化テーブルから作り直します。
+     *
+     * @param id アカウント識別子
+     * @return 読み取りモデル
+     * @throws AccountNotFoundException アカウントが存在しない場合
+     */
+    public Summary refresh(UUID id) {
+        return transactionTemplate.execute(status -> {
+            Account account = accountRepository.findById(id).orElseThrow(() -> new AccountNotFoundException(id));
+            Summary summary = summarize(account, summaryRepository.findLastActivity(id).orElse(account.getCreatedAt()),
+                    fxRateCache.current());
+            summaryRepository.saveAll(List.of(summary));
+            return summary;
+        });
+    }
+
+    /**
+     * すべての読み取りモデルを正規化テーブルから再構築します。
+     * <p>
+     * アカウントを識別子順に {@value #REBUILD_BATCH_SIZE} 件ずつ読み込み、ページごとに短いトランザクションで上書きします。
+     * ページを書き終えるたびにトランザクションと永続化コンテキストを閉じるため、読み込んだエンティティは
+     * 溜まらず、ページの間は他の更新がコネクションを使えます。既存の行は上書きするだけなので、参照側から空の状態は
+     * 見えません。最後に、アカウントが存在しない行を削除します。
+     *
+     * @return 再構築したアカウント数
+     */
+    public synchronized long rebuild() {
+        long started = System.nanoTime();
+        long count = 0;
+        UUID after = null;
+        while (true) {
+            UUID lastId = after;
+            List<UUID> rebuilt = transactionTemplate.execute(status -> rebuildPage(lastId));
+            if (rebuilt == null || rebuilt.isEmpty()) {
+                break;
+            }
+            count += rebuilt.size();
+            after = rebuilt.get(rebuilt.size() - 1);
+            if (rebuilt.size() < REBUILD_BATCH_SIZE) {
+                break;
+            }
+        }
+        Integer orphans = transactionTemplate.execute(status -> summaryRepository.deleteOrphans());
+        log.info("Rebuilt account read model for {} accounts in {} ms ({} orphaned rows removed)", count,
+                (System.nanoTime() - started) / 1_000_000, orphans);
+        return count;
+    }
+
+    private List<UUID> rebuildPage(UUID after) {
+        PageRequest page = PageRequest.of(0, REBUILD_BATCH_SIZE);
+        List<Account> accounts = after == null ? accountRepository.findAllByOrderByIdAsc(page)
+                : accountRepository.findByIdGreaterThanOrderByIdAsc(after, page);
+        List<UUID> ids = accounts.stream().map(Account::getId).toList();
+        Map<UUID, Instant> activities = summaryRepository.findLastActivities(ids);
+        FxRateMatrix rates = fxRateCache.current();
+        List<Summary> summaries = new ArrayList<>(accounts.size());
+        for (Account account : accounts) {
+            summaries.add(summarize(account, activities.getOrDefault(account.getId(), account.getCreatedAt()), rates));
+        }
+        summaryRepository.saveAll(summaries);
+        return ids;
+    }
+
+    /**
+     * アカウントのエンティティから読み取りモデルを生成します。
+     * <p>
+     * 取得原価の合計は、受渡時点のレートで現金残高の通貨へ換算した平均取得単価（{@link Holding#getAverageSettlementCost()}）
+     * から求めるため、為替レートを更新しても変わりません。換算後の取得単価が記録されていない通貨導入前の外貨建ての
+     * 保有銘柄に限り、指定した為替レートで換算します。
+     *
+     * @param account        アカウント
+     * @param lastActivityAt 最終更新日時
+     * @param rates          換算後の取得単価が記録されていない保有銘柄の換算に使う為替レート
+     * @return 読み取りモデル
+     */
+    public static Summary summarize(Account account, Instant lastActivityAt, FxRateMatrix rates) {
+        List<HoldingSummary> holdings = new ArrayList<>(account.getHoldings().size());
+        BigDecimal totalCostBasis = BigDecimal.ZERO;
+        for (Holding holding : account.getHoldings()) {
+            holdings.add(new HoldingSummary(holding.getSymbol(), holding.getExchange(), holding.getCurrency(),
+                    holding.getQuantity(), holding.getAverageCost()));
+            BigDecimal settlementCost = holding.getAverageSettlementCost();
+            if (settlementCost == null) {
+                settlementCost = holding.getCurrency().equals(account.getCashCurrency()) ? holding.getAverageCost()
+                        : holding.getAverageCost().multiply(
+                        rates.exactRate(holding.getCurrency(), account.getCashCurrency()), MATH_CONTEXT);
+            }
+            totalCostBasis = totalCostBasis.add(holding.getQuantity().multiply(settlementCost, MATH_CONTEXT),
+                    MATH_CONTEXT);
+        }
+        // 1 株あたりの換算後の取得単価は丸めて保存されるため、再構築しても同じ値になるよう現金の桁数に揃えます
+        totalCostBasis = totalCostBasis.setScale(4, RoundingMode.HALF_UP);
+        holdings.sort((left, right) -> left.symbol().compareTo(right.symbol()));
+        BigDecimal realizedPnl = account.getRealizedPnl() == null ? BigDecimal.ZERO : account.getRealizedPnl();
+        return new Summary(account.getId(), account.getOwnerName(), account.getCashBalance(),
+                account.getCashCurrency(), account.getBaseCurrency(), account.getCostBasisMethod(), realizedPnl,
+                account.getChangeCount(), List.copyOf(holdings), holdings.size(), totalCostBasis,
+                account.getCreatedAt(), lastActivityAt);
+    }
+}
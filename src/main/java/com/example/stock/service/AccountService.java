@@ -2,21 +2,30 @@ package com.example.stock.service;
 
 import com.example.stock.exception.AccountNotFoundException;
 import com.example.stock.exception.InsufficientFundsException;
+import com.example.stock.exception.InvalidAccountOpeningException;
 import com.example.stock.exception.InvalidTradeException;
 import com.example.stock.model.Account;
+import com.example.stock.model.CostBasisMethod;
 import com.example.stock.model.Holding;
+import com.example.stock.model.TaxLot;
 import com.example.stock.model.TradeSide;
 import com.example.stock.model.Transaction;
 import com.example.stock.model.TransactionType;
 import com.example.stock.repository.AccountRepository;
 import com.example.stock.repository.TransactionRepository;
+import com.example.stock.service.AccountOpening.OpeningPosition;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -28,10 +37,15 @@ public class AccountService {
     private static final MathContext MATH_CONTEXT = new MathContext(12, RoundingMode.HALF_UP);
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FxRateCache fxRateCache;
 
-    public AccountService(AccountRepository accountRepository, TransactionRepository transactionRepository) {
+    public AccountService(AccountRepository accountRepository, TransactionRepository transactionRepository,
+                          ApplicationEventPublisher eventPublisher, FxRateCache fxRateCache) {
         this.accountRepository = accountRepository;
         this.transactionRepository = transactionRepository;
+        this.eventPublisher = eventPublisher;
+        this.fxRateCache = fxRateCache;
     }
 
     /**
@@ -42,13 +56,34 @@ public class AccountService {
      * @return 作成されたアカウント
      */
     public Account createAccount(String ownerName, BigDecimal initialDeposit) {
-        BigDecimal startingBalance = initialDeposit == null ? BigDecimal.ZERO : initialDeposit;
-        Account account = new Account(ownerName, startingBalance);
-        Account saved = accountRepository.save(account);
-        if (startingBalance.signum() > 0) {
-            transactionRepository.save(
-                    Transaction.cash(saved, TransactionType.DEPOSIT, startingBalance, saved.getCashBalance()));
-        }
+        return createAccount(ownerName, initialDeposit, CostBasisMethod.FIFO);
+    }
+
+    /**
+     * 取得原価の算定方法を指定して新しいアカウントを作成します。
+     *
+     * @param ownerName 口座名義
+     * @param initialDeposit 初期入金額（省略可）
+     * @param costBasisMethod 売却時の取得原価の算定方法（省略時は先入先出法）
+     * @return 作成されたアカウント
+     */
+    public Account createAccount(String ownerName, BigDecimal initialDeposit, CostBasisMethod costBasisMethod) {
+        return createAccount(new AccountOpening(ownerName, initialDeposit, costBasisMethod, List.of()));
+    }
+
+    /**
+     * 他社から移管する保有銘柄を含めて新しいアカウントを作成します。
+     *
+     * @param opening 口座開設の内容
+     * @return 作成されたアカウント
+     * @throws InvalidAccountOpeningException 開設内容が不正な場合
+     */
+    public Account createAccount(AccountOpening opening) {
+        FxRateMatrix rates = fxRateCache.current();
+        validateOpening(opening, rates);
+        Account saved = accountRepository.save(newAccount(opening, rates));
+        openingTransactions(saved, opening).forEach(this::recordTransaction);
+        eventPublisher.publishEvent(new AccountChangedEvent(saved));
         return saved;
     }
 
@@ -85,8 +120,10 @@ public class AccountService {
     public Account deposit(UUID id, BigDecimal amount) {
         Account account = loadAccount(id);
         account.setCashBalance(account.getCashBalance().add(amount, MATH_CONTEXT));
+        account.markChanged();
         Account saved = accountRepository.save(account);
-        transactionRepository.save(Transaction.cash(saved, TransactionType.DEPOSIT, amount, saved.getCashBalance()));
+        recordTransaction(Transaction.cash(saved, TransactionType.DEPOSIT, amount, saved.getCashBalance()));
+        eventPublisher.publishEvent(new AccountChangedEvent(saved));
         return saved;
     }
 
@@ -104,13 +141,15 @@ public class AccountService {
             throw new InsufficientFundsException(id, amount, account.getCashBalance());
         }
         account.setCashBalance(account.getCashBalance().subtract(amount, MATH_CONTEXT));
+        account.markChanged();
         Account saved = accountRepository.save(account);
-        transactionRepository.save(Transaction.cash(saved, TransactionType.WITHDRAWAL, amount, saved.getCashBalance()));
+        recordTransaction(Transaction.cash(saved, TransactionType.WITHDRAWAL, amount, saved.getCashBalance()));
+        eventPublisher.publishEvent(new AccountChangedEvent(saved));
         return saved;
     }
 
     /**
-     * 指定したアカウントで売買注文を約定させます。
+     * 指定したアカウントで売買注文を約定させます。取引単価の通貨は保有銘柄の通貨、新規の場合は現金残高の通貨とします。
      *
      * @param id アカウント識別子
      * @param side 売買区分
@@ -124,6 +163,31 @@ public class AccountService {
      */
     public Account executeTrade(UUID id, TradeSide side, String symbol, String exchange,
                                 BigDecimal quantity, BigDecimal pricePerShare) {
+        return executeTrade(id, side, symbol, exchange, quantity, pricePerShare, null);
+    }
+
+    /**
+     * 取引単価の通貨を指定して売買注文を約定させます。
+     * <p>
+     * 取引単価の通貨が現金残高の通貨と異なる場合は、約定時点の為替レートで約定金額を現金残高の通貨へ換算し、
+     * 換算後の受渡金額で現金残高を増減します。保有銘柄の平均取得単価と税務ロットは取引単価の通貨のまま保持し、
+     * 買付時の受渡金額から求めた現金残高の通貨建ての取得単価も併せて記録します。売却の実現損益は受渡金額から
+     * この取得原価を差し引いて求めるため、保有期間中の為替変動も含まれます。
+     *
+     * @param id アカウント識別子
+     * @param side 売買区分
+     * @param symbol 銘柄コード
+     * @param exchange 取引市場
+     * @param quantity 取引数量
+     * @param pricePerShare 取引単価
+     * @param currency 取引単価の通貨（{@code null} の場合は保有銘柄の通貨、新規の場合は現金残高の通貨）
+     * @return 更新後のアカウント
+     * @throws InvalidTradeException 取引内容が不正な場合、または保有銘柄と異なる通貨が指定された場合
+     * @throws InsufficientFundsException 買付時に残高不足となった場合
+     * @throws com.example.stock.exception.UnsupportedCurrencyException 為替レートが登録されていない通貨の場合
+     */
+    public Account executeTrade(UUID id, TradeSide side, String symbol, String exchange,
+                                BigDecimal quantity, BigDecimal pricePerShare, String currency) {
         if (quantity.signum() <= 0 || pricePerShare.signum() <= 0) {
             throw new InvalidTradeException("Quantity and price must be positive");
         }
@@ -131,23 +195,27 @@ public class AccountService {
         BigDecimal grossAmount = pricePerShare.multiply(quantity, MATH_CONTEXT);
         String key = symbol.toUpperCase();
         Holding existing = account.findHolding(key).orElse(null);
+        String tradeCurrency = currency != null ? fxRateCache.requireSupported(currency)
+                : existing != null ? existing.getCurrency() : account.getCashCurrency();
+        if (existing != null && !existing.getCurrency().equals(tradeCurrency)) {
+            throw new InvalidTradeException("Holding " + key + " is held in " + existing.getCurrency());
+        }
+        BigDecimal fxRate = tradeCurrency.equals(account.getCashCurrency()) ? null
+                : fxRateCache.current().exactRate(tradeCurrency, account.getCashCurrency());
+        BigDecimal settlementAmount = toCashCurrency(grossAmount, fxRate);
+        BigDecimal realizedPnl = null;
 
         if (side == TradeSide.BUY) {
-            if (account.getCashBalance().compareTo(grossAmount) < 0) {
-                throw new InsufficientFundsException(id, grossAmount, account.getCashBalance());
+            if (account.getCashBalance().compareTo(settlementAmount) < 0) {
+                throw new InsufficientFundsException(id, settlementAmount, account.getCashBalance());
             }
-            account.setCashBalance(account.getCashBalance().subtract(grossAmount, MATH_CONTEXT));
+            account.setCashBalance(account.getCashBalance().subtract(settlementAmount, MATH_CONTEXT));
             if (existing == null) {
-                Holding newHolding = new Holding(key, exchange, quantity, pricePerShare);
+                Holding newHolding = new Holding(key, exchange, tradeCurrency, quantity, pricePerShare,
+                        fxRate == null ? pricePerShare : pricePerShare.multiply(fxRate, MATH_CONTEXT));
                 account.addHolding(newHolding);
             } else {
-                BigDecimal currentQuantity = existing.getQuantity();
-                BigDecimal newQuantity = currentQuantity.add(quantity, MATH_CONTEXT);
-                BigDecimal totalCost = existing.getAverageCost().multiply(currentQuantity, MATH_CONTEXT)
-                        .add(pricePerShare.multiply(quantity, MATH_CONTEXT), MATH_CONTEXT);
-                BigDecimal newAverageCost = totalCost.divide(newQuantity, MATH_CONTEXT);
-                existing.setQuantity(newQuantity);
-                existing.setAverageCost(newAverageCost);
+                existing.buy(quantity, pricePerShare, fxRate, Instant.now());
                 existing.setExchange(exchange);
             }
         } else {
@@ -158,19 +226,42 @@ public class AccountService {
                 throw new InvalidTradeException("Cannot sell more than the available quantity");
             }
             BigDecimal newQuantity = existing.getQuantity().subtract(quantity, MATH_CONTEXT);
-            account.setCashBalance(account.getCashBalance().add(grossAmount, MATH_CONTEXT));
+            realizedPnl = existing.relieveLots(quantity, settlementAmount, account.getCostBasisMethod(), fxRate);
+            account.addRealizedPnl(realizedPnl);
+            account.setCashBalance(account.getCashBalance().add(settlementAmount, MATH_CONTEXT));
             if (newQuantity.signum() == 0) {
                 account.removeHolding(existing);
             } else {
                 existing.setQuantity(newQuantity);
             }
         }
+        account.markChanged();
         Account saved = accountRepository.save(account);
-        transactionRepository.save(Transaction.trade(saved, side, key, exchange, quantity, pricePerShare, grossAmount,
-                saved.getCashBalance()));
+        recordTransaction(Transaction.trade(saved, side, key, exchange, tradeCurrency, quantity, pricePerShare,
+                grossAmount, fxRate, settlementAmount, saved.getCashBalance(), realizedPnl));
+        eventPublisher.publishEvent(new AccountChangedEvent(saved));
         return saved;
     }
 
+    /**
+     * 複数の売買注文を指定順に同一トランザクションで約定させます。
+     * いずれかの注文が失敗した場合は、先行する注文も含めてすべて取り消されます。
+     *
+     * @param id アカウント識別子
+     * @param orders 売買注文の一覧
+     * @return 更新後のアカウント
+     * @throws InvalidTradeException 取引内容が不正な場合
+     * @throws InsufficientFundsException 買付時に残高不足となった場合
+     */
+    public Account executeTrades(UUID id, List<TradeOrder> orders) {
+        Account account = loadAccount(id);
+        for (TradeOrder order : orders) {
+            account = executeTrade(id, order.side(), order.symbol(), order.exchange(), order.quantity(),
+                    order.pricePerShare(), order.currency());
+        }
+        return account;
+    }
+
     /**
      * 指定したアカウントのトランザクション履歴を取得します。
      *
@@ -183,6 +274,123 @@ public class AccountService {
         return transactionRepository.findByAccountIdOrderByOccurredAtDesc(id);
     }
 
+    /**
+     * 指定銘柄の未売却ロットを取得日時の古い順に取得します。
+     *
+     * @param id アカウント識別子
+     * @param symbol 銘柄コード
+     * @return 税務ロット一覧（保有がない場合は空）
+     */
+    @Transactional(readOnly = true)
+    public List<TaxLot> getTaxLots(UUID id, String symbol) {
+        return loadAccount(id).findHolding(symbol)
+                .map(holding -> List.copyOf(holding.getLots()))
+                .orElse(List.of());
+    }
+
+    /**
+     * 口座開設の内容を検証します。
+     *
+     * @param opening 口座開設の内容
+     * @param rates   通貨の確認に使う為替レート
+     * @throws InvalidAccountOpeningException 開設内容が不正な場合
+     */
+    static void validateOpening(AccountOpening opening, FxRateMatrix rates) {
+        if (opening.ownerName() == null || opening.ownerName().isBlank()) {
+            throw new InvalidAccountOpeningException("Owner name is required");
+        }
+        if (opening.initialDeposit() != null && opening.initialDeposit().signum() < 0) {
+            throw new InvalidAccountOpeningException("Initial deposit cannot be negative");
+        }
+        if (opening.baseCurrency() != null && !rates.supports(opening.baseCurrency())) {
+            throw new InvalidAccountOpeningException("Unsupported currency: " + opening.baseCurrency());
+        }
+        Set<String> symbols = new HashSet<>();
+        for (OpeningPosition position : opening.positions()) {
+            if (position.symbol() == null || position.symbol().isBlank()
+                    || position.exchange() == null || position.exchange().isBlank()) {
+                throw new InvalidAccountOpeningException("Opening holding symbol and exchange are required");
+            }
+            if (position.quantity() == null || position.quantity().signum() <= 0
+                    || position.costPerShare() == null || position.costPerShare().signum() < 0) {
+                throw new InvalidAccountOpeningException(
+                        "Opening holding quantity must be positive and cost must not be negative");
+            }
+            if (position.currency() != null && !rates.supports(position.currency())) {
+                throw new InvalidAccountOpeningException("Unsupported currency: " + position.currency());
+            }
+            if (!symbols.add(position.symbol().toUpperCase())) {
+                throw new InvalidAccountOpeningException("Duplicate opening holding: " + position.symbol());
+            }
+        }
+    }
+
+    /**
+     * 開設内容から保存前のアカウントを生成します。移管する銘柄は保有銘柄として登録します。
+     * 外貨建ての銘柄は開設時点のレートで現金残高の通貨へ換算した取得単価も記録します。
+     */
+    static Account newAccount(AccountOpening opening, FxRateMatrix rates) {
+        BigDecimal startingBalance = opening.initialDeposit() == null ? BigDecimal.ZERO : opening.initialDeposit();
+        Account account = new Account(opening.ownerName(), startingBalance, opening.costBasisMethod(),
+                opening.baseCurrency());
+        for (OpeningPosition position : opening.positions()) {
+            String currency = positionCurrency(account, position);
+            BigDecimal settlementCost = currency.equals(account.getCashCurrency()) ? position.costPerShare()
+                    : position.costPerShare().multiply(rates.exactRate(currency, account.getCashCurrency()),
+                    MATH_CONTEXT);
+            account.addHolding(new Holding(position.symbol(), position.exchange(), currency,
+                    position.quantity(), position.costPerShare(), settlementCost));
+        }
+        return account;
+    }
+
+    /**
+     * 口座開設に伴う初期入金と入庫のトランザクションを生成します。
+     */
+    static List<Transaction> openingTransactions(Account account, AccountOpening opening) {
+        List<Transaction> transactions = new ArrayList<>(opening.positions().size() + 1);
+        if (account.getCashBalance().signum() > 0) {
+            transactions.add(Transaction.cash(account, TransactionType.DEPOSIT, account.getCashBalance(),
+                    account.getCashBalance()));
+        }
+        for (OpeningPosition position : opening.positions()) {
+            transactions.add(Transaction.transferIn(account, position.symbol(), position.exchange(),
+                    positionCurrency(account, position), position.quantity(), position.costPerShare(),
+                    account.getCashBalance()));
+        }
+        return transactions;
+    }
+
+    private static String positionCurrency(Account account, OpeningPosition position) {
+        return position.currency() != null ? position.currency() : account.getCashCurrency();
+    }
+
+    /**
+     * 取引単価の通貨建ての金額を現金残高の通貨へ換算します。
+     *
+     * @param amount 取引単価の通貨建ての金額
+     * @param fxRate 換算レート（同一通貨の場合は {@code null}）
+     * @return 現金残高の通貨建ての金額（換算した場合は小数点以下 4 桁に丸めます）
+     */
+    private static BigDecimal toCashCurrency(BigDecimal amount, BigDecimal fxRate) {
+        if (fxRate == null) {
+            return amount;
+        }
+        return amount.multiply(fxRate, MATH_CONTEXT).setScale(4, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * トランザクションを保存し、同一トランザクション内のリスナーへ通知します。
+     *
+     * @param transaction 保存するトランザクション
+     * @return 保存済みトランザクション
+     */
+    private Transaction recordTransaction(Transaction transaction) {
+        Transaction saved = transactionRepository.save(transaction);
+        eventPublisher.publishEvent(new TransactionRecordedEvent(saved));
+        return saved;
+    }
+
     private Account loadAccount(UUID id) {
         return accountRepository.findById(id)
                 .orElseThrow(() -> new AccountNotFoundException(id));
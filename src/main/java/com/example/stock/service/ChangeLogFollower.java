@@ -0,0 +1,232 @@
+package com.example.stock.service;
+
+import com.example.stock.repository.ReplicationRepository;
+import com.example.stock.repository.ReplicationRepository.AccountImage;
+import com.example.stock.repository.ReplicationRepository.State;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * フォロワーとして、プライマリの変更ログを読み進めて自身のデータベースへ適用します。
+ * <p>
+ * 専用のスレッドが {@code app.replication.poll-interval} ごとに前回の読み取り位置から変更ログを読み、改行まで
+ * 書き終えた行だけを適用します。1 回に読んだ変更は、適用済みの連番と読み取り位置の更新と合わせて 1 つの
+ * トランザクションで適用するため、途中で停止しても再起動後に同じ位置から再開できます。適用済みの連番以下の変更は
+ * 読み飛ばし、アカウントの行イメージとアクセスログは同じ変更を重ねて適用しても結果が変わりません。
+ * <p>
+ * 鮮度（staleness）は、変更ログを末尾まで読み終えたことを最後に確認した時刻からの経過時間です。プライマリが停止して
+ * 変更ログが増えない間も読み取りに成功していれば 0 付近に保たれ、読み取りや適用に失敗し続けると増加します。
+ */
+@Service
+@ConditionalOnProperty(name = "app.replication.role", havingValue = "follower")
+public class ChangeLogFollower implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeLogFollower.class);
+
+    private static final int READ_CHUNK_SIZE = 1024 * 1024;
+
+    private final ReplicationRepository repository;
+    private final AccessLogService accessLogService;
+    private final AccountChangeTracker changeTracker;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Path changeLog;
+    private final Duration pollInterval;
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-log-follower");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile long appliedSeq;
+    private volatile long logOffset;
+    private volatile Instant appliedCommittedAt;
+    private volatile Instant caughtUpAt;
+    private volatile String lastError;
+
+    public ChangeLogFollower(ReplicationRepository repository, AccessLogService accessLogService,
+                             AccountChangeTracker changeTracker, ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.replication.change-log:replication/change.log}") String changeLog,
+                             @Value("${app.replication.poll-interval:PT0.05S}") Duration pollInterval) {
+        this.repository = repository;
+        this.accessLogService = accessLogService;
+        this.changeTracker = changeTracker;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.changeLog = Path.of(changeLog).toAbsolutePath();
+        this.pollInterval = pollInterval;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        State state = repository.loadState();
+        appliedSeq = state.lastSeq();
+        logOffset = state.logOffset();
+        log.info("Following change log {} from sequence {} at offset {}", changeLog, appliedSeq + 1, logOffset);
+        poller.scheduleWithFixedDelay(this::poll, 0, Math.max(1, pollInterval.toMillis()), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 現在の状態を取得します。
+     *
+     * @return 状態のスナップショット
+     */
+    public Status status() {
+        Instant caughtUp = caughtUpAt;
+        Duration staleness = caughtUp == null ? null : Duration.between(caughtUp, Instant.now());
+        return new Status(changeLog.toString(), appliedSeq, logOffset, appliedCommittedAt, staleness, lastError);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        poller.shutdownNow();
+    }
+
+    /**
+     * 変更ログに追記された変更をすべて適用します。
+     */
+    void poll() {
+        try {
+            while (applyNextChunk()) {
+                // 読み取った分を適用し終えたら、残りがなくなるまで続けて読み進めます。
+            }
+            lastError = null;
+        } catch (RuntimeException | IOException ex) {
+            if (!String.valueOf(ex.getMessage()).equals(lastError)) {
+                log.error("Failed to apply change log {} at offset {}", changeLog, logOffset, ex);
+            }
+            lastError = String.valueOf(ex.getMessage());
+        }
+    }
+
+    /**
+     * 読み取り位置から最大 {@link #READ_CHUNK_SIZE} バイトを読み、書き終えた行を適用します。
+     *
+     * @return 続きが残っている可能性がある場合は {@code true}
+     */
+    private boolean applyNextChunk() throws IOException {
+        Instant readAt = Instant.now();
+        ByteBuffer buffer;
+        long size;
+        try (FileChannel channel = FileChannel.open(changeLog, StandardOpenOption.READ)) {
+            size = channel.size();
+            if (size < logOffset) {
+                log.warn("Change log {} shrank to {} bytes; reading again from the start", changeLog, size);
+                logOffset = 0;
+            }
+            buffer = ByteBuffer.allocate((int) Math.min(READ_CHUNK_SIZE, size - logOffset));
+            while (buffer.hasRemaining() && channel.read(buffer, logOffset + buffer.position()) >= 0) {
+                // 読み取り範囲を埋めるまで読み進めます。
+            }
+        } catch (NoSuchFileException ex) {
+            caughtUpAt = readAt;
+            return false;
+        }
+        byte[] bytes = buffer.array();
+        int end = bytes.length;
+        while (end > 0 && bytes[end - 1] != '\n') {
+            end--;
+        }
+        if (end == 0) {
+            if (bytes.length == READ_CHUNK_SIZE) {
+                throw new IOException("Change log entry at offset " + logOffset + " exceeds " + READ_CHUNK_SIZE
+                        + " bytes");
+            }
+            caughtUpAt = readAt;
+            return false;
+        }
+        List<ChangeSet> changeSets = new ArrayList<>();
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        for (int i = 0; i < end; i++) {
+            if (bytes[i] != '\n') {
+                line.write(bytes[i]);
+                continue;
+            }
+            if (line.size() > 0) {
+                ChangeSet changeSet = ChangeSet.decode(objectMapper, line.toString(StandardCharsets.UTF_8));
+                if (changeSet.seq() > appliedSeq) {
+                    changeSets.add(changeSet);
+                }
+            }
+            line.reset();
+        }
+        long nextOffset = logOffset + end;
+        apply(changeSets, nextOffset);
+        if (nextOffset == size) {
+            caughtUpAt = readAt;
+            return false;
+        }
+        return true;
+    }
+
+    private void apply(List<ChangeSet> changeSets, long nextOffset) {
+        long seq = appliedSeq;
+        for (ChangeSet changeSet : changeSets) {
+            if (changeSet.seq() != seq + 1) {
+                log.warn("Change log skips from sequence {} to {}; changes in between were not written by the primary",
+                        seq, changeSet.seq());
+            }
+            seq = changeSet.seq();
+        }
+        long lastSeq = seq;
+        transactionTemplate.executeWithoutResult(status -> {
+            for (ChangeSet changeSet : changeSets) {
+                changeSet.accounts().forEach(repository::applyAccountImage);
+                repository.applyTransactions(changeSet.transactions());
+                changeSet.accessLogs().forEach(entry -> accessLogService.replicate(entry.toAccessLog()));
+            }
+            repository.saveState(lastSeq, nextOffset, Instant.now());
+        });
+        for (ChangeSet changeSet : changeSets) {
+            for (AccountImage image : changeSet.accounts()) {
+                if (image.account().get("change_count") instanceof Number changeCount) {
+                    changeTracker.remember(image.accountId(), changeCount.longValue());
+                }
+            }
+        }
+        appliedSeq = lastSeq;
+        logOffset = nextOffset;
+        if (!changeSets.isEmpty()) {
+            appliedCommittedAt = changeSets.get(changeSets.size() - 1).committedAt();
+        }
+    }
+
+    /**
+     * 変更ログの適用状態です。
+     *
+     * @param changeLog          変更ログのパス
+     * @param appliedSeq         適用済みの連番
+     * @param logOffset          変更ログの読み取り位置
+     * @param appliedCommittedAt 最後に適用した変更のプライマリでのコミット日時（未適用の場合は {@code null}）
+     * @param staleness          変更ログを末尾まで読み終えたことを最後に確認してからの経過時間（未確認の場合は {@code null}）
+     * @param lastError          直近の読み取り・適用の失敗内容（成功している場合は {@code null}）
+     */
+    public record Status(String changeLog, long appliedSeq, long logOffset, Instant appliedCommittedAt,
+                         Duration staleness, String lastError) {
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.stock.service;
+
+import com.example.stock.repository.ReplicationRepository;
+import com.example.stock.repository.ReplicationRepository.AccountImage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * プライマリとして、コミットされたアカウントの更新とアクセスログを変更ログ（{@code app.replication.change-log}）へ
+ * 追記します。
+ * <p>
+ * {@link AccountChangedEvent} と {@link AccessLogRecordedEvent} を受けて更新対象をトランザクションごとに記録し、
+ * コミット直前に同じトランザクションの中で連番を発番して、更新後のアカウントの行イメージと新しい取引を読み出します。
+ * この処理は最低優先度の {@link TransactionSynchronization} として登録し、読み取りモデル（{@link AccountReadModel}）が
+ * {@code account_summaries} を書き込んだ後に、登録の順序によらず実行します。
+ * 連番は {@code replication_state} にも保存するため、ロールバックした更新は連番ごと破棄されます。
+ * 変更ログへの追記はコミットの完了後に行い、{@code fsync} してから次のコミットへ進むため、変更ログには
+ * コミット済みの変更だけがコミット順に並びます。
+ * <p>
+ * 追記の前にプロセスが停止した場合、その変更は変更ログに残りません。アカウントの行イメージは常にその時点の全体を
+ * 書き出すため次の更新で、取引は {@link ChangeSet#transactionWatermark()} より後の分を次の変更でまとめて送るため、
+ * いずれもフォロワーへ反映されます。アクセスログは失われます。
+ */
+@Service
+@ConditionalOnProperty(name = "app.replication.role", havingValue = "primary")
+public class ChangeLogPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeLogPublisher.class);
+
+    private static final int TAIL_CHUNK_SIZE = 64 * 1024;
+
+    private final ReplicationRepository repository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Path changeLog;
+    private final FileChannel channel;
+    private final ReentrantLock commitLock = new ReentrantLock();
+    private volatile long lastSeq;
+    private volatile long transactionWatermark;
+    private volatile Instant lastAppendedAt;
+    private volatile String lastError;
+
+    public ChangeLogPublisher(ReplicationRepository repository, EntityManager entityManager,
+                              ObjectMapper objectMapper,
+                              @Value("${app.replication.change-log:replication/change.log}") String changeLog) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.changeLog = Path.of(changeLog).toAbsolutePath();
+        try {
+            if (this.changeLog.getParent() != null) {
+                Files.createDirectories(this.changeLog.getParent());
+            }
+            ChangeSet last = readLastEntry(this.changeLog, objectMapper);
+            long storedSeq = repository.loadState().lastSeq();
+            this.lastSeq = Math.max(storedSeq, last != null ? last.seq() : 0);
+            this.transactionWatermark = last != null ? last.transactionWatermark() : repository.findMaxTransactionId();
+            this.channel = FileChannel.open(this.changeLog, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to open change log " + this.changeLog, ex);
+        }
+        log.info("Publishing committed changes to {} from sequence {}", this.changeLog, lastSeq + 1);
+    }
+
+    /**
+     * 更新されたアカウントを、実行中のトランザクションの変更として記録します。
+     *
+     * @param event アカウント更新イベント
+     */
+    @EventListener
+    public void onAccountChanged(AccountChangedEvent event) {
+        PendingChanges pending = pending();
+        if (pending != null) {
+            pending.accountIds.add(event.account().getId());
+        }
+    }
+
+    /**
+     * 保存されたアクセスログを、実行中のトランザクションの変更として記録します。
+     *
+     * @param event アクセスログ保存イベント
+     */
+    @EventListener
+    public void onAccessLogRecorded(AccessLogRecordedEvent event) {
+        PendingChanges pending = pending();
+        if (pending != null) {
+            pending.accessLogs.add(ChangeSet.AccessLogEntry.of(event.accessLog()));
+        }
+    }
+
+    /**
+     * 現在の状態を取得します。
+     *
+     * @return 状態のスナップショット
+     */
+    public Status status() {
+        return new Status(changeLog.toString(), lastSeq, lastAppendedAt, lastError);
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        channel.close();
+    }
+
+    private PendingChanges pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            log.warn("Change outside a transaction is not written to the change log");
+            return null;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            PendingChanges changes = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    return Ordered.LOWEST_PRECEDENCE;
+                }
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    prepare(changes);
+                }
+
+                @Override
+                public void afterCommit() {
+                    append(changes);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ChangeLogPublisher.this);
+                    if (commitLock.isHeldByCurrentThread()) {
+                        commitLock.unlock();
+                    }
+                }
+            });
+            pending = changes;
+        }
+        return pending;
+    }
+
+    private void prepare(PendingChanges changes) {
+        commitLock.lock();
+        entityManager.flush();
+        long seq = lastSeq + 1;
+        List<AccountImage> images = new ArrayList<>(changes.accountIds.size());
+        for (UUID accountId : changes.accountIds) {
+            repository.findAccountImage(accountId).ifPresent(images::add);
+        }
+        List<Map<String, Object>> transactions = repository.findTransactionsAfter(transactionWatermark);
+        long watermark = transactions.isEmpty() ? transactionWatermark
+                : ((Number) transactions.get(transactions.size() - 1).get("id")).longValue();
+        Instant now = Instant.now();
+        repository.saveState(seq, 0, now);
+        changes.prepared = new ChangeSet(seq, now, watermark, images, transactions, changes.accessLogs);
+    }
+
+    private void append(PendingChanges changes) {
+        ChangeSet changeSet = changes.prepared;
+        lastSeq = changeSet.seq();
+        try {
+            byte[] line = (changeSet.encode(objectMapper) + "\n").getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            transactionWatermark = changeSet.transactionWatermark();
+            lastAppendedAt = Instant.now();
+            lastError = null;
+        } catch (IOException | RuntimeException ex) {
+            lastError = "Failed to append change set " + changeSet.seq() + ": " + ex.getMessage();
+            log.error("Failed to append change set {} to {}", changeSet.seq(), changeLog, ex);
+        }
+    }
+
+    /**
+     * 変更ログの最後の行を読み出します。書き込み途中で途切れた最後の行は無視します。
+     */
+    static ChangeSet readLastEntry(Path file, ObjectMapper objectMapper) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r")) {
+            long end = raf.length();
+            while (end > 0) {
+                raf.seek(end - 1);
+                if (raf.read() == '\n') {
+                    break;
+                }
+                end--;
+            }
+            if (end == 0) {
+                return null;
+            }
+            long start = end - 1;
+            byte[] chunk = new byte[TAIL_CHUNK_SIZE];
+            while (start > 0) {
+                int length = (int) Math.min(chunk.length, start);
+                raf.seek(start - length);
+                raf.readFully(chunk, 0, length);
+                int newline = -1;
+                for (int i = length - 1; i >= 0; i--) {
+                    if (chunk[i] == '\n') {
+                        newline = i;
+                        break;
+                    }
+                }
+                if (newline >= 0) {
+                    start = start - length + newline + 1;
+                    break;
+                }
+                start -= length;
+            }
+            byte[] line = new byte[(int) (end - 1 - start)];
+            raf.seek(start);
+            raf.readFully(line);
+            return ChangeSet.decode(objectMapper, new String(line, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static final class PendingChanges {
+        private final Set<UUID> accountIds = new LinkedHashSet<>();
+        private final List<ChangeSet.AccessLogEntry> accessLogs = new ArrayList<>();
+        private ChangeSet prepared;
+    }
+
+    /**
+     * 変更ログの書き出し状態です。
+     *
+     * @param changeLog      変更ログのパス
+     * @param lastSeq        最後に発番した連番
+     * @param lastAppendedAt 最後に追記した日時（未追記の場合は {@code null}）
+     * @param lastError      直近の追記の失敗内容（成功している場合は {@code null}）
+     */
+    public record Status(String changeLog, long lastSeq, Instant lastAppendedAt, String lastError) {
+    }
+}
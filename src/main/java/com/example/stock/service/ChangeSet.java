@@ -0,0 +1,190 @@
+package com.example.stock.service;
+
+import com.example.stock.model.AccessLog;
+import com.example.stock.repository.ReplicationRepository.AccountImage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 1 回のコミットで確定した変更をまとめた変更ログの 1 件です。
+ * <p>
+ * 変更ログには 1 件を 1 行の JSON として追記します。行イメージの値は SQLite の保存形式のまま写し、
+ * BLOB は {@code {"b": "<Base64>"}} で表します。
+ *
+ * @param seq                  変更ログの連番（1 から始まり、コミット順に増加します）
+ * @param committedAt          プライマリでコミットした日時
+ * @param transactionWatermark この変更までに変更ログへ書き出した取引 ID の最大値
+ * @param accounts             更新されたアカウントのコミット時点の行イメージ
+ * @param transactions         記録された取引の行イメージ
+ * @param accessLogs           記録されたアクセスログ
+ */
+public record ChangeSet(long seq, Instant committedAt, long transactionWatermark, List<AccountImage> accounts,
+                        List<Map<String, Object>> transactions, List<AccessLogEntry> accessLogs) {
+
+    public ChangeSet {
+        accounts = List.copyOf(accounts);
+        transactions = List.copyOf(transactions);
+        accessLogs = List.copyOf(accessLogs);
+    }
+
+    /**
+     * 変更ログの 1 行へ符号化します。
+     *
+     * @param objectMapper JSON の読み書きに使う {@link ObjectMapper}
+     * @return 改行を含まない JSON
+     */
+    public String encode(ObjectMapper objectMapper) {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("seq", seq);
+        root.put("committedAt", committedAt.toEpochMilli());
+        root.put("transactionWatermark", transactionWatermark);
+        ArrayNode accountNodes = root.putArray("accounts");
+        for (AccountImage image : accounts) {
+            ObjectNode node = accountNodes.addObject();
+            node.put("id", image.accountId().toString());
+            node.set("account", toNode(objectMapper, image.account()));
+            node.set("holdings", toNodes(objectMapper, image.holdings()));
+            node.set("taxLots", toNodes(objectMapper, image.taxLots()));
+            node.set("summary", image.summary() != null ? toNode(objectMapper, image.summary()) : null);
+        }
+        root.set("transactions", toNodes(objectMapper, transactions));
+        ArrayNode accessLogNodes = root.putArray("accessLogs");
+        for (AccessLogEntry entry : accessLogs) {
+            accessLogNodes.addObject()
+                    .put("id", entry.id().toString())
+                    .put("page", entry.page())
+                    .put("path", entry.path())
+                    .put("ipAddress", entry.ipAddress())
+                    .put("userAgent", entry.userAgent())
+                    .put("accessedAt", entry.accessedAt().toEpochMilli());
+        }
+        try {
+            return objectMapper.writeValueAsString(root);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to encode change set " + seq, ex);
+        }
+    }
+
+    /**
+     * 変更ログの 1 行を復号します。
+     *
+     * @param objectMapper JSON の読み書きに使う {@link ObjectMapper}
+     * @param line         変更ログの 1 行
+     * @return 変更
+     * @throws IllegalArgumentException 行の形式が不正な場合
+     */
+    public static ChangeSet decode(ObjectMapper objectMapper, String line) {
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(line);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Malformed change log entry", ex);
+        }
+        if (root == null || !root.hasNonNull("seq")) {
+            throw new IllegalArgumentException("Malformed change log entry");
+        }
+        List<AccountImage> accounts = new ArrayList<>();
+        for (JsonNode node : root.path("accounts")) {
+            JsonNode summary = node.get("summary");
+            accounts.add(new AccountImage(UUID.fromString(node.path("id").asText()), toRow(node.path("account")),
+                    toRows(node.path("holdings")), toRows(node.path("taxLots")),
+                    summary == null || summary.isNull() ? null : toRow(summary)));
+        }
+        List<AccessLogEntry> accessLogs = new ArrayList<>();
+        for (JsonNode node : root.path("accessLogs")) {
+            accessLogs.add(new AccessLogEntry(UUID.fromString(node.path("id").asText()), node.path("page").asText(),
+                    node.path("path").asText(), node.path("ipAddress").asText(),
+                    node.path("userAgent").isNull() ? null : node.path("userAgent").asText(),
+                    Instant.ofEpochMilli(node.path("accessedAt").asLong())));
+        }
+        return new ChangeSet(root.path("seq").asLong(), Instant.ofEpochMilli(root.path("committedAt").asLong()),
+                root.path("transactionWatermark").asLong(), accounts, toRows(root.path("transactions")), accessLogs);
+    }
+
+    private static ArrayNode toNodes(ObjectMapper objectMapper, List<Map<String, Object>> rows) {
+        ArrayNode nodes = objectMapper.createArrayNode();
+        rows.forEach(row -> nodes.add(toNode(objectMapper, row)));
+        return nodes;
+    }
+
+    private static ObjectNode toNode(ObjectMapper objectMapper, Map<String, Object> row) {
+        ObjectNode node = objectMapper.createObjectNode();
+        row.forEach((column, value) -> {
+            if (value == null) {
+                node.putNull(column);
+            } else if (value instanceof byte[] bytes) {
+                node.putObject(column).put("b", Base64.getEncoder().encodeToString(bytes));
+            } else if (value instanceof Integer || value instanceof Long) {
+                node.put(column, ((Number) value).longValue());
+            } else if (value instanceof Number number) {
+                node.put(column, number.doubleValue());
+            } else {
+                node.put(column, value.toString());
+            }
+        });
+        return node;
+    }
+
+    private static List<Map<String, Object>> toRows(JsonNode nodes) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        nodes.forEach(node -> rows.add(toRow(node)));
+        return rows;
+    }
+
+    private static Map<String, Object> toRow(JsonNode node) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> fields = node.fields(); fields.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode value = field.getValue();
+            Object decoded;
+            if (value.isNull()) {
+                decoded = null;
+            } else if (value.isObject()) {
+                decoded = Base64.getDecoder().decode(value.path("b").asText());
+            } else if (value.isIntegralNumber()) {
+                decoded = value.longValue();
+            } else if (value.isNumber()) {
+                decoded = value.doubleValue();
+            } else {
+                decoded = value.asText();
+            }
+            row.put(field.getKey(), decoded);
+        }
+        return row;
+    }
+
+    /**
+     * 変更ログに含めるアクセスログです。
+     *
+     * @param id         ログ ID
+     * @param page       画面種別
+     * @param path       パス
+     * @param ipAddress  アクセス元 IP アドレス
+     * @param userAgent  ユーザーエージェント
+     * @param accessedAt アクセス日時
+     */
+    public record AccessLogEntry(UUID id, String page, String path, String ipAddress, String userAgent,
+                                 Instant accessedAt) {
+
+        static AccessLogEntry of(AccessLog log) {
+            return new AccessLogEntry(log.getId(), log.getPage(), log.getPath(), log.getIpAddress(),
+                    log.getUserAgent(), log.getAccessedAt());
+        }
+
+        AccessLog toAccessLog() {
+            return AccessLog.restore(id, page, path, ipAddress, userAgent, accessedAt);
+        }
+    }
+}
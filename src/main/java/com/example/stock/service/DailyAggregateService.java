@@ -0,0 +1,193 @@
+package com.example.stock.service;
+
+import com.example.stock.model.DailyAccountAggregate;
+import com.example.stock.model.TradeSide;
+import com.example.stock.model.Transaction;
+import com.example.stock.model.TransactionType;
+import com.example.stock.repository.DailyAccountAggregateRepository;
+import com.example.stock.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * アカウント単位の日次集計（入出金額・売買件数・約定金額）を維持するサービスです。
+ * <p>
+ * 集計行は {@link TransactionRecordedEvent} を受けて取引と同一トランザクション内で更新されるため、
+ * 期間集計は {@code transactions} を走査せずに日数分の行だけで回答できます。
+ * 集計行への加算はキーの一意索引に対する upsert（{@link DailyAccountAggregateRepository#add(DailyAccountAggregate)}）で
+ * 行うため、既存の行を読み込みません。
+ */
+@Service
+@Transactional
+public class DailyAggregateService {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final DailyAccountAggregateRepository aggregateRepository;
+    private final TransactionRepository transactionRepository;
+    private final EntityManager entityManager;
+
+    public DailyAggregateService(DailyAccountAggregateRepository aggregateRepository,
+                                 TransactionRepository transactionRepository, EntityManager entityManager) {
+        this.aggregateRepository = aggregateRepository;
+        this.transactionRepository = transactionRepository;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * 保存されたトランザクションを該当する日次集計へ加算します。
+     *
+     * @param event トランザクション保存イベント
+     */
+    @EventListener
+    public void onTransactionRecorded(TransactionRecordedEvent event) {
+        Transaction transaction = event.transaction();
+        DailyAccountAggregate delta = new DailyAccountAggregate(transaction.getAccount().getId(),
+                businessDateOf(transaction), transaction.getType(), transaction.getTradeSide());
+        delta.apply(transaction);
+        aggregateRepository.add(delta);
+    }
+
+    /**
+     * 指定期間の日次集計行を取得します。
+     *
+     * @param accountId アカウント識別子
+     * @param from      開始日（含む）
+     * @param to        終了日（含む）
+     * @return 日付順の集計行
+     */
+    @Transactional(readOnly = true)
+    public List<DailyAccountAggregate> getDailyAggregates(UUID accountId, LocalDate from, LocalDate to) {
+        return aggregateRepository.findByAccountIdAndBusinessDateBetweenOrderByBusinessDateAsc(accountId, from, to);
+    }
+
+    /**
+     * 指定期間の集計値を合算したサマリーを取得します。
+     * 約定金額は通貨の異なる取引を合算できるよう、現金残高の通貨建ての受渡金額で集計します。
+     *
+     * @param accountId アカウント識別子
+     * @param from      開始日（含む）
+     * @param to        終了日（含む）
+     * @return 期間サマリー
+     */
+    @Transactional(readOnly = true)
+    public ActivitySummary summarize(UUID accountId, LocalDate from, LocalDate to) {
+        BigDecimal netDeposits = BigDecimal.ZERO;
+        long tradeCount = 0;
+        BigDecimal buyNotional = BigDecimal.ZERO;
+        BigDecimal sellNotional = BigDecimal.ZERO;
+        for (DailyAccountAggregate aggregate : getDailyAggregates(accountId, from, to)) {
+            switch (aggregate.getType()) {
+                case DEPOSIT, WITHDRAWAL -> netDeposits = netDeposits.add(aggregate.getCashAmount());
+                case TRADE -> {
+                    tradeCount += aggregate.getTransactionCount();
+                    if (aggregate.getTradeSide() == TradeSide.BUY) {
+                        buyNotional = buyNotional.add(aggregate.getCashAmount().abs());
+                    } else {
+                        sellNotional = sellNotional.add(aggregate.getCashAmount().abs());
+                    }
+                }
+            }
+        }
+        return new ActivitySummary(accountId, from, to, netDeposits, tradeCount, buyNotional.add(sellNotional),
+                buyNotional, sellNotional);
+    }
+
+    /**
+     * すべての日次集計を破棄し、トランザクション履歴から再構築します。
+     * <p>
+     * トランザクションを ID 順に {@value #REBUILD_BATCH_SIZE} 件ずつ読み込み、バッチ内で合算した値を集計行へ加算してから
+     * 永続化コンテキストを破棄します。メモリに保持するのは 1 バッチ分のトランザクションと集計行だけです。
+     *
+     * @return 再集計したトランザクション件数
+     */
+    public long rebuildAll() {
+        aggregateRepository.deleteAllAggregates();
+        long processed = 0;
+        long lastId = 0;
+        List<Transaction> batch;
+        do {
+            batch = transactionRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            Map<AggregateKey, DailyAccountAggregate> aggregates = new LinkedHashMap<>();
+            for (Transaction transaction : batch) {
+                accumulate(aggregates, transaction);
+                lastId = transaction.getId();
+            }
+            aggregates.values().forEach(aggregateRepository::add);
+            entityManager.clear();
+            processed += batch.size();
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        return processed;
+    }
+
+    /**
+     * 指定アカウントの日次集計をトランザクション履歴から再構築します。
+     *
+     * @param accountId アカウント識別子
+     * @return 再集計したトランザクション件数
+     */
+    public long rebuild(UUID accountId) {
+        aggregateRepository.deleteByAccountId(accountId);
+        Map<AggregateKey, DailyAccountAggregate> aggregates = new LinkedHashMap<>();
+        List<Transaction> transactions = transactionRepository.findByAccountIdOrderByIdAsc(accountId);
+        transactions.forEach(transaction -> accumulate(aggregates, transaction));
+        aggregates.values().forEach(aggregateRepository::add);
+        return transactions.size();
+    }
+
+    /**
+     * 新規に開設したアカウントの取引から日次集計行を作成します。
+     * <p>
+     * 対象のアカウントには既存の集計行がない前提で、取引ごとに集計行を検索せずメモリ上で合算してから保存します。
+     * 一括口座開設では取引ごとのイベントを発行しないため、このメソッドで集計を同じトランザクション内に反映します。
+     *
+     * @param transactions 新規アカウントの取引
+     */
+    public void aggregateOpenedAccounts(List<Transaction> transactions) {
+        Map<AggregateKey, DailyAccountAggregate> aggregates = new LinkedHashMap<>();
+        transactions.forEach(transaction -> accumulate(aggregates, transaction));
+        aggregates.values().forEach(aggregateRepository::add);
+    }
+
+    private void accumulate(Map<AggregateKey, DailyAccountAggregate> aggregates, Transaction transaction) {
+        AggregateKey key = new AggregateKey(transaction.getAccount().getId(), businessDateOf(transaction),
+                transaction.getType(), transaction.getTradeSide());
+        aggregates.computeIfAbsent(key, k -> new DailyAccountAggregate(k.accountId(), k.businessDate(), k.type(),
+                k.tradeSide())).apply(transaction);
+    }
+
+    private static LocalDate businessDateOf(Transaction transaction) {
+        return LocalDate.ofInstant(transaction.getOccurredAt(), ZoneOffset.UTC);
+    }
+
+    private record AggregateKey(UUID accountId, LocalDate businessDate, TransactionType type, TradeSide tradeSide) {
+    }
+
+    /**
+     * 期間内の入出金・売買の合計値です。
+     *
+     * @param accountId      アカウント識別子
+     * @param from           開始日
+     * @param to             終了日
+     * @param netDeposits    入金額から出金額を差し引いた純入金額
+     * @param tradeCount     売買件数
+     * @param tradedNotional 売買約定金額の合計
+     * @param buyNotional    買付約定金額の合計
+     * @param sellNotional   売却約定金額の合計
+     */
+    public record ActivitySummary(UUID accountId, LocalDate from, LocalDate to, BigDecimal netDeposits,
+                                  long tradeCount, BigDecimal tradedNotional, BigDecimal buyNotional,
+                                  BigDecimal sellNotional) {
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.stock.service;
+
+import com.example.stock.exception.UnsupportedCurrencyException;
+import com.example.stock.model.Account;
+import com.example.stock.repository.EndOfDayValuationRepository;
+import com.example.stock.repository.EndOfDayValuationRepository.AccountPosition;
+import com.example.stock.repository.EndOfDayValuationRepository.ClosingPrice;
+import com.example.stock.repository.EndOfDayValuationRepository.EquitySnapshot;
+import com.example.stock.repository.EndOfDayValuationRepository.HoldingPosition;
+import com.example.stock.repository.EndOfDayValuationRepository.RunState;
+import com.example.stock.repository.EndOfDayValuationRepository.RunStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 営業日の終値ですべての口座を時価評価し、口座ごと・営業日ごとの評価額スナップショットを保存する日次バッチです。
+ * <p>
+ * アカウントは ID 順のキーセットページングで {@code chunk-size} 件ずつ読み出し、メモリ上の評価だけを固定サイズの
+ * スレッドプールで並列に実行します。データベースの読み書きは呼び出し元のスレッドだけが行い、チャンクごとに短い
+ * トランザクションを閉じるため、コネクションが 1 本の SQLite でもワーカーがコネクションを待つことはなく、チャンクの間で
+ * 他の処理がコネクションを使えます。処理中のチャンクは {@code parallelism} の 2 倍までに制限し、最も古いチャンクの完了を
+ * 待ってから次を読み出すため、メモリ使用量は口座数に依存しません。チャンクの評価結果は読み出した順に、スナップショットと
+ * 再開位置（そのチャンクの最終アカウント ID）を同じトランザクションで保存します。中断したバッチを同じ営業日で再実行すると、その ID の次のアカウントから再開します。
+ * 再開位置より後で完了済みだったチャンクは評価し直しますが、スナップショットは置き換えで保存するため結果は変わりません。
+ * <p>
+ * 終値のない銘柄は取得原価で評価し、件数を {@code unpricedHoldings} として記録します。
+ * 金額は口座の現金残高の通貨建てで、終値や取得単価の通貨が異なる場合は {@link FxRateCache} の換算レートで換算します。
+ */
+@Service
+public class EndOfDayValuationService {
+
+    private static final Logger log = LoggerFactory.getLogger(EndOfDayValuationService.class);
+    private static final int MONEY_SCALE = 4;
+
+    private final EndOfDayValuationRepository repository;
+    private final FxRateCache fxRateCache;
+    private final TransactionTemplate readTemplate;
+    private final TransactionTemplate writeTemplate;
+    private final int parallelism;
+    private final int chunkSize;
+
+    public EndOfDayValuationService(
+            EndOfDayValuationRepository repository,
+            FxRateCache fxRateCache,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.eod.parallelism:0}") int parallelism,
+            @Value("${app.eod.chunk-size:500}") int chunkSize) {
+        this.repository = repository;
+        this.fxRateCache = fxRateCache;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * 定期実行用です。当日（UTC）の終値で評価し、完了済みの場合は何もしません。
+     */
+    @Scheduled(cron = "${app.eod.cron:0 30 21 * * MON-FRI}", zone = "UTC")
+    public void scheduledRun() {
+        run(LocalDate.now(ZoneOffset.UTC), false);
+    }
+
+    /**
+     * 指定した営業日の時価評価を実行します。
+     * <p>
+     * 同じ営業日の実行が完了していない場合は、前回確定したチャンクの次から再開します。
+     *
+     * @param businessDate 営業日
+     * @param rerun        {@code true} の場合は完了済みでも先頭から評価し直します
+     * @return 実行状況
+     * @throws IllegalStateException チャンクの評価または保存に失敗した場合（実行状況は失敗として保存され、再実行で続きから再開できます）
+     */
+    public synchronized RunState run(LocalDate businessDate, boolean rerun) {
+        Optional<RunState> previous = repository.findRun(businessDate);
+        if (previous.isPresent() && previous.get().status() == RunStatus.COMPLETED && !rerun) {
+            return previous.get();
+        }
+        boolean resume = previous.isPresent() && !rerun;
+        Instant startedAt = now();
+        RunState state = new RunState(businessDate, RunStatus.RUNNING,
+                resume ? previous.get().lastAccountId() : null, repository.countAccounts(),
+                resume ? previous.get().accountsValued() : 0, resume ? previous.get().accountsValued() : 0,
+                resume ? previous.get().chunksCompleted() : 0, resume ? previous.get().unpricedHoldings() : 0,
+                startedAt, startedAt, null);
+        if (resume && state.lastAccountId() != null) {
+            log.info("Resuming end-of-day valuation for {} after {} accounts", businessDate, state.accountsValued());
+        }
+        repository.saveRun(state);
+
+        Map<String, ClosingPrice> prices = repository.findClosingPrices(businessDate);
+        FxRateMatrix rates = fxRateCache.current();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        Deque<Future<ChunkResult>> inFlight = new ArrayDeque<>();
+        try {
+            UUID after = state.lastAccountId();
+            while (true) {
+                UUID cursor = after;
+                List<AccountPosition> chunk = readTemplate.execute(status ->
+                        repository.findAccountChunk(cursor, chunkSize));
+                if (chunk == null || chunk.isEmpty()) {
+                    break;
+                }
+                after = chunk.get(chunk.size() - 1).accountId();
+                inFlight.addLast(pool.submit(() -> valueChunk(chunk, businessDate, prices, rates)));
+                while (inFlight.size() >= parallelism * 2) {
+                    state = complete(state, inFlight.removeFirst());
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                state = complete(state, inFlight.removeFirst());
+            }
+        } catch (RuntimeException ex) {
+            inFlight.forEach(future -> future.cancel(true));
+            repository.saveRun(withStatus(state, RunStatus.FAILED, null));
+            throw new IllegalStateException("End-of-day valuation failed for " + businessDate, ex);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Instant completedAt = now();
+        state = withStatus(state, RunStatus.COMPLETED, completedAt);
+        repository.saveRun(state);
+        log.info(String.format(Locale.ROOT,
+                "End-of-day valuation for %s valued %d accounts in %d chunks (%d unpriced holdings) in %d ms",
+                businessDate, state.accountsValued() - state.resumedAccounts(), state.chunksCompleted(),
+                state.unpricedHoldings(), completedAt.toEpochMilli() - startedAt.toEpochMilli()));
+        return state;
+    }
+
+    /**
+     * 指定した営業日の実行状況を取得します。
+     *
+     * @param businessDate 営業日
+     * @return 実行状況（未実行の場合は空）
+     */
+    public Optional<RunState> getRun(LocalDate businessDate) {
+        return repository.findRun(businessDate);
+    }
+
+    /**
+     * 指定した営業日の終値を保存します。同じ銘柄の終値は置き換えます。
+     *
+     * @param businessDate 営業日
+     * @param prices       終値（銘柄コードは大文字へ正規化します）
+     * @return 保存した終値
+     * @throws UnsupportedCurrencyException 為替レートが登録されていない通貨の場合
+     */
+    public List<ClosingPrice> saveClosingPrices(LocalDate businessDate, List<ClosingPrice> prices) {
+        List<ClosingPrice> normalized = prices.stream()
+                .map(price -> new ClosingPrice(price.symbol().trim().toUpperCase(Locale.ROOT),
+                        fxRateCache.requireSupported(price.currency() != null ? price.currency()
+                                : Account.DEFAULT_CASH_CURRENCY),
+                        price.price()))
+                .toList();
+        repository.saveClosingPrices(businessDate, normalized, now());
+        return normalized;
+    }
+
+    /**
+     * 指定した営業日の終値を取得します。
+     *
+     * @param businessDate 営業日
+     * @return 終値（銘柄コード順）
+     */
+    public List<ClosingPrice> getClosingPrices(LocalDate businessDate) {
+        return repository.findClosingPrices(businessDate).values().stream()
+                .sorted(Comparator.comparing(ClosingPrice::symbol))
+                .toList();
+    }
+
+    /**
+     * アカウントの評価額スナップショットを取得します。
+     *
+     * @param accountId アカウント ID
+     * @param from      開始日
+     * @param to        終了日
+     * @return スナップショット一覧（営業日順）
+     */
+    public List<EquitySnapshot> getSnapshots(UUID accountId, LocalDate from, LocalDate to) {
+        return repository.findSnapshots(accountId, from, to);
+    }
+
+    /**
+     * 最も古い処理中のチャンクの評価を待ち、スナップショットと再開位置・進捗を同じトランザクションで保存します。
+     */
+    private RunState complete(RunState state, Future<ChunkResult> future) {
+        ChunkResult result;
+        try {
+            result = future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted", ex);
+        } catch (ExecutionException ex) {
+            throw ex.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(ex.getCause());
+        }
+        RunState next = new RunState(state.businessDate(), RunStatus.RUNNING, result.lastAccountId(),
+                state.accountsTotal(), state.accountsValued() + result.snapshots().size(), state.resumedAccounts(),
+                state.chunksCompleted() + 1, state.unpricedHoldings() + result.unpricedHoldings(), state.startedAt(),
+                now(), null);
+        writeTemplate.executeWithoutResult(status -> {
+            repository.saveSnapshots(result.snapshots());
+            repository.saveRun(next);
+        });
+        return next;
+    }
+
+    private static ChunkResult valueChunk(List<AccountPosition> chunk, LocalDate businessDate,
+                                          Map<String, ClosingPrice> prices, FxRateMatrix rates) {
+        Instant valuedAt = now();
+        List<EquitySnapshot> snapshots = new ArrayList<>(chunk.size());
+        long unpriced = 0;
+        for (AccountPosition account : chunk) {
+            EquitySnapshot snapshot = value(account, businessDate, prices, rates, valuedAt);
+            unpriced += snapshot.unpricedHoldings();
+            snapshots.add(snapshot);
+        }
+        return new ChunkResult(chunk.get(chunk.size() - 1).accountId(), snapshots, unpriced);
+    }
+
+    /**
+     * 1 アカウント分の評価です。終値のない銘柄は取得原価で評価します。
+     */
+    static EquitySnapshot value(AccountPosition account, LocalDate businessDate, Map<String, ClosingPrice> prices,
+                                FxRateMatrix rates, Instant valuedAt) {
+        String currency = account.cashCurrency();
+        BigDecimal marketValue = BigDecimal.ZERO;
+        BigDecimal costBasis = BigDecimal.ZERO;
+        int unpriced = 0;
+        for (HoldingPosition holding : account.holdings()) {
+            BigDecimal cost = holding.quantity().multiply(holding.averageCost())
+                    .multiply(rates.exactRate(holding.currency(), currency));
+            ClosingPrice close = prices.get(holding.symbol());
+            BigDecimal value;
+            if (close == null) {
+                unpriced++;
+                value = cost;
+            } else {
+                value = holding.quantity().multiply(close.price()).multiply(rates.exactRate(close.currency(), currency));
+            }
+            marketValue = marketValue.add(value);
+            costBasis = costBasis.add(cost);
+        }
+        marketValue = marketValue.setScale(MONEY_SCALE, RoundingMode.HALF_UP);
+        return new EquitySnapshot(account.accountId(), businessDate, currency, account.cashBalance(), marketValue,
+                costBasis.setScale(MONEY_SCALE, RoundingMode.HALF_UP), account.cashBalance().add(marketValue),
+                account.holdings().size(), unpriced, valuedAt);
+    }
+
+    private static RunState withStatus(RunState state, RunStatus status, Instant completedAt) {
+        return new RunState(state.businessDate(), status, state.lastAccountId(), state.accountsTotal(),
+                state.accountsValued(), state.resumedAccounts(), state.chunksCompleted(), state.unpricedHoldings(),
+                state.startedAt(), now(), completedAt);
+    }
+
+    /**
+     * 保存値と一致するよう、日時はミリ秒に切り捨てて扱います。
+     */
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    private record ChunkResult(UUID lastAccountId, List<EquitySnapshot> snapshots, long unpricedHoldings) {
+    }
+}
@@ -0,0 +1,320 @@
+package com.example.stock.service;
+
+import com.example.stock.model.Account;
+import com.example.stock.model.Holding;
+import com.example.stock.repository.HoldingSnapshotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * 全社の保有銘柄のエクスポージャーと集中度を集計するサービスです。
+ * <p>
+ * 起動時にすべての保有銘柄を {@link HoldingColumns} へ読み込み、以降はコミットされた {@link AccountChangedEvent} ごとに
+ * 該当アカウントの行だけを差し替えます。集計はデータベースへ問い合わせず、メモリ上の列を並列に走査します。
+ * 時価を保持していないため、金額はすべて取得原価（数量 × 平均取得単価）で評価します。
+ * 取得原価は通貨の異なる保有銘柄を合算できるよう、行を読み込む時点のレートで米ドルへ換算して保持し、
+ * 為替レートが更新された場合は {@link FxRatesUpdatedEvent} を受けてスナップショットを読み込み直します。
+ * <p>
+ * 参照は読み取りロック、差し替えと再読み込みは書き込みロックで排他します。
+ */
+@Service
+public class ExposureAnalyticsService implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ExposureAnalyticsService.class);
+
+    /** 取得原価を合算する通貨。 */
+    static final String CURRENCY = "USD";
+
+    private final HoldingSnapshotRepository snapshotRepository;
+    private final FxRateCache fxRateCache;
+    private final HoldingColumns columns = new HoldingColumns();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Instant loadedAt;
+    private volatile Instant ratesAsOf;
+
+    public ExposureAnalyticsService(HoldingSnapshotRepository snapshotRepository, FxRateCache fxRateCache) {
+        this.snapshotRepository = snapshotRepository;
+        this.fxRateCache = fxRateCache;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        reload();
+    }
+
+    /**
+     * スナップショットを破棄し、すべての保有銘柄をデータベースから読み込み直します。
+     *
+     * @return 読み込み後のスナップショットの状態
+     */
+    public Snapshot reload() {
+        long started = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            FxRateMatrix rates = fxRateCache.current();
+            columns.clear();
+            List<HoldingColumns.Entry> entries = new ArrayList<>();
+            UUID[] current = new UUID[1];
+            long[] version = new long[1];
+            snapshotRepository.streamHoldings(row -> {
+                if (!row.accountId().equals(current[0])) {
+                    if (current[0] != null) {
+                        columns.replace(current[0], version[0], entries);
+                    }
+                    entries.clear();
+                    current[0] = row.accountId();
+                    version[0] = row.changeCount();
+                }
+                entries.add(entry(row.symbol(), row.exchange(), row.currency(), row.quantity(), row.averageCost(),
+                        rates));
+            });
+            if (current[0] != null) {
+                columns.replace(current[0], version[0], entries);
+            }
+            loadedAt = Instant.now();
+            ratesAsOf = rates.getAsOf();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Snapshot snapshot = getSnapshot();
+        log.info("Loaded exposure snapshot with {} holdings of {} accounts in {} ms", snapshot.holdings(),
+                snapshot.accounts(), (System.nanoTime() - started) / 1_000_000);
+        return snapshot;
+    }
+
+    /**
+     * 為替レートの更新後、すべての行を新しいレートで換算し直すためにスナップショットを読み込み直します。
+     *
+     * @param event 為替レート更新イベント
+     */
+    @EventListener
+    public void onFxRatesUpdated(FxRatesUpdatedEvent event) {
+        reload();
+    }
+
+    /**
+     * コミットされたアカウントの保有銘柄をスナップショットへ反映します。
+     *
+     * @param event アカウント更新イベント
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAccountChanged(AccountChangedEvent event) {
+        Account account = event.account();
+        List<HoldingColumns.Entry> entries = new ArrayList<>(account.getHoldings().size());
+        lock.writeLock().lock();
+        try {
+            // 読み込み直しと同じレートで換算するよう、書き込みロックを取ってからレートを参照します
+            FxRateMatrix rates = fxRateCache.current();
+            for (Holding holding : account.getHoldings()) {
+                entries.add(entry(holding.getSymbol(), holding.getExchange(), holding.getCurrency(),
+                        holding.getQuantity().doubleValue(), holding.getAverageCost().doubleValue(), rates));
+            }
+            columns.replace(account.getId(), account.getChangeCount(), entries);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static HoldingColumns.Entry entry(String symbol, String exchange, String currency, double quantity,
+                                              double averageCost, FxRateMatrix rates) {
+        return new HoldingColumns.Entry(symbol, exchange, quantity,
+                averageCost * rates.exactRate(currency, CURRENCY).doubleValue());
+    }
+
+    /**
+     * スナップショットの状態を取得します。
+     *
+     * @return スナップショットの状態
+     */
+    public Snapshot getSnapshot() {
+        lock.readLock().lock();
+        try {
+            return new Snapshot(columns.accountCount(), columns.holdingCount(), CURRENCY, ratesAsOf, loadedAt);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 銘柄コードまたは取引市場ごとのエクスポージャーを取得原価の大きい順に取得します。
+     *
+     * @param dimension 集計の単位
+     * @return エクスポージャー一覧
+     */
+    public List<Exposure> getExposures(Dimension dimension) {
+        lock.readLock().lock();
+        try {
+            return exposures(dimension == Dimension.SYMBOL);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 指定した銘柄の保有者を保有数量の大きい順に取得し、保有者間の集中度を算出します。
+     *
+     * @param symbol 銘柄コード
+     * @param limit  返却する保有者数の上限
+     * @return 銘柄の保有状況（保有者がいない場合は件数 0）
+     */
+    public SymbolHolders getTopHolders(String symbol, int limit) {
+        String key = symbol.trim().toUpperCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            int[] rows = columns.rowsOf(key);
+            double quantity = 0;
+            double costBasis = 0;
+            for (int row : rows) {
+                quantity += columns.quantity(row);
+                costBasis += columns.cost(row);
+            }
+            double total = quantity;
+            double herfindahl = total > 0 ? Arrays.stream(rows)
+                    .mapToDouble(row -> columns.quantity(row) / total)
+                    .map(share -> share * share)
+                    .sum() : 0;
+            List<Holder> holders = Arrays.stream(rows).boxed()
+                    .sorted(Comparator.comparingDouble((Integer row) -> columns.quantity(row)).reversed()
+                            .thenComparing(row -> columns.accountId(row)))
+                    .limit(limit)
+                    .map(row -> new Holder(columns.accountId(row), columns.exchange(row), columns.quantity(row),
+                            columns.cost(row), total > 0 ? columns.quantity(row) / total : 0))
+                    .toList();
+            double topShare = holders.stream().mapToDouble(Holder::share).sum();
+            return new SymbolHolders(key, rows.length, quantity, costBasis, topShare, herfindahl, holders);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 全社の保有銘柄の集中度（上位銘柄の占有率とハーフィンダール・ハーシュマン指数）を取得原価で算出します。
+     *
+     * @param top 占有率を求める上位銘柄数
+     * @return 集中度
+     */
+    public Concentration getConcentration(int top) {
+        lock.readLock().lock();
+        try {
+            List<Exposure> exposures = exposures(true);
+            double costBasis = exposures.stream().mapToDouble(Exposure::costBasis).sum();
+            double herfindahl = exposures.stream().mapToDouble(exposure -> exposure.share() * exposure.share()).sum();
+            List<Exposure> topSymbols = exposures.subList(0, Math.min(top, exposures.size()));
+            double topShare = topSymbols.stream().mapToDouble(Exposure::share).sum();
+            return new Concentration(columns.holdingCount(), exposures.size(), costBasis, top, topShare, herfindahl,
+                    List.copyOf(topSymbols));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Exposure> exposures(boolean bySymbol) {
+        double[] totals = columns.aggregate(bySymbol);
+        int groups = totals.length / HoldingColumns.STRIDE;
+        double costBasis = 0;
+        for (int group = 0; group < groups; group++) {
+            costBasis += totals[group * HoldingColumns.STRIDE + 2];
+        }
+        double total = costBasis;
+        return IntStream.range(0, groups)
+                .filter(group -> totals[group * HoldingColumns.STRIDE] > 0)
+                .mapToObj(group -> {
+                    int offset = group * HoldingColumns.STRIDE;
+                    return new Exposure(columns.name(bySymbol, group), (long) totals[offset], totals[offset + 1],
+                            totals[offset + 2], total > 0 ? totals[offset + 2] / total : 0);
+                })
+                .sorted(Comparator.comparingDouble(Exposure::costBasis).reversed().thenComparing(Exposure::key))
+                .toList();
+    }
+
+    /**
+     * エクスポージャーの集計単位です。
+     */
+    public enum Dimension {
+        SYMBOL,
+        EXCHANGE
+    }
+
+    /**
+     * スナップショットの状態です。
+     *
+     * @param accounts  保有銘柄を記録しているアカウント数
+     * @param holdings  保有銘柄の行数
+     * @param currency  取得原価を換算した通貨
+     * @param ratesAsOf 最後に読み込んだ時点の為替レートの基準日時（未読み込みの場合は {@code null}）
+     * @param loadedAt  最後にデータベースから読み込んだ日時（未読み込みの場合は {@code null}）
+     */
+    public record Snapshot(int accounts, int holdings, String currency, Instant ratesAsOf, Instant loadedAt) {
+    }
+
+    /**
+     * 銘柄コードまたは取引市場ごとのエクスポージャーです。
+     *
+     * @param key       銘柄コードまたは取引市場
+     * @param holdings  保有件数
+     * @param quantity  保有数量の合計
+     * @param costBasis 取得原価の合計（米ドル建て）
+     * @param share     全社の取得原価に占める割合
+     */
+    public record Exposure(String key, long holdings, double quantity, double costBasis, double share) {
+    }
+
+    /**
+     * 銘柄の保有者です。
+     *
+     * @param accountId アカウント ID
+     * @param exchange  取引市場
+     * @param quantity  保有数量
+     * @param costBasis 取得原価
+     * @param share     銘柄の保有数量の合計に占める割合
+     */
+    public record Holder(UUID accountId, String exchange, double quantity, double costBasis, double share) {
+    }
+
+    /**
+     * 銘柄の保有状況と保有者間の集中度です。
+     *
+     * @param symbol      銘柄コード
+     * @param holderCount 保有者数
+     * @param quantity    保有数量の合計
+     * @param costBasis   取得原価の合計
+     * @param topShare    返却した上位保有者の保有数量の占有率
+     * @param herfindahl  保有数量の占有率から求めたハーフィンダール・ハーシュマン指数（0〜1）
+     * @param holders     上位保有者（保有数量の大きい順）
+     */
+    public record SymbolHolders(String symbol, int holderCount, double quantity, double costBasis, double topShare,
+                                double herfindahl, List<Holder> holders) {
+    }
+
+    /**
+     * 全社の保有銘柄の集中度です。
+     *
+     * @param holdings   保有銘柄の行数
+     * @param symbols    銘柄数
+     * @param costBasis  取得原価の合計
+     * @param top        占有率を求めた上位銘柄数
+     * @param topShare   上位銘柄の取得原価の占有率
+     * @param herfindahl 銘柄ごとの取得原価の占有率から求めたハーフィンダール・ハーシュマン指数（0〜1）
+     * @param topSymbols 上位銘柄（取得原価の大きい順）
+     */
+    public record Concentration(int holdings, int symbols, double costBasis, int top, double topShare,
+                                double herfindahl, List<Exposure> topSymbols) {
+    }
+}
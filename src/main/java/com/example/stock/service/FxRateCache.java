@@ -0,0 +1,149 @@
+package com.example.stock.service;
+
+import com.example.stock.exception.UnsupportedCurrencyException;
+import com.example.stock.repository.FxRateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/**
+ * 為替レートをメモリ上の {@link FxRateMatrix} として保持するキャッシュです。
+ * <p>
+ * 起動時は {@code app.fx.initial-rates} の初期値に {@code fx_rates} の保存値を重ねて読み込みます。
+ * 更新時はデータベースへ保存してから新しい行列を生成し、参照を原子的に差し替えます。
+ * 参照側はロックを取らず、取得した行列を最後まで使うため、1 回の評価の中でレートが混在することはありません。
+ * レートは 1 米ドルあたりの各通貨の額で管理するため、米ドルのレートは常に 1 です。
+ */
+@Service
+public class FxRateCache implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(FxRateCache.class);
+    private static final Pattern CURRENCY_CODE = Pattern.compile("[A-Z]{3}");
+    private static final String USD = "USD";
+
+    private final FxRateRepository rateRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AtomicReference<FxRateMatrix> current;
+
+    public FxRateCache(FxRateRepository rateRepository, ApplicationEventPublisher eventPublisher,
+                       @Value("${app.fx.initial-rates:USD=1,JPY=150,HKD=7.8,EUR=0.92}") String initialRates) {
+        this.rateRepository = rateRepository;
+        this.eventPublisher = eventPublisher;
+        this.current = new AtomicReference<>(new FxRateMatrix(parse(initialRates), Instant.EPOCH));
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Map<String, BigDecimal> stored = rateRepository.findAll();
+        if (!stored.isEmpty()) {
+            Map<String, BigDecimal> merged = new LinkedHashMap<>(current.get().getUnitsPerUsd());
+            merged.putAll(stored);
+            Instant updatedAt = rateRepository.findLastUpdatedAt();
+            current.set(new FxRateMatrix(merged, updatedAt != null ? updatedAt : Instant.now()));
+        }
+        log.info("Loaded FX rates for {}", current.get().getUnitsPerUsd().keySet());
+    }
+
+    /**
+     * 現在の為替レートの行列を取得します。
+     *
+     * @return 為替レートの行列
+     */
+    public FxRateMatrix current() {
+        return current.get();
+    }
+
+    /**
+     * 為替レートを更新します。指定しなかった通貨は現在のレートを引き継ぎます。
+     * 差し替え後に {@link FxRatesUpdatedEvent} を発行します。
+     *
+     * @param unitsPerUsd 通貨コードごとの 1 米ドルあたりの額
+     * @return 更新後の為替レートの行列
+     * @throws UnsupportedCurrencyException 通貨コードの形式が不正な場合
+     * @throws IllegalArgumentException     レートが正数でない場合、または米ドルのレートが 1 でない場合
+     */
+    public synchronized FxRateMatrix update(Map<String, BigDecimal> unitsPerUsd) {
+        Map<String, BigDecimal> normalized = new LinkedHashMap<>();
+        unitsPerUsd.forEach((currency, rate) -> normalized.put(normalize(currency), rate));
+        validate(normalized);
+        Map<String, BigDecimal> merged = new LinkedHashMap<>(current.get().getUnitsPerUsd());
+        merged.putAll(normalized);
+        Instant now = Instant.now();
+        FxRateMatrix updated = new FxRateMatrix(merged, now);
+        rateRepository.saveAll(normalized, now);
+        current.set(updated);
+        log.info("Updated FX rates for {}", normalized.keySet());
+        eventPublisher.publishEvent(new FxRatesUpdatedEvent(updated));
+        return updated;
+    }
+
+    /**
+     * 通貨コードを正規化し、レートが登録されていることを確認します。
+     *
+     * @param currency 通貨コード
+     * @return 大文字の通貨コード
+     * @throws UnsupportedCurrencyException 形式が不正な場合、またはレートが登録されていない場合
+     */
+    public String requireSupported(String currency) {
+        String code = normalize(currency);
+        if (!current.get().supports(code)) {
+            throw new UnsupportedCurrencyException(code);
+        }
+        return code;
+    }
+
+    /**
+     * 通貨コードを大文字へ正規化し、ISO 4217 の形式（英字 3 文字）であることを確認します。
+     *
+     * @param currency 通貨コード
+     * @return 大文字の通貨コード
+     * @throws UnsupportedCurrencyException 形式が不正な場合
+     */
+    public static String normalize(String currency) {
+        String code = currency == null ? "" : currency.trim().toUpperCase(Locale.ROOT);
+        if (!CURRENCY_CODE.matcher(code).matches()) {
+            throw new UnsupportedCurrencyException(currency);
+        }
+        return code;
+    }
+
+    private static void validate(Map<String, BigDecimal> rates) {
+        rates.forEach((currency, rate) -> {
+            if (rate == null || rate.signum() <= 0) {
+                throw new IllegalArgumentException("FX rate for " + currency + " must be positive");
+            }
+            if (USD.equals(currency) && rate.compareTo(BigDecimal.ONE) != 0) {
+                throw new IllegalArgumentException("FX rate for USD must be 1");
+            }
+        });
+    }
+
+    private static Map<String, BigDecimal> parse(String value) {
+        Map<String, BigDecimal> rates = new LinkedHashMap<>();
+        rates.put(USD, BigDecimal.ONE);
+        for (String entry : value.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("app.fx.initial-rates must be CURRENCY=RATE pairs: " + entry);
+            }
+            rates.put(normalize(parts[0]), new BigDecimal(parts[1].trim()));
+        }
+        validate(rates);
+        return rates;
+    }
+}
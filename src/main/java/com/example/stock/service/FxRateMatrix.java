@@ -0,0 +1,147 @@
+package com.example.stock.service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * ある時点の為替レートから求めた、全通貨間のクロスレートの不変な行列です。
+ * <p>
+ * 1 米ドルあたりの各通貨の額から {@code n × n} の換算レートを生成時に一括で計算し、
+ * 通貨コードを添字へ変換しておけば換算は配列の参照 1 回で済みます。更新時は新しい行列を生成して差し替えるため、
+ * 参照中の行列が途中で変わることはありません。
+ */
+public final class FxRateMatrix {
+
+    private static final MathContext MATH_CONTEXT = new MathContext(16, RoundingMode.HALF_EVEN);
+
+    private final String[] currencies;
+    private final Map<String, Integer> indexes;
+    private final BigDecimal[] unitsPerUsd;
+    private final BigDecimal[] crossRates;
+    private final Instant asOf;
+
+    /**
+     * 行列を生成します。
+     *
+     * @param unitsPerUsd 通貨コードごとの 1 米ドルあたりの額（正数）
+     * @param asOf        レートの基準日時
+     * @throws IllegalArgumentException レートが正数でない場合
+     */
+    public FxRateMatrix(Map<String, BigDecimal> unitsPerUsd, Instant asOf) {
+        Map<String, BigDecimal> sorted = new TreeMap<>(unitsPerUsd);
+        int size = sorted.size();
+        this.currencies = new String[size];
+        this.unitsPerUsd = new BigDecimal[size];
+        this.indexes = new HashMap<>(size * 2);
+        int index = 0;
+        for (Map.Entry<String, BigDecimal> entry : sorted.entrySet()) {
+            if (entry.getValue() == null || entry.getValue().signum() <= 0) {
+                throw new IllegalArgumentException("FX rate for " + entry.getKey() + " must be positive");
+            }
+            currencies[index] = entry.getKey();
+            this.unitsPerUsd[index] = entry.getValue();
+            indexes.put(entry.getKey(), index);
+            index++;
+        }
+        this.crossRates = new BigDecimal[size * size];
+        for (int from = 0; from < size; from++) {
+            for (int to = 0; to < size; to++) {
+                crossRates[from * size + to] = from == to ? BigDecimal.ONE
+                        : this.unitsPerUsd[to].divide(this.unitsPerUsd[from], MATH_CONTEXT);
+            }
+        }
+        this.asOf = Objects.requireNonNull(asOf, "asOf");
+    }
+
+    /**
+     * 通貨コードを行列の添字へ変換します。
+     *
+     * @param currency 通貨コード
+     * @return 添字（未登録の通貨は -1）
+     */
+    public int indexOf(String currency) {
+        Integer index = indexes.get(currency);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * 添字で指定した通貨間の換算レートを取得します。
+     *
+     * @param from 換算元の通貨の添字
+     * @param to   換算先の通貨の添字
+     * @return 換算元 1 単位あたりの換算先の額（有効桁数 16 桁）
+     */
+    public BigDecimal rate(int from, int to) {
+        return crossRates[from * currencies.length + to];
+    }
+
+    /**
+     * 通貨コードで指定した通貨間の換算レートを取得します。受渡金額の計算にも使用します。
+     *
+     * @param from 換算元の通貨コード
+     * @param to   換算先の通貨コード
+     * @return 換算元 1 単位あたりの換算先の額（有効桁数 16 桁）
+     * @throws IllegalArgumentException いずれかの通貨のレートが登録されていない場合
+     */
+    public BigDecimal exactRate(String from, String to) {
+        return rate(require(from), require(to));
+    }
+
+    /**
+     * 登録されている通貨か判定します。
+     *
+     * @param currency 通貨コード
+     * @return 登録されている場合は {@code true}
+     */
+    public boolean supports(String currency) {
+        return indexes.containsKey(currency);
+    }
+
+    /**
+     * 通貨コードごとの 1 米ドルあたりの額を通貨コード順に取得します。
+     *
+     * @return 読み取り専用のマップ
+     */
+    public Map<String, BigDecimal> getUnitsPerUsd() {
+        Map<String, BigDecimal> rates = new LinkedHashMap<>();
+        for (int i = 0; i < currencies.length; i++) {
+            rates.put(currencies[i], unitsPerUsd[i]);
+        }
+        return Collections.unmodifiableMap(rates);
+    }
+
+    /**
+     * 登録されている通貨コードを添字順に取得します。
+     *
+     * @return 通貨コードの配列（複製）
+     */
+    public String[] getCurrencies() {
+        return Arrays.copyOf(currencies, currencies.length);
+    }
+
+    /**
+     * レートの基準日時を取得します。
+     *
+     * @return 基準日時
+     */
+    public Instant getAsOf() {
+        return asOf;
+    }
+
+    private int require(String currency) {
+        int index = indexOf(currency);
+        if (index < 0) {
+            throw new IllegalArgumentException("No FX rate for " + currency);
+        }
+        return index;
+    }
+}
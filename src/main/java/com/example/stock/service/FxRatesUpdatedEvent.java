@@ -0,0 +1,17 @@
+package com.example.stock.service;
+
+import java.util.Objects;
+
+/**
+ * {@link FxRateCache} が為替レートを更新し、参照を新しい行列へ差し替えた直後に発行されるイベントです。
+ * <p>
+ * 換算後の金額を保持しているコンポーネントは、このイベントを受けて新しいレートで計算し直します。
+ *
+ * @param rates 更新後の為替レートの行列
+ */
+public record FxRatesUpdatedEvent(FxRateMatrix rates) {
+
+    public FxRatesUpdatedEvent {
+        Objects.requireNonNull(rates, "rates");
+    }
+}
@@ -0,0 +1,320 @@
+package com.example.stock.service;
+
+import com.example.stock.exception.AccountNotFoundException;
+import com.example.stock.exception.InsufficientFundsException;
+import com.example.stock.exception.InvalidAccountOpeningException;
+import com.example.stock.exception.InvalidTradeException;
+import com.example.stock.exception.ServiceOverloadedException;
+import com.example.stock.exception.UnknownSymbolException;
+import com.example.stock.exception.UnsupportedCurrencyException;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 同時に届いた更新処理を到着順に 1 つのデータベーストランザクションで実行し、まとめてコミットするグループコミットです。
+ * <p>
+ * 更新処理は専用のコミットスレッドが順に取り出し、最初の処理から {@code app.group-commit.max-wait} の間に届いたもの
+ * （最大 {@code app.group-commit.max-batch} 件）を同じトランザクションで実行します。コミットの完了後に各呼び出し元へ
+ * 結果を返すため、応答を受け取った更新はすべて永続化されています。1 回のコミット（fsync）を複数の要求で分け合うため、
+ * 同時に届く更新が多いほど 1 秒あたりの処理件数が増えます。
+ * <p>
+ * 残高不足や存在しないアカウントなどの業務上の拒否（{@link #isRejection(RuntimeException)}）で、その処理が何も
+ * 変更していない場合は、その処理だけを失敗として応答し、残りの処理は同じトランザクションで続けます。
+ * 処理の前に永続化コンテキストをフラッシュしておき、拒否の時点で未反映の変更・新しいトランザクション同期・
+ * データベースへの書き込み（SQLite の {@code total_changes()}）のいずれもないことを確認します。
+ * 拒否が外側のトランザクションをロールバック専用にしないよう、参加中のトランザクションでの失敗は
+ * {@link TransactionConfiguration} で全体のロールバックにしない設定にしています。
+ * <p>
+ * それ以外の失敗、または一部を変更した後の拒否（一括売買の途中の注文など）の場合はグループ全体をロールバックし、
+ * 各処理を 1 件ずつ個別のトランザクションで実行し直します。ロールバックでは永続化コンテキストとコミット後のイベントも
+ * 破棄されるため、失敗した処理が同じグループの他の処理の結果に影響することはありません。
+ */
+@Component
+public class GroupCommitExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupCommitExecutor.class);
+
+    private final boolean enabled;
+    private final int maxBatch;
+    private final long maxWaitNanos;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final BlockingQueue<Pending<?>> queue = new LinkedBlockingQueue<>();
+    private final Thread committer;
+    private final LongAdder groups = new LongAdder();
+    private final LongAdder committed = new LongAdder();
+    private final LongAdder retriedGroups = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private volatile boolean running = true;
+    private volatile int lastGroupSize;
+    private volatile int largestGroupSize;
+
+    public GroupCommitExecutor(PlatformTransactionManager transactionManager, EntityManager entityManager,
+                               @Value("${app.group-commit.enabled:true}") boolean enabled,
+                               @Value("${app.group-commit.max-batch:64}") int maxBatch,
+                               @Value("${app.group-commit.max-wait:PT0.001S}") Duration maxWait) {
+        if (maxBatch < 1) {
+            throw new IllegalArgumentException("max-batch must be positive");
+        }
+        this.enabled = enabled;
+        this.maxBatch = maxBatch;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.committer = new Thread(this::runCommitter, "group-commit");
+        this.committer.setDaemon(true);
+        if (enabled) {
+            committer.start();
+        }
+    }
+
+    /**
+     * 更新処理をグループコミットで実行し、コミットの完了を待って結果を返します。
+     * <p>
+     * 無効の場合、または呼び出し元ですでにトランザクションが開始されている場合は、呼び出し元のスレッドでそのまま実行します。
+     *
+     * @param mutation 更新処理（呼び出し元とは別のスレッドで実行されます）
+     * @param <T>      処理結果の型
+     * @return 処理結果
+     * @throws ServiceOverloadedException 停止処理中のため受け付けられない場合
+     */
+    public <T> T execute(Supplier<T> mutation) {
+        if (!enabled || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return mutation.get();
+        }
+        Pending<T> pending = new Pending<>(mutation);
+        queue.add(pending);
+        if (!running && queue.remove(pending)) {
+            throw new ServiceOverloadedException("更新処理を停止しています。しばらくしてから再度お試しください。");
+        }
+        return pending.await();
+    }
+
+    /**
+     * 現在のグループコミットの状態を取得します。
+     *
+     * @return 状態のスナップショット
+     */
+    public Snapshot snapshot() {
+        long groupCount = groups.sum();
+        long committedCount = committed.sum();
+        return new Snapshot(enabled, maxBatch, Duration.ofNanos(maxWaitNanos), queue.size(), groupCount,
+                committedCount, groupCount == 0 ? 0 : (double) committedCount / groupCount, lastGroupSize,
+                largestGroupSize, retriedGroups.sum(), rejected.sum());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        committer.interrupt();
+    }
+
+    private void runCommitter() {
+        List<Pending<?>> group = new ArrayList<>(maxBatch);
+        try {
+            while (running) {
+                group.add(queue.take());
+                collect(group);
+                commit(group);
+                group.clear();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        ServiceOverloadedException stopped =
+                new ServiceOverloadedException("更新処理を停止しています。しばらくしてから再度お試しください。");
+        group.forEach(pending -> pending.fail(stopped));
+        queue.drainTo(group);
+        group.forEach(pending -> pending.fail(stopped));
+    }
+
+    private void collect(List<Pending<?>> group) throws InterruptedException {
+        queue.drainTo(group, maxBatch - group.size());
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (group.size() < maxBatch) {
+            Pending<?> next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            group.add(next);
+            queue.drainTo(group, maxBatch - group.size());
+        }
+    }
+
+    private void commit(List<Pending<?>> group) {
+        lastGroupSize = group.size();
+        largestGroupSize = Math.max(largestGroupSize, group.size());
+        List<Pending<?>> applied = new ArrayList<>(group.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Pending<?> pending : group) {
+                    if (runInGroup(pending)) {
+                        applied.add(pending);
+                    }
+                }
+            });
+        } catch (RuntimeException | Error ex) {
+            if (group.size() == 1) {
+                group.get(0).fail(ex);
+                return;
+            }
+            retriedGroups.increment();
+            log.debug("Group of {} mutations rolled back, retrying individually", group.size(), ex);
+            group.forEach(this::commitAlone);
+            return;
+        }
+        if (!applied.isEmpty()) {
+            groups.increment();
+            committed.add(applied.size());
+        }
+        group.forEach(Pending::settle);
+    }
+
+    /**
+     * グループのトランザクションの中で処理を 1 件実行します。
+     *
+     * @return 処理が成功した場合は {@code true}、何も変更せずに拒否された場合は {@code false}
+     * @throws RuntimeException グループ全体をロールバックすべき失敗の場合
+     */
+    private boolean runInGroup(Pending<?> pending) {
+        entityManager.flush();
+        int synchronizations = TransactionSynchronizationManager.getSynchronizations().size();
+        long changes = totalChanges();
+        try {
+            pending.run();
+            return true;
+        } catch (RuntimeException ex) {
+            if (!isRejection(ex) || entityManager.unwrap(Session.class).isDirty()
+                    || TransactionSynchronizationManager.getSynchronizations().size() != synchronizations
+                    || totalChanges() != changes) {
+                throw ex;
+            }
+            rejected.increment();
+            pending.reject(ex);
+            return false;
+        }
+    }
+
+    /**
+     * 入力や口座の状態による業務上の拒否かどうかを判定します。
+     */
+    static boolean isRejection(RuntimeException ex) {
+        return ex instanceof AccountNotFoundException || ex instanceof InsufficientFundsException
+                || ex instanceof InvalidTradeException || ex instanceof InvalidAccountOpeningException
+                || ex instanceof UnknownSymbolException || ex instanceof UnsupportedCurrencyException;
+    }
+
+    private long totalChanges() {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("select total_changes()")) {
+                resultSet.next();
+                return resultSet.getLong(1);
+            }
+        });
+    }
+
+    private void commitAlone(Pending<?> pending) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> pending.run());
+        } catch (RuntimeException | Error ex) {
+            pending.fail(ex);
+            return;
+        }
+        groups.increment();
+        committed.increment();
+        pending.complete();
+    }
+
+    private static final class Pending<T> {
+
+        private final Supplier<T> mutation;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private T value;
+        private RuntimeException rejection;
+
+        private Pending(Supplier<T> mutation) {
+            this.mutation = mutation;
+        }
+
+        private void run() {
+            rejection = null;
+            value = mutation.get();
+        }
+
+        private void reject(RuntimeException ex) {
+            rejection = ex;
+        }
+
+        private void complete() {
+            result.complete(value);
+        }
+
+        private void settle() {
+            if (rejection != null) {
+                result.completeExceptionally(rejection);
+            } else {
+                result.complete(value);
+            }
+        }
+
+        private void fail(Throwable ex) {
+            result.completeExceptionally(ex);
+        }
+
+        private T await() {
+            try {
+                return result.join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                if (ex.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * グループコミットの状態です。
+     *
+     * @param enabled          グループコミットが有効かどうか
+     * @param maxBatch         1 回のコミットにまとめる最大件数
+     * @param maxWait          最初の処理の到着後に後続の処理を待つ最大時間
+     * @param queued           コミット待ちの処理数
+     * @param groups           コミットした回数の累計
+     * @param committed        コミットした処理数の累計
+     * @param averageGroupSize 1 回のコミットあたりの平均処理数
+     * @param lastGroupSize    直近に取り出したグループの処理数
+     * @param largestGroupSize これまでに取り出した最大のグループの処理数
+     * @param retriedGroups    失敗した処理を含み、1 件ずつ実行し直したグループの累計
+     * @param rejected         グループを止めずに拒否した処理の累計
+     */
+    public record Snapshot(boolean enabled, int maxBatch, Duration maxWait, int queued, long groups, long committed,
+                           double averageGroupSize, int lastGroupSize, int largestGroupSize, long retriedGroups,
+                           long rejected) {
+    }
+}
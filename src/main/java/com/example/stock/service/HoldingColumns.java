@@ -0,0 +1,251 @@
+package com.example.stock.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * すべての保有銘柄を列ごとのプリミティブ配列で保持する分析用のスナップショットです。
+ * <p>
+ * 銘柄コードと取引市場は辞書で整数コードに置き換え、数量と取得原価は {@code double} で保持します。
+ * 取得原価は通貨をまたいで合算するため、登録する側で集計通貨へ換算しておきます。
+ * アカウントの保有銘柄を差し替えると古い行は空き行として再利用するため、行の位置はアカウントごとに連続しません。
+ * 集計は行番号の {@link IntStream} を並列に走査し、スレッドごとの配列へ加算してから合算します。
+ * <p>
+ * このクラスはスレッドセーフではありません。更新と参照の排他は呼び出し側で行います。
+ */
+final class HoldingColumns {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int[] NO_ROWS = new int[0];
+
+    /** 集計結果の 1 グループあたりの要素数（件数・数量・取得原価）。 */
+    static final int STRIDE = 3;
+
+    private final Dictionary symbolDictionary = new Dictionary();
+    private final Dictionary exchangeDictionary = new Dictionary();
+    private final Map<UUID, AccountRows> accounts = new HashMap<>();
+
+    private int[] symbols = new int[INITIAL_CAPACITY];
+    private int[] exchanges = new int[INITIAL_CAPACITY];
+    private long[] accountHigh = new long[INITIAL_CAPACITY];
+    private long[] accountLow = new long[INITIAL_CAPACITY];
+    private double[] quantities = new double[INITIAL_CAPACITY];
+    private double[] costs = new double[INITIAL_CAPACITY];
+    private int[] freeRows = new int[INITIAL_CAPACITY];
+    private int freeCount;
+    private int size;
+
+    /**
+     * アカウントの保有銘柄を差し替えます。
+     * <p>
+     * 保持している更新回数より古い内容は無視するため、起動時の読み込みとコミット後の反映が前後しても古い状態へ戻りません。
+     *
+     * @param accountId アカウント ID
+     * @param version   内容を読み取った時点のアカウントの更新回数
+     * @param entries   保有銘柄（空の場合はすべて削除）
+     * @return 差し替えた場合は {@code true}
+     */
+    boolean replace(UUID accountId, long version, List<Entry> entries) {
+        AccountRows existing = accounts.get(accountId);
+        if (existing != null && existing.version() > version) {
+            return false;
+        }
+        int[] rows = existing != null ? existing.rows() : NO_ROWS;
+        for (int row : rows) {
+            release(row);
+        }
+        int[] allocated = entries.isEmpty() ? NO_ROWS : new int[entries.size()];
+        for (int i = 0; i < allocated.length; i++) {
+            Entry entry = entries.get(i);
+            int row = allocate();
+            symbols[row] = symbolDictionary.encode(entry.symbol());
+            exchanges[row] = exchangeDictionary.encode(entry.exchange());
+            accountHigh[row] = accountId.getMostSignificantBits();
+            accountLow[row] = accountId.getLeastSignificantBits();
+            quantities[row] = entry.quantity();
+            costs[row] = entry.quantity() * entry.averageCost();
+            allocated[i] = row;
+        }
+        accounts.put(accountId, new AccountRows(version, allocated));
+        return true;
+    }
+
+    /**
+     * すべての行と辞書を破棄します。
+     */
+    void clear() {
+        accounts.clear();
+        symbolDictionary.clear();
+        exchangeDictionary.clear();
+        size = 0;
+        freeCount = 0;
+    }
+
+    /**
+     * 有効な保有銘柄の行数を取得します。
+     *
+     * @return 行数
+     */
+    int holdingCount() {
+        return size - freeCount;
+    }
+
+    /**
+     * 保有銘柄を記録しているアカウント数を取得します。
+     *
+     * @return アカウント数
+     */
+    int accountCount() {
+        return accounts.size();
+    }
+
+    /**
+     * 銘柄コードまたは取引市場ごとに、保有件数・数量・取得原価を集計します。
+     *
+     * @param bySymbol {@code true} の場合は銘柄コード、{@code false} の場合は取引市場でグループ化します
+     * @return グループのコード順に {@link #STRIDE} 個ずつ並べた件数・数量・取得原価
+     */
+    double[] aggregate(boolean bySymbol) {
+        int[] keys = bySymbol ? symbols : exchanges;
+        double[] quantityColumn = quantities;
+        double[] costColumn = costs;
+        int width = (bySymbol ? symbolDictionary.size() : exchangeDictionary.size()) * STRIDE;
+        return IntStream.range(0, size).parallel().collect(() -> new double[width], (totals, row) -> {
+            int key = keys[row];
+            if (key >= 0) {
+                int offset = key * STRIDE;
+                totals[offset]++;
+                totals[offset + 1] += quantityColumn[row];
+                totals[offset + 2] += costColumn[row];
+            }
+        }, (left, right) -> {
+            for (int i = 0; i < left.length; i++) {
+                left[i] += right[i];
+            }
+        });
+    }
+
+    /**
+     * 指定した銘柄を保有する行を取得します。
+     *
+     * @param symbol 銘柄コード
+     * @return 行番号（銘柄が存在しない場合は空）
+     */
+    int[] rowsOf(String symbol) {
+        int code = symbolDictionary.find(symbol);
+        if (code < 0) {
+            return NO_ROWS;
+        }
+        int[] keys = symbols;
+        return IntStream.range(0, size).parallel().filter(row -> keys[row] == code).toArray();
+    }
+
+    /**
+     * 集計結果のグループのコードに対応する名前を取得します。
+     *
+     * @param bySymbol {@code true} の場合は銘柄コード、{@code false} の場合は取引市場
+     * @param code     コード
+     * @return 名前
+     */
+    String name(boolean bySymbol, int code) {
+        return (bySymbol ? symbolDictionary : exchangeDictionary).decode(code);
+    }
+
+    UUID accountId(int row) {
+        return new UUID(accountHigh[row], accountLow[row]);
+    }
+
+    String exchange(int row) {
+        return exchangeDictionary.decode(exchanges[row]);
+    }
+
+    double quantity(int row) {
+        return quantities[row];
+    }
+
+    double cost(int row) {
+        return costs[row];
+    }
+
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeRows[--freeCount];
+        }
+        if (size == symbols.length) {
+            int capacity = symbols.length * 2;
+            symbols = Arrays.copyOf(symbols, capacity);
+            exchanges = Arrays.copyOf(exchanges, capacity);
+            accountHigh = Arrays.copyOf(accountHigh, capacity);
+            accountLow = Arrays.copyOf(accountLow, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+            costs = Arrays.copyOf(costs, capacity);
+        }
+        return size++;
+    }
+
+    private void release(int row) {
+        symbols[row] = -1;
+        exchanges[row] = -1;
+        quantities[row] = 0;
+        costs[row] = 0;
+        if (freeCount == freeRows.length) {
+            freeRows = Arrays.copyOf(freeRows, freeRows.length * 2);
+        }
+        freeRows[freeCount++] = row;
+    }
+
+    /**
+     * スナップショットへ登録する保有銘柄です。
+     *
+     * @param symbol      銘柄コード
+     * @param exchange    取引市場
+     * @param quantity    保有数量
+     * @param averageCost 集計通貨へ換算した平均取得単価
+     */
+    record Entry(String symbol, String exchange, double quantity, double averageCost) {
+    }
+
+    private record AccountRows(long version, int[] rows) {
+    }
+
+    /**
+     * 文字列と連番の整数コードを相互に変換する辞書です。
+     */
+    private static final class Dictionary {
+
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+
+        int encode(String name) {
+            Integer code = codes.get(name);
+            if (code == null) {
+                code = names.size();
+                codes.put(name, code);
+                names.add(name);
+            }
+            return code;
+        }
+
+        int find(String name) {
+            return codes.getOrDefault(name, -1);
+        }
+
+        String decode(int code) {
+            return names.get(code);
+        }
+
+        int size() {
+            return names.size();
+        }
+
+        void clear() {
+            codes.clear();
+            names.clear();
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.example.stock.service;
+
+import com.example.stock.model.TradeSide;
+import com.example.stock.model.TransactionType;
+import com.example.stock.repository.LedgerReconciliationRepository;
+import com.example.stock.repository.LedgerReconciliationRepository.Checkpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 取引履歴と口座の状態が一致しているかを検証する台帳照合サービスです。
+ * <p>
+ * アカウントごとに取引を発生日時順に読み進め、次の 3 点を検証します。
+ * <ul>
+ *     <li>各取引の {@code cashBalanceAfter} が、直前までの現金増減額の合計にその取引の増減額を加えた値と一致すること</li>
+ *     <li>アカウントの {@code cashBalance} が現金増減額の合計と一致すること</li>
+ *     <li>銘柄ごとの保有数量が、入庫数量と売買数量の差し引きと一致すること</li>
+ * </ul>
+ * アカウント一覧は Fork/Join プールで分割して並列に照合し、不一致のないアカウントは最後に照合した取引 ID と
+ * 集計値をチェックポイントとして保存します。照合の大半はデータベースの読み出しのため、並列数はコネクションプールの
+ * 上限（SQLite では 1）を超えないようにします。アカウントごとに読み取りトランザクションを閉じるため、照合中も
+ * アカウントの間で他の処理がコネクションを使えます。次回以降はチェックポイントより後の取引だけを検証するため、
+ * 中断した照合もそのまま再実行すれば続きから再開できます。
+ */
+@Service
+public class LedgerReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerReconciliationService.class);
+
+    private final LedgerReconciliationRepository repository;
+    private final TransactionTemplate readTemplate;
+    private final int parallelism;
+    private final int batchSize;
+    private final BigDecimal tolerance;
+    private final int maxReportedMismatches;
+    private volatile Report lastReport;
+
+    public LedgerReconciliationService(
+            LedgerReconciliationRepository repository,
+            PlatformTransactionManager transactionManager,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize,
+            @Value("${app.reconciliation.parallelism:0}") int parallelism,
+            @Value("${app.reconciliation.batch-size:64}") int batchSize,
+            @Value("${app.reconciliation.tolerance:0.0001}") BigDecimal tolerance,
+            @Value("${app.reconciliation.max-reported-mismatches:1000}") int maxReportedMismatches) {
+        this.repository = repository;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        int requested = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.parallelism = Math.max(1, Math.min(requested, connectionPoolSize));
+        if (this.parallelism < requested) {
+            log.info("Ledger reconciliation parallelism limited to {} by the connection pool size", this.parallelism);
+        }
+        this.batchSize = Math.max(1, batchSize);
+        this.tolerance = tolerance.abs();
+        this.maxReportedMismatches = Math.max(0, maxReportedMismatches);
+    }
+
+    /**
+     * 定期実行用の差分照合です。
+     */
+    @Scheduled(cron = "${app.reconciliation.cron:0 0 4 * * *}", zone = "UTC")
+    public void scheduledReconcile() {
+        reconcile(false);
+    }
+
+    /**
+     * 台帳照合を実行します。
+     *
+     * @param full {@code true} の場合はチェックポイントを破棄してすべての取引を先頭から検証します
+     * @return 照合結果
+     */
+    public synchronized Report reconcile(boolean full) {
+        Instant startedAt = Instant.now();
+        long started = System.nanoTime();
+        if (full) {
+            repository.deleteCheckpoints();
+        }
+        Map<UUID, Checkpoint> checkpoints = repository.findCheckpoints();
+        List<UUID> accountIds = repository.findAccountIds();
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        Partial result;
+        try {
+            result = pool.invoke(new ReconcileTask(accountIds, 0, accountIds.size(), checkpoints));
+        } finally {
+            pool.shutdown();
+        }
+
+        List<Mismatch> reported = result.mismatches.size() > maxReportedMismatches
+                ? List.copyOf(result.mismatches.subList(0, maxReportedMismatches))
+                : List.copyOf(result.mismatches);
+        Report report = new Report(full, startedAt, Duration.ofNanos(System.nanoTime() - started),
+                accountIds.size(), result.mismatchedAccounts, result.transactions, result.mismatches.size(),
+                reported);
+        this.lastReport = report;
+        if (report.mismatchCount() > 0) {
+            log.warn("Ledger reconciliation found {} mismatches in {} of {} accounts ({} transactions, {} ms)",
+                    report.mismatchCount(), report.mismatchedAccounts(), report.accounts(), report.transactions(),
+                    report.elapsed().toMillis());
+        } else {
+            log.info("Ledger reconciliation verified {} accounts ({} transactions) in {} ms",
+                    report.accounts(), report.transactions(), report.elapsed().toMillis());
+        }
+        return report;
+    }
+
+    /**
+     * 直近の照合結果を取得します。
+     *
+     * @return 照合結果（未実行の場合は空）
+     */
+    public Optional<Report> getLastReport() {
+        return Optional.ofNullable(lastReport);
+    }
+
+    private Partial reconcileBatch(List<UUID> accountIds, Map<UUID, Checkpoint> checkpoints) {
+        Partial partial = new Partial();
+        List<Checkpoint> verified = new ArrayList<>();
+        for (UUID accountId : accountIds) {
+            AccountResult result = readTemplate.execute(status -> reconcileAccount(accountId,
+                    checkpoints.get(accountId)));
+            if (result == null) {
+                continue;
+            }
+            partial.transactions += result.transactions;
+            if (result.mismatches.isEmpty()) {
+                verified.add(result.checkpoint);
+            } else {
+                partial.mismatchedAccounts++;
+                partial.mismatches.addAll(result.mismatches);
+            }
+        }
+        repository.saveCheckpoints(verified);
+        return partial;
+    }
+
+    /**
+     * 1 アカウント分の照合です。読み取り専用トランザクション内で呼び出し、取引・残高・保有数量を同じ時点で読み出します。
+     */
+    private AccountResult reconcileAccount(UUID accountId, Checkpoint checkpoint) {
+        Optional<BigDecimal> cashBalance = repository.findCashBalance(accountId);
+        if (cashBalance.isEmpty()) {
+            return null;
+        }
+        List<Mismatch> mismatches = new ArrayList<>();
+        Map<String, BigDecimal> quantities = new HashMap<>(checkpoint != null
+                ? checkpoint.holdingQuantities() : Map.of());
+        BigDecimal[] running = {checkpoint != null ? checkpoint.cashBalance() : BigDecimal.ZERO};
+        long[] lastId = {checkpoint != null ? checkpoint.lastTransactionId() : 0};
+        long[] count = {0};
+
+        repository.streamTransactions(accountId, lastId[0], entry -> {
+            BigDecimal expected = running[0].add(entry.cashAmount());
+            if (!withinTolerance(expected, entry.cashBalanceAfter())) {
+                mismatches.add(new Mismatch(accountId, MismatchType.CASH_CHAIN, entry.id(), null, expected,
+                        entry.cashBalanceAfter()));
+            }
+            running[0] = expected;
+            if (entry.type() != TransactionType.DEPOSIT && entry.type() != TransactionType.WITHDRAWAL
+                    && entry.symbol() != null && entry.quantity() != null) {
+                BigDecimal delta = entry.side() == TradeSide.SELL ? entry.quantity().negate() : entry.quantity();
+                quantities.merge(entry.symbol(), delta, BigDecimal::add);
+            }
+            lastId[0] = Math.max(lastId[0], entry.id());
+            count[0]++;
+        });
+
+        if (!withinTolerance(running[0], cashBalance.get())) {
+            mismatches.add(new Mismatch(accountId, MismatchType.CASH_BALANCE, null, null, running[0],
+                    cashBalance.get()));
+        }
+        Map<String, BigDecimal> holdings = repository.findHoldingQuantities(accountId);
+        Set<String> symbols = new TreeSet<>(quantities.keySet());
+        symbols.addAll(holdings.keySet());
+        for (String symbol : symbols) {
+            BigDecimal expected = quantities.getOrDefault(symbol, BigDecimal.ZERO);
+            BigDecimal actual = holdings.getOrDefault(symbol, BigDecimal.ZERO);
+            if (!withinTolerance(expected, actual)) {
+                mismatches.add(new Mismatch(accountId, MismatchType.HOLDING_QUANTITY, null, symbol, expected, actual));
+            }
+        }
+        quantities.values().removeIf(quantity -> quantity.signum() == 0);
+
+        long previousCount = checkpoint != null ? checkpoint.transactionCount() : 0;
+        return new AccountResult(count[0], mismatches, new Checkpoint(accountId, lastId[0], previousCount + count[0],
+                running[0].stripTrailingZeros(), quantities, Instant.now()));
+    }
+
+    private boolean withinTolerance(BigDecimal expected, BigDecimal actual) {
+        return actual != null && expected.subtract(actual).abs().compareTo(tolerance) <= 0;
+    }
+
+    /**
+     * アカウント一覧を {@code batchSize} 件以下になるまで二分し、末端で照合するタスクです。
+     */
+    private final class ReconcileTask extends RecursiveTask<Partial> {
+
+        private final List<UUID> accountIds;
+        private final int from;
+        private final int to;
+        private final Map<UUID, Checkpoint> checkpoints;
+
+        ReconcileTask(List<UUID> accountIds, int from, int to, Map<UUID, Checkpoint> checkpoints) {
+            this.accountIds = accountIds;
+            this.from = from;
+            this.to = to;
+            this.checkpoints = checkpoints;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= batchSize) {
+                return reconcileBatch(accountIds.subList(from, to), checkpoints);
+            }
+            int middle = (from + to) >>> 1;
+            ReconcileTask left = new ReconcileTask(accountIds, from, middle, checkpoints);
+            ReconcileTask right = new ReconcileTask(accountIds, middle, to, checkpoints);
+            left.fork();
+            Partial result = right.compute();
+            return result.merge(left.join());
+        }
+    }
+
+    private static final class Partial {
+
+        private long transactions;
+        private int mismatchedAccounts;
+        private final List<Mismatch> mismatches = new ArrayList<>();
+
+        Partial merge(Partial other) {
+            transactions += other.transactions;
+            mismatchedAccounts += other.mismatchedAccounts;
+            mismatches.addAll(other.mismatches);
+            return this;
+        }
+    }
+
+    private record AccountResult(long transactions, List<Mismatch> mismatches, Checkpoint checkpoint) {
+    }
+
+    /**
+     * 不一致の種類です。
+     */
+    public enum MismatchType {
+        /** 取引後残高が直前の残高と現金増減額から求めた値と一致しない */
+        CASH_CHAIN,
+        /** アカウントの現金残高が現金増減額の合計と一致しない */
+        CASH_BALANCE,
+        /** 保有数量が入庫数量と売買数量の差し引きと一致しない */
+        HOLDING_QUANTITY
+    }
+
+    /**
+     * 検出した不一致です。
+     *
+     * @param accountId     アカウント ID
+     * @param type          不一致の種類
+     * @param transactionId 不一致を検出した取引 ID（{@link MismatchType#CASH_CHAIN} のみ）
+     * @param symbol        銘柄コード（{@link MismatchType#HOLDING_QUANTITY} のみ）
+     * @param expected      取引履歴から求めた値
+     * @param actual        記録されている値
+     */
+    public record Mismatch(UUID accountId, MismatchType type, Long transactionId, String symbol, BigDecimal expected,
+                           BigDecimal actual) {
+    }
+
+    /**
+     * 照合結果です。
+     *
+     * @param full               全件照合かどうか
+     * @param startedAt          開始日時
+     * @param elapsed            所要時間
+     * @param accounts           照合したアカウント数
+     * @param mismatchedAccounts 不一致のあったアカウント数
+     * @param transactions       検証した取引件数
+     * @param mismatchCount      検出した不一致の件数
+     * @param mismatches         不一致の一覧（上限件数まで）
+     */
+    public record Report(boolean full, Instant startedAt, Duration elapsed, int accounts, int mismatchedAccounts,
+                         long transactions, int mismatchCount, List<Mismatch> mismatches) {
+    }
+}
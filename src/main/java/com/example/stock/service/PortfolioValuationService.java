@@ -0,0 +1,122 @@
+package com.example.stock.service;
+
+import com.example.stock.exception.AccountNotFoundException;
+import com.example.stock.exception.UnsupportedCurrencyException;
+import com.example.stock.repository.AccountSummaryRepository.HoldingSummary;
+import com.example.stock.repository.AccountSummaryRepository.Summary;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 口座の現金と保有銘柄を指定した通貨で評価するサービスです。
+ * <p>
+ * 口座の内容は読み取りモデルの 1 行から取得し、換算は {@link FxRateCache} が保持する行列を参照するだけで行うため、
+ * 保有銘柄の件数に応じたデータベースへの問い合わせは発生しません。時価は保持していないため、
+ * 保有銘柄は取得原価（数量 × 平均取得単価）で評価します。評価額は小数点以下 4 桁に丸めた {@link BigDecimal} で返し、
+ * 合計は丸めた評価額を足し合わせるため、明細の和と一致します。
+ */
+@Service
+public class PortfolioValuationService {
+
+    private static final MathContext MATH_CONTEXT = new MathContext(20, RoundingMode.HALF_UP);
+    private static final int MONEY_SCALE = 4;
+
+    private final AccountReadModel readModel;
+    private final FxRateCache fxRateCache;
+
+    public PortfolioValuationService(AccountReadModel readModel, FxRateCache fxRateCache) {
+        this.readModel = readModel;
+        this.fxRateCache = fxRateCache;
+    }
+
+    /**
+     * 口座を評価します。
+     *
+     * @param accountId アカウント識別子
+     * @param currency  評価通貨（{@code null} の場合は口座の基準通貨）
+     * @return 評価結果
+     * @throws AccountNotFoundException     アカウントが存在しない場合
+     * @throws UnsupportedCurrencyException 為替レートが登録されていない通貨の場合
+     */
+    public Valuation valuate(UUID accountId, String currency) {
+        Summary summary = readModel.getSummary(accountId);
+        String target = fxRateCache.requireSupported(currency != null ? currency : summary.baseCurrency());
+        return valuate(summary, target, fxRateCache.current());
+    }
+
+    /**
+     * 読み取りモデルを指定した為替レートで評価します。
+     *
+     * @param summary  口座の読み取りモデル
+     * @param currency 評価通貨
+     * @param rates    為替レート
+     * @return 評価結果
+     * @throws UnsupportedCurrencyException 口座のいずれかの通貨のレートが登録されていない場合
+     */
+    static Valuation valuate(Summary summary, String currency, FxRateMatrix rates) {
+        int target = index(rates, currency);
+        BigDecimal cashValue = scale(summary.cashBalance()
+                .multiply(rates.rate(index(rates, summary.cashCurrency()), target), MATH_CONTEXT));
+        List<PositionValue> positions = new ArrayList<>(summary.holdings().size());
+        BigDecimal holdingsValue = BigDecimal.ZERO;
+        for (HoldingSummary holding : summary.holdings()) {
+            BigDecimal rate = rates.rate(index(rates, holding.currency()), target);
+            BigDecimal costBasis = holding.quantity().multiply(holding.averageCost(), MATH_CONTEXT);
+            BigDecimal value = scale(costBasis.multiply(rate, MATH_CONTEXT));
+            positions.add(new PositionValue(holding.symbol(), holding.exchange(), holding.currency(),
+                    holding.quantity(), scale(costBasis), rate, value));
+            holdingsValue = holdingsValue.add(value);
+        }
+        return new Valuation(summary.id(), currency, rates.getAsOf(), cashValue, holdingsValue,
+                cashValue.add(holdingsValue), List.copyOf(positions));
+    }
+
+    private static BigDecimal scale(BigDecimal amount) {
+        return amount.setScale(MONEY_SCALE, RoundingMode.HALF_UP);
+    }
+
+    private static int index(FxRateMatrix rates, String currency) {
+        int index = rates.indexOf(currency);
+        if (index < 0) {
+            throw new UnsupportedCurrencyException(currency);
+        }
+        return index;
+    }
+
+    /**
+     * 口座の評価結果です。
+     *
+     * @param accountId     アカウント ID
+     * @param currency      評価通貨
+     * @param ratesAsOf     使用した為替レートの基準日時
+     * @param cashValue     現金残高の評価額
+     * @param holdingsValue 保有銘柄の評価額の合計
+     * @param totalValue    評価額の合計
+     * @param positions     保有銘柄ごとの評価額（銘柄コード順）
+     */
+    public record Valuation(UUID accountId, String currency, Instant ratesAsOf, BigDecimal cashValue,
+                            BigDecimal holdingsValue, BigDecimal totalValue, List<PositionValue> positions) {
+    }
+
+    /**
+     * 保有銘柄の評価額です。
+     *
+     * @param symbol    銘柄コード
+     * @param exchange  取引市場
+     * @param currency  取得単価の通貨
+     * @param quantity  保有数量
+     * @param costBasis 取得原価（取得単価の通貨建て）
+     * @param rate      取得単価の通貨から評価通貨への換算レート
+     * @param value     評価額（評価通貨建て）
+     */
+    public record PositionValue(String symbol, String exchange, String currency, BigDecimal quantity,
+                                BigDecimal costBasis, BigDecimal rate, BigDecimal value) {
+    }
+}
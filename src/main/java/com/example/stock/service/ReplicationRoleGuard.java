@@ -0,0 +1,41 @@
+package com.example.stock.service;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 起動時の {@code app.replication.role} と、実際に登録されたレプリケーションの Bean が一致することを確認します。
+ * <p>
+ * {@link ChangeLogPublisher} と {@link ChangeLogFollower} はロールを条件に登録されます。Spring AOT で処理したイメージでは
+ * 条件がビルド時に評価済みのため、ビルド時と異なるロールで起動するとプライマリが変更ログを書き出さず、フォロワーが
+ * 追従も書き込みの拒否もしないまま動き続けます。このような不一致を検出した場合は起動を中止します。
+ */
+@Component
+public class ReplicationRoleGuard {
+
+    public ReplicationRoleGuard(@Value("${app.replication.role:standalone}") String role,
+                                ObjectProvider<ChangeLogPublisher> publisher,
+                                ObjectProvider<ChangeLogFollower> follower) {
+        verify(role, publisher.getIfAvailable() != null, follower.getIfAvailable() != null);
+    }
+
+    /**
+     * ロールと登録済みの Bean の組み合わせを検証します。
+     *
+     * @param role              起動時のロール
+     * @param publisherPresent  {@link ChangeLogPublisher} が登録されている場合は {@code true}
+     * @param followerPresent   {@link ChangeLogFollower} が登録されている場合は {@code true}
+     * @throws IllegalStateException ロールと登録済みの Bean が一致しない場合
+     */
+    static void verify(String role, boolean publisherPresent, boolean followerPresent) {
+        boolean expectPublisher = "primary".equals(role);
+        boolean expectFollower = "follower".equals(role);
+        if (publisherPresent != expectPublisher || followerPresent != expectFollower) {
+            String registered = publisherPresent ? "primary" : followerPresent ? "follower" : "standalone";
+            throw new IllegalStateException("app.replication.role is '" + role + "' but the application was built "
+                    + "for '" + registered + "'; rebuild the AOT image with the same role "
+                    + "(docker build --build-arg REPLICATION_ROLE=" + role + ")");
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.stock.service;
+
+import com.example.stock.exception.InvalidTradeException;
+import com.example.stock.exception.UnknownSymbolException;
+import com.example.stock.model.TradeSide;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * 取扱銘柄（銘柄コード・取引市場・通貨・売買単位）を保持する銘柄マスタです。
+ * <p>
+ * 起動時に {@code app.symbols.master-file} の CSV を読み込み、銘柄コードの昇順に並べた配列として保持します。
+ * 銘柄は配列の添字を整数の ID として参照し、各銘柄の {@link Listing} は読み込み時に 1 つだけ生成して使い回します。
+ * 前方一致の検索は二分探索で先頭の候補を求め、そこから接頭辞が一致する間だけ読み進めるため、
+ * 銘柄数によらず返す件数に比例した時間で応答します。マスタは起動後に変更しないため、参照時にロックは取りません。
+ */
+@Service
+public class SymbolMaster {
+
+    private static final Logger log = LoggerFactory.getLogger(SymbolMaster.class);
+
+    private final String[] symbols;
+    private final Listing[] listings;
+
+    public SymbolMaster(@Value("${app.symbols.master-file:classpath:symbols/listings.csv}") Resource masterFile) {
+        List<Listing> sorted = read(masterFile);
+        sorted.sort(Comparator.comparing(Listing::symbol));
+        this.symbols = new String[sorted.size()];
+        this.listings = new Listing[sorted.size()];
+        for (int id = 0; id < sorted.size(); id++) {
+            Listing entry = sorted.get(id);
+            if (id > 0 && symbols[id - 1].equals(entry.symbol())) {
+                throw new IllegalStateException("Duplicate symbol in master file: " + entry.symbol());
+            }
+            symbols[id] = entry.symbol();
+            listings[id] = new Listing(id, entry.symbol(), entry.exchange(), entry.currency(), entry.lotSize(),
+                    entry.name());
+        }
+        log.info("Loaded {} listings from {}", listings.length, masterFile.getDescription());
+    }
+
+    /**
+     * 登録銘柄数を取得します。
+     *
+     * @return 登録銘柄数
+     */
+    public int size() {
+        return listings.length;
+    }
+
+    /**
+     * 銘柄コードに対応する ID を取得します。
+     *
+     * @param symbol 銘柄コード（大文字・小文字は区別しません）
+     * @return 銘柄 ID（未登録の場合は {@code -1}）
+     */
+    public int idOf(String symbol) {
+        if (symbol == null) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(symbols, normalize(symbol));
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * ID を指定して銘柄を取得します。
+     *
+     * @param id 銘柄 ID
+     * @return 銘柄
+     */
+    public Listing get(int id) {
+        return listings[id];
+    }
+
+    /**
+     * 銘柄コードを指定して銘柄を取得します。
+     *
+     * @param symbol 銘柄コード（大文字・小文字は区別しません）
+     * @return 銘柄（未登録の場合は空）
+     */
+    public Optional<Listing> find(String symbol) {
+        int id = idOf(symbol);
+        return id >= 0 ? Optional.of(listings[id]) : Optional.empty();
+    }
+
+    /**
+     * 銘柄コードが指定した接頭辞で始まる銘柄を、銘柄コードの昇順に取得します。
+     *
+     * @param prefix 接頭辞（大文字・小文字は区別しません。空の場合は先頭から返します）
+     * @param limit  最大件数
+     * @return 銘柄一覧
+     */
+    public List<Listing> complete(String prefix, int limit) {
+        String key = prefix == null ? "" : normalize(prefix);
+        List<Listing> matches = new ArrayList<>(Math.min(limit, listings.length));
+        for (int id = lowerBound(key); id < symbols.length && matches.size() < limit; id++) {
+            if (!symbols[id].startsWith(key)) {
+                break;
+            }
+            matches.add(listings[id]);
+        }
+        return matches;
+    }
+
+    /**
+     * 銘柄マスタに登録された銘柄と取引市場であることを確認します。
+     *
+     * @param symbol   銘柄コード（大文字・小文字は区別しません）
+     * @param exchange 取引市場（大文字・小文字は区別しません）
+     * @return 銘柄
+     * @throws UnknownSymbolException 未登録の銘柄、または登録と異なる取引市場が指定された場合
+     */
+    public Listing require(String symbol, String exchange) {
+        Listing listing = find(symbol)
+                .orElseThrow(() -> new UnknownSymbolException("Unknown symbol: " + symbol));
+        if (exchange == null || !listing.exchange().equalsIgnoreCase(exchange.trim())) {
+            throw new UnknownSymbolException(listing.symbol() + " is listed on " + listing.exchange()
+                    + ", not " + exchange);
+        }
+        return listing;
+    }
+
+    /**
+     * 売買注文の銘柄・取引市場・数量・通貨を銘柄マスタと照合します。
+     * <p>
+     * 通貨を省略した注文（取引画面やバイナリフレームからの注文）には銘柄の取引通貨を補います。
+     * 売買単位の確認は買い注文だけに行います。移管で受け入れた売買単位未満の保有分も売却できるよう、
+     * 売り注文は単位未満の数量を受け付けます。
+     *
+     * @param order 売買注文
+     * @return 銘柄コードと取引市場をマスタの表記にそろえ、通貨を銘柄の取引通貨とした売買注文
+     * @throws UnknownSymbolException 未登録の銘柄、または登録と異なる取引市場が指定された場合
+     * @throws InvalidTradeException  買い注文の数量が売買単位の整数倍でない場合、または通貨が銘柄の取引通貨と異なる場合
+     */
+    public TradeOrder validate(TradeOrder order) {
+        Listing listing = require(order.symbol(), order.exchange());
+        if (order.side() == TradeSide.BUY && order.quantity() != null && listing.lotSize() > 1
+                && order.quantity().remainder(BigDecimal.valueOf(listing.lotSize())).signum() != 0) {
+            throw new InvalidTradeException("Quantity of " + listing.symbol() + " must be a multiple of "
+                    + listing.lotSize());
+        }
+        if (order.currency() != null && !order.currency().isBlank()
+                && !listing.currency().equals(FxRateCache.normalize(order.currency()))) {
+            throw new InvalidTradeException(listing.symbol() + " trades in " + listing.currency());
+        }
+        return new TradeOrder(order.side(), listing.symbol(), listing.exchange(), order.quantity(),
+                order.pricePerShare(), listing.currency());
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = symbols.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (symbols[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static String normalize(String symbol) {
+        return symbol.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static List<Listing> read(Resource masterFile) {
+        List<Listing> entries = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(masterFile.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            boolean header = true;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                if (header) {
+                    header = false;
+                    continue;
+                }
+                String[] fields = line.split(",", 5);
+                if (fields.length < 4) {
+                    throw new IllegalStateException("Invalid listing at line " + lineNumber + ": " + line);
+                }
+                entries.add(new Listing(-1, normalize(fields[0]), fields[1].trim().toUpperCase(Locale.ROOT),
+                        FxRateCache.normalize(fields[2]), Integer.parseInt(fields[3].trim()),
+                        fields.length > 4 ? fields[4].trim() : ""));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read symbol master " + masterFile.getDescription(), ex);
+        }
+        return entries;
+    }
+
+    /**
+     * 銘柄マスタの 1 銘柄です。
+     *
+     * @param id       銘柄 ID（銘柄コードの昇順の位置）
+     * @param symbol   銘柄コード
+     * @param exchange 取引市場
+     * @param currency 取引通貨
+     * @param lotSize  売買単位
+     * @param name     銘柄名
+     */
+    public record Listing(int id, String symbol, String exchange, String currency, int lotSize, String name) {
+    }
+}
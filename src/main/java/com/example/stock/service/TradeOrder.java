@@ -0,0 +1,24 @@
+package com.example.stock.service;
+
+import com.example.stock.model.TradeSide;
+
+import java.math.BigDecimal;
+
+/**
+ * 一括約定で使用する売買注文です。
+ *
+ * @param side          売買区分
+ * @param symbol        銘柄コード
+ * @param exchange      取引市場
+ * @param quantity      取引数量
+ * @param pricePerShare 取引単価
+ * @param currency      取引単価の通貨（省略時は保有銘柄の通貨、新規の場合は現金残高の通貨）
+ */
+public record TradeOrder(TradeSide side, String symbol, String exchange, BigDecimal quantity,
+                         BigDecimal pricePerShare, String currency) {
+
+    public TradeOrder(TradeSide side, String symbol, String exchange, BigDecimal quantity,
+                      BigDecimal pricePerShare) {
+        this(side, symbol, exchange, quantity, pricePerShare, null);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.stock.service;
+
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+
+/**
+ * トランザクションマネージャーを構成します。
+ * <p>
+ * 既存のトランザクションに参加した処理が例外で終わっても、外側のトランザクション全体をロールバック専用にしません。
+ * {@link GroupCommitExecutor} は何も変更せずに拒否された処理だけを失敗として応答し、同じグループの残りの処理を
+ * そのままコミットします。ロールバックが必要かどうかは外側のトランザクションを開始した側が判断します。
+ */
+@Configuration
+public class TransactionConfiguration {
+
+    @Bean
+    public TransactionManagerCustomizer<AbstractPlatformTransactionManager> participationFailureCustomizer() {
+        return manager -> manager.setGlobalRollbackOnParticipationFailure(false);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.stock.service;
+
+import com.example.stock.model.Transaction;
+
+import java.util.Objects;
+
+/**
+ * {@link AccountService} がトランザクションを保存した直後に発行されるイベントです。
+ * <p>
+ * 同一トランザクション内で同期的に配信されるため、リスナーでの更新は取引と同時にコミットされます。
+ *
+ * @param transaction 保存済みのトランザクション
+ */
+public record TransactionRecordedEvent(Transaction transaction) {
+
+    public TransactionRecordedEvent {
+        Objects.requireNonNull(transaction, "transaction");
+    }
+}
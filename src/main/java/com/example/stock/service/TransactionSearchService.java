@@ -0,0 +1,85 @@
+package com.example.stock.service;
+
+import com.example.stock.repository.TransactionSearchRepository;
+import com.example.stock.repository.TransactionSearchRepository.Criteria;
+import com.example.stock.repository.TransactionSearchRepository.Cursor;
+import com.example.stock.repository.TransactionSearchRepository.TransactionMatch;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 条件を指定して取引履歴を検索するサービスです。
+ * <p>
+ * 続きのページの位置は、最後に返した取引の発生日時と ID を URL セーフな Base64 で表したカーソルとして受け渡します。
+ */
+@Service
+public class TransactionSearchService {
+
+    private final TransactionSearchRepository repository;
+
+    public TransactionSearchService(TransactionSearchRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * 取引を検索します。
+     *
+     * @param criteria 検索条件（銘柄コードは大文字へ正規化します）
+     * @param cursor   前のページの {@link Page#nextCursor()}（先頭ページの場合は {@code null}）
+     * @param limit    最大件数
+     * @return 発生日時の新しい順の取引と、続きがある場合のカーソル
+     * @throws IllegalArgumentException カーソルの形式が不正な場合、または金額・期間の範囲が逆転している場合
+     */
+    public Page search(Criteria criteria, String cursor, int limit) {
+        if (criteria.minAmount() != null && criteria.maxAmount() != null
+                && criteria.minAmount().compareTo(criteria.maxAmount()) > 0) {
+            throw new IllegalArgumentException("minAmount must not be greater than maxAmount");
+        }
+        if (criteria.from() != null && criteria.to() != null && criteria.from().isAfter(criteria.to())) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        Criteria normalized = new Criteria(criteria.accountId(),
+                criteria.symbol() != null ? criteria.symbol().trim().toUpperCase(Locale.ROOT) : null,
+                criteria.exchange() != null ? criteria.exchange().trim() : null, criteria.type(), criteria.side(),
+                criteria.minAmount(), criteria.maxAmount(), criteria.from(), criteria.to());
+        List<TransactionMatch> matches = repository.search(normalized, decode(cursor), limit + 1);
+        if (matches.size() <= limit) {
+            return new Page(matches, null);
+        }
+        TransactionMatch last = matches.get(limit - 1);
+        return new Page(List.copyOf(matches.subList(0, limit)), encode(new Cursor(last.occurredAt(), last.id())));
+    }
+
+    private static String encode(Cursor cursor) {
+        String value = cursor.occurredAt().toEpochMilli() + ":" + cursor.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Cursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            int separator = value.indexOf(':');
+            return new Cursor(Instant.ofEpochMilli(Long.parseLong(value.substring(0, separator))),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+
+    /**
+     * 検索結果の 1 ページです。
+     *
+     * @param transactions 取引一覧
+     * @param nextCursor   続きのページのカーソル（最後のページの場合は {@code null}）
+     */
+    public record Page(List<TransactionMatch> transactions, String nextCursor) {
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.stock.service;
+
+import com.example.stock.exception.ServiceOverloadedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 更新系処理の同時実行数を観測レイテンシーに応じて調整する AIMD 方式のリミッターです。
+ * <p>
+ * 処理時間がしきい値以内で上限近くまで使われている間は上限を 1 ずつ増やし、しきい値を超えた処理があれば
+ * 上限を一定比率で縮めます。上限を超えた要求は待たせずに {@link ServiceOverloadedException} で即座に拒否するため、
+ * SQLite が遅くなった場合でも更新要求がスレッドプールに滞留せず、参照系やログインは応答を続けられます。
+ */
+@Component
+public class WriteConcurrencyLimiter {
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private volatile int limit;
+    private volatile long lastLatencyNanos;
+
+    @Autowired
+    public WriteConcurrencyLimiter(
+            @Value("${app.write-limiter.enabled:true}") boolean enabled,
+            @Value("${app.write-limiter.initial-limit:4}") int initialLimit,
+            @Value("${app.write-limiter.min-limit:1}") int minLimit,
+            @Value("${app.write-limiter.max-limit:32}") int maxLimit,
+            @Value("${app.write-limiter.latency-threshold:PT0.2S}") Duration latencyThreshold,
+            @Value("${app.write-limiter.backoff-ratio:0.9}") double backoffRatio) {
+        this(enabled, initialLimit, minLimit, maxLimit, latencyThreshold, backoffRatio, System::nanoTime);
+    }
+
+    WriteConcurrencyLimiter(boolean enabled, int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold,
+                            double backoffRatio, LongSupplier nanoClock) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Require 1 <= min-limit <= initial-limit <= max-limit");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoff-ratio must be between 0 and 1");
+        }
+        this.enabled = enabled;
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * 同時実行数の上限内であれば処理を実行します。
+     *
+     * @param action 更新処理
+     * @param <T>    処理結果の型
+     * @return 処理結果
+     * @throws ServiceOverloadedException 同時実行数が上限に達している場合
+     */
+    public <T> T execute(Supplier<T> action) {
+        if (!enabled) {
+            return action.get();
+        }
+        if (!tryAcquire()) {
+            rejected.increment();
+            throw new ServiceOverloadedException("更新処理が混み合っています。しばらくしてから再度お試しください。");
+        }
+        accepted.increment();
+        long start = nanoClock.getAsLong();
+        try {
+            return action.get();
+        } finally {
+            onSample(nanoClock.getAsLong() - start);
+            inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * 現在のリミッターの状態を取得します。
+     *
+     * @return 状態のスナップショット
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(enabled, limit, inFlight.get(), minLimit, maxLimit,
+                Duration.ofNanos(latencyThresholdNanos), Duration.ofNanos(lastLatencyNanos), accepted.sum(),
+                rejected.sum());
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private synchronized void onSample(long latencyNanos) {
+        lastLatencyNanos = latencyNanos;
+        int current = limit;
+        if (latencyNanos > latencyThresholdNanos) {
+            limit = Math.max(minLimit, (int) (current * backoffRatio));
+        } else if (inFlight.get() * 2 >= current) {
+            limit = Math.min(maxLimit, current + 1);
+        }
+    }
+
+    /**
+     * リミッターの状態です。
+     *
+     * @param enabled          リミッターが有効かどうか
+     * @param limit            現在の同時実行上限
+     * @param inFlight         実行中の処理数
+     * @param minLimit         上限の下限値
+     * @param maxLimit         上限の上限値
+     * @param latencyThreshold 上限を縮めるレイテンシーのしきい値
+     * @param lastLatency      直近に完了した処理のレイテンシー
+     * @param accepted         受け付けた処理の累計
+     * @param rejected         拒否した処理の累計
+     */
+    public record Snapshot(boolean enabled, int limit, int inFlight, int minLimit, int maxLimit,
+                           Duration latencyThreshold, Duration lastLatency, long accepted, long rejected) {
+    }
+}
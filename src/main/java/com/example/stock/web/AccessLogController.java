@@ -32,9 +32,11 @@ public class AccessLogController {
     private static final String DEFAULT_PATH = "/";
 
     private final AccessLogService accessLogService;
+    private final ClientIpResolver clientIpResolver;
 
-    public AccessLogController(AccessLogService accessLogService) {
+    public AccessLogController(AccessLogService accessLogService, ClientIpResolver clientIpResolver) {
         this.accessLogService = accessLogService;
+        this.clientIpResolver = clientIpResolver;
     }
 
     /**
@@ -55,7 +57,7 @@ public class AccessLogController {
                         .filter(value -> !value.isBlank())
                         .orElse(DEFAULT_PATH));
 
-        String ipAddress = extractClientIp(httpRequest);
+        String ipAddress = clientIpResolver.resolve(httpRequest);
         String userAgent = httpRequest.getHeader("User-Agent");
 
         AccessLog log = new AccessLog(page, path, ipAddress, userAgent);
@@ -94,17 +96,4 @@ public class AccessLogController {
         return new AccessLogView(log.getId(), log.getPage(), log.getPath(), log.getIpAddress(),
                 log.getUserAgent(), log.getAccessedAt());
     }
-
-    private String extractClientIp(HttpServletRequest request) {
-        String forwarded = request.getHeader("X-Forwarded-For");
-        if (forwarded != null && !forwarded.isBlank()) {
-            return forwarded.split(",")[0].trim();
-        }
-        String realIp = request.getHeader("X-Real-IP");
-        if (realIp != null && !realIp.isBlank()) {
-            return realIp.trim();
-        }
-        return Optional.ofNullable(request.getRemoteAddr()).orElse("unknown");
-    }
 }
-
@@ -0,0 +1,133 @@
+package com.example.stock.web;
+
+import com.example.stock.model.DailyAccountAggregate;
+import com.example.stock.service.AccountReadModel;
+import com.example.stock.service.AccountService;
+import com.example.stock.service.DailyAggregateService;
+import com.example.stock.service.DailyAggregateService.ActivitySummary;
+import com.example.stock.web.dto.ActivitySummaryView;
+import com.example.stock.web.dto.DailyAggregateView;
+import com.example.stock.web.dto.RebuildResponse;
+import com.example.stock.web.dto.SummaryRebuildResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * アカウントの日次集計を参照・再構築し、口座の読み取りモデルを再構築する REST API を提供します。
+ */
+@RestController
+@RequestMapping("/api")
+public class AccountAggregateController {
+
+    private static final int DEFAULT_RANGE_DAYS = 30;
+
+    private final AccountService accountService;
+    private final DailyAggregateService dailyAggregateService;
+    private final AccountReadModel readModel;
+
+    public AccountAggregateController(AccountService accountService, DailyAggregateService dailyAggregateService,
+                                      AccountReadModel readModel) {
+        this.accountService = accountService;
+        this.dailyAggregateService = dailyAggregateService;
+        this.readModel = readModel;
+    }
+
+    /**
+     * 指定期間の日次集計行を取得します。
+     *
+     * @param id   アカウント識別子
+     * @param from 開始日（省略時は終了日の 30 日前）
+     * @param to   終了日（省略時は当日）
+     * @return 日次集計一覧
+     */
+    @GetMapping("/accounts/{id}/aggregates/daily")
+    public List<DailyAggregateView> daily(
+            @PathVariable UUID id,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        accountService.getAccount(id);
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = resolveStart(from, end);
+        return dailyAggregateService.getDailyAggregates(id, start, end).stream()
+                .map(this::toView)
+                .toList();
+    }
+
+    /**
+     * 指定期間の入出金・売買サマリーを取得します。
+     *
+     * @param id   アカウント識別子
+     * @param from 開始日（省略時は終了日の 30 日前）
+     * @param to   終了日（省略時は当日）
+     * @return 期間サマリー
+     */
+    @GetMapping("/accounts/{id}/aggregates/summary")
+    public ActivitySummaryView summary(
+            @PathVariable UUID id,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        accountService.getAccount(id);
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        ActivitySummary summary = dailyAggregateService.summarize(id, resolveStart(from, end), end);
+        return new ActivitySummaryView(summary.accountId(), summary.from(), summary.to(), summary.netDeposits(),
+                summary.tradeCount(), summary.tradedNotional(), summary.buyNotional(), summary.sellNotional());
+    }
+
+    /**
+     * すべての日次集計をトランザクション履歴から再構築します。
+     *
+     * @return 処理件数
+     */
+    @PostMapping("/admin/aggregates/rebuild")
+    public RebuildResponse rebuildAll() {
+        return new RebuildResponse(dailyAggregateService.rebuildAll());
+    }
+
+    /**
+     * 指定アカウントの日次集計をトランザクション履歴から再構築します。
+     *
+     * @param id アカウント識別子
+     * @return 処理件数
+     */
+    @PostMapping("/admin/aggregates/rebuild/{id}")
+    public RebuildResponse rebuild(@PathVariable UUID id) {
+        accountService.getAccount(id);
+        return new RebuildResponse(dailyAggregateService.rebuild(id));
+    }
+
+    /**
+     * 口座の読み取りモデルをアカウント・保有銘柄・トランザクション履歴から再構築します。
+     *
+     * @return 再構築したアカウント数
+     */
+    @PostMapping("/admin/account-summaries/rebuild")
+    public SummaryRebuildResponse rebuildSummaries() {
+        return new SummaryRebuildResponse(readModel.rebuild());
+    }
+
+    private LocalDate resolveStart(LocalDate from, LocalDate end) {
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS);
+        if (start.isAfter(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+        return start;
+    }
+
+    private DailyAggregateView toView(DailyAccountAggregate aggregate) {
+        return new DailyAggregateView(aggregate.getBusinessDate(), aggregate.getType(), aggregate.getTradeSide(),
+                aggregate.getTransactionCount(), aggregate.getCashAmount(), aggregate.getGrossAmount(),
+                aggregate.getQuantity());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.stock.web;
+
+import com.example.stock.model.Account;
+import com.example.stock.service.AccountService;
+import com.example.stock.service.GroupCommitExecutor;
+import com.example.stock.service.SymbolMaster;
+import com.example.stock.service.TradeOrder;
+import com.example.stock.service.WriteConcurrencyLimiter;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * アルゴリズム取引クライアント向けに、バイナリフレームで売買注文を受け付ける API を提供します。
+ * <p>
+ * JSON の取引 API と同じパスで、{@code Content-Type} が {@value TradeFrames#TRADE_FRAME} の場合にこちらが選択されます。
+ * 銘柄マスタとの照合とエラー時の応答は JSON の取引 API と同じです。
+ */
+@RestController
+@RequestMapping("/api/accounts")
+public class AccountBinaryTradeController {
+
+    private static final MediaType RESULT_TYPE = MediaType.parseMediaType(TradeFrames.TRADE_RESULT_FRAME);
+
+    private final AccountService accountService;
+    private final WriteConcurrencyLimiter writeLimiter;
+    private final GroupCommitExecutor groupCommit;
+    private final SymbolMaster symbolMaster;
+
+    public AccountBinaryTradeController(AccountService accountService, WriteConcurrencyLimiter writeLimiter,
+                                        GroupCommitExecutor groupCommit, SymbolMaster symbolMaster) {
+        this.accountService = accountService;
+        this.writeLimiter = writeLimiter;
+        this.groupCommit = groupCommit;
+        this.symbolMaster = symbolMaster;
+    }
+
+    /**
+     * バイナリの注文フレームを約定します。
+     *
+     * @param id    アカウント識別子
+     * @param frame 注文フレーム
+     * @return 約定結果フレーム
+     */
+    @PostMapping(path = "/{id}/trade", consumes = TradeFrames.TRADE_FRAME)
+    public ResponseEntity<byte[]> trade(@PathVariable UUID id, @RequestBody byte[] frame) {
+        TradeOrder order = symbolMaster.validate(TradeFrames.decodeOrder(frame));
+        Account account = write(() -> accountService.executeTrade(id, order.side(), order.symbol(),
+                order.exchange(), order.quantity(), order.pricePerShare(), order.currency()));
+        return result(account, List.of(order));
+    }
+
+    /**
+     * バイナリの一括注文フレームを指定順に約定します。いずれかが失敗した場合はすべて取り消されます。
+     *
+     * @param id    アカウント識別子
+     * @param frame 一括注文フレーム
+     * @return 約定結果フレーム
+     */
+    @PostMapping(path = "/{id}/trades", consumes = TradeFrames.TRADE_FRAME)
+    public ResponseEntity<byte[]> tradeBatch(@PathVariable UUID id, @RequestBody byte[] frame) {
+        List<TradeOrder> orders = TradeFrames.decodeBatch(frame).stream()
+                .map(symbolMaster::validate)
+                .toList();
+        Account account = write(() -> accountService.executeTrades(id, orders));
+        return result(account, orders);
+    }
+
+    private Account write(Supplier<Account> mutation) {
+        return writeLimiter.execute(() -> groupCommit.execute(mutation));
+    }
+
+    private ResponseEntity<byte[]> result(Account account, List<TradeOrder> orders) {
+        Set<String> symbols = new LinkedHashSet<>();
+        for (TradeOrder order : orders) {
+            symbols.add(order.symbol());
+        }
+        return ResponseEntity.ok()
+                .contentType(RESULT_TYPE)
+                .body(TradeFrames.encodeResult(account, symbols));
+    }
+}
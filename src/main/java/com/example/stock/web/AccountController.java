@@ -1,28 +1,40 @@
 package com.example.stock.web;
 
 import com.example.stock.model.Account;
-import com.example.stock.model.Transaction;
+import com.example.stock.repository.AccountSummaryRepository.Summary;
+import com.example.stock.service.AccountChangeTracker;
+import com.example.stock.service.AccountOpening;
+import com.example.stock.service.AccountReadModel;
 import com.example.stock.service.AccountService;
+import com.example.stock.service.GroupCommitExecutor;
+import com.example.stock.service.SymbolMaster;
+import com.example.stock.service.TradeOrder;
+import com.example.stock.service.WriteConcurrencyLimiter;
 import com.example.stock.web.dto.AccountSummary;
 import com.example.stock.web.dto.CashTransferRequest;
 import com.example.stock.web.dto.CreateAccountRequest;
-import com.example.stock.web.dto.HoldingView;
+import com.example.stock.web.dto.TaxLotView;
+import com.example.stock.web.dto.TradeBatchRequest;
 import com.example.stock.web.dto.TradeRequest;
 import com.example.stock.web.dto.TransactionView;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.math.BigDecimal;
 import java.util.List;
+import java.util.OptionalLong;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * アカウント関連のREST APIを提供するコントローラーです。
@@ -33,25 +45,42 @@ import java.util.UUID;
 public class AccountController {
 
     private final AccountService accountService;
+    private final WriteConcurrencyLimiter writeLimiter;
+    private final GroupCommitExecutor groupCommit;
+    private final AccountChangeTracker changeTracker;
+    private final AccountReadModel readModel;
+    private final SymbolMaster symbolMaster;
 
     /**
      * コントローラーを初期化します。
      *
      * @param accountService アカウントサービス
+     * @param writeLimiter   更新系処理の同時実行数リミッター
+     * @param groupCommit    更新系処理のグループコミット
+     * @param changeTracker  アカウントの更新回数キャッシュ
+     * @param readModel      アカウントの読み取りモデル
+     * @param symbolMaster   銘柄マスタ
      */
-    public AccountController(AccountService accountService) {
+    public AccountController(AccountService accountService, WriteConcurrencyLimiter writeLimiter,
+                             GroupCommitExecutor groupCommit, AccountChangeTracker changeTracker,
+                             AccountReadModel readModel, SymbolMaster symbolMaster) {
         this.accountService = accountService;
+        this.writeLimiter = writeLimiter;
+        this.groupCommit = groupCommit;
+        this.changeTracker = changeTracker;
+        this.readModel = readModel;
+        this.symbolMaster = symbolMaster;
     }
 
     /**
-     * 登録済みのアカウントを一覧取得します。
+     * 登録済みのアカウントを一覧取得します。読み取りモデルから応答し、保有銘柄のテーブルは参照しません。
      *
      * @return アカウント要約のリスト
      */
     @GetMapping
     public List<AccountSummary> listAccounts() {
-        return accountService.getAccounts().stream()
-                .map(this::toSummary)
+        return readModel.getSummaries().stream()
+                .map(AccountViews::toSummary)
                 .toList();
     }
 
@@ -64,32 +93,74 @@ public class AccountController {
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public AccountSummary createAccount(@Valid @RequestBody CreateAccountRequest request) {
-        BigDecimal initialDeposit = request.initialDeposit() == null ? BigDecimal.ZERO : request.initialDeposit();
-        Account account = accountService.createAccount(request.ownerName(), initialDeposit);
-        return toSummary(account);
+        AccountOpening opening = AccountOnboardingController.toOpening(request, symbolMaster);
+        Account account = write(() -> accountService.createAccount(opening));
+        return summary(account);
     }
 
     /**
      * アカウント詳細を取得します。
+     * <p>
+     * 読み取りモデルの 1 行から応答します。アカウントの更新回数から算出した ETag を付与し、
+     * {@code If-None-Match} が最新の ETag と一致する場合は 304 を返します。
      *
      * @param id アカウント識別子
-     * @return アカウントの要約
+     * @param ifNoneMatch クライアントが保持している ETag
+     * @return アカウントの要約（未更新の場合は本文なし）
      */
     @GetMapping("/{id}")
-    public AccountSummary getAccount(@PathVariable UUID id) {
-        return toSummary(accountService.getAccount(id));
+    public ResponseEntity<AccountSummary> getAccount(@PathVariable UUID id,
+                                                     @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                     String ifNoneMatch) {
+        String cachedETag = cachedETag("account", id);
+        if (cachedETag != null && matches(ifNoneMatch, cachedETag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(cachedETag).build();
+        }
+        Summary summary = readModel.getSummary(id);
+        changeTracker.remember(id, summary.changeCount());
+        return ResponseEntity.ok()
+                .eTag(eTag("account", id, summary.changeCount()))
+                .body(AccountViews.toSummary(summary));
     }
 
     /**
      * 指定アカウントのトランザクション履歴を取得します。
+     * <p>
+     * アカウント詳細と同じ更新回数から ETag を算出し、条件付き GET に対応します。
      *
      * @param id アカウント識別子
-     * @return トランザクション一覧
+     * @param ifNoneMatch クライアントが保持している ETag
+     * @return トランザクション一覧（未更新の場合は本文なし）
      */
     @GetMapping("/{id}/transactions")
-    public List<TransactionView> getTransactions(@PathVariable UUID id) {
-        return accountService.getTransactions(id).stream()
-                .map(this::toTransactionView)
+    public ResponseEntity<List<TransactionView>> getTransactions(
+            @PathVariable UUID id,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String cachedETag = cachedETag("transactions", id);
+        if (cachedETag != null && matches(ifNoneMatch, cachedETag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(cachedETag).build();
+        }
+        long version = accountService.getAccount(id).getChangeCount();
+        changeTracker.remember(id, version);
+        List<TransactionView> transactions = accountService.getTransactions(id).stream()
+                .map(AccountViews::toTransactionView)
+                .toList();
+        return ResponseEntity.ok()
+                .eTag(eTag("transactions", id, version))
+                .body(transactions);
+    }
+
+    /**
+     * 指定銘柄の未売却ロットを取得します。
+     *
+     * @param id アカウント識別子
+     * @param symbol 銘柄コード
+     * @return 税務ロット一覧（取得日時の古い順）
+     */
+    @GetMapping("/{id}/holdings/{symbol}/lots")
+    public List<TaxLotView> getTaxLots(@PathVariable UUID id, @PathVariable String symbol) {
+        return accountService.getTaxLots(id, symbol).stream()
+                .map(AccountViews::toTaxLotView)
                 .toList();
     }
 
@@ -102,7 +173,7 @@ public class AccountController {
      */
     @PostMapping("/{id}/deposit")
     public AccountSummary deposit(@PathVariable UUID id, @Valid @RequestBody CashTransferRequest request) {
-        return toSummary(accountService.deposit(id, request.amount()));
+        return summary(write(() -> accountService.deposit(id, request.amount())));
     }
 
     /**
@@ -114,11 +185,11 @@ public class AccountController {
      */
     @PostMapping("/{id}/withdraw")
     public AccountSummary withdraw(@PathVariable UUID id, @Valid @RequestBody CashTransferRequest request) {
-        return toSummary(accountService.withdraw(id, request.amount()));
+        return summary(write(() -> accountService.withdraw(id, request.amount())));
     }
 
     /**
-     * 売買注文を約定します。
+     * 売買注文を約定します。銘柄マスタに登録されていない銘柄や、売買単位に合わない数量の買い注文は約定前に拒否します。
      *
      * @param id アカウント識別子
      * @param request 取引リクエスト
@@ -126,30 +197,85 @@ public class AccountController {
      */
     @PostMapping("/{id}/trade")
     public AccountSummary trade(@PathVariable UUID id, @Valid @RequestBody TradeRequest request) {
-        Account account = accountService.executeTrade(id, request.side(), request.symbol(), request.exchange(),
-                request.quantity(), request.pricePerShare());
-        return toSummary(account);
+        TradeOrder order = symbolMaster.validate(new TradeOrder(request.side(), request.symbol(),
+                request.exchange(), request.quantity(), request.pricePerShare(), request.currency()));
+        Account account = write(() -> accountService.executeTrade(id, order.side(), order.symbol(),
+                order.exchange(), order.quantity(), order.pricePerShare(), order.currency()));
+        return summary(account);
     }
 
     /**
-     * アカウントモデルをAPIレスポンス用DTOへ変換します。
+     * 複数の売買注文を指定順に一括で約定します。いずれかが失敗した場合はすべて取り消されます。
      *
-     * @param account アカウントモデル
-     * @return アカウントの要約
+     * @param id アカウント識別子
+     * @param request 一括取引リクエスト
+     * @return 更新後のアカウント要約
      */
-    private AccountSummary toSummary(Account account) {
-        List<HoldingView> holdings = account.getHoldings().stream()
-                .map(holding -> new HoldingView(holding.getSymbol(), holding.getExchange(),
-                        holding.getQuantity(), holding.getAverageCost()))
+    @PostMapping("/{id}/trades")
+    public AccountSummary tradeBatch(@PathVariable UUID id, @Valid @RequestBody TradeBatchRequest request) {
+        List<TradeOrder> orders = request.trades().stream()
+                .map(trade -> symbolMaster.validate(new TradeOrder(trade.side(), trade.symbol(), trade.exchange(),
+                        trade.quantity(), trade.pricePerShare(), trade.currency())))
                 .toList();
-        return new AccountSummary(account.getId(), account.getOwnerName(), account.getCashBalance(), holdings,
-                account.getCreatedAt());
+        return summary(write(() -> accountService.executeTrades(id, orders)));
+    }
+
+    /**
+     * 更新系処理を同時実行数リミッターの枠内でグループコミットに渡し、コミットの完了を待ちます。
+     *
+     * @param mutation 更新処理
+     * @return 更新したアカウント
+     */
+    private Account write(Supplier<Account> mutation) {
+        return writeLimiter.execute(() -> groupCommit.execute(mutation));
+    }
+
+    /**
+     * 更新系処理のコミット後に、読み取りモデルからアカウントの要約を取得します。
+     *
+     * @param account 更新したアカウント
+     * @return アカウントの要約
+     */
+    private AccountSummary summary(Account account) {
+        return AccountViews.toSummary(readModel.getSummary(account.getId()));
+    }
+
+    /**
+     * キャッシュ済みの更新回数から ETag を算出します。
+     *
+     * @param resource リソース種別
+     * @param id アカウント識別子
+     * @return ETag（更新回数が未記録の場合は {@code null}）
+     */
+    private String cachedETag(String resource, UUID id) {
+        OptionalLong cached = changeTracker.cachedVersion(id);
+        return cached.isPresent() ? eTag(resource, id, cached.getAsLong()) : null;
+    }
+
+    /**
+     * {@code If-None-Match} のいずれかの値が ETag と一致するかを判定します（弱い比較）。
+     *
+     * @param ifNoneMatch {@code If-None-Match} ヘッダーの値
+     * @param eTag 現在の ETag
+     * @return 一致する場合は {@code true}
+     */
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private TransactionView toTransactionView(Transaction transaction) {
-        return new TransactionView(transaction.getId(), transaction.getType(), transaction.getTradeSide(),
-                transaction.getSymbol(), transaction.getExchange(), transaction.getQuantity(),
-                transaction.getPricePerShare(), transaction.getCashAmount(), transaction.getGrossAmount(),
-                transaction.getCashBalanceAfter(), transaction.getOccurredAt());
+    private static String eTag(String resource, UUID id, long version) {
+        return "\"" + resource + "-" + id + "-" + version + "\"";
     }
 }
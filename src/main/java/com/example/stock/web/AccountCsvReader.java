@@ -0,0 +1,162 @@
+package com.example.stock.web;
+
+import com.example.stock.exception.InvalidAccountOpeningException;
+import com.example.stock.model.CostBasisMethod;
+import com.example.stock.web.dto.CreateAccountRequest;
+import com.example.stock.web.dto.OpeningHoldingRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * アカウント一括開設用の CSV を 1 行ずつ読み込み、口座開設リクエストへ変換します。
+ * <p>
+ * 1 行目はヘッダー行で、{@code ownerName}（必須）、{@code initialDeposit}、{@code costBasisMethod}、
+ * {@code holdings}、{@code baseCurrency} の列を任意の順で指定します。{@code holdings} 列には移管する保有銘柄を
+ * {@code 銘柄コード:取引市場:数量:取得単価[:通貨]} の形式で {@code ;} 区切りで記述します。
+ * 値はダブルクォートで囲むことができ（{@code ""} でダブルクォート自体を表します）、空行は無視します。
+ * 1 件のレコードを複数行にまたがって記述することはできません。
+ */
+final class AccountCsvReader {
+
+    static final String CONTENT_TYPE = "text/csv";
+
+    private static final List<String> COLUMNS = List.of("ownerName", "initialDeposit", "costBasisMethod", "holdings",
+            "baseCurrency");
+
+    private AccountCsvReader() {
+    }
+
+    /**
+     * CSV を読み込みます。
+     *
+     * @param reader 入力
+     * @param limit  読み込むレコード数の上限
+     * @return 口座開設リクエスト（記述順）
+     * @throws InvalidAccountOpeningException CSV の形式が不正な場合、またはレコード数が上限を超える場合
+     * @throws IOException                    入力の読み込みに失敗した場合
+     */
+    static List<CreateAccountRequest> read(Reader reader, int limit) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        String header = lines.readLine();
+        if (header == null) {
+            throw new InvalidAccountOpeningException("CSV header is required");
+        }
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        Map<String, Integer> columns = parseHeader(split(header, 1));
+
+        List<CreateAccountRequest> requests = new ArrayList<>();
+        int lineNumber = 1;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (requests.size() >= limit) {
+                throw new InvalidAccountOpeningException("Bulk onboarding accepts at most " + limit + " accounts");
+            }
+            requests.add(toRequest(split(line, lineNumber), columns, lineNumber));
+        }
+        return requests;
+    }
+
+    private static Map<String, Integer> parseHeader(List<String> names) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim();
+            if (!COLUMNS.contains(name)) {
+                throw new InvalidAccountOpeningException("Unknown CSV column: " + name);
+            }
+            if (columns.put(name, i) != null) {
+                throw new InvalidAccountOpeningException("Duplicate CSV column: " + name);
+            }
+        }
+        if (!columns.containsKey("ownerName")) {
+            throw new InvalidAccountOpeningException("CSV column ownerName is required");
+        }
+        return columns;
+    }
+
+    private static CreateAccountRequest toRequest(List<String> values, Map<String, Integer> columns, int lineNumber) {
+        String ownerName = value(values, columns, "ownerName");
+        String initialDeposit = value(values, columns, "initialDeposit");
+        String costBasisMethod = value(values, columns, "costBasisMethod");
+        String holdings = value(values, columns, "holdings");
+        String baseCurrency = value(values, columns, "baseCurrency");
+        try {
+            return new CreateAccountRequest(ownerName,
+                    initialDeposit.isBlank() ? null : new BigDecimal(initialDeposit.trim()),
+                    costBasisMethod.isBlank() ? null
+                            : CostBasisMethod.valueOf(costBasisMethod.trim().toUpperCase(Locale.ROOT)),
+                    holdings.isBlank() ? List.of() : parseHoldings(holdings),
+                    baseCurrency.isBlank() ? null : baseCurrency.trim());
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidAccountOpeningException("Line " + lineNumber + ": " + ex.getMessage());
+        }
+    }
+
+    private static List<OpeningHoldingRequest> parseHoldings(String value) {
+        List<OpeningHoldingRequest> holdings = new ArrayList<>();
+        for (String entry : value.split(";")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 4 && parts.length != 5) {
+                throw new IllegalArgumentException(
+                        "Holding must be SYMBOL:EXCHANGE:QUANTITY:COST[:CURRENCY] but was " + entry);
+            }
+            holdings.add(new OpeningHoldingRequest(parts[0].trim(), parts[1].trim(), new BigDecimal(parts[2].trim()),
+                    new BigDecimal(parts[3].trim()), parts.length == 5 ? parts[4].trim() : null));
+        }
+        return holdings;
+    }
+
+    private static String value(List<String> values, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        return index != null && index < values.size() ? values.get(index) : "";
+    }
+
+    private static List<String> split(String line, int lineNumber) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"' && current.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new InvalidAccountOpeningException("Line " + lineNumber + ": unterminated quoted value");
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.stock.web;
+
+import com.example.stock.service.AccountService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+/**
+ * アカウントの更新を Server-Sent Events で配信する API を提供します。
+ */
+@RestController
+@RequestMapping("/api")
+public class AccountEventController {
+
+    private final AccountService accountService;
+    private final AccountEventStream eventStream;
+
+    public AccountEventController(AccountService accountService, AccountEventStream eventStream) {
+        this.accountService = accountService;
+        this.eventStream = eventStream;
+    }
+
+    /**
+     * 指定アカウントの残高・保有・取引の更新を購読します。
+     *
+     * @param id アカウント識別子
+     * @return イベントストリーム
+     */
+    @GetMapping(path = "/accounts/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter accountEvents(@PathVariable UUID id) {
+        accountService.getAccount(id);
+        return eventStream.subscribe(id);
+    }
+
+    /**
+     * すべてのアカウントの更新を購読します（管理者のみ）。
+     *
+     * @return イベントストリーム
+     */
+    @GetMapping(path = "/admin/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter allEvents() {
+        return eventStream.subscribeAll();
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.stock.web;
+
+import com.example.stock.model.Account;
+import com.example.stock.model.Transaction;
+import com.example.stock.service.TransactionRecordedEvent;
+import com.example.stock.web.dto.AccountEventView;
+import com.example.stock.web.dto.HoldingView;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * コミットされたアカウントの更新を Server-Sent Events で購読者へ配信します。
+ * <p>
+ * 更新 1 件につき DTO の変換は 1 回だけ行い、購読者ごとの上限付きキューへ積みます。送信は少数の配信スレッドが
+ * キューを順に掃き出して行うため、コミットしたスレッドがネットワーク書き込みで待たされることはありません。
+ * キューがあふれた購読者は追いつけないものとして切断し、他の購読者への配信を遅らせないようにします。
+ * <p>
+ * DTO への変換は取引を記録した時点で行い、コミット後に記録した順に配信します。一括売買のように 1 つのトランザクションで
+ * 複数の取引を記録しても、各イベントはその取引の直後の残高・保有数量を表します。ロールバックした取引は配信しません。
+ */
+@Component
+public class AccountEventStream {
+
+    private static final String EVENT_NAME = "account";
+    private static final Object HEARTBEAT = new Object();
+
+    private final int maxSubscribers;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final ExecutorService dispatcher;
+    private final ConcurrentHashMap<UUID, Set<Subscriber>> accountSubscribers = new ConcurrentHashMap<>();
+    private final Set<Subscriber> firehoseSubscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final LongAdder evicted = new LongAdder();
+
+    public AccountEventStream(
+            @Value("${app.events.max-subscribers:10000}") int maxSubscribers,
+            @Value("${app.events.buffer-size:64}") int bufferSize,
+            @Value("${app.events.timeout:PT30M}") Duration timeout,
+            @Value("${app.events.dispatcher-threads:4}") int dispatcherThreads) {
+        this.maxSubscribers = maxSubscribers;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(dispatcherThreads, runnable -> {
+            Thread thread = new Thread(runnable, "account-events-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 指定アカウントの更新を購読します。
+     *
+     * @param accountId アカウント識別子
+     * @return イベントストリーム
+     */
+    public SseEmitter subscribe(UUID accountId) {
+        return register(
+                subscriber -> accountSubscribers.compute(accountId, (id, current) -> {
+                    Set<Subscriber> subscribers = current != null ? current : ConcurrentHashMap.newKeySet();
+                    subscribers.add(subscriber);
+                    return subscribers;
+                }),
+                subscriber -> {
+                    boolean[] removed = new boolean[1];
+                    accountSubscribers.computeIfPresent(accountId, (id, current) -> {
+                        removed[0] = current.remove(subscriber);
+                        return current.isEmpty() ? null : current;
+                    });
+                    return removed[0];
+                });
+    }
+
+    /**
+     * すべてのアカウントの更新を購読します。
+     *
+     * @return イベントストリーム
+     */
+    public SseEmitter subscribeAll() {
+        return register(firehoseSubscribers::add, firehoseSubscribers::remove);
+    }
+
+    /**
+     * 記録された取引をその時点のアカウントの差分に変換し、トランザクションのコミット後に配信します。
+     * トランザクションの外で記録された場合はすぐに配信します。
+     *
+     * @param event トランザクション保存イベント
+     */
+    @EventListener
+    public void onTransactionRecorded(TransactionRecordedEvent event) {
+        Transaction transaction = event.transaction();
+        Account account = transaction.getAccount();
+        Set<Subscriber> subscribers = accountSubscribers.get(account.getId());
+        if ((subscribers == null || subscribers.isEmpty()) && firehoseSubscribers.isEmpty()) {
+            return;
+        }
+        AccountEventView view = toEventView(account, transaction);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatch(view);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<AccountEventView> pending = (List<AccountEventView>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<AccountEventView> recorded = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, recorded);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recorded.forEach(AccountEventStream.this::dispatch);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AccountEventStream.this);
+                }
+            });
+            pending = recorded;
+        }
+        pending.add(view);
+    }
+
+    /**
+     * 中継サーバーに接続を切られないよう、全購読者へ定期的にコメント行を送信します。
+     */
+    @Scheduled(fixedDelayString = "${app.events.heartbeat-interval:PT15S}")
+    public void sendHeartbeats() {
+        accountSubscribers.values().forEach(subscribers -> subscribers.forEach(s -> enqueue(s, HEARTBEAT)));
+        firehoseSubscribers.forEach(subscriber -> enqueue(subscriber, HEARTBEAT));
+    }
+
+    /**
+     * 現在の購読者数を取得します。
+     *
+     * @return 購読者数
+     */
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * 配信が追いつかず切断した購読者の累計を取得します。
+     *
+     * @return 切断した購読者数
+     */
+    public long getEvictedCount() {
+        return evicted.sum();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+        accountSubscribers.values().forEach(subscribers -> subscribers.forEach(Subscriber::close));
+        firehoseSubscribers.forEach(Subscriber::close);
+    }
+
+    private SseEmitter register(Consumer<Subscriber> add, Predicate<Subscriber> remove) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "イベントの購読者数が上限に達しています。");
+        }
+        SseEmitter emitter = createEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(bufferSize));
+        subscriber.remover = () -> {
+            if (remove.test(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+        };
+        emitter.onCompletion(subscriber.remover);
+        emitter.onTimeout(subscriber.remover);
+        emitter.onError(error -> subscriber.remover.run());
+        add.accept(subscriber);
+        enqueue(subscriber, HEARTBEAT);
+        return emitter;
+    }
+
+    /**
+     * 購読者ごとのイベントストリームを生成します。テストでは送信内容を記録する実装に差し替えます。
+     */
+    SseEmitter createEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void dispatch(AccountEventView view) {
+        Set<Subscriber> subscribers = accountSubscribers.get(view.accountId());
+        if (subscribers != null) {
+            subscribers.forEach(subscriber -> enqueue(subscriber, view));
+        }
+        firehoseSubscribers.forEach(subscriber -> enqueue(subscriber, view));
+    }
+
+    private void enqueue(Subscriber subscriber, Object message) {
+        if (!subscriber.queue.offer(message)) {
+            if (message != HEARTBEAT) {
+                evicted.increment();
+                subscriber.close();
+            }
+            return;
+        }
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Object message;
+            while ((message = subscriber.queue.poll()) != null) {
+                if (message == HEARTBEAT) {
+                    subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+                } else {
+                    subscriber.emitter.send(SseEmitter.event().name(EVENT_NAME).data(message));
+                }
+            }
+        } catch (IOException | IllegalStateException ex) {
+            subscriber.close();
+            return;
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+        if (!subscriber.queue.isEmpty() && subscriber.scheduled.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    private static AccountEventView toEventView(Account account, Transaction transaction) {
+        HoldingView holding = null;
+        if (transaction.getSymbol() != null) {
+            holding = account.findHolding(transaction.getSymbol())
+                    .map(AccountViews::toHoldingView)
+                    .orElseGet(() -> new HoldingView(transaction.getSymbol(), transaction.getExchange(),
+                            transaction.getCurrency(), BigDecimal.ZERO, null));
+        }
+        return new AccountEventView(account.getId(), account.getChangeCount(), account.getCashBalance(),
+                account.getRealizedPnl(), holding, AccountViews.toTransactionView(transaction));
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<Object> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile Runnable remover = () -> { };
+
+        private Subscriber(SseEmitter emitter, ArrayBlockingQueue<Object> queue) {
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        private void close() {
+            remover.run();
+            queue.clear();
+            emitter.complete();
+        }
+    }
+}
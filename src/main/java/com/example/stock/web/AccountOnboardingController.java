@@ -0,0 +1,106 @@
+package com.example.stock.web;
+
+import com.example.stock.exception.InvalidAccountOpeningException;
+import com.example.stock.exception.UnknownSymbolException;
+import com.example.stock.service.AccountOnboardingService;
+import com.example.stock.service.AccountOnboardingService.Result;
+import com.example.stock.service.AccountOpening;
+import com.example.stock.service.AccountOpening.OpeningPosition;
+import com.example.stock.service.SymbolMaster;
+import com.example.stock.service.SymbolMaster.Listing;
+import com.example.stock.web.dto.BulkAccountResponse;
+import com.example.stock.web.dto.CreateAccountRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 他社からの移管などで大量のアカウントを一括開設する API を提供します。
+ * <p>
+ * JSON 配列と CSV のどちらでも受け付け、{@code Content-Type} でいずれかのハンドラーが選択されます。
+ * 移管する保有銘柄は銘柄マスタと照合し、開設内容の検証と保存は {@link AccountOnboardingService} が行います。
+ */
+@RestController
+@RequestMapping("/api/accounts")
+public class AccountOnboardingController {
+
+    private final AccountOnboardingService onboardingService;
+    private final SymbolMaster symbolMaster;
+
+    public AccountOnboardingController(AccountOnboardingService onboardingService, SymbolMaster symbolMaster) {
+        this.onboardingService = onboardingService;
+        this.symbolMaster = symbolMaster;
+    }
+
+    /**
+     * JSON 配列で指定したアカウントを一括開設します。
+     *
+     * @param requests 作成リクエストの配列
+     * @return 開設結果
+     */
+    @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public BulkAccountResponse createAccounts(@RequestBody List<CreateAccountRequest> requests) {
+        return open(requests);
+    }
+
+    /**
+     * CSV で指定したアカウントを一括開設します。本文は 1 行ずつ読み込みます。
+     *
+     * @param request HTTP リクエスト
+     * @return 開設結果
+     * @throws IOException 本文の読み込みに失敗した場合
+     */
+    @PostMapping(path = "/bulk", consumes = AccountCsvReader.CONTENT_TYPE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public BulkAccountResponse importAccounts(HttpServletRequest request) throws IOException {
+        if (request.getCharacterEncoding() == null) {
+            request.setCharacterEncoding("UTF-8");
+        }
+        return open(AccountCsvReader.read(request.getReader(), onboardingService.getMaxAccounts()));
+    }
+
+    /**
+     * 作成リクエストをサービス層の開設内容へ変換します。保有銘柄の銘柄コードと取引市場はマスタの表記にそろえます。
+     * 移管では売買単位未満の株数も引き継げるため、売買単位は確認しません。
+     *
+     * @param request      作成リクエスト
+     * @param symbolMaster 銘柄マスタ
+     * @return 開設内容
+     * @throws UnknownSymbolException 未登録の銘柄、または登録と異なる取引市場が指定された場合
+     */
+    static AccountOpening toOpening(CreateAccountRequest request, SymbolMaster symbolMaster) {
+        List<OpeningPosition> positions = request.holdings() == null ? List.of() : request.holdings().stream()
+                .map(holding -> {
+                    Listing listing = symbolMaster.require(holding.symbol(), holding.exchange());
+                    return new OpeningPosition(listing.symbol(), listing.exchange(), holding.quantity(),
+                            holding.costPerShare(), holding.currency());
+                })
+                .toList();
+        return new AccountOpening(request.ownerName(), request.initialDeposit(), request.costBasisMethod(), positions,
+                request.baseCurrency());
+    }
+
+    private BulkAccountResponse open(List<CreateAccountRequest> requests) {
+        List<AccountOpening> openings = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                openings.add(toOpening(requests.get(i), symbolMaster));
+            } catch (UnknownSymbolException ex) {
+                throw new InvalidAccountOpeningException("Account #" + (i + 1) + ": " + ex.getMessage());
+            }
+        }
+        Result result = onboardingService.openAccounts(openings);
+        return new BulkAccountResponse(result.accountIds().size(), result.accountIds(), result.transactions(),
+                result.elapsed().toMillis(), result.accountsPerSecond());
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.stock.web;
+
+import com.example.stock.model.Holding;
+import com.example.stock.model.TaxLot;
+import com.example.stock.model.Transaction;
+import com.example.stock.repository.AccountSummaryRepository.Summary;
+import com.example.stock.web.dto.AccountSummary;
+import com.example.stock.web.dto.HoldingView;
+import com.example.stock.web.dto.TaxLotView;
+import com.example.stock.web.dto.TransactionView;
+
+import java.util.List;
+
+/**
+ * アカウント関連のモデルを API レスポンス用 DTO へ変換します。
+ */
+final class AccountViews {
+
+    private AccountViews() {
+    }
+
+    /**
+     * アカウントの読み取りモデルをAPIレスポンス用DTOへ変換します。
+     *
+     * @param summary 読み取りモデル
+     * @return アカウントの要約
+     */
+    static AccountSummary toSummary(Summary summary) {
+        List<HoldingView> holdings = summary.holdings().stream()
+                .map(holding -> new HoldingView(holding.symbol(), holding.exchange(), holding.currency(),
+                        holding.quantity(), holding.averageCost()))
+                .toList();
+        return new AccountSummary(summary.id(), summary.ownerName(), summary.cashBalance(), summary.cashCurrency(),
+                summary.baseCurrency(), summary.costBasisMethod(), summary.realizedPnl(), holdings, summary.holdingCount(),
+                summary.totalCostBasis(), summary.createdAt(), summary.lastActivityAt());
+    }
+
+    static HoldingView toHoldingView(Holding holding) {
+        return new HoldingView(holding.getSymbol(), holding.getExchange(), holding.getCurrency(),
+                holding.getQuantity(), holding.getAverageCost());
+    }
+
+    static TransactionView toTransactionView(Transaction transaction) {
+        return new TransactionView(transaction.getId(), transaction.getType(), transaction.getTradeSide(),
+                transaction.getSymbol(), transaction.getExchange(), transaction.getQuantity(),
+                transaction.getPricePerShare(), transaction.getCurrency(), transaction.getFxRate(),
+                transaction.getCashAmount(), transaction.getGrossAmount(), transaction.getCashBalanceAfter(),
+                transaction.getRealizedPnl(), transaction.getOccurredAt());
+    }
+
+    static TaxLotView toTaxLotView(TaxLot lot) {
+        return new TaxLotView(lot.getQuantity(), lot.getCostPerShare(), lot.getAcquiredAt());
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.stock.web;
+
+import com.example.stock.model.RollupGranularity;
+import com.example.stock.repository.AccessLogPartitionRepository;
+import com.example.stock.service.AccessLogRetentionService;
+import com.example.stock.service.AccessLogRetentionService.ArchivedPartition;
+import com.example.stock.service.AccessLogRollupService;
+import com.example.stock.service.AccessLogRollupService.TrafficStats;
+import com.example.stock.web.dto.AccessLogBucketView;
+import com.example.stock.web.dto.AccessLogPartitionView;
+import com.example.stock.web.dto.AccessLogStatsView;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 管理者向けのアクセス分析 API を提供します。
+ */
+@RestController
+@RequestMapping("/api/admin/access-logs")
+public class AdminAccessLogController {
+
+    private static final int DEFAULT_BUCKETS = 60;
+
+    private final AccessLogRollupService rollupService;
+    private final AccessLogRetentionService retentionService;
+    private final AccessLogPartitionRepository partitionRepository;
+
+    public AdminAccessLogController(AccessLogRollupService rollupService, AccessLogRetentionService retentionService,
+                                    AccessLogPartitionRepository partitionRepository) {
+        this.rollupService = rollupService;
+        this.retentionService = retentionService;
+        this.partitionRepository = partitionRepository;
+    }
+
+    /**
+     * 集計バケットから時系列のアクセス件数とユニーク IP 推定数を取得します。
+     *
+     * @param granularity 時間粒度（既定は MINUTE）
+     * @param page        ページ名（省略時は全ページ合算）
+     * @param from        開始時刻（省略時は終了時刻の 60 バケット前）
+     * @param to          終了時刻（省略時は現在時刻）
+     * @return 時系列集計
+     */
+    @GetMapping("/stats")
+    public AccessLogStatsView stats(
+            @RequestParam(name = "granularity", defaultValue = "MINUTE") RollupGranularity granularity,
+            @RequestParam(name = "page", required = false) String page,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        Duration bucketSize = granularity.bucketSize();
+        Instant end = to != null ? to : Instant.now().plus(bucketSize);
+        Instant start = from != null ? from : end.minus(bucketSize.multipliedBy(DEFAULT_BUCKETS));
+        if (!start.isBefore(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must be before to");
+        }
+        if (Duration.between(start, end).dividedBy(bucketSize) > AccessLogRollupService.MAX_BUCKETS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Requested range exceeds " + AccessLogRollupService.MAX_BUCKETS + " buckets");
+        }
+        String pageName = page == null || page.isBlank() ? null : page.trim();
+        TrafficStats stats = rollupService.getStats(granularity, pageName, start, end);
+        return new AccessLogStatsView(stats.granularity(), stats.page(), stats.from(), stats.to(), stats.totalHits(),
+                stats.uniqueIps(), stats.series().stream()
+                        .map(bucket -> new AccessLogBucketView(bucket.bucketStart(), bucket.hits(), bucket.uniqueIps()))
+                        .toList());
+    }
+
+    /**
+     * 稼働中およびアーカイブ済みの月パーティションを新しい順に取得します。
+     *
+     * @return パーティション一覧
+     */
+    @GetMapping("/partitions")
+    public List<AccessLogPartitionView> partitions() {
+        List<AccessLogPartitionView> views = new ArrayList<>();
+        partitionRepository.findPartitions().forEach(month -> views.add(
+                new AccessLogPartitionView(month, false, partitionRepository.countPartition(month), null, null)));
+        retentionService.getArchives().forEach(archive -> views.add(toView(archive)));
+        return views;
+    }
+
+    /**
+     * 保持期間を過ぎたパーティションのアーカイブを即時実行します。
+     *
+     * @return アーカイブしたパーティション
+     */
+    @PostMapping("/retention/run")
+    public List<AccessLogPartitionView> runRetention() {
+        return retentionService.archiveExpiredPartitions().stream()
+                .map(this::toView)
+                .toList();
+    }
+
+    private AccessLogPartitionView toView(ArchivedPartition archive) {
+        return new AccessLogPartitionView(archive.partition(), true, archive.rows(), archive.file(), archive.bytes());
+    }
+}
@@ -2,12 +2,12 @@ package com.example.stock.web;
 
 import com.example.stock.service.AdminAuthenticationService;
 import com.example.stock.service.AdminAuthenticationService.AuthenticatedAdmin;
-import com.example.stock.web.auth.SessionAttributes;
+import com.example.stock.web.auth.SessionManager;
 import com.example.stock.web.dto.AdminLoginRequest;
 import com.example.stock.web.dto.LoginResponse;
 import com.example.stock.web.dto.SessionResponse;
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -26,51 +26,34 @@ import org.springframework.web.server.ResponseStatusException;
 public class AdminAuthController {
 
     private final AdminAuthenticationService adminAuthenticationService;
+    private final SessionManager sessionManager;
 
-    public AdminAuthController(AdminAuthenticationService adminAuthenticationService) {
+    public AdminAuthController(AdminAuthenticationService adminAuthenticationService, SessionManager sessionManager) {
         this.adminAuthenticationService = adminAuthenticationService;
+        this.sessionManager = sessionManager;
     }
 
     @PostMapping("/login")
-    public LoginResponse login(@Valid @RequestBody AdminLoginRequest request, HttpServletRequest httpRequest) {
+    public LoginResponse login(@Valid @RequestBody AdminLoginRequest request, HttpServletRequest httpRequest,
+                               HttpServletResponse httpResponse) {
         AuthenticatedAdmin admin = adminAuthenticationService.authenticate(request.adminId(), request.password())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED,
                         "管理者 ID またはパスワードが正しくありません。"));
 
-        HttpSession existingSession = httpRequest.getSession(false);
-        if (existingSession != null) {
-            existingSession.invalidate();
-        }
-
-        HttpSession session = httpRequest.getSession(true);
-        session.setAttribute(SessionAttributes.ADMIN_AUTHENTICATED_USER, admin);
+        sessionManager.signInAdmin(httpRequest, httpResponse, admin);
         return new LoginResponse(admin.displayName());
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<Void> logout(HttpServletRequest request) {
-        HttpSession session = request.getSession(false);
-        if (session != null) {
-            session.removeAttribute(SessionAttributes.ADMIN_AUTHENTICATED_USER);
-            if (session.getAttributeNames().hasMoreElements()) {
-                // Keep other session information if present (e.g. 利用者ログイン)
-                return ResponseEntity.noContent().build();
-            }
-            session.invalidate();
-        }
+    public ResponseEntity<Void> logout(HttpServletRequest request, HttpServletResponse response) {
+        sessionManager.signOutAdmin(request, response);
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/session")
     public SessionResponse session(HttpServletRequest request) {
-        HttpSession session = request.getSession(false);
-        if (session == null) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "未認証です。");
-        }
-        Object attribute = session.getAttribute(SessionAttributes.ADMIN_AUTHENTICATED_USER);
-        if (!(attribute instanceof AuthenticatedAdmin admin)) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "未認証です。");
-        }
+        AuthenticatedAdmin admin = sessionManager.currentAdmin(request)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "未認証です。"));
         return new SessionResponse(admin.displayName());
     }
 }
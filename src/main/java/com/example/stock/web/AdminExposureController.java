@@ -0,0 +1,120 @@
+package com.example.stock.web;
+
+import com.example.stock.service.ExposureAnalyticsService;
+import com.example.stock.service.ExposureAnalyticsService.Concentration;
+import com.example.stock.service.ExposureAnalyticsService.Dimension;
+import com.example.stock.service.ExposureAnalyticsService.Exposure;
+import com.example.stock.service.ExposureAnalyticsService.Snapshot;
+import com.example.stock.service.ExposureAnalyticsService.SymbolHolders;
+import com.example.stock.web.dto.ConcentrationView;
+import com.example.stock.web.dto.ExposureHolderView;
+import com.example.stock.web.dto.ExposureSnapshotView;
+import com.example.stock.web.dto.ExposureView;
+import com.example.stock.web.dto.SymbolHoldersView;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * 管理者向けに全社の保有銘柄のエクスポージャーと集中度を提供するコントローラーです。
+ */
+@RestController
+@RequestMapping("/api/admin/exposure")
+public class AdminExposureController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final ExposureAnalyticsService analyticsService;
+
+    public AdminExposureController(ExposureAnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    /**
+     * 銘柄コードまたは取引市場ごとのエクスポージャーを取得します。
+     *
+     * @param by 集計の単位（既定は銘柄コード）
+     * @return エクスポージャー一覧（取得原価の大きい順）
+     */
+    @GetMapping
+    public List<ExposureView> exposures(@RequestParam(defaultValue = "SYMBOL") Dimension by) {
+        return analyticsService.getExposures(by).stream()
+                .map(AdminExposureController::toView)
+                .toList();
+    }
+
+    /**
+     * 指定銘柄の上位保有者と保有者間の集中度を取得します。
+     *
+     * @param symbol 銘柄コード
+     * @param limit  返却する保有者数（既定は 10）
+     * @return 銘柄の保有状況
+     */
+    @GetMapping("/symbols/{symbol}/holders")
+    public SymbolHoldersView holders(@PathVariable String symbol, @RequestParam(defaultValue = "10") int limit) {
+        SymbolHolders holders = analyticsService.getTopHolders(symbol, requireLimit(limit));
+        return new SymbolHoldersView(holders.symbol(), holders.holderCount(), holders.quantity(), holders.costBasis(),
+                holders.topShare(), holders.herfindahl(), holders.holders().stream()
+                .map(holder -> new ExposureHolderView(holder.accountId(), holder.exchange(), holder.quantity(),
+                        holder.costBasis(), holder.share()))
+                .toList());
+    }
+
+    /**
+     * 全社の保有銘柄の集中度を取得します。
+     *
+     * @param top 占有率を求める上位銘柄数（既定は 10）
+     * @return 集中度
+     */
+    @GetMapping("/concentration")
+    public ConcentrationView concentration(@RequestParam(defaultValue = "10") int top) {
+        Concentration concentration = analyticsService.getConcentration(requireLimit(top));
+        return new ConcentrationView(concentration.holdings(), concentration.symbols(), concentration.costBasis(),
+                concentration.top(), concentration.topShare(), concentration.herfindahl(),
+                concentration.topSymbols().stream().map(AdminExposureController::toView).toList());
+    }
+
+    /**
+     * スナップショットの状態を取得します。
+     *
+     * @return スナップショットの状態
+     */
+    @GetMapping("/snapshot")
+    public ExposureSnapshotView snapshot() {
+        return toView(analyticsService.getSnapshot());
+    }
+
+    /**
+     * スナップショットをデータベースから読み込み直します。
+     *
+     * @return 読み込み後のスナップショットの状態
+     */
+    @PostMapping("/snapshot/reload")
+    public ExposureSnapshotView reload() {
+        return toView(analyticsService.reload());
+    }
+
+    private static int requireLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+
+    private static ExposureView toView(Exposure exposure) {
+        return new ExposureView(exposure.key(), exposure.holdings(), exposure.quantity(), exposure.costBasis(),
+                exposure.share());
+    }
+
+    private static ExposureSnapshotView toView(Snapshot snapshot) {
+        return new ExposureSnapshotView(snapshot.accounts(), snapshot.holdings(), snapshot.currency(),
+                snapshot.ratesAsOf(), snapshot.loadedAt());
+    }
+}
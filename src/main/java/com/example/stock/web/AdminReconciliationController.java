@@ -0,0 +1,62 @@
+package com.example.stock.web;
+
+import com.example.stock.service.LedgerReconciliationService;
+import com.example.stock.service.LedgerReconciliationService.Mismatch;
+import com.example.stock.service.LedgerReconciliationService.Report;
+import com.example.stock.web.dto.ReconciliationMismatchView;
+import com.example.stock.web.dto.ReconciliationReportView;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 管理者向けに台帳照合の実行と結果の参照を提供するコントローラーです。
+ */
+@RestController
+@RequestMapping("/api/admin/reconciliation")
+public class AdminReconciliationController {
+
+    private final LedgerReconciliationService reconciliationService;
+
+    public AdminReconciliationController(LedgerReconciliationService reconciliationService) {
+        this.reconciliationService = reconciliationService;
+    }
+
+    /**
+     * 直近の台帳照合の結果を取得します。
+     *
+     * @return 照合結果
+     */
+    @GetMapping
+    public ReconciliationReportView lastReport() {
+        return reconciliationService.getLastReport()
+                .map(AdminReconciliationController::toView)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Reconciliation has not run yet"));
+    }
+
+    /**
+     * 台帳照合を実行します。
+     *
+     * @param full {@code true} の場合はチェックポイントを破棄して全件を照合します（既定は差分照合）
+     * @return 照合結果
+     */
+    @PostMapping("/run")
+    public ReconciliationReportView run(@RequestParam(defaultValue = "false") boolean full) {
+        return toView(reconciliationService.reconcile(full));
+    }
+
+    private static ReconciliationReportView toView(Report report) {
+        return new ReconciliationReportView(report.full(), report.startedAt(), report.elapsed().toMillis(),
+                report.accounts(), report.mismatchedAccounts(), report.transactions(), report.mismatchCount(),
+                report.mismatches().stream().map(AdminReconciliationController::toView).toList());
+    }
+
+    private static ReconciliationMismatchView toView(Mismatch mismatch) {
+        return new ReconciliationMismatchView(mismatch.accountId(), mismatch.type().name(), mismatch.transactionId(),
+                mismatch.symbol(), mismatch.expected(), mismatch.actual());
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.stock.web;
+
+import com.example.stock.service.ChangeLogFollower;
+import com.example.stock.service.ChangeLogPublisher;
+import com.example.stock.service.GroupCommitExecutor;
+import com.example.stock.service.WriteConcurrencyLimiter;
+import com.example.stock.service.WriteConcurrencyLimiter.Snapshot;
+import com.example.stock.web.StartupWarmup.Report;
+import com.example.stock.web.dto.EventStreamStatsView;
+import com.example.stock.web.dto.GroupCommitView;
+import com.example.stock.web.dto.ReplicationView;
+import com.example.stock.web.dto.WarmupView;
+import com.example.stock.web.dto.WriteLimiterView;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * 管理者向けにアプリケーションの稼働状態を提供するコントローラーです。
+ */
+@RestController
+@RequestMapping("/api/admin/system")
+public class AdminSystemController {
+
+    private final WriteConcurrencyLimiter writeLimiter;
+    private final GroupCommitExecutor groupCommit;
+    private final AccountEventStream eventStream;
+    private final StartupWarmup startupWarmup;
+    private final String replicationRole;
+    private final ObjectProvider<ChangeLogPublisher> changeLogPublisher;
+    private final ObjectProvider<ChangeLogFollower> changeLogFollower;
+
+    public AdminSystemController(WriteConcurrencyLimiter writeLimiter, GroupCommitExecutor groupCommit,
+                                 AccountEventStream eventStream, StartupWarmup startupWarmup,
+                                 @Value("${app.replication.role:standalone}") String replicationRole,
+                                 ObjectProvider<ChangeLogPublisher> changeLogPublisher,
+                                 ObjectProvider<ChangeLogFollower> changeLogFollower) {
+        this.writeLimiter = writeLimiter;
+        this.groupCommit = groupCommit;
+        this.eventStream = eventStream;
+        this.startupWarmup = startupWarmup;
+        this.replicationRole = replicationRole;
+        this.changeLogPublisher = changeLogPublisher;
+        this.changeLogFollower = changeLogFollower;
+    }
+
+    /**
+     * 更新系処理の同時実行数リミッターの状態を取得します。
+     *
+     * @return リミッターの状態
+     */
+    @GetMapping("/write-limiter")
+    public WriteLimiterView writeLimiter() {
+        Snapshot snapshot = writeLimiter.snapshot();
+        return new WriteLimiterView(snapshot.enabled(), snapshot.limit(), snapshot.inFlight(), snapshot.minLimit(),
+                snapshot.maxLimit(), toMillis(snapshot.latencyThreshold()), toMillis(snapshot.lastLatency()),
+                snapshot.accepted(), snapshot.rejected());
+    }
+
+    /**
+     * 更新系処理のグループコミットの状態（コミット回数と 1 回あたりの平均処理数など）を取得します。
+     *
+     * @return グループコミットの状態
+     */
+    @GetMapping("/group-commit")
+    public GroupCommitView groupCommit() {
+        GroupCommitExecutor.Snapshot snapshot = groupCommit.snapshot();
+        return new GroupCommitView(snapshot.enabled(), snapshot.maxBatch(), toMillis(snapshot.maxWait()),
+                snapshot.queued(), snapshot.groups(), snapshot.committed(), snapshot.averageGroupSize(),
+                snapshot.lastGroupSize(), snapshot.largestGroupSize(), snapshot.retriedGroups(),
+                snapshot.rejected());
+    }
+
+    /**
+     * アカウント更新イベントの購読者数と、配信が追いつかず切断した購読者の累計を取得します。
+     *
+     * @return 購読状況
+     */
+    @GetMapping("/events")
+    public EventStreamStatsView events() {
+        return new EventStreamStatsView(eventStream.getSubscriberCount(), eventStream.getEvictedCount());
+    }
+
+    /**
+     * 起動時ウォームアップの実行結果を取得します。
+     *
+     * @return ウォームアップ結果
+     */
+    @GetMapping("/warmup")
+    public WarmupView warmup() {
+        Report report = startupWarmup.getReport();
+        return new WarmupView(report.enabled(), report.completed(), report.stabilized(), report.rounds(),
+                report.cycles(), report.elapsed().toMillis(), toMillis(report.firstCycle()),
+                toMillis(report.lastCycle()));
+    }
+
+    /**
+     * 変更ログによるレプリケーションの状態を取得します。
+     * <p>
+     * プライマリでは最後に発番した連番を、フォロワーでは適用済みの連番と変更ログの読み取り位置、データの古さを返します。
+     *
+     * @return レプリケーションの状態
+     */
+    @GetMapping("/replication")
+    public ReplicationView replication() {
+        ChangeLogPublisher publisher = changeLogPublisher.getIfAvailable();
+        if (publisher != null) {
+            ChangeLogPublisher.Status status = publisher.status();
+            return new ReplicationView(replicationRole, status.changeLog(), status.lastSeq(), null,
+                    status.lastAppendedAt(), null, status.lastError());
+        }
+        ChangeLogFollower follower = changeLogFollower.getIfAvailable();
+        if (follower != null) {
+            ChangeLogFollower.Status status = follower.status();
+            return new ReplicationView(replicationRole, status.changeLog(), status.appliedSeq(), status.logOffset(),
+                    status.appliedCommittedAt(), status.staleness() != null ? status.staleness().toMillis() : null,
+                    status.lastError());
+        }
+        return new ReplicationView(replicationRole, null, 0, null, null, null, null);
+    }
+
+    private static double toMillis(Duration duration) {
+        return duration.toNanos() / 1_000_000.0;
+    }
+}
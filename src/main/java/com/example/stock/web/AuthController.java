@@ -2,12 +2,12 @@ package com.example.stock.web;
 
 import com.example.stock.service.AuthenticationService;
 import com.example.stock.service.AuthenticationService.AuthenticatedUser;
-import com.example.stock.web.auth.SessionAttributes;
+import com.example.stock.web.auth.SessionManager;
 import com.example.stock.web.dto.LoginRequest;
 import com.example.stock.web.dto.LoginResponse;
 import com.example.stock.web.dto.SessionResponse;
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -26,46 +26,34 @@ import org.springframework.web.server.ResponseStatusException;
 public class AuthController {
 
     private final AuthenticationService authenticationService;
+    private final SessionManager sessionManager;
 
-    public AuthController(AuthenticationService authenticationService) {
+    public AuthController(AuthenticationService authenticationService, SessionManager sessionManager) {
         this.authenticationService = authenticationService;
+        this.sessionManager = sessionManager;
     }
 
     @PostMapping("/login")
-    public LoginResponse login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+    public LoginResponse login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest,
+                               HttpServletResponse httpResponse) {
         AuthenticatedUser user = authenticationService.authenticate(request.email(), request.password())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED,
                         "メールアドレスまたはパスワードが正しくありません。"));
 
-        HttpSession existingSession = httpRequest.getSession(false);
-        if (existingSession != null) {
-            existingSession.invalidate();
-        }
-
-        HttpSession session = httpRequest.getSession(true);
-        session.setAttribute(SessionAttributes.AUTHENTICATED_USER, user);
+        sessionManager.signInUser(httpRequest, httpResponse, user);
         return new LoginResponse(user.displayName());
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<Void> logout(HttpServletRequest request) {
-        HttpSession session = request.getSession(false);
-        if (session != null) {
-            session.invalidate();
-        }
+    public ResponseEntity<Void> logout(HttpServletRequest request, HttpServletResponse response) {
+        sessionManager.signOutUser(request, response);
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/session")
     public SessionResponse session(HttpServletRequest request) {
-        HttpSession session = request.getSession(false);
-        if (session == null) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "未認証です。");
-        }
-        Object attribute = session.getAttribute(SessionAttributes.AUTHENTICATED_USER);
-        if (!(attribute instanceof AuthenticatedUser user)) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "未認証です。");
-        }
+        AuthenticatedUser user = sessionManager.currentUser(request)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "未認証です。"));
         return new SessionResponse(user.displayName());
     }
 }
@@ -0,0 +1,134 @@
+package com.example.stock.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * リバースプロキシ配下でのアクセス元 IP を解決します。
+ * <p>
+ * {@code X-Forwarded-For} と {@code X-Real-IP} は誰でも付与できるため、接続元が
+ * {@code app.client-ip.trusted-proxies} に含まれる場合に限り参照します。{@code X-Forwarded-For} は末尾から
+ * 信頼できるプロキシを読み飛ばし、最初に現れた信頼できないアドレスをアクセス元とします。
+ * 信頼できるプロキシを経由しない接続では接続元アドレスをそのまま使用します。
+ */
+@Component
+public class ClientIpResolver {
+
+    private static final String UNKNOWN = "unknown";
+    private static final Pattern IPV4_LITERAL = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+    private static final Pattern IPV6_LITERAL = Pattern.compile("[0-9A-Fa-f:.]*:[0-9A-Fa-f:.]*");
+
+    private final List<Network> trustedProxies;
+
+    public ClientIpResolver(
+            @Value("${app.client-ip.trusted-proxies:127.0.0.0/8,::1,10.0.0.0/8,172.16.0.0/12,192.168.0.0/16,"
+                    + "169.254.0.0/16,100.64.0.0/10}") List<String> trustedProxies) {
+        this.trustedProxies = trustedProxies.stream()
+                .map(String::trim)
+                .filter(entry -> !entry.isEmpty())
+                .map(Network::parse)
+                .toList();
+    }
+
+    /**
+     * リクエストのアクセス元 IP を取得します。
+     *
+     * @param request HTTP リクエスト
+     * @return アクセス元 IP（判別できない場合は {@code unknown}）
+     */
+    public String resolve(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (remoteAddr == null) {
+            return UNKNOWN;
+        }
+        if (!isTrusted(remoteAddr)) {
+            return remoteAddr;
+        }
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (forwarded != null && !forwarded.isBlank()) {
+            String[] hops = forwarded.split(",");
+            for (int i = hops.length - 1; i >= 0; i--) {
+                String hop = hops[i].trim();
+                if (!hop.isEmpty() && (i == 0 || !isTrusted(hop))) {
+                    return hop;
+                }
+            }
+        }
+        String realIp = request.getHeader("X-Real-IP");
+        if (realIp != null && !realIp.isBlank()) {
+            return realIp.trim();
+        }
+        return remoteAddr;
+    }
+
+    private boolean isTrusted(String address) {
+        byte[] bytes = toBytes(address);
+        if (bytes == null) {
+            return false;
+        }
+        for (Network network : trustedProxies) {
+            if (network.contains(bytes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * IP アドレスのリテラルをバイト列へ変換します。名前解決は行わず、リテラルでない場合は {@code null} を返します。
+     */
+    private static byte[] toBytes(String address) {
+        if (!IPV4_LITERAL.matcher(address).matches() && !IPV6_LITERAL.matcher(address).matches()) {
+            return null;
+        }
+        try {
+            return InetAddress.getByName(address).getAddress();
+        } catch (UnknownHostException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * 信頼できるプロキシのアドレス範囲（単一アドレスまたは CIDR 表記）です。
+     */
+    private record Network(byte[] address, int prefixLength) {
+
+        static Network parse(String value) {
+            int slash = value.indexOf('/');
+            String host = slash < 0 ? value : value.substring(0, slash);
+            byte[] address = toBytes(host);
+            if (address == null) {
+                throw new IllegalArgumentException("Trusted proxy must be an IP address or CIDR range: " + value);
+            }
+            int prefixLength = slash < 0 ? address.length * 8 : Integer.parseInt(value.substring(slash + 1));
+            if (prefixLength < 0 || prefixLength > address.length * 8) {
+                throw new IllegalArgumentException("Invalid prefix length in trusted proxy: " + value);
+            }
+            return new Network(address, prefixLength);
+        }
+
+        boolean contains(byte[] candidate) {
+            if (candidate.length != address.length) {
+                return false;
+            }
+            int fullBytes = prefixLength / 8;
+            for (int i = 0; i < fullBytes; i++) {
+                if (candidate[i] != address[i]) {
+                    return false;
+                }
+            }
+            int remainingBits = prefixLength % 8;
+            if (remainingBits == 0) {
+                return true;
+            }
+            int mask = 0xFF << (8 - remainingBits);
+            return (candidate[fullBytes] & mask) == (address[fullBytes] & mask);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.stock.web;
+
+import com.example.stock.repository.EndOfDayValuationRepository.ClosingPrice;
+import com.example.stock.repository.EndOfDayValuationRepository.EquitySnapshot;
+import com.example.stock.repository.EndOfDayValuationRepository.RunState;
+import com.example.stock.service.AccountService;
+import com.example.stock.service.EndOfDayValuationService;
+import com.example.stock.web.dto.ClosingPriceView;
+import com.example.stock.web.dto.ClosingPricesRequest;
+import com.example.stock.web.dto.EndOfDayRunView;
+import com.example.stock.web.dto.EquitySnapshotView;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 口座の日次評価額の参照と、管理者向けの終値登録・日次時価評価バッチの実行を提供するコントローラーです。
+ */
+@RestController
+@RequestMapping("/api")
+public class EndOfDayValuationController {
+
+    private static final int DEFAULT_RANGE_DAYS = 30;
+
+    private final AccountService accountService;
+    private final EndOfDayValuationService valuationService;
+
+    public EndOfDayValuationController(AccountService accountService, EndOfDayValuationService valuationService) {
+        this.accountService = accountService;
+        this.valuationService = valuationService;
+    }
+
+    /**
+     * 指定期間の口座の評価額スナップショットを取得します。
+     *
+     * @param id   アカウント識別子
+     * @param from 開始日（省略時は終了日の 30 日前）
+     * @param to   終了日（省略時は当日）
+     * @return 評価額スナップショット一覧（営業日順）
+     */
+    @GetMapping("/accounts/{id}/equity-snapshots")
+    public List<EquitySnapshotView> snapshots(
+            @PathVariable UUID id,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        accountService.getAccount(id);
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS);
+        if (start.isAfter(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+        return valuationService.getSnapshots(id, start, end).stream()
+                .map(EndOfDayValuationController::toView)
+                .toList();
+    }
+
+    /**
+     * 指定した営業日の終値を登録します。同じ銘柄の終値は置き換えます。
+     *
+     * @param date    営業日
+     * @param request 終値
+     * @return 登録した終値
+     */
+    @PutMapping("/admin/eod/closing-prices/{date}")
+    public List<ClosingPriceView> saveClosingPrices(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @Valid @RequestBody ClosingPricesRequest request) {
+        List<ClosingPrice> prices = request.prices().stream()
+                .map(price -> new ClosingPrice(price.symbol(), price.currency(), price.price()))
+                .toList();
+        return valuationService.saveClosingPrices(date, prices).stream()
+                .map(EndOfDayValuationController::toView)
+                .toList();
+    }
+
+    /**
+     * 指定した営業日の終値を取得します。
+     *
+     * @param date 営業日
+     * @return 終値（銘柄コード順）
+     */
+    @GetMapping("/admin/eod/closing-prices/{date}")
+    public List<ClosingPriceView> closingPrices(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return valuationService.getClosingPrices(date).stream()
+                .map(EndOfDayValuationController::toView)
+                .toList();
+    }
+
+    /**
+     * 指定した営業日の時価評価を実行します。未完了の実行がある場合は続きから再開します。
+     *
+     * @param date  営業日
+     * @param rerun {@code true} の場合は完了済みでも先頭から評価し直します
+     * @return 実行状況
+     */
+    @PostMapping("/admin/eod/runs/{date}")
+    public EndOfDayRunView run(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                               @RequestParam(defaultValue = "false") boolean rerun) {
+        return toView(valuationService.run(date, rerun));
+    }
+
+    /**
+     * 指定した営業日の時価評価の実行状況を取得します。実行中の場合はチャンクの完了ごとに進捗が更新されます。
+     *
+     * @param date 営業日
+     * @return 実行状況
+     */
+    @GetMapping("/admin/eod/runs/{date}")
+    public EndOfDayRunView runStatus(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return valuationService.getRun(date)
+                .map(EndOfDayValuationController::toView)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "End-of-day valuation has not run for " + date));
+    }
+
+    private static EndOfDayRunView toView(RunState state) {
+        double progress = state.accountsTotal() > 0
+                ? Math.min(1.0, (double) state.accountsValued() / state.accountsTotal()) : 1.0;
+        long elapsedMillis = state.updatedAt().toEpochMilli() - state.startedAt().toEpochMilli();
+        double accountsPerSecond = elapsedMillis > 0
+                ? (state.accountsValued() - state.resumedAccounts()) * 1000.0 / elapsedMillis : 0;
+        return new EndOfDayRunView(state.businessDate(), state.status().name(), state.accountsTotal(),
+                state.accountsValued(), progress, state.chunksCompleted(), state.unpricedHoldings(),
+                state.lastAccountId(), state.startedAt(), state.updatedAt(), state.completedAt(), accountsPerSecond);
+    }
+
+    private static EquitySnapshotView toView(EquitySnapshot snapshot) {
+        return new EquitySnapshotView(snapshot.businessDate(), snapshot.currency(), snapshot.cashBalance(),
+                snapshot.marketValue(), snapshot.costBasis(), snapshot.marketValue().subtract(snapshot.costBasis()),
+                snapshot.equity(), snapshot.holdingCount(), snapshot.unpricedHoldings(), snapshot.valuedAt());
+    }
+
+    private static ClosingPriceView toView(ClosingPrice price) {
+        return new ClosingPriceView(price.symbol(), price.currency(), price.price());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.stock.web;
+
+import com.example.stock.service.FxRateCache;
+import com.example.stock.service.FxRateMatrix;
+import com.example.stock.service.PortfolioValuationService;
+import com.example.stock.service.PortfolioValuationService.Valuation;
+import com.example.stock.web.dto.FxRateUpdateRequest;
+import com.example.stock.web.dto.FxRatesView;
+import com.example.stock.web.dto.PositionValuationView;
+import com.example.stock.web.dto.ValuationView;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
+
+/**
+ * 口座の通貨換算評価と、管理者向けの為替レートの参照・更新を提供するコントローラーです。
+ */
+@RestController
+@RequestMapping("/api")
+public class FxRateController {
+
+    private final FxRateCache fxRateCache;
+    private final PortfolioValuationService valuationService;
+
+    public FxRateController(FxRateCache fxRateCache, PortfolioValuationService valuationService) {
+        this.fxRateCache = fxRateCache;
+        this.valuationService = valuationService;
+    }
+
+    /**
+     * 口座の現金と保有銘柄を指定通貨で評価します。
+     *
+     * @param id       アカウント識別子
+     * @param currency 評価通貨（省略時は口座の基準通貨）
+     * @return 評価結果
+     */
+    @GetMapping("/accounts/{id}/valuation")
+    public ValuationView valuation(@PathVariable UUID id, @RequestParam(required = false) String currency) {
+        Valuation valuation = valuationService.valuate(id, currency);
+        return new ValuationView(valuation.accountId(), valuation.currency(), valuation.ratesAsOf(),
+                valuation.cashValue(), valuation.holdingsValue(), valuation.totalValue(), valuation.positions().stream()
+                .map(position -> new PositionValuationView(position.symbol(), position.exchange(),
+                        position.currency(), position.quantity(), position.costBasis(), position.rate(),
+                        position.value()))
+                .toList());
+    }
+
+    /**
+     * 現在の為替レートを取得します。
+     *
+     * @return 為替レート
+     */
+    @GetMapping("/admin/fx/rates")
+    public FxRatesView rates() {
+        return toView(fxRateCache.current());
+    }
+
+    /**
+     * 為替レートを更新します。指定しなかった通貨は現在のレートを引き継ぎます。
+     *
+     * @param request 通貨コードごとの 1 米ドルあたりの額
+     * @return 更新後の為替レート
+     */
+    @PutMapping("/admin/fx/rates")
+    public FxRatesView update(@Valid @RequestBody FxRateUpdateRequest request) {
+        try {
+            return toView(fxRateCache.update(request.unitsPerUsd()));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
+    }
+
+    private static FxRatesView toView(FxRateMatrix rates) {
+        return new FxRatesView(rates.getAsOf(), rates.getUnitsPerUsd());
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.stock.web;
+
+import com.example.stock.web.dto.HealthView;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * ロードバランサーやオーケストレーター向けに稼働状態を返すコントローラーです。
+ * <p>
+ * 認証と流量制限の対象外です。レディネスは起動処理（ウォームアップを含む）が完了するまで 503 を返します。
+ */
+@RestController
+@RequestMapping("/health")
+public class HealthController {
+
+    private final ApplicationAvailability availability;
+
+    public HealthController(ApplicationAvailability availability) {
+        this.availability = availability;
+    }
+
+    /**
+     * プロセスが正常に動作しているかを返します。
+     *
+     * @return 正常であれば 200、異常であれば 503
+     */
+    @GetMapping("/liveness")
+    public ResponseEntity<HealthView> liveness() {
+        LivenessState state = availability.getLivenessState();
+        return respond(state == LivenessState.CORRECT, state.name());
+    }
+
+    /**
+     * リクエストを受け付けられる状態かを返します。
+     *
+     * @return 受付可能であれば 200、起動処理中などで受付不可であれば 503
+     */
+    @GetMapping("/readiness")
+    public ResponseEntity<HealthView> readiness() {
+        ReadinessState state = availability.getReadinessState();
+        return respond(state == ReadinessState.ACCEPTING_TRAFFIC, state.name());
+    }
+
+    private static ResponseEntity<HealthView> respond(boolean healthy, String status) {
+        return ResponseEntity.status(healthy ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new HealthView(status));
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.stock.web;
+
+import com.example.stock.web.StaticAssetCatalog.StaticAsset;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * {@link StaticAssetCatalog} が用意した加工済みのバイト列を返すリソースリゾルバーです。
+ * <p>
+ * {@code Accept-Encoding} が gzip を許容する場合は圧縮済みのバイト列をそのまま返します。
+ * キャッシュ指定は 304 応答にも付与する必要があるため、{@link #applyCacheHeaders} をハンドラーの前段で呼び出します。
+ */
+class PrecompressedResourceResolver extends AbstractResourceResolver {
+
+    private static final String IMMUTABLE_CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(365)).cachePublic()
+            .immutable().getHeaderValue();
+    private static final String REVALIDATE_CACHE_CONTROL = CacheControl.noCache().getHeaderValue();
+
+    private final StaticAssetCatalog catalog;
+
+    PrecompressedResourceResolver(StaticAssetCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    /**
+     * 配信するリソースの ETag を返します。{@link org.springframework.web.servlet.resource.ResourceHttpRequestHandler}
+     * の ETag 生成関数として使用します。
+     *
+     * @param resource 解決済みのリソース
+     * @return ETag（カタログ外のリソースの場合は {@code null}）
+     */
+    static String etag(Resource resource) {
+        return resource instanceof CatalogResource catalogResource ? catalogResource.etag : null;
+    }
+
+    /**
+     * 静的ファイルの応答にキャッシュ指定を付与します。フィンガープリント付きのパスは内容が変わらないため
+     * {@code immutable} で長期キャッシュさせ、元のパスは ETag による再検証を必須にします。
+     *
+     * @param catalog     静的ファイルカタログ
+     * @param requestPath {@code static/} からの相対パス
+     * @param response    HTTP レスポンス
+     */
+    static void applyCacheHeaders(StaticAssetCatalog catalog, String requestPath, HttpServletResponse response) {
+        catalog.find(requestPath).ifPresent(asset -> {
+            response.setHeader(HttpHeaders.CACHE_CONTROL,
+                    requestPath.equals(asset.path()) ? REVALIDATE_CACHE_CONTROL : IMMUTABLE_CACHE_CONTROL);
+            if (asset.gzip() != null) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+        });
+    }
+
+    @Override
+    protected Resource resolveResourceInternal(@Nullable HttpServletRequest request, String requestPath,
+                                               List<? extends Resource> locations, ResourceResolverChain chain) {
+        return catalog.find(requestPath)
+                .<Resource>map(asset -> new CatalogResource(asset,
+                        asset.gzip() != null && request != null && acceptsGzip(request)))
+                .orElseGet(() -> chain.resolveResource(request, requestPath, locations));
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations,
+                                            ResourceResolverChain chain) {
+        return catalog.fingerprintedPath(resourceUrlPath)
+                .orElseGet(() -> chain.resolveUrlPath(resourceUrlPath, locations));
+    }
+
+    /**
+     * {@code Accept-Encoding} が gzip を許容しているか判定します（{@code q=0} は拒否として扱います）。
+     */
+    static boolean acceptsGzip(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (header == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String token : header.split(",")) {
+            String[] parts = token.trim().split(";");
+            String coding = parts[0].trim();
+            boolean accepted = true;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        accepted = Double.parseDouble(parameter.substring(2)) > 0;
+                    } catch (NumberFormatException ex) {
+                        accepted = false;
+                    }
+                }
+            }
+            if (coding.equalsIgnoreCase("gzip") || coding.equalsIgnoreCase("x-gzip")) {
+                return accepted;
+            }
+            if (coding.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    /**
+     * 加工済みの静的ファイルを選択したエンコーディングで表すリソースです。
+     */
+    private static final class CatalogResource extends ByteArrayResource implements HttpResource {
+
+        private final StaticAsset asset;
+        private final boolean gzip;
+        private final String etag;
+
+        CatalogResource(StaticAsset asset, boolean gzip) {
+            super(gzip ? asset.gzip() : asset.identity(), asset.path());
+            this.asset = asset;
+            this.gzip = gzip;
+            this.etag = "\"" + asset.hash() + (gzip ? "-gzip" : "") + "\"";
+        }
+
+        @Override
+        public String getFilename() {
+            return asset.path().substring(asset.path().lastIndexOf('/') + 1);
+        }
+
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            if (gzip) {
+                headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            return headers;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+}
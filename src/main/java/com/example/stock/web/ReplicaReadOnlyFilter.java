@@ -0,0 +1,101 @@
+package com.example.stock.web;
+
+import com.example.stock.service.ChangeLogFollower;
+import com.example.stock.service.ChangeLogFollower.Status;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+/**
+ * フォロワーとして起動した場合に、API を変更ログから複製したデータの参照だけに制限するフィルターです。
+ * <p>
+ * API の応答には、データの古さの上限として {@code X-Replica-Staleness-Millis}（変更ログを末尾まで読み終えたことを
+ * 最後に確認してからの経過ミリ秒）と {@code X-Replica-Sequence}（適用済みの連番）を付与します。
+ * 複製したデータを返す API は、古さが {@code app.replication.max-staleness} を超えている間
+ * {@code 503 Service Unavailable} を返します。ログイン以外の更新系 API は {@code 405}、複製していないデータを
+ * 参照する API は {@code 404} を返します。
+ */
+@Component
+@ConditionalOnProperty(name = "app.replication.role", havingValue = "follower")
+public class ReplicaReadOnlyFilter extends OncePerRequestFilter {
+
+    static final String STALENESS_HEADER = "X-Replica-Staleness-Millis";
+    static final String SEQUENCE_HEADER = "X-Replica-Sequence";
+
+    private static final Pattern REPLICATED_READS = Pattern.compile(
+            "/api/accounts(/[^/]+(/transactions(/search)?|/holdings/[^/]+/lots)?)?"
+                    + "|/api/admin/transactions/search"
+                    + "|/api/access-logs(/pages)?"
+                    + "|/api/admin/access-logs/(stats|partitions)");
+    private static final Pattern LOCAL_READS = Pattern.compile("/api/symbols(/.*)?|/api/admin/system/replication");
+    private static final Pattern SESSIONS = Pattern.compile("/api/(admin/)?auth/.*");
+
+    private final ChangeLogFollower follower;
+    private final Duration maxStaleness;
+
+    public ReplicaReadOnlyFilter(ChangeLogFollower follower,
+                                 @Value("${app.replication.max-staleness:PT5S}") Duration maxStaleness) {
+        this.follower = follower;
+        this.maxStaleness = maxStaleness;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI();
+        Status status = follower.status();
+        response.setHeader(SEQUENCE_HEADER, Long.toString(status.appliedSeq()));
+        if (status.staleness() != null) {
+            response.setHeader(STALENESS_HEADER, Long.toString(status.staleness().toMillis()));
+        }
+        if (SESSIONS.matcher(path).matches()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            response.setHeader(HttpHeaders.ALLOW, HttpMethod.GET.name());
+            respond(response, HttpStatus.METHOD_NOT_ALLOWED, "読み取り専用のレプリカでは更新できません。");
+            return;
+        }
+        if (LOCAL_READS.matcher(path).matches()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!REPLICATED_READS.matcher(path).matches()) {
+            respond(response, HttpStatus.NOT_FOUND, "読み取り専用のレプリカでは利用できません。");
+            return;
+        }
+        if (status.staleness() == null || status.staleness().compareTo(maxStaleness) > 0) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            respond(response, HttpStatus.SERVICE_UNAVAILABLE, "レプリカの反映が遅れています。しばらくしてから再度お試しください。");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static void respond(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"message\":\"" + message + "\"}");
+    }
+}
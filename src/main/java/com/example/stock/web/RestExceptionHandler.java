@@ -2,7 +2,12 @@ package com.example.stock.web;
 
 import com.example.stock.exception.AccountNotFoundException;
 import com.example.stock.exception.InsufficientFundsException;
+import com.example.stock.exception.InvalidAccountOpeningException;
 import com.example.stock.exception.InvalidTradeException;
+import com.example.stock.exception.ServiceOverloadedException;
+import com.example.stock.exception.UnknownSymbolException;
+import com.example.stock.exception.UnsupportedCurrencyException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -32,16 +37,31 @@ public class RestExceptionHandler {
     }
 
     /**
-     * ビジネスロジック起因の残高不足や不正取引のエラーを処理します。
+     * ビジネスロジック起因の残高不足や不正取引、不正な口座開設、未登録の銘柄のエラーを処理します。
      *
      * @param ex 発生した例外
      * @return エラーレスポンス
      */
-    @ExceptionHandler({InsufficientFundsException.class, InvalidTradeException.class})
+    @ExceptionHandler({InsufficientFundsException.class, InvalidTradeException.class,
+            InvalidAccountOpeningException.class, UnsupportedCurrencyException.class, UnknownSymbolException.class})
     public ResponseEntity<Map<String, Object>> handleBusiness(RuntimeException ex) {
         return buildResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
+    /**
+     * 更新処理の同時実行数超過によるエラーを処理します。
+     *
+     * @param ex 発生した例外
+     * @return エラーレスポンス
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<Map<String, Object>> handleOverloaded(ServiceOverloadedException ex) {
+        ResponseEntity<Map<String, Object>> response = buildResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response.getBody());
+    }
+
     /**
      * バリデーションエラーを処理します。
      *
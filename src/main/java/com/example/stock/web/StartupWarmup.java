@@ -0,0 +1,182 @@
+package com.example.stock.web;
+
+import com.example.stock.model.Account;
+import com.example.stock.model.TradeSide;
+import com.example.stock.service.AccountReadModel;
+import com.example.stock.service.AccountService;
+import com.example.stock.service.FxRateCache;
+import com.example.stock.service.TradeOrder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 起動直後に売買・参照・シリアライズの処理を繰り返し実行し、JIT コンパイルと各種キャッシュを温めるウォームアップです。
+ * <p>
+ * 各サイクルはスクラッチ用のアカウントを作成して入金・売買・再読み込み・JSON 変換を行い、最後にトランザクションを
+ * ロールバックするため、データベースやイベント購読者に痕跡を残しません。一定件数ごとの平均処理時間の変化が閾値以内に
+ * 収まる状態が続いた時点（または上限時間に達した時点）で終了します。
+ * <p>
+ * {@link ApplicationRunner} として同期的に実行されるため、終了するまで Spring Boot はレディネスを
+ * {@code ACCEPTING_TRAFFIC} に切り替えず、{@code /health/readiness} は 503 を返します。
+ */
+@Component
+public class StartupWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    private static final String SYMBOL = "WARMUP";
+    private static final String EXCHANGE = "WARMUP";
+
+    private final AccountService accountService;
+    private final FxRateCache fxRateCache;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final double stabilityThreshold;
+    private final int requiredStableRounds;
+    private final Duration maxDuration;
+    private volatile Report report;
+
+    public StartupWarmup(AccountService accountService, FxRateCache fxRateCache, EntityManager entityManager,
+                         ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                         @Value("${app.warmup.enabled:false}") boolean enabled,
+                         @Value("${app.warmup.batch-size:20}") int batchSize,
+                         @Value("${app.warmup.stability-threshold:0.1}") double stabilityThreshold,
+                         @Value("${app.warmup.stable-rounds:3}") int requiredStableRounds,
+                         @Value("${app.warmup.max-duration:PT60S}") Duration maxDuration) {
+        this.accountService = accountService;
+        this.fxRateCache = fxRateCache;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.stabilityThreshold = stabilityThreshold;
+        this.requiredStableRounds = Math.max(1, requiredStableRounds);
+        this.maxDuration = maxDuration;
+        this.report = new Report(enabled, false, false, 0, 0, Duration.ZERO, Duration.ZERO, Duration.ZERO);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            warmUp();
+        }
+    }
+
+    /**
+     * 処理時間が安定するか上限時間に達するまでウォームアップを実行します。
+     *
+     * @return 実行結果
+     */
+    public Report warmUp() {
+        long started = System.nanoTime();
+        long deadline = started + maxDuration.toNanos();
+        int rounds = 0;
+        long cycles = 0;
+        int stableRounds = 0;
+        long firstMean = 0;
+        long previousMean = 0;
+        try {
+            while (stableRounds < requiredStableRounds && System.nanoTime() < deadline) {
+                long roundStarted = System.nanoTime();
+                for (int i = 0; i < batchSize; i++) {
+                    runCycle(cycles++);
+                }
+                long mean = (System.nanoTime() - roundStarted) / batchSize;
+                if (rounds == 0) {
+                    firstMean = mean;
+                } else if (Math.abs(mean - previousMean) <= previousMean * stabilityThreshold) {
+                    stableRounds++;
+                } else {
+                    stableRounds = 0;
+                }
+                previousMean = mean;
+                rounds++;
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Warm-up aborted after {} cycles; continuing startup", cycles, ex);
+        }
+        Report result = new Report(enabled, true, stableRounds >= requiredStableRounds, rounds, cycles,
+                Duration.ofNanos(System.nanoTime() - started), Duration.ofNanos(firstMean),
+                Duration.ofNanos(previousMean));
+        this.report = result;
+        log.info("Warm-up finished: {} cycles in {} ms, {} -> {} us per cycle ({})", result.cycles(),
+                result.elapsed().toMillis(), result.firstCycle().toNanos() / 1000, result.lastCycle().toNanos() / 1000,
+                result.stabilized() ? "stabilized" : "time limit reached");
+        return result;
+    }
+
+    /**
+     * 直近のウォームアップ結果を取得します。
+     *
+     * @return 実行結果
+     */
+    public Report getReport() {
+        return report;
+    }
+
+    private void runCycle(long cycle) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                Account account = accountService.createAccount("warm-up", new BigDecimal("100000.00"));
+                UUID id = account.getId();
+                accountService.deposit(id, new BigDecimal("250.00"));
+                BigDecimal price = new BigDecimal("100.00").add(BigDecimal.valueOf(cycle % 50, 2));
+                accountService.executeTrade(id, TradeSide.BUY, SYMBOL, EXCHANGE, new BigDecimal("10"), price);
+                accountService.executeTrades(id, List.of(
+                        new TradeOrder(TradeSide.BUY, SYMBOL, EXCHANGE, new BigDecimal("5"), price),
+                        new TradeOrder(TradeSide.SELL, SYMBOL, EXCHANGE, new BigDecimal("8"), price.add(BigDecimal.ONE))));
+                accountService.withdraw(id, new BigDecimal("10.00"));
+                entityManager.flush();
+                entityManager.clear();
+
+                objectMapper.writeValueAsBytes(AccountViews.toSummary(
+                        AccountReadModel.summarize(accountService.getAccount(id), Instant.now(), fxRateCache.current())));
+                objectMapper.writeValueAsBytes(accountService.getTransactions(id).stream()
+                        .map(AccountViews::toTransactionView)
+                        .toList());
+                objectMapper.writeValueAsBytes(accountService.getTaxLots(id, SYMBOL).stream()
+                        .map(AccountViews::toTaxLotView)
+                        .toList());
+            } catch (JsonProcessingException ex) {
+                throw new IllegalStateException(ex);
+            } finally {
+                status.setRollbackOnly();
+            }
+        });
+    }
+
+    /**
+     * ウォームアップの実行結果です。
+     *
+     * @param enabled    ウォームアップが有効かどうか
+     * @param completed  ウォームアップが完了したかどうか
+     * @param stabilized 処理時間が安定して終了したかどうか（{@code false} は上限時間での打ち切りまたは中断）
+     * @param rounds     計測ラウンド数
+     * @param cycles     実行したサイクル数
+     * @param elapsed    所要時間
+     * @param firstCycle 最初のラウンドの 1 サイクルあたりの平均処理時間
+     * @param lastCycle  最後のラウンドの 1 サイクルあたりの平均処理時間
+     */
+    public record Report(boolean enabled, boolean completed, boolean stabilized, int rounds, long cycles,
+                         Duration elapsed, Duration firstCycle, Duration lastCycle) {
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.stock.web;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * {@code static/} 配下の静的ファイルを起動時に一度だけ読み込み、配信用に加工して保持するカタログです。
+ * <p>
+ * HTML 以外のファイルには内容ハッシュを埋め込んだ配信パス（例: {@code data/codex-history.3f9a1c2b7d4e.json}）を割り当て、
+ * HTML 内でそのファイルを参照している文字列リテラルを配信パスへ書き換えます。すべてのファイルについて
+ * ETag 用のハッシュと gzip 圧縮済みのバイト列をここで用意するため、リクエストごとの圧縮やハッシュ計算は発生しません。
+ */
+@Component
+public class StaticAssetCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(StaticAssetCatalog.class);
+
+    private static final String LOCATION = "classpath:/static/";
+    private static final int HASH_LENGTH = 12;
+
+    private final ResourcePatternResolver resourceResolver;
+    private Map<String, StaticAsset> assetsByRequestPath = Map.of();
+    private Map<String, String> fingerprintedPaths = Map.of();
+
+    public StaticAssetCatalog() {
+        this(new PathMatchingResourcePatternResolver());
+    }
+
+    StaticAssetCatalog(ResourcePatternResolver resourceResolver) {
+        this.resourceResolver = resourceResolver;
+    }
+
+    /**
+     * 静的ファイルを読み込み、フィンガープリントの付与・参照の書き換え・圧縮を行います。
+     */
+    @PostConstruct
+    void initialize() {
+        Map<String, byte[]> sources = loadSources();
+
+        Map<String, String> fingerprints = new LinkedHashMap<>();
+        sources.forEach((path, content) -> {
+            if (!isHtml(path)) {
+                fingerprints.put(path, fingerprint(path, hash(content)));
+            }
+        });
+
+        Map<String, StaticAsset> assets = new HashMap<>();
+        long identityBytes = 0;
+        long gzipBytes = 0;
+        for (Map.Entry<String, byte[]> entry : sources.entrySet()) {
+            String path = entry.getKey();
+            byte[] content = isHtml(path) ? rewriteReferences(path, entry.getValue(), fingerprints)
+                    : entry.getValue();
+            String fingerprinted = fingerprints.get(path);
+            StaticAsset asset = new StaticAsset(path, hash(content), content, gzip(content));
+            assets.put(path, asset);
+            if (fingerprinted != null) {
+                assets.put(fingerprinted, asset);
+            }
+            identityBytes += content.length;
+            gzipBytes += asset.gzip() == null ? content.length : asset.gzip().length;
+        }
+        this.assetsByRequestPath = Map.copyOf(assets);
+        this.fingerprintedPaths = Map.copyOf(fingerprints);
+        log.info("Prepared {} static assets ({} bytes, {} bytes with gzip)", sources.size(), identityBytes, gzipBytes);
+    }
+
+    /**
+     * リクエストパス（{@code static/} からの相対パス）に対応する静的ファイルを取得します。
+     *
+     * @param requestPath 元のパスまたはフィンガープリント付きのパス
+     * @return 静的ファイル（存在しない場合は空）
+     */
+    public Optional<StaticAsset> find(String requestPath) {
+        return Optional.ofNullable(assetsByRequestPath.get(requestPath));
+    }
+
+    /**
+     * 元のパスに対応するフィンガープリント付きのパスを取得します。
+     *
+     * @param path {@code static/} からの相対パス
+     * @return フィンガープリント付きのパス（HTML や未登録のパスの場合は空）
+     */
+    public Optional<String> fingerprintedPath(String path) {
+        return Optional.ofNullable(fingerprintedPaths.get(path));
+    }
+
+    private Map<String, byte[]> loadSources() {
+        Map<String, byte[]> sources = new LinkedHashMap<>();
+        try {
+            Resource root = resourceResolver.getResource(LOCATION);
+            if (!root.exists()) {
+                return sources;
+            }
+            String rootUrl = root.getURL().toExternalForm();
+            for (Resource resource : resourceResolver.getResources(LOCATION + "**/*")) {
+                if (!resource.isReadable()) {
+                    continue;
+                }
+                String url = resource.getURL().toExternalForm();
+                if (!url.startsWith(rootUrl) || url.endsWith("/")) {
+                    continue;
+                }
+                try (var in = resource.getInputStream()) {
+                    sources.put(url.substring(rootUrl.length()), in.readAllBytes());
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to load static assets", ex);
+        }
+        return sources;
+    }
+
+    /**
+     * HTML 内の引用符で囲まれた参照（HTML からの相対パスまたは絶対パス）をフィンガープリント付きのパスへ置き換えます。
+     */
+    private static byte[] rewriteReferences(String htmlPath, byte[] html, Map<String, String> fingerprints) {
+        String text = new String(html, StandardCharsets.UTF_8);
+        String directory = htmlPath.substring(0, htmlPath.lastIndexOf('/') + 1);
+        String rewritten = text;
+        for (Map.Entry<String, String> entry : fingerprints.entrySet()) {
+            String path = entry.getKey();
+            String fingerprinted = entry.getValue();
+            if (!directory.isEmpty() && path.startsWith(directory)) {
+                rewritten = replaceQuoted(rewritten, path.substring(directory.length()),
+                        fingerprinted.substring(directory.length()));
+            }
+            rewritten = replaceQuoted(rewritten, "/" + path, "/" + fingerprinted);
+        }
+        return rewritten.equals(text) ? html : rewritten.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String replaceQuoted(String text, String target, String replacement) {
+        String result = text;
+        for (char quote : new char[] {'\'', '"', '`'}) {
+            result = result.replace(quote + target + quote, quote + replacement + quote);
+        }
+        return result;
+    }
+
+    static String fingerprint(String path, String hash) {
+        int slash = path.lastIndexOf('/');
+        int dot = path.lastIndexOf('.');
+        if (dot <= slash + 1) {
+            return path + "." + hash;
+        }
+        return path.substring(0, dot) + "." + hash + path.substring(dot);
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(digest).substring(0, HASH_LENGTH);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    /**
+     * 最大圧縮率で gzip 圧縮します。圧縮しても小さくならない場合は {@code null} を返します。
+     */
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length / 2 + 32);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(content);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.size() < content.length ? bytes.toByteArray() : null;
+    }
+
+    private static boolean isHtml(String path) {
+        return path.endsWith(".html");
+    }
+
+    /**
+     * 配信用に加工済みの静的ファイルです。
+     *
+     * @param path          {@code static/} からの相対パス
+     * @param hash          加工後の内容から算出したハッシュ
+     * @param identity      無圧縮のバイト列
+     * @param gzip          gzip 圧縮済みのバイト列（圧縮効果がない場合は {@code null}）
+     */
+    public record StaticAsset(String path, String hash, byte[] identity, byte[] gzip) {
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.stock.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+/**
+ * 静的ファイルを {@link StaticAssetCatalog} の加工済みバイト列から配信するための設定です。
+ * <p>
+ * Spring Boot 既定の {@code /**} ハンドラーを置き換え、ETag は内容ハッシュから生成します。
+ * {@code Cache-Control} と {@code Vary} は 304 応答にも必要なため、ハンドラーより前のインターセプターで付与します。
+ */
+@Configuration
+public class StaticAssetConfiguration implements WebMvcConfigurer {
+
+    private final StaticAssetCatalog catalog;
+
+    public StaticAssetConfiguration(StaticAssetCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler("/**")
+                .addResourceLocations("classpath:/static/")
+                .setUseLastModified(false)
+                .setEtagGenerator(PrecompressedResourceResolver::etag)
+                .resourceChain(false)
+                .addResolver(new PrecompressedResourceResolver(catalog));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                if (handler instanceof ResourceHttpRequestHandler
+                        && request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE)
+                        instanceof String path) {
+                    PrecompressedResourceResolver.applyCacheHeaders(catalog, path, response);
+                }
+                return true;
+            }
+        });
+    }
+}
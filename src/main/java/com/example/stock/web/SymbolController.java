@@ -0,0 +1,73 @@
+package com.example.stock.web;
+
+import com.example.stock.service.SymbolMaster;
+import com.example.stock.service.SymbolMaster.Listing;
+import com.example.stock.web.dto.SymbolView;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 取引画面の銘柄入力を補完するため、銘柄マスタを参照する REST API を提供します。
+ * <p>
+ * 銘柄マスタは起動後に変わらないため、応答にはブラウザーでの短時間のキャッシュを許可します。
+ */
+@RestController
+@RequestMapping("/api/symbols")
+public class SymbolController {
+
+    private static final int MAX_LIMIT = 50;
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(5)).cachePrivate();
+
+    private final SymbolMaster symbolMaster;
+
+    public SymbolController(SymbolMaster symbolMaster) {
+        this.symbolMaster = symbolMaster;
+    }
+
+    /**
+     * 銘柄コードが接頭辞で始まる銘柄を、銘柄コードの昇順に取得します。
+     *
+     * @param prefix 接頭辞（大文字・小文字は区別しません）
+     * @param limit  最大件数（既定は 10）
+     * @return 銘柄一覧
+     */
+    @GetMapping
+    public ResponseEntity<List<SymbolView>> complete(@RequestParam(defaultValue = "") String prefix,
+                                                     @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        }
+        List<SymbolView> views = symbolMaster.complete(prefix, limit).stream()
+                .map(SymbolController::toView)
+                .toList();
+        return ResponseEntity.ok().cacheControl(CACHE_CONTROL).body(views);
+    }
+
+    /**
+     * 銘柄コードを指定して銘柄を取得します。
+     *
+     * @param symbol 銘柄コード（大文字・小文字は区別しません）
+     * @return 銘柄
+     */
+    @GetMapping("/{symbol}")
+    public ResponseEntity<SymbolView> getSymbol(@PathVariable String symbol) {
+        Listing listing = symbolMaster.find(symbol)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown symbol: " + symbol));
+        return ResponseEntity.ok().cacheControl(CACHE_CONTROL).body(toView(listing));
+    }
+
+    private static SymbolView toView(Listing listing) {
+        return new SymbolView(listing.id(), listing.symbol(), listing.exchange(), listing.currency(),
+                listing.lotSize(), listing.name());
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.stock.web;
+
+import com.example.stock.model.Account;
+import com.example.stock.model.Holding;
+import com.example.stock.model.TradeSide;
+import com.example.stock.service.TradeOrder;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 高頻度の売買注文向け固定レイアウトのバイナリフレームを符号化・復号します。
+ * <p>
+ * 整数はすべてビッグエンディアンです。10 進数は「スケールなし値（int64）＋スケール（uint8）」の 9 バイトで表します。
+ * <pre>
+ * 注文フレーム:   version(u8)=1, 注文本体
+ * 一括注文フレーム: version(u8)=1, 件数(u16), 注文本体 × 件数
+ * 注文本体:       side(u8: 0=BUY, 1=SELL), symbol 長(u8), symbol(ASCII), exchange 長(u8), exchange(ASCII),
+ *                 quantity(decimal), pricePerShare(decimal)
+ * 約定結果フレーム: version(u8)=1, 更新回数(i64), cashBalance(decimal), realizedPnl(decimal),
+ *                 保有件数(u16), [symbol 長(u8), symbol(ASCII), quantity(decimal), averageCost(decimal)] × 件数
+ * </pre>
+ * 約定結果の保有には注文で変化した銘柄のみを含め、全数売却した銘柄は数量 0 で返します。
+ * 注文本体は通貨を持たず、約定単価は銘柄マスタの取引通貨として扱います（{@link
+ * com.example.stock.service.SymbolMaster#validate} が補います）。
+ * 復号時は中間オブジェクトを介さずにフィールドを読み取り、JSON の Bean Validation と同じ条件を直接検証します。
+ */
+final class TradeFrames {
+
+    /** 注文フレームのメディアタイプ。 */
+    static final String TRADE_FRAME = "application/vnd.stock.trade+binary";
+
+    /** 約定結果フレームのメディアタイプ。 */
+    static final String TRADE_RESULT_FRAME = "application/vnd.stock.trade-result+binary";
+
+    /** 一括注文で受け付ける最大件数。 */
+    static final int MAX_BATCH_SIZE = 500;
+
+    private static final byte VERSION = 1;
+    private static final int MAX_CODE_LENGTH = 32;
+    private static final BigDecimal MIN_AMOUNT = new BigDecimal("0.0001");
+    private static final MathContext WIRE_PRECISION = new MathContext(18, RoundingMode.HALF_EVEN);
+
+    private TradeFrames() {
+    }
+
+    /**
+     * 注文フレームを復号します。
+     *
+     * @param frame 注文フレーム
+     * @return 売買注文
+     */
+    static TradeOrder decodeOrder(byte[] frame) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(frame);
+            readVersion(buffer);
+            TradeOrder order = readOrder(buffer);
+            requireFullyRead(buffer);
+            return order;
+        } catch (BufferUnderflowException ex) {
+            throw invalid("Trade frame is truncated");
+        }
+    }
+
+    /**
+     * 一括注文フレームを復号します。
+     *
+     * @param frame 一括注文フレーム
+     * @return 売買注文の一覧
+     */
+    static List<TradeOrder> decodeBatch(byte[] frame) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(frame);
+            readVersion(buffer);
+            int count = Short.toUnsignedInt(buffer.getShort());
+            if (count == 0 || count > MAX_BATCH_SIZE) {
+                throw invalid("Batch must contain between 1 and " + MAX_BATCH_SIZE + " trades");
+            }
+            List<TradeOrder> orders = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                orders.add(readOrder(buffer));
+            }
+            requireFullyRead(buffer);
+            return orders;
+        } catch (BufferUnderflowException ex) {
+            throw invalid("Trade frame is truncated");
+        }
+    }
+
+    /**
+     * 約定後のアカウント状態を約定結果フレームへ符号化します。
+     *
+     * @param account 約定後のアカウント
+     * @param symbols 注文で変化した銘柄コード（大文字）
+     * @return 約定結果フレーム
+     */
+    static byte[] encodeResult(Account account, Collection<String> symbols) {
+        int size = 1 + 8 + 9 + 9 + 2;
+        for (String symbol : symbols) {
+            size += 1 + symbol.length() + 9 + 9;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(VERSION);
+        buffer.putLong(account.getChangeCount());
+        putDecimal(buffer, account.getCashBalance());
+        putDecimal(buffer, account.getRealizedPnl());
+        buffer.putShort((short) symbols.size());
+        for (String symbol : symbols) {
+            putCode(buffer, symbol);
+            Holding holding = account.findHolding(symbol).orElse(null);
+            putDecimal(buffer, holding == null ? BigDecimal.ZERO : holding.getQuantity());
+            putDecimal(buffer, holding == null ? BigDecimal.ZERO : holding.getAverageCost());
+        }
+        return buffer.array();
+    }
+
+    private static void readVersion(ByteBuffer buffer) {
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw invalid("Unsupported trade frame version: " + version);
+        }
+    }
+
+    private static TradeOrder readOrder(ByteBuffer buffer) {
+        TradeSide side = switch (buffer.get()) {
+            case 0 -> TradeSide.BUY;
+            case 1 -> TradeSide.SELL;
+            default -> throw invalid("Side is required");
+        };
+        String symbol = readCode(buffer, "Symbol is required");
+        String exchange = readCode(buffer, "Exchange is required");
+        BigDecimal quantity = readPositiveDecimal(buffer, "Quantity must be positive");
+        BigDecimal pricePerShare = readPositiveDecimal(buffer, "Price per share must be positive");
+        return new TradeOrder(side, symbol, exchange, quantity, pricePerShare);
+    }
+
+    private static String readCode(ByteBuffer buffer, String message) {
+        int length = Byte.toUnsignedInt(buffer.get());
+        if (length == 0 || length > MAX_CODE_LENGTH) {
+            throw invalid(message);
+        }
+        if (buffer.remaining() < length) {
+            throw new BufferUnderflowException();
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                StandardCharsets.US_ASCII);
+        buffer.position(buffer.position() + length);
+        if (value.isBlank()) {
+            throw invalid(message);
+        }
+        return value;
+    }
+
+    private static BigDecimal readPositiveDecimal(ByteBuffer buffer, String message) {
+        long unscaled = buffer.getLong();
+        int scale = Byte.toUnsignedInt(buffer.get());
+        BigDecimal value = BigDecimal.valueOf(unscaled, scale);
+        if (value.compareTo(MIN_AMOUNT) < 0) {
+            throw invalid(message);
+        }
+        return value;
+    }
+
+    private static void requireFullyRead(ByteBuffer buffer) {
+        if (buffer.hasRemaining()) {
+            throw invalid("Trade frame has trailing bytes");
+        }
+    }
+
+    private static void putCode(ByteBuffer buffer, String code) {
+        buffer.put((byte) code.length());
+        for (int i = 0; i < code.length(); i++) {
+            buffer.put((byte) code.charAt(i));
+        }
+    }
+
+    private static void putDecimal(ByteBuffer buffer, BigDecimal value) {
+        BigDecimal wire = value.scale() < 0 ? value.setScale(0) : value;
+        if (wire.precision() > WIRE_PRECISION.getPrecision() || wire.scale() > 255) {
+            wire = wire.round(WIRE_PRECISION);
+            wire = wire.scale() < 0 ? wire.setScale(0) : wire.setScale(Math.min(wire.scale(), 255), RoundingMode.HALF_EVEN);
+        }
+        buffer.putLong(wire.unscaledValue().longValueExact());
+        buffer.put((byte) wire.scale());
+    }
+
+    private static ResponseStatusException invalid(String message) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
+    }
+}
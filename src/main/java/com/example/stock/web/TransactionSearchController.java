@@ -0,0 +1,129 @@
+package com.example.stock.web;
+
+import com.example.stock.model.TradeSide;
+import com.example.stock.model.TransactionType;
+import com.example.stock.repository.TransactionSearchRepository.Criteria;
+import com.example.stock.repository.TransactionSearchRepository.TransactionMatch;
+import com.example.stock.service.AccountService;
+import com.example.stock.service.TransactionSearchService;
+import com.example.stock.service.TransactionSearchService.Page;
+import com.example.stock.web.dto.TransactionMatchView;
+import com.example.stock.web.dto.TransactionSearchView;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 銘柄・取引市場・種別・売買区分・金額・発生日時で取引履歴を検索する REST API を提供します。
+ */
+@RestController
+@RequestMapping("/api")
+public class TransactionSearchController {
+
+    private static final int MAX_LIMIT = 500;
+
+    private final AccountService accountService;
+    private final TransactionSearchService searchService;
+
+    public TransactionSearchController(AccountService accountService, TransactionSearchService searchService) {
+        this.accountService = accountService;
+        this.searchService = searchService;
+    }
+
+    /**
+     * 指定アカウントの取引を検索します。
+     *
+     * @param id        アカウント識別子
+     * @param symbol    銘柄コード
+     * @param exchange  取引市場
+     * @param type      取引種別
+     * @param side      売買区分（指定した場合は売買の取引に限ります）
+     * @param minAmount 現金の増減額の絶対値の下限
+     * @param maxAmount 現金の増減額の絶対値の上限
+     * @param from      発生日時の下限（以上）
+     * @param to        発生日時の上限（未満）
+     * @param cursor    前のページの {@code nextCursor}
+     * @param limit     最大件数（既定は 50）
+     * @return 発生日時の新しい順の取引
+     */
+    @GetMapping("/accounts/{id}/transactions/search")
+    public TransactionSearchView searchAccount(
+            @PathVariable UUID id,
+            @RequestParam(required = false) String symbol,
+            @RequestParam(required = false) String exchange,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) TradeSide side,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        accountService.getAccount(id);
+        return search(new Criteria(id, symbol, exchange, type, side, minAmount, maxAmount, from, to), cursor, limit);
+    }
+
+    /**
+     * すべてのアカウントの取引を検索します（管理者のみ）。
+     *
+     * @param accountId アカウント ID
+     * @param symbol    銘柄コード
+     * @param exchange  取引市場
+     * @param type      取引種別
+     * @param side      売買区分（指定した場合は売買の取引に限ります）
+     * @param minAmount 現金の増減額の絶対値の下限
+     * @param maxAmount 現金の増減額の絶対値の上限
+     * @param from      発生日時の下限（以上）
+     * @param to        発生日時の上限（未満）
+     * @param cursor    前のページの {@code nextCursor}
+     * @param limit     最大件数（既定は 50）
+     * @return 発生日時の新しい順の取引
+     */
+    @GetMapping("/admin/transactions/search")
+    public TransactionSearchView searchAll(
+            @RequestParam(required = false) UUID accountId,
+            @RequestParam(required = false) String symbol,
+            @RequestParam(required = false) String exchange,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) TradeSide side,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return search(new Criteria(accountId, symbol, exchange, type, side, minAmount, maxAmount, from, to), cursor,
+                limit);
+    }
+
+    private TransactionSearchView search(Criteria criteria, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        }
+        Page page;
+        try {
+            page = searchService.search(criteria, cursor, limit);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
+        return new TransactionSearchView(page.transactions().stream()
+                .map(TransactionSearchController::toView)
+                .toList(), page.nextCursor());
+    }
+
+    private static TransactionMatchView toView(TransactionMatch match) {
+        return new TransactionMatchView(match.id(), match.accountId(), match.type(), match.side(), match.symbol(),
+                match.exchange(), match.quantity(), match.pricePerShare(), match.currency(), match.fxRate(),
+                match.cashAmount(), match.grossAmount(), match.cashBalanceAfter(), match.realizedPnl(),
+                match.occurredAt());
+    }
+}
@@ -1,12 +1,14 @@
 package com.example.stock.web.auth;
 
-import com.example.stock.service.AdminAuthenticationService.AuthenticatedAdmin;
-import com.example.stock.service.AuthenticationService.AuthenticatedUser;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import jakarta.servlet.http.HttpSession;
+import com.example.stock.service.AdminAuthenticationService.AuthenticatedAdmin;
+import com.example.stock.service.AuthenticationService.AuthenticatedUser;
+import com.example.stock.web.ClientIpResolver;
+import com.example.stock.web.auth.RequestRateLimiter.RouteGroup;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
@@ -14,9 +16,14 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 認証が必要なリソースへのアクセスを制御するフィルターです。
+ * <p>
+ * API へのリクエストはアクセス元 IP ごと・ログイン主体ごとに {@link RequestRateLimiter} で流量を制限し、
+ * どちらかを超過した場合は {@code 429 Too Many Requests} と {@code Retry-After} を返します。
  */
 @Component
 public class AuthenticationFilter extends OncePerRequestFilter {
@@ -27,13 +34,37 @@ public class AuthenticationFilter extends OncePerRequestFilter {
     private static final String ADMIN_INDEX_PATH = "/admin/index.html";
     private static final String ADMIN_ROOT_PATH = "/admin/";
 
+    private final SessionManager sessionManager;
+    private final RequestRateLimiter rateLimiter;
+    private final ClientIpResolver clientIpResolver;
+
+    public AuthenticationFilter(SessionManager sessionManager, RequestRateLimiter rateLimiter,
+                                ClientIpResolver clientIpResolver) {
+        this.sessionManager = sessionManager;
+        this.rateLimiter = rateLimiter;
+        this.clientIpResolver = clientIpResolver;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         String path = request.getRequestURI();
-        HttpSession session = request.getSession(false);
-        boolean authenticated = session != null && session.getAttribute(SessionAttributes.AUTHENTICATED_USER) instanceof AuthenticatedUser;
-        boolean adminAuthenticated = session != null && session.getAttribute(SessionAttributes.ADMIN_AUTHENTICATED_USER) instanceof AuthenticatedAdmin;
+        Optional<AuthenticatedUser> user = sessionManager.currentUser(request);
+        Optional<AuthenticatedAdmin> admin = sessionManager.currentAdmin(request);
+        boolean authenticated = user.isPresent();
+        boolean adminAuthenticated = admin.isPresent();
+
+        RouteGroup routeGroup = RequestRateLimiter.classify(request.getMethod(), path);
+        if (routeGroup != null) {
+            String principal = user.map(u -> "user:" + u.email())
+                    .or(() -> admin.map(a -> "admin:" + a.adminId()))
+                    .orElse(null);
+            long waitNanos = rateLimiter.tryAcquire(routeGroup, clientIpResolver.resolve(request), principal);
+            if (waitNanos > 0) {
+                respondTooManyRequests(response, waitNanos);
+                return;
+            }
+        }
 
         if (!authenticated && isProtectedPage(path)) {
             response.sendRedirect(LOGIN_PATH);
@@ -93,7 +124,8 @@ public class AuthenticationFilter extends OncePerRequestFilter {
     }
 
     private boolean requiresApiAuthentication(String path) {
-        return path.startsWith("/api/accounts") || path.equals("/api/auth/logout") || path.equals("/api/auth/session");
+        return path.startsWith("/api/accounts") || path.startsWith("/api/symbols")
+                || path.equals("/api/auth/logout") || path.equals("/api/auth/session");
     }
 
     private boolean isAdminProtectedPage(String path) {
@@ -104,6 +136,15 @@ public class AuthenticationFilter extends OncePerRequestFilter {
         return path.startsWith("/api/admin/") && !path.equals("/api/admin/auth/login");
     }
 
+    private void respondTooManyRequests(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"message\":\"リクエストが多すぎます。しばらくしてから再度お試しください。\"}");
+    }
+
     private void respondUnauthorized(HttpServletResponse response) throws IOException {
         response.setStatus(HttpStatus.UNAUTHORIZED.value());
         response.setContentType(MediaType.APPLICATION_JSON_VALUE);
@@ -0,0 +1,327 @@
+package com.example.stock.web.auth;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * アクセス元 IP 単位とログイン主体単位のトークンバケットで、ルートグループごとにリクエスト数を制限します。
+ * <p>
+ * 1 つのリクエストは IP のバケットと（ログインしている場合は）主体のバケットの両方からトークンを取得し、
+ * どちらかが尽きていれば拒否します。同じ IP の背後にいる複数の利用者と、IP を変えながら同じ主体で送る
+ * クライアントの両方を、それぞれの上限で抑えます。
+ * <p>
+ * 各バケットは「次にトークンが満杯へ戻る理論時刻」を 1 つの {@link AtomicLong} で保持し（GCRA 方式）、
+ * CAS だけで判定するためロックもオブジェクト生成も発生しません。満杯まで回復したバケットは不要になるため、
+ * 定期的に、またはクライアント数の上限に達した時点で破棄します。破棄しても上限を超える場合は、満杯へ早く戻る
+ * バケットから順に追い出します。上限に達した時点の走査では上限の 1/{@value #EVICTION_FRACTION} まで空けるため、
+ * 続く新しいクライアントは走査せずに登録でき、走査の費用は新しいクライアントあたり一定に収まります。
+ * 他のクライアントとバケットを共有しないため、大量のアドレスから送るクライアントがいても、他のクライアントの
+ * 流量は制限されません。
+ */
+@Component
+public class RequestRateLimiter {
+
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    /** 上限に達したときに 1 回の走査で空ける割合の分母。 */
+    static final int EVICTION_FRACTION = 8;
+
+    private final boolean enabled;
+    private final int maxClients;
+    private final LongSupplier nanoClock;
+    private final Map<Scope, Map<RouteGroup, Limit>> limits = new EnumMap<>(Scope.class);
+    private final Map<Scope, Map<RouteGroup, ConcurrentHashMap<String, AtomicLong>>> buckets =
+            new EnumMap<>(Scope.class);
+    private final LongAdder evicted = new LongAdder();
+    private final AtomicBoolean purging = new AtomicBoolean();
+
+    @Autowired
+    public RequestRateLimiter(
+            @Value("${app.rate-limit.enabled:true}") boolean enabled,
+            @Value("${app.rate-limit.max-clients:10000}") int maxClients,
+            @Value("${app.rate-limit.login.capacity:10}") int loginCapacity,
+            @Value("${app.rate-limit.login.refill-per-minute:10}") int loginRefill,
+            @Value("${app.rate-limit.login.ip-capacity:10}") int loginIpCapacity,
+            @Value("${app.rate-limit.login.ip-refill-per-minute:10}") int loginIpRefill,
+            @Value("${app.rate-limit.trading.capacity:30}") int tradingCapacity,
+            @Value("${app.rate-limit.trading.refill-per-minute:120}") int tradingRefill,
+            @Value("${app.rate-limit.trading.ip-capacity:120}") int tradingIpCapacity,
+            @Value("${app.rate-limit.trading.ip-refill-per-minute:480}") int tradingIpRefill,
+            @Value("${app.rate-limit.access-logs.capacity:60}") int accessLogCapacity,
+            @Value("${app.rate-limit.access-logs.refill-per-minute:600}") int accessLogRefill,
+            @Value("${app.rate-limit.access-logs.ip-capacity:240}") int accessLogIpCapacity,
+            @Value("${app.rate-limit.access-logs.ip-refill-per-minute:2400}") int accessLogIpRefill,
+            @Value("${app.rate-limit.reads.capacity:120}") int readCapacity,
+            @Value("${app.rate-limit.reads.refill-per-minute:1200}") int readRefill,
+            @Value("${app.rate-limit.reads.ip-capacity:480}") int readIpCapacity,
+            @Value("${app.rate-limit.reads.ip-refill-per-minute:4800}") int readIpRefill) {
+        this(enabled, maxClients, Map.of(
+                RouteGroup.LOGIN, new Limit(loginIpCapacity, loginIpRefill),
+                RouteGroup.TRADING, new Limit(tradingIpCapacity, tradingIpRefill),
+                RouteGroup.ACCESS_LOGS, new Limit(accessLogIpCapacity, accessLogIpRefill),
+                RouteGroup.READS, new Limit(readIpCapacity, readIpRefill)), Map.of(
+                RouteGroup.LOGIN, new Limit(loginCapacity, loginRefill),
+                RouteGroup.TRADING, new Limit(tradingCapacity, tradingRefill),
+                RouteGroup.ACCESS_LOGS, new Limit(accessLogCapacity, accessLogRefill),
+                RouteGroup.READS, new Limit(readCapacity, readRefill)), System::nanoTime);
+    }
+
+    RequestRateLimiter(boolean enabled, int maxClients, Map<RouteGroup, Limit> ipLimits,
+                       Map<RouteGroup, Limit> sessionLimits, LongSupplier nanoClock) {
+        if (maxClients < 1) {
+            throw new IllegalArgumentException("maxClients must be positive");
+        }
+        this.enabled = enabled;
+        this.maxClients = maxClients;
+        this.nanoClock = nanoClock;
+        for (Scope scope : Scope.values()) {
+            Map<RouteGroup, Limit> scopeLimits = scope == Scope.IP ? ipLimits : sessionLimits;
+            Map<RouteGroup, Limit> groupLimits = new EnumMap<>(RouteGroup.class);
+            Map<RouteGroup, ConcurrentHashMap<String, AtomicLong>> groupBuckets = new EnumMap<>(RouteGroup.class);
+            for (RouteGroup group : RouteGroup.values()) {
+                Limit limit = scopeLimits.get(group);
+                if (limit == null) {
+                    throw new IllegalArgumentException("Missing " + scope + " rate limit for " + group);
+                }
+                groupLimits.put(group, limit);
+                groupBuckets.put(group, new ConcurrentHashMap<>());
+            }
+            this.limits.put(scope, groupLimits);
+            this.buckets.put(scope, groupBuckets);
+        }
+    }
+
+    /**
+     * リクエストのメソッドとパスから制限対象のルートグループを判定します。
+     *
+     * @param method HTTP メソッド
+     * @param path   リクエストパス
+     * @return ルートグループ（制限対象外の場合は {@code null}）
+     */
+    public static RouteGroup classify(String method, String path) {
+        if (!path.startsWith("/api/")) {
+            return null;
+        }
+        boolean get = "GET".equals(method) || "HEAD".equals(method);
+        if (path.equals("/api/auth/login") || path.equals("/api/admin/auth/login")) {
+            return RouteGroup.LOGIN;
+        }
+        if (path.startsWith("/api/access-logs")) {
+            return RouteGroup.ACCESS_LOGS;
+        }
+        if (path.startsWith("/api/accounts") && !get) {
+            return RouteGroup.TRADING;
+        }
+        return get ? RouteGroup.READS : null;
+    }
+
+    /**
+     * アクセス元 IP とログイン主体のバケットからトークンを 1 つずつ取得します。
+     * <p>
+     * 一方が拒否した場合、もう一方から取得したトークンは返却します。
+     *
+     * @param group     ルートグループ
+     * @param ipAddress アクセス元 IP
+     * @param principal ログイン主体を識別するキー（未ログインの場合は {@code null}）
+     * @return 許可された場合は 0、拒否された場合は次のトークンが利用可能になるまでのナノ秒
+     */
+    public long tryAcquire(RouteGroup group, String ipAddress, String principal) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = nanoClock.getAsLong();
+        long ipWait = tryAcquire(Scope.IP, group, ipAddress, now);
+        if (ipWait > 0 || principal == null) {
+            return ipWait;
+        }
+        long sessionWait = tryAcquire(Scope.SESSION, group, principal, now);
+        if (sessionWait > 0) {
+            release(Scope.IP, group, ipAddress);
+        }
+        return sessionWait;
+    }
+
+    /**
+     * 満杯まで回復したバケットを破棄します。
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.purge-interval:PT1M}")
+    public void purgeIdleBuckets() {
+        if (!purging.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = nanoClock.getAsLong();
+            buckets.values().forEach(scopeBuckets -> scopeBuckets.values()
+                    .forEach(groupBuckets -> groupBuckets.values().removeIf(bucket -> bucket.get() <= now)));
+        } finally {
+            purging.set(false);
+        }
+    }
+
+    /**
+     * クライアント数の上限に達したため、回復前に追い出したバケットの累計を取得します。
+     *
+     * @return 追い出したバケット数
+     */
+    public long getEvictedCount() {
+        return evicted.sum();
+    }
+
+    /**
+     * 保持しているクライアント別バケットの数を取得します。
+     *
+     * @param scope 制限の単位
+     * @param group ルートグループ
+     * @return バケット数
+     */
+    int trackedClients(Scope scope, RouteGroup group) {
+        return buckets.get(scope).get(group).size();
+    }
+
+    private long tryAcquire(Scope scope, RouteGroup group, String clientKey, long now) {
+        Limit limit = limits.get(scope).get(group);
+        AtomicLong bucket = bucketFor(scope, group, clientKey, now);
+        long interval = limit.emissionIntervalNanos();
+        long burst = limit.burstNanos();
+        while (true) {
+            long full = bucket.get();
+            long next = Math.max(full, now) + interval;
+            long wait = next - burst - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(full, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private void release(Scope scope, RouteGroup group, String clientKey) {
+        AtomicLong bucket = buckets.get(scope).get(group).get(clientKey);
+        if (bucket != null) {
+            bucket.addAndGet(-limits.get(scope).get(group).emissionIntervalNanos());
+        }
+    }
+
+    private AtomicLong bucketFor(Scope scope, RouteGroup group, String clientKey, long now) {
+        ConcurrentHashMap<String, AtomicLong> groupBuckets = buckets.get(scope).get(group);
+        AtomicLong bucket = groupBuckets.get(clientKey);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (groupBuckets.size() >= maxClients) {
+            makeRoom(groupBuckets, now);
+        }
+        return groupBuckets.computeIfAbsent(clientKey, key -> new AtomicLong(now));
+    }
+
+    /**
+     * 満杯まで回復したバケットを破棄し、上限の 1/{@value #EVICTION_FRACTION} が空くまで満杯へ早く戻るバケットから
+     * 追い出します。
+     * <p>
+     * 同時に上限へ達したスレッドのうち 1 つだけが走査し、他のスレッドは走査の完了を待って空いた枠へ登録します。
+     */
+    private void makeRoom(ConcurrentHashMap<String, AtomicLong> groupBuckets, long now) {
+        synchronized (groupBuckets) {
+            int size = groupBuckets.size();
+            if (size < maxClients) {
+                return;
+            }
+            int target = maxClients - Math.max(1, maxClients / EVICTION_FRACTION);
+            int candidates = size - target;
+            // 満杯へ早く戻る順に candidates 件を、満杯へ戻る時刻の降順のヒープで保持します
+            PriorityQueue<Candidate> closest = new PriorityQueue<>(candidates + 1,
+                    Comparator.comparingLong(Candidate::full).reversed());
+            for (Map.Entry<String, AtomicLong> entry : groupBuckets.entrySet()) {
+                long full = entry.getValue().get();
+                if (full <= now) {
+                    groupBuckets.remove(entry.getKey(), entry.getValue());
+                } else if (closest.size() < candidates || full < closest.peek().full()) {
+                    closest.add(new Candidate(entry.getKey(), entry.getValue(), full));
+                    if (closest.size() > candidates) {
+                        closest.poll();
+                    }
+                }
+            }
+            List<Candidate> victims = new ArrayList<>(closest);
+            victims.sort(Comparator.comparingLong(Candidate::full));
+            for (Candidate victim : victims) {
+                if (groupBuckets.size() <= target) {
+                    break;
+                }
+                if (groupBuckets.remove(victim.key(), victim.bucket())) {
+                    evicted.increment();
+                }
+            }
+        }
+    }
+
+    private record Candidate(String key, AtomicLong bucket, long full) {
+    }
+
+    /**
+     * 流量を制限する単位です。
+     */
+    public enum Scope {
+        /** アクセス元 IP。 */
+        IP,
+
+        /** ログイン主体（利用者または管理者）。 */
+        SESSION
+    }
+
+    /**
+     * 流量制限を個別に設定するルートグループです。
+     */
+    public enum RouteGroup {
+        /** 利用者・管理者のログイン。 */
+        LOGIN,
+
+        /** 口座開設・入出金・売買などの更新系 API。 */
+        TRADING,
+
+        /** アクセスログの記録・参照。 */
+        ACCESS_LOGS,
+
+        /** その他の参照系 API。 */
+        READS
+    }
+
+    /**
+     * トークンバケットの容量と補充速度です。
+     *
+     * @param capacity        バケット容量（連続して許可するリクエスト数）
+     * @param refillPerMinute 1 分あたりに補充するトークン数
+     */
+    public record Limit(int capacity, int refillPerMinute) {
+
+        public Limit {
+            if (capacity < 1 || refillPerMinute < 1) {
+                throw new IllegalArgumentException("capacity and refillPerMinute must be positive");
+            }
+        }
+
+        long emissionIntervalNanos() {
+            return NANOS_PER_MINUTE / refillPerMinute;
+        }
+
+        long burstNanos() {
+            return emissionIntervalNanos() * capacity;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.stock.web.auth;
+
+import com.example.stock.service.AdminAuthenticationService.AuthenticatedAdmin;
+import com.example.stock.service.AuthenticationService.AuthenticatedUser;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * ログイン状態をサーブレットの {@link HttpSession} に保存する従来方式の {@link SessionManager} です。
+ */
+@Component
+@ConditionalOnProperty(name = "app.session.mode", havingValue = "servlet", matchIfMissing = true)
+public class ServletSessionManager implements SessionManager {
+
+    @Override
+    public void signInUser(HttpServletRequest request, HttpServletResponse response, AuthenticatedUser user) {
+        HttpSession existingSession = request.getSession(false);
+        if (existingSession != null) {
+            existingSession.invalidate();
+        }
+        request.getSession(true).setAttribute(SessionAttributes.AUTHENTICATED_USER, user);
+    }
+
+    @Override
+    public void signInAdmin(HttpServletRequest request, HttpServletResponse response, AuthenticatedAdmin admin) {
+        HttpSession existingSession = request.getSession(false);
+        if (existingSession != null) {
+            existingSession.invalidate();
+        }
+        request.getSession(true).setAttribute(SessionAttributes.ADMIN_AUTHENTICATED_USER, admin);
+    }
+
+    @Override
+    public Optional<AuthenticatedUser> currentUser(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        if (session != null && session.getAttribute(SessionAttributes.AUTHENTICATED_USER) instanceof AuthenticatedUser user) {
+            return Optional.of(user);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<AuthenticatedAdmin> currentAdmin(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        if (session != null
+                && session.getAttribute(SessionAttributes.ADMIN_AUTHENTICATED_USER) instanceof AuthenticatedAdmin admin) {
+            return Optional.of(admin);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void signOutUser(HttpServletRequest request, HttpServletResponse response) {
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            session.invalidate();
+        }
+    }
+
+    @Override
+    public void signOutAdmin(HttpServletRequest request, HttpServletResponse response) {
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            session.removeAttribute(SessionAttributes.ADMIN_AUTHENTICATED_USER);
+            if (session.getAttributeNames().hasMoreElements()) {
+                // Keep other session information if present (e.g. 利用者ログイン)
+                return;
+            }
+            session.invalidate();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.stock.web.auth;
+
+import com.example.stock.service.AdminAuthenticationService.AuthenticatedAdmin;
+import com.example.stock.service.AuthenticationService.AuthenticatedUser;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.util.Optional;
+
+/**
+ * 認証済み利用者・管理者のログイン状態を保持する仕組みを抽象化したインターフェースです。
+ * <p>
+ * {@code app.session.mode} により、サーブレットの {@code HttpSession} に保存する方式（{@code servlet}、既定）と
+ * 署名付きトークンを Cookie に保存するステートレス方式（{@code token}）を切り替えます。
+ */
+public interface SessionManager {
+
+    /**
+     * 利用者をログイン状態にします。既存のログイン状態は破棄されます。
+     *
+     * @param request  HTTP リクエスト
+     * @param response HTTP レスポンス
+     * @param user     認証済み利用者
+     */
+    void signInUser(HttpServletRequest request, HttpServletResponse response, AuthenticatedUser user);
+
+    /**
+     * 管理者をログイン状態にします。
+     *
+     * @param request  HTTP リクエスト
+     * @param response HTTP レスポンス
+     * @param admin    認証済み管理者
+     */
+    void signInAdmin(HttpServletRequest request, HttpServletResponse response, AuthenticatedAdmin admin);
+
+    /**
+     * ログイン中の利用者を取得します。
+     *
+     * @param request HTTP リクエスト
+     * @return ログイン中の利用者
+     */
+    Optional<AuthenticatedUser> currentUser(HttpServletRequest request);
+
+    /**
+     * ログイン中の管理者を取得します。
+     *
+     * @param request HTTP リクエスト
+     * @return ログイン中の管理者
+     */
+    Optional<AuthenticatedAdmin> currentAdmin(HttpServletRequest request);
+
+    /**
+     * 利用者のログイン状態を破棄します。
+     *
+     * @param request  HTTP リクエスト
+     * @param response HTTP レスポンス
+     */
+    void signOutUser(HttpServletRequest request, HttpServletResponse response);
+
+    /**
+     * 管理者のログイン状態を破棄します。利用者のログイン状態は保持されます。
+     *
+     * @param request  HTTP リクエスト
+     * @param response HTTP レスポンス
+     */
+    void signOutAdmin(HttpServletRequest request, HttpServletResponse response);
+}
@@ -0,0 +1,128 @@
+package com.example.stock.web.auth;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * ログイン状態を表す HMAC-SHA256 署名付きトークンを生成・検証します。
+ * <p>
+ * 形式は {@code base64url(ペイロード) + "." + base64url(署名)} で、ペイロードにはバージョン・ロール・主体・表示名・
+ * 有効期限（エポック秒）・トークン ID を改行区切りで格納します。検証はサーバー側の状態を参照せずに完結します。
+ */
+public final class SessionTokenCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String VERSION = "v1";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Clock clock;
+    private final ThreadLocal<Mac> macs;
+
+    /**
+     * コーデックを生成します。
+     *
+     * @param secret 署名鍵（32 バイト以上を推奨）
+     * @param clock  有効期限の判定に使用する時計
+     */
+    public SessionTokenCodec(byte[] secret, Clock clock) {
+        this.key = new SecretKeySpec(Objects.requireNonNull(secret, "secret").clone(), ALGORITHM);
+        this.clock = Objects.requireNonNull(clock, "clock");
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * トークンを署名付き文字列へ符号化します。
+     *
+     * @param token トークン
+     * @return 署名付きトークン文字列
+     */
+    public String encode(SessionToken token) {
+        String payload = String.join("\n", VERSION, token.role(), escape(token.subject()), escape(token.displayName()),
+                Long.toString(token.expiresAt().getEpochSecond()), token.tokenId());
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(sign(payloadBytes));
+    }
+
+    /**
+     * 署名と有効期限を検証してトークンを復元します。
+     *
+     * @param value 署名付きトークン文字列
+     * @return 検証に成功したトークン（改ざん・期限切れ・形式不正の場合は空）
+     */
+    public Optional<SessionToken> decode(String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        int separator = value.indexOf('.');
+        if (separator <= 0 || separator != value.lastIndexOf('.')) {
+            return Optional.empty();
+        }
+        try {
+            byte[] payloadBytes = DECODER.decode(value.substring(0, separator));
+            byte[] signature = DECODER.decode(value.substring(separator + 1));
+            if (!MessageDigest.isEqual(sign(payloadBytes), signature)) {
+                return Optional.empty();
+            }
+            String[] fields = new String(payloadBytes, StandardCharsets.UTF_8).split("\n", -1);
+            if (fields.length != 6 || !VERSION.equals(fields[0])) {
+                return Optional.empty();
+            }
+            Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(fields[4]));
+            if (!clock.instant().isBefore(expiresAt)) {
+                return Optional.empty();
+            }
+            return Optional.of(new SessionToken(fields[1], unescape(fields[2]), unescape(fields[3]), expiresAt,
+                    fields[5]));
+        } catch (IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] sign(byte[] payload) {
+        Mac mac = macs.get();
+        mac.reset();
+        return mac.doFinal(payload);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", ex);
+        }
+    }
+
+    private static String escape(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String unescape(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * トークンに格納するログイン情報です。
+     *
+     * @param role        ロール（{@code USER} または {@code ADMIN}）
+     * @param subject     主体（メールアドレスまたは管理者 ID）
+     * @param displayName 表示名
+     * @param expiresAt   有効期限
+     * @param tokenId     失効管理に使用するトークン ID
+     */
+    public record SessionToken(String role, String subject, String displayName, Instant expiresAt, String tokenId) {
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.stock.web.auth;
+
+import com.example.stock.service.AdminAuthenticationService.AuthenticatedAdmin;
+import com.example.stock.service.AuthenticationService.AuthenticatedUser;
+import com.example.stock.web.auth.SessionTokenCodec.SessionToken;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ログイン状態を HMAC 署名付きトークンとして Cookie に保存するステートレス方式の {@link SessionManager} です。
+ * <p>
+ * トークンにはロール・主体・有効期限が含まれ、検証にサーバー側のセッションを必要としないため、
+ * 同じ署名鍵を共有する複数インスタンスのどれでもリクエストを処理できます。
+ * ログアウトしたトークンは有効期限までメモリ上の失効リストで拒否します（失効リストはインスタンスごとに保持されます）。
+ */
+@Component
+@ConditionalOnProperty(name = "app.session.mode", havingValue = "token")
+public class TokenSessionManager implements SessionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenSessionManager.class);
+
+    static final String USER_COOKIE = "STOCK_USER_TOKEN";
+    static final String ADMIN_COOKIE = "STOCK_ADMIN_TOKEN";
+    private static final String USER_ROLE = "USER";
+    private static final String ADMIN_ROLE = "ADMIN";
+    private static final String CACHE_ATTRIBUTE_PREFIX = TokenSessionManager.class.getName() + ".";
+
+    private final SessionTokenCodec codec;
+    private final Clock clock;
+    private final Duration ttl;
+    private final boolean secureCookie;
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TokenSessionManager(
+            @Value("${app.session.token-secret:}") String secret,
+            @Value("${app.session.token-ttl:PT8H}") Duration ttl,
+            @Value("${app.session.cookie-secure:false}") boolean secureCookie) {
+        this(resolveSecret(secret), ttl, secureCookie, Clock.systemUTC());
+    }
+
+    TokenSessionManager(byte[] secret, Duration ttl, boolean secureCookie, Clock clock) {
+        this.codec = new SessionTokenCodec(secret, clock);
+        this.clock = clock;
+        this.ttl = ttl;
+        this.secureCookie = secureCookie;
+    }
+
+    @Override
+    public void signInUser(HttpServletRequest request, HttpServletResponse response, AuthenticatedUser user) {
+        revoke(request, USER_COOKIE);
+        issue(response, USER_COOKIE, USER_ROLE, user.email(), user.displayName());
+    }
+
+    @Override
+    public void signInAdmin(HttpServletRequest request, HttpServletResponse response, AuthenticatedAdmin admin) {
+        revoke(request, ADMIN_COOKIE);
+        issue(response, ADMIN_COOKIE, ADMIN_ROLE, admin.adminId(), admin.displayName());
+    }
+
+    @Override
+    public Optional<AuthenticatedUser> currentUser(HttpServletRequest request) {
+        return resolve(request, USER_COOKIE, USER_ROLE)
+                .map(token -> new AuthenticatedUser(token.subject(), token.displayName()));
+    }
+
+    @Override
+    public Optional<AuthenticatedAdmin> currentAdmin(HttpServletRequest request) {
+        return resolve(request, ADMIN_COOKIE, ADMIN_ROLE)
+                .map(token -> new AuthenticatedAdmin(token.subject(), token.displayName()));
+    }
+
+    @Override
+    public void signOutUser(HttpServletRequest request, HttpServletResponse response) {
+        revoke(request, USER_COOKIE);
+        clear(response, USER_COOKIE);
+    }
+
+    @Override
+    public void signOutAdmin(HttpServletRequest request, HttpServletResponse response) {
+        revoke(request, ADMIN_COOKIE);
+        clear(response, ADMIN_COOKIE);
+    }
+
+    /**
+     * 有効期限を過ぎた失効トークンを失効リストから取り除きます。
+     */
+    @Scheduled(fixedDelayString = "${app.session.denylist-purge-interval:PT1M}")
+    public void purgeExpiredRevocations() {
+        Instant now = clock.instant();
+        revokedTokens.values().removeIf(expiresAt -> !now.isBefore(expiresAt));
+    }
+
+    private void issue(HttpServletResponse response, String cookieName, String role, String subject,
+                       String displayName) {
+        SessionToken token = new SessionToken(role, subject, displayName, clock.instant().plus(ttl),
+                UUID.randomUUID().toString());
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie(cookieName, codec.encode(token), ttl).toString());
+    }
+
+    private void clear(HttpServletResponse response, String cookieName) {
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie(cookieName, "", Duration.ZERO).toString());
+    }
+
+    private ResponseCookie cookie(String name, String value, Duration maxAge) {
+        return ResponseCookie.from(name, value)
+                .httpOnly(true)
+                .secure(secureCookie)
+                .sameSite("Lax")
+                .path("/")
+                .maxAge(maxAge)
+                .build();
+    }
+
+    private void revoke(HttpServletRequest request, String cookieName) {
+        readToken(request, cookieName).ifPresent(token -> revokedTokens.put(token.tokenId(), token.expiresAt()));
+        request.removeAttribute(CACHE_ATTRIBUTE_PREFIX + cookieName);
+    }
+
+    /**
+     * Cookie のトークンを検証します。同一リクエスト内で繰り返し検証しないよう結果をリクエスト属性へ保持します。
+     */
+    private Optional<SessionToken> resolve(HttpServletRequest request, String cookieName, String role) {
+        String attribute = CACHE_ATTRIBUTE_PREFIX + cookieName;
+        if (request.getAttribute(attribute) instanceof SessionToken cached) {
+            return Optional.of(cached);
+        }
+        Optional<SessionToken> token = readToken(request, cookieName)
+                .filter(candidate -> role.equals(candidate.role()))
+                .filter(candidate -> !revokedTokens.containsKey(candidate.tokenId()));
+        token.ifPresent(value -> request.setAttribute(attribute, value));
+        return token;
+    }
+
+    private Optional<SessionToken> readToken(HttpServletRequest request, String cookieName) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return Optional.empty();
+        }
+        for (Cookie cookie : cookies) {
+            if (cookieName.equals(cookie.getName())) {
+                return codec.decode(cookie.getValue());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static byte[] resolveSecret(String secret) {
+        if (secret != null && !secret.isBlank()) {
+            return secret.getBytes(StandardCharsets.UTF_8);
+        }
+        log.warn("app.session.token-secret is not set; using a random key. Tokens will not be accepted by other "
+                + "instances or after a restart.");
+        byte[] random = new byte[32];
+        new SecureRandom().nextBytes(random);
+        return random;
+    }
+}
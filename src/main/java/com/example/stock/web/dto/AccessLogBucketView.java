@@ -0,0 +1,13 @@
+package com.example.stock.web.dto;
+
+import java.time.Instant;
+
+/**
+ * アクセスログ集計の時間バケット 1 つ分を返却する DTO です。
+ */
+public record AccessLogBucketView(
+        Instant bucketStart,
+        long hits,
+        long uniqueIps
+) {
+}
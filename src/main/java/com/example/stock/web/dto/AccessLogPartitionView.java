@@ -0,0 +1,15 @@
+package com.example.stock.web.dto;
+
+import java.time.YearMonth;
+
+/**
+ * アクセスログの月パーティション（稼働中またはアーカイブ済み）を返却する DTO です。
+ */
+public record AccessLogPartitionView(
+        YearMonth month,
+        boolean archived,
+        long rows,
+        String archiveFile,
+        Long archiveBytes
+) {
+}
@@ -0,0 +1,20 @@
+package com.example.stock.web.dto;
+
+import com.example.stock.model.RollupGranularity;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * アクセスログの時系列集計を返却する DTO です。
+ */
+public record AccessLogStatsView(
+        RollupGranularity granularity,
+        String page,
+        Instant from,
+        Instant to,
+        long totalHits,
+        long uniqueIps,
+        List<AccessLogBucketView> series
+) {
+}
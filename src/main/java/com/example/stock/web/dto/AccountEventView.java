@@ -0,0 +1,20 @@
+package com.example.stock.web.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * アカウントの更新をイベントストリームで配信する差分 DTO です。
+ * <p>
+ * {@code holding} は売買で変化した銘柄のみを含み、全数売却で保有がなくなった場合は数量 0 で通知します。
+ * 入出金では {@code null} です。
+ */
+public record AccountEventView(
+        UUID accountId,
+        long version,
+        BigDecimal cashBalance,
+        BigDecimal realizedPnl,
+        HoldingView holding,
+        TransactionView transaction
+) {
+}
@@ -1,5 +1,7 @@
 package com.example.stock.web.dto;
 
+import com.example.stock.model.CostBasisMethod;
+
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
@@ -12,7 +14,14 @@ public record AccountSummary(
         UUID id,
         String ownerName,
         BigDecimal cashBalance,
+        String cashCurrency,
+        String baseCurrency,
+        CostBasisMethod costBasisMethod,
+        BigDecimal realizedPnl,
         List<HoldingView> holdings,
-        Instant createdAt
+        int holdingCount,
+        BigDecimal totalCostBasis,
+        Instant createdAt,
+        Instant lastActivityAt
 ) {
 }
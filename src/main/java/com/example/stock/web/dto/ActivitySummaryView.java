@@ -0,0 +1,20 @@
+package com.example.stock.web.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * 期間内の入出金・売買サマリーを返却する DTO です。
+ */
+public record ActivitySummaryView(
+        UUID accountId,
+        LocalDate from,
+        LocalDate to,
+        BigDecimal netDeposits,
+        long tradeCount,
+        BigDecimal tradedNotional,
+        BigDecimal buyNotional,
+        BigDecimal sellNotional
+) {
+}
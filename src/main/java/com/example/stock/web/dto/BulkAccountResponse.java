@@ -0,0 +1,16 @@
+package com.example.stock.web.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * アカウント一括開設の結果を返却する DTO です。
+ */
+public record BulkAccountResponse(
+        int created,
+        List<UUID> accountIds,
+        long transactions,
+        long elapsedMillis,
+        double accountsPerSecond
+) {
+}
@@ -0,0 +1,20 @@
+package com.example.stock.web.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+
+/**
+ * 銘柄の終値を表す DTO です。通貨を省略した場合は米ドルとして扱います。
+ */
+public record ClosingPriceRequest(
+        @NotBlank(message = "Symbol is required")
+        String symbol,
+        @NotNull(message = "Price is required")
+        @Positive(message = "Price must be positive")
+        BigDecimal price,
+        String currency
+) {
+}
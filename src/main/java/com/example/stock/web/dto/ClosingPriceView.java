@@ -0,0 +1,13 @@
+package com.example.stock.web.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * 銘柄の終値を返却する DTO です。
+ */
+public record ClosingPriceView(
+        String symbol,
+        String currency,
+        BigDecimal price
+) {
+}
@@ -0,0 +1,15 @@
+package com.example.stock.web.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * 営業日の終値をまとめて登録するリクエストを表す DTO です。
+ */
+public record ClosingPricesRequest(
+        @NotEmpty(message = "Prices are required")
+        List<@Valid ClosingPriceRequest> prices
+) {
+}
@@ -0,0 +1,17 @@
+package com.example.stock.web.dto;
+
+import java.util.List;
+
+/**
+ * 全社の保有銘柄の集中度を返却する DTO です。
+ */
+public record ConcentrationView(
+        int holdings,
+        int symbols,
+        double costBasis,
+        int top,
+        double topShare,
+        double herfindahl,
+        List<ExposureView> topSymbols
+) {
+}
@@ -1,9 +1,12 @@
 package com.example.stock.web.dto;
 
+import com.example.stock.model.CostBasisMethod;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.PositiveOrZero;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 /**
  * アカウント作成リクエストを表すDTOです。
@@ -12,6 +15,9 @@ public record CreateAccountRequest(
         @NotBlank(message = "Owner name is required")
         String ownerName,
         @PositiveOrZero(message = "Initial deposit cannot be negative")
-        BigDecimal initialDeposit
+        BigDecimal initialDeposit,
+        CostBasisMethod costBasisMethod,
+        List<@Valid OpeningHoldingRequest> holdings,
+        String baseCurrency
 ) {
 }
@@ -0,0 +1,21 @@
+package com.example.stock.web.dto;
+
+import com.example.stock.model.TradeSide;
+import com.example.stock.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 日次集計の 1 行を返却する DTO です。
+ */
+public record DailyAggregateView(
+        LocalDate businessDate,
+        TransactionType type,
+        TradeSide tradeSide,
+        long transactionCount,
+        BigDecimal cashAmount,
+        BigDecimal grossAmount,
+        BigDecimal quantity
+) {
+}
@@ -0,0 +1,24 @@
+package com.example.stock.web.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * 日次の時価評価バッチの実行状況と進捗を返却する DTO です。
+ */
+public record EndOfDayRunView(
+        LocalDate businessDate,
+        String status,
+        long accountsTotal,
+        long accountsValued,
+        double progress,
+        long chunksCompleted,
+        long unpricedHoldings,
+        UUID lastAccountId,
+        Instant startedAt,
+        Instant updatedAt,
+        Instant completedAt,
+        double accountsPerSecond
+) {
+}
@@ -0,0 +1,22 @@
+package com.example.stock.web.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * 営業日ごとの口座の評価額を返却する DTO です。
+ */
+public record EquitySnapshotView(
+        LocalDate businessDate,
+        String currency,
+        BigDecimal cashBalance,
+        BigDecimal marketValue,
+        BigDecimal costBasis,
+        BigDecimal unrealizedPnl,
+        BigDecimal equity,
+        int holdingCount,
+        int unpricedHoldings,
+        Instant valuedAt
+) {
+}
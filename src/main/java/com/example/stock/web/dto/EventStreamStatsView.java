@@ -0,0 +1,10 @@
+package com.example.stock.web.dto;
+
+/**
+ * イベントストリームの購読状況を返却する DTO です。
+ */
+public record EventStreamStatsView(
+        int subscribers,
+        long evicted
+) {
+}
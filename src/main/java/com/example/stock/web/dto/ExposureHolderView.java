@@ -0,0 +1,15 @@
+package com.example.stock.web.dto;
+
+import java.util.UUID;
+
+/**
+ * 銘柄の保有者を返却する DTO です。
+ */
+public record ExposureHolderView(
+        UUID accountId,
+        String exchange,
+        double quantity,
+        double costBasis,
+        double share
+) {
+}
@@ -0,0 +1,15 @@
+package com.example.stock.web.dto;
+
+import java.time.Instant;
+
+/**
+ * エクスポージャー分析用スナップショットの状態を返却する DTO です。
+ */
+public record ExposureSnapshotView(
+        int accounts,
+        int holdings,
+        String currency,
+        Instant ratesAsOf,
+        Instant loadedAt
+) {
+}
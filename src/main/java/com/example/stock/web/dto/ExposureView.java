@@ -0,0 +1,13 @@
+package com.example.stock.web.dto;
+
+/**
+ * 銘柄コードまたは取引市場ごとのエクスポージャーを返却する DTO です。
+ */
+public record ExposureView(
+        String key,
+        long holdings,
+        double quantity,
+        double costBasis,
+        double share
+) {
+}
@@ -0,0 +1,15 @@
+package com.example.stock.web.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * 為替レートの更新リクエストを表す DTO です。
+ */
+public record FxRateUpdateRequest(
+        @NotEmpty(message = "Rates must not be empty")
+        Map<String, BigDecimal> unitsPerUsd
+) {
+}
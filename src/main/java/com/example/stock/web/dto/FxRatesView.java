@@ -0,0 +1,14 @@
+package com.example.stock.web.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * 1 米ドルあたりの各通貨の額を返却する DTO です。
+ */
+public record FxRatesView(
+        Instant asOf,
+        Map<String, BigDecimal> unitsPerUsd
+) {
+}
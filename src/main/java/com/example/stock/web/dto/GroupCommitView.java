@@ -0,0 +1,19 @@
+package com.example.stock.web.dto;
+
+/**
+ * 更新系処理のグループコミットの状態を返却する DTO です。
+ */
+public record GroupCommitView(
+        boolean enabled,
+        int maxBatch,
+        double maxWaitMillis,
+        int queued,
+        long groups,
+        long committed,
+        double averageGroupSize,
+        int lastGroupSize,
+        int largestGroupSize,
+        long retriedGroups,
+        long rejected
+) {
+}
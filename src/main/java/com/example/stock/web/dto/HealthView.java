@@ -0,0 +1,9 @@
+package com.example.stock.web.dto;
+
+/**
+ * 稼働状態（ライブネス・レディネス）を返却する DTO です。
+ *
+ * @param status 状態（例: {@code ACCEPTING_TRAFFIC}、{@code REFUSING_TRAFFIC}）
+ */
+public record HealthView(String status) {
+}
@@ -8,6 +8,7 @@ import java.math.BigDecimal;
 public record HoldingView(
         String symbol,
         String exchange,
+        String currency,
         BigDecimal quantity,
         BigDecimal averageCost
 ) {
@@ -0,0 +1,26 @@
+package com.example.stock.web.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.math.BigDecimal;
+
+/**
+ * 口座開設時に他社から移管する保有銘柄を表すDTOです。
+ */
+public record OpeningHoldingRequest(
+        @NotBlank(message = "Symbol is required")
+        String symbol,
+        @NotBlank(message = "Exchange is required")
+        String exchange,
+        @NotNull(message = "Quantity is required")
+        @Positive(message = "Quantity must be positive")
+        BigDecimal quantity,
+        @NotNull(message = "Cost per share is required")
+        @PositiveOrZero(message = "Cost per share cannot be negative")
+        BigDecimal costPerShare,
+        String currency
+) {
+}
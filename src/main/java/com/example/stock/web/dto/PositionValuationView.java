@@ -0,0 +1,17 @@
+package com.example.stock.web.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * 保有銘柄の評価額を返却する DTO です。
+ */
+public record PositionValuationView(
+        String symbol,
+        String exchange,
+        String currency,
+        BigDecimal quantity,
+        BigDecimal costBasis,
+        BigDecimal rate,
+        BigDecimal value
+) {
+}
@@ -0,0 +1,7 @@
+package com.example.stock.web.dto;
+
+/**
+ * 再構築ジョブの処理件数を返却する DTO です。
+ */
+public record RebuildResponse(long processedTransactions) {
+}
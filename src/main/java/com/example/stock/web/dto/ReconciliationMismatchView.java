@@ -0,0 +1,17 @@
+package com.example.stock.web.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * 台帳照合で検出した不一致を返却する DTO です。
+ */
+public record ReconciliationMismatchView(
+        UUID accountId,
+        String type,
+        Long transactionId,
+        String symbol,
+        BigDecimal expected,
+        BigDecimal actual
+) {
+}
@@ -0,0 +1,19 @@
+package com.example.stock.web.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 台帳照合の実行結果を返却する DTO です。
+ */
+public record ReconciliationReportView(
+        boolean full,
+        Instant startedAt,
+        long elapsedMillis,
+        int accounts,
+        int mismatchedAccounts,
+        long transactions,
+        int mismatchCount,
+        List<ReconciliationMismatchView> mismatches
+) {
+}
@@ -0,0 +1,17 @@
+package com.example.stock.web.dto;
+
+import java.time.Instant;
+
+/**
+ * 変更ログによるレプリケーションの状態を返却する DTO です。
+ */
+public record ReplicationView(
+        String role,
+        String changeLog,
+        long sequence,
+        Long logOffset,
+        Instant lastCommittedAt,
+        Long stalenessMillis,
+        String lastError
+) {
+}
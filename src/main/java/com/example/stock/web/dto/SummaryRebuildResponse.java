@@ -0,0 +1,7 @@
+package com.example.stock.web.dto;
+
+/**
+ * 口座の読み取りモデルを再構築したアカウント数を返却する DTO です。
+ */
+public record SummaryRebuildResponse(long rebuiltAccounts) {
+}
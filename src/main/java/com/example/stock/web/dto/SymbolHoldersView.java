@@ -0,0 +1,17 @@
+package com.example.stock.web.dto;
+
+import java.util.List;
+
+/**
+ * 銘柄の上位保有者と保有者間の集中度を返却する DTO です。
+ */
+public record SymbolHoldersView(
+        String symbol,
+        int holderCount,
+        double quantity,
+        double costBasis,
+        double topShare,
+        double herfindahl,
+        List<ExposureHolderView> holders
+) {
+}
@@ -0,0 +1,14 @@
+package com.example.stock.web.dto;
+
+/**
+ * 銘柄マスタの銘柄を返却するDTOです。
+ */
+public record SymbolView(
+        int id,
+        String symbol,
+        String exchange,
+        String currency,
+        int lotSize,
+        String name
+) {
+}
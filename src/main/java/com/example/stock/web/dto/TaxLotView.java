@@ -0,0 +1,14 @@
+package com.example.stock.web.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * 未売却の税務ロットを返却する DTO です。
+ */
+public record TaxLotView(
+        BigDecimal quantity,
+        BigDecimal costPerShare,
+        Instant acquiredAt
+) {
+}
@@ -0,0 +1,17 @@
+package com.example.stock.web.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * 複数の取引を一括で約定させるリクエストを表すDTOです。
+ */
+public record TradeBatchRequest(
+        @NotEmpty(message = "Trades are required")
+        @Size(max = 500, message = "Trades must not exceed 500")
+        List<@Valid TradeRequest> trades
+) {
+}
@@ -22,6 +22,7 @@ public record TradeRequest(
         BigDecimal quantity,
         @NotNull(message = "Price per share is required")
         @DecimalMin(value = "0.0001", message = "Price per share must be positive")
-        BigDecimal pricePerShare
+        BigDecimal pricePerShare,
+        String currency
 ) {
 }
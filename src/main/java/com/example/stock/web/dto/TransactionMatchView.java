@@ -0,0 +1,30 @@
+package com.example.stock.web.dto;
+
+import com.example.stock.model.TradeSide;
+import com.example.stock.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 取引検索に一致したトランザクションを、アカウント ID とともに返却する DTO です。
+ */
+public record TransactionMatchView(
+        Long id,
+        UUID accountId,
+        TransactionType type,
+        TradeSide tradeSide,
+        String symbol,
+        String exchange,
+        BigDecimal quantity,
+        BigDecimal pricePerShare,
+        String currency,
+        BigDecimal fxRate,
+        BigDecimal cashAmount,
+        BigDecimal grossAmount,
+        BigDecimal cashBalanceAfter,
+        BigDecimal realizedPnl,
+        Instant occurredAt
+) {
+}
@@ -0,0 +1,12 @@
+package com.example.stock.web.dto;
+
+import java.util.List;
+
+/**
+ * 取引検索の結果の 1 ページを返却する DTO です。
+ */
+public record TransactionSearchView(
+        List<TransactionMatchView> transactions,
+        String nextCursor
+) {
+}
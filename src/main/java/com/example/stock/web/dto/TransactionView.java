@@ -17,9 +17,12 @@ public record TransactionView(
         String exchange,
         BigDecimal quantity,
         BigDecimal pricePerShare,
+        String currency,
+        BigDecimal fxRate,
         BigDecimal cashAmount,
         BigDecimal grossAmount,
         BigDecimal cashBalanceAfter,
+        BigDecimal realizedPnl,
         Instant occurredAt
 ) {
 }
@@ -0,0 +1,20 @@
+package com.example.stock.web.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 口座の評価結果を返却する DTO です。
+ */
+public record ValuationView(
+        UUID accountId,
+        String currency,
+        Instant ratesAsOf,
+        BigDecimal cashValue,
+        BigDecimal holdingsValue,
+        BigDecimal totalValue,
+        List<PositionValuationView> positions
+) {
+}
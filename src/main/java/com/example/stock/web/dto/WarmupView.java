@@ -0,0 +1,16 @@
+package com.example.stock.web.dto;
+
+/**
+ * 起動時ウォームアップの実行結果を返却する DTO です。
+ */
+public record WarmupView(
+        boolean enabled,
+        boolean completed,
+        boolean stabilized,
+        int rounds,
+        long cycles,
+        long elapsedMillis,
+        double firstCycleMillis,
+        double lastCycleMillis
+) {
+}
@@ -0,0 +1,17 @@
+package com.example.stock.web.dto;
+
+/**
+ * 更新系処理の同時実行数リミッターの状態を返却する DTO です。
+ */
+public record WriteLimiterView(
+        boolean enabled,
+        int limit,
+        int inFlight,
+        int minLimit,
+        int maxLimit,
+        double latencyThresholdMillis,
+        double lastLatencyMillis,
+        long accepted,
+        long rejected
+) {
+}
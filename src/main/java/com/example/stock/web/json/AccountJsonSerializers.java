@@ -0,0 +1,125 @@
+package com.example.stock.web.json;
+
+import com.example.stock.web.dto.AccountSummary;
+import com.example.stock.web.dto.HoldingView;
+import com.example.stock.web.dto.TransactionView;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 口座一覧や取引履歴で大量に出力される DTO 向けの専用シリアライザーです。
+ * <p>
+ * リフレクションによるプロパティ走査を行わず、フィールドを固定順で直接書き込みます。
+ * 出力される JSON は既定のシリアライザーと同一です。
+ */
+@JsonComponent
+public class AccountJsonSerializers {
+
+    /**
+     * {@link AccountSummary} のシリアライザーです。
+     */
+    public static class AccountSummarySerializer extends StdSerializer<AccountSummary> {
+
+        public AccountSummarySerializer() {
+            super(AccountSummary.class);
+        }
+
+        @Override
+        public void serialize(AccountSummary value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            JsonWriters.writeString(gen, "id", value.id() == null ? null : value.id().toString());
+            JsonWriters.writeString(gen, "ownerName", value.ownerName());
+            JsonWriters.writeDecimal(gen, "cashBalance", value.cashBalance());
+            JsonWriters.writeString(gen, "cashCurrency", value.cashCurrency());
+            JsonWriters.writeString(gen, "baseCurrency", value.baseCurrency());
+            JsonWriters.writeEnum(gen, "costBasisMethod", value.costBasisMethod());
+            JsonWriters.writeDecimal(gen, "realizedPnl", value.realizedPnl());
+            gen.writeFieldName("holdings");
+            List<HoldingView> holdings = value.holdings();
+            if (holdings == null) {
+                gen.writeNull();
+            } else {
+                gen.writeStartArray();
+                for (HoldingView holding : holdings) {
+                    HoldingViewSerializer.writeHolding(holding, gen);
+                }
+                gen.writeEndArray();
+            }
+            gen.writeNumberField("holdingCount", value.holdingCount());
+            JsonWriters.writeDecimal(gen, "totalCostBasis", value.totalCostBasis());
+            JsonWriters.writeInstant(gen, "createdAt", value.createdAt());
+            JsonWriters.writeInstant(gen, "lastActivityAt", value.lastActivityAt());
+            gen.writeEndObject();
+        }
+    }
+
+    /**
+     * {@link HoldingView} のシリアライザーです。
+     */
+    public static class HoldingViewSerializer extends StdSerializer<HoldingView> {
+
+        public HoldingViewSerializer() {
+            super(HoldingView.class);
+        }
+
+        @Override
+        public void serialize(HoldingView value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            writeHolding(value, gen);
+        }
+
+        static void writeHolding(HoldingView value, JsonGenerator gen) throws IOException {
+            if (value == null) {
+                gen.writeNull();
+                return;
+            }
+            gen.writeStartObject();
+            JsonWriters.writeString(gen, "symbol", value.symbol());
+            JsonWriters.writeString(gen, "exchange", value.exchange());
+            JsonWriters.writeString(gen, "currency", value.currency());
+            JsonWriters.writeDecimal(gen, "quantity", value.quantity());
+            JsonWriters.writeDecimal(gen, "averageCost", value.averageCost());
+            gen.writeEndObject();
+        }
+    }
+
+    /**
+     * {@link TransactionView} のシリアライザーです。
+     */
+    public static class TransactionViewSerializer extends StdSerializer<TransactionView> {
+
+        public TransactionViewSerializer() {
+            super(TransactionView.class);
+        }
+
+        @Override
+        public void serialize(TransactionView value, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            gen.writeStartObject();
+            gen.writeFieldName("id");
+            if (value.id() == null) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(value.id());
+            }
+            JsonWriters.writeEnum(gen, "type", value.type());
+            JsonWriters.writeEnum(gen, "tradeSide", value.tradeSide());
+            JsonWriters.writeString(gen, "symbol", value.symbol());
+            JsonWriters.writeString(gen, "exchange", value.exchange());
+            JsonWriters.writeDecimal(gen, "quantity", value.quantity());
+            JsonWriters.writeDecimal(gen, "pricePerShare", value.pricePerShare());
+            JsonWriters.writeString(gen, "currency", value.currency());
+            JsonWriters.writeDecimal(gen, "fxRate", value.fxRate());
+            JsonWriters.writeDecimal(gen, "cashAmount", value.cashAmount());
+            JsonWriters.writeDecimal(gen, "grossAmount", value.grossAmount());
+            JsonWriters.writeDecimal(gen, "cashBalanceAfter", value.cashBalanceAfter());
+            JsonWriters.writeDecimal(gen, "realizedPnl", value.realizedPnl());
+            JsonWriters.writeInstant(gen, "occurredAt", value.occurredAt());
+            gen.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.stock.web.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * 金額・日時などの値を中間文字列を生成せずに {@link JsonGenerator} へ書き込むユーティリティです。
+ * <p>
+ * 出力形式は Spring Boot 既定の Jackson 設定（{@code BigDecimal#toString}、ISO-8601 の UTC 文字列）と同一です。
+ */
+final class JsonWriters {
+
+    private static final long SECONDS_PER_DAY = 86_400;
+    private static final int MAX_INSTANT_LENGTH = 30;
+    private static final ThreadLocal<char[]> BUFFERS = ThreadLocal.withInitial(() -> new char[MAX_INSTANT_LENGTH]);
+
+    private JsonWriters() {
+    }
+
+    /**
+     * 文字列フィールドを書き込みます（{@code null} は JSON の null として出力）。
+     */
+    static void writeString(JsonGenerator gen, String name, String value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value);
+        }
+    }
+
+    /**
+     * 列挙型フィールドを定数名で書き込みます。
+     */
+    static void writeEnum(JsonGenerator gen, String name, Enum<?> value) throws IOException {
+        writeString(gen, name, value == null ? null : value.name());
+    }
+
+    /**
+     * 数値フィールドを書き込みます。スケール 0 で long に収まる値は文字列化せずに書き込みます。
+     */
+    static void writeDecimal(JsonGenerator gen, String name, BigDecimal value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else if (value.scale() == 0 && value.precision() < 19) {
+            gen.writeNumber(value.longValue());
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    /**
+     * 日時フィールドを {@code 2024-05-01T09:30:15.123Z} 形式で書き込みます。
+     * 小数秒は {@link Instant#toString()} と同様に 0・3・6・9 桁のいずれかで出力します。
+     */
+    static void writeInstant(JsonGenerator gen, String name, Instant value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+            return;
+        }
+        long epochSecond = value.getEpochSecond();
+        long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+
+        // Howard Hinnant の civil_from_days アルゴリズムで暦日へ変換する
+        long z = epochDay + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthIndex = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+        int month = (int) (monthIndex < 10 ? monthIndex + 3 : monthIndex - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9999) {
+            gen.writeString(value.toString());
+            return;
+        }
+
+        char[] buffer = BUFFERS.get();
+        int pos = writeDigits(buffer, 0, (int) year, 4);
+        buffer[pos++] = '-';
+        pos = writeDigits(buffer, pos, month, 2);
+        buffer[pos++] = '-';
+        pos = writeDigits(buffer, pos, day, 2);
+        buffer[pos++] = 'T';
+        pos = writeDigits(buffer, pos, secondOfDay / 3600, 2);
+        buffer[pos++] = ':';
+        pos = writeDigits(buffer, pos, secondOfDay / 60 % 60, 2);
+        buffer[pos++] = ':';
+        pos = writeDigits(buffer, pos, secondOfDay % 60, 2);
+        int nano = value.getNano();
+        if (nano > 0) {
+            buffer[pos++] = '.';
+            if (nano % 1_000_000 == 0) {
+                pos = writeDigits(buffer, pos, nano / 1_000_000, 3);
+            } else if (nano % 1_000 == 0) {
+                pos = writeDigits(buffer, pos, nano / 1_000, 6);
+            } else {
+                pos = writeDigits(buffer, pos, nano, 9);
+            }
+        }
+        buffer[pos++] = 'Z';
+        gen.writeString(buffer, 0, pos);
+    }
+
+    private static int writeDigits(char[] buffer, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return offset + width;
+    }
+}
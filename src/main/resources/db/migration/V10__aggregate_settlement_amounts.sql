@@ -0,0 +1,4 @@
+-- 日次集計の約定金額を、取引ごとに通貨が異なる約定金額の合計から現金残高の通貨建ての受渡金額の合計へ置き換えます。
+-- 集計行は売買区分ごとに分かれ、行内の現金増減額はすべて同じ符号のため、合計の絶対値がそのまま受渡金額の合計になります。
+
+update daily_account_aggregates set gross_amount = abs(cash_amount) where type = 'TRADE';
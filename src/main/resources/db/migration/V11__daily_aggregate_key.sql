@@ -0,0 +1,35 @@
+-- 日次集計行をアカウント・営業日・取引種別・売買区分ごとに 1 行へ制約し、加算を upsert で行えるようにします。
+-- 売買以外の行は売買区分が NULL のため、NULL 同士も同じキーとして扱うよう ifnull(trade_side, '') で索引を張ります。
+-- 索引の作成前に、同じキーの重複行を最小の id の行へ合算して削除します。
+
+update daily_account_aggregates
+set transaction_count = (select sum(d.transaction_count) from daily_account_aggregates d
+                         where d.account_id = daily_account_aggregates.account_id
+                           and d.business_date = daily_account_aggregates.business_date
+                           and d.type = daily_account_aggregates.type
+                           and d.trade_side is daily_account_aggregates.trade_side),
+    cash_amount = (select sum(d.cash_amount) from daily_account_aggregates d
+                   where d.account_id = daily_account_aggregates.account_id
+                     and d.business_date = daily_account_aggregates.business_date
+                     and d.type = daily_account_aggregates.type
+                     and d.trade_side is daily_account_aggregates.trade_side),
+    gross_amount = (select sum(d.gross_amount) from daily_account_aggregates d
+                    where d.account_id = daily_account_aggregates.account_id
+                      and d.business_date = daily_account_aggregates.business_date
+                      and d.type = daily_account_aggregates.type
+                      and d.trade_side is daily_account_aggregates.trade_side),
+    quantity = (select sum(d.quantity) from daily_account_aggregates d
+                where d.account_id = daily_account_aggregates.account_id
+                  and d.business_date = daily_account_aggregates.business_date
+                  and d.type = daily_account_aggregates.type
+                  and d.trade_side is daily_account_aggregates.trade_side)
+where id in (select min(id) from daily_account_aggregates
+             group by account_id, business_date, type, trade_side
+             having count(*) > 1);
+
+delete from daily_account_aggregates
+where id not in (select min(id) from daily_account_aggregates
+                 group by account_id, business_date, type, trade_side);
+
+create unique index if not exists ux_daily_aggregates_key
+    on daily_account_aggregates (account_id, business_date, type, ifnull(trade_side, ''));
@@ -0,0 +1,12 @@
+-- アクセスログの取り込み時は分バケットだけを更新し、時・日のバケットは分バケットを定期的にまとめて作成します。
+-- compacted_until（エポックミリ秒）より前の分バケットは時・日のバケットへ反映済みであることを表します。
+-- 移行前は取り込み時に全粒度を更新していたため、移行時点の次の分の境界までを反映済みとして記録します。
+
+create table if not exists access_log_rollup_state (
+    id integer not null check (id = 1),
+    compacted_until integer not null,
+    primary key (id)
+);
+
+insert or ignore into access_log_rollup_state (id, compacted_until)
+values (1, (cast(strftime('%s', 'now') as integer) / 60 + 1) * 60000);
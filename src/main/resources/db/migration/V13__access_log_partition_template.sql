@@ -0,0 +1,17 @@
+-- アクセスログの月パーティション（access_logs_yyyyMM）の定義元となるテンプレートテーブルです。
+-- 実行時に新しい月のパーティションを作成する際は、このテーブルと索引の定義を sqlite_master から読み出し、
+-- テーブル名を置き換えて実行します。パーティションの列や索引を変更する場合はこのテンプレートを移行してください。
+-- テンプレート自体には行を保存しません。
+
+create table if not exists access_logs_template (
+    id text primary key,
+    page_id integer not null,
+    path_id integer not null,
+    ip_address_id integer not null,
+    user_agent_id integer,
+    accessed_at integer not null
+);
+
+create index if not exists idx_access_logs_template_accessed_at on access_logs_template (accessed_at);
+
+create index if not exists idx_access_logs_template_page_accessed_at on access_logs_template (page_id, accessed_at);
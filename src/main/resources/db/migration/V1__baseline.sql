@@ -0,0 +1,75 @@
+-- ddl-auto: update で作成されていたスキーマをそのまま記録したベースラインです。
+-- 既存のデータベースにも適用できるよう、すべて if not exists で作成します。
+
+create table if not exists accounts (
+    id TEXT not null,
+    cash_balance numeric(19,4) not null,
+    change_count bigint,
+    cost_basis_method varchar(16) check (cost_basis_method in ('FIFO','AVERAGE_COST')),
+    created_at timestamp not null,
+    owner_name varchar(255) not null,
+    realized_pnl numeric(19,4),
+    primary key (id)
+);
+
+create table if not exists holdings (
+    id integer,
+    average_cost numeric(19,6) not null,
+    exchange varchar(255) not null,
+    quantity numeric(19,6) not null,
+    symbol varchar(255) not null,
+    account_id TEXT not null,
+    primary key (id)
+);
+
+create table if not exists tax_lots (
+    id integer,
+    acquired_at timestamp not null,
+    cost_per_share numeric(19,6) not null,
+    quantity numeric(19,6) not null,
+    holding_id bigint not null,
+    primary key (id)
+);
+
+create table if not exists transactions (
+    id integer,
+    cash_amount numeric(19,4) not null,
+    cash_balance_after numeric(19,4) not null,
+    exchange varchar(255),
+    gross_amount numeric(19,4),
+    occurred_at timestamp not null,
+    price_per_share numeric(19,6),
+    quantity numeric(19,6),
+    realized_pnl numeric(19,4),
+    symbol varchar(255),
+    trade_side varchar(8) check (trade_side in ('BUY','SELL')),
+    type varchar(32) not null check (type in ('DEPOSIT','WITHDRAWAL','TRADE')),
+    account_id TEXT not null,
+    primary key (id)
+);
+
+create table if not exists daily_account_aggregates (
+    id integer,
+    account_id TEXT not null,
+    business_date date not null,
+    cash_amount numeric(19,4) not null,
+    gross_amount numeric(19,4) not null,
+    quantity numeric(19,6) not null,
+    trade_side varchar(8) check (trade_side in ('BUY','SELL')),
+    transaction_count bigint not null,
+    type varchar(32) not null check (type in ('DEPOSIT','WITHDRAWAL','TRADE')),
+    primary key (id)
+);
+
+create index if not exists idx_daily_aggregates_account_date
+    on daily_account_aggregates (account_id, business_date);
+
+create table if not exists access_log_rollups (
+    id integer,
+    bucket_start timestamp not null,
+    granularity varchar(8) not null check (granularity in ('MINUTE','HOUR','DAY')),
+    hits bigint not null,
+    page varchar(100) not null,
+    unique_ip_sketch BLOB not null,
+    primary key (id)
+);
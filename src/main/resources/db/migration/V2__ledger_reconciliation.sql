@@ -0,0 +1,14 @@
+-- 台帳照合ジョブがアカウントごとに取引を発生順で読み進めるための索引と、照合済み位置のチェックポイントです。
+
+create index if not exists idx_transactions_account_occurred
+    on transactions (account_id, occurred_at, id);
+
+create table if not exists reconciliation_checkpoints (
+    account_id TEXT not null,
+    last_transaction_id bigint not null,
+    transaction_count bigint not null,
+    cash_balance TEXT not null,
+    holding_quantities TEXT not null,
+    reconciled_at timestamp not null,
+    primary key (account_id)
+);
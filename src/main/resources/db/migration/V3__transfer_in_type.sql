@@ -0,0 +1,57 @@
+-- 取引種別に TRANSFER_IN（他社からの株式の入庫）を追加します。
+-- SQLite は CHECK 制約を変更できないため、transactions と daily_account_aggregates を作り直してデータを移します。
+
+create table transactions_v3 (
+    id integer,
+    cash_amount numeric(19,4) not null,
+    cash_balance_after numeric(19,4) not null,
+    exchange varchar(255),
+    gross_amount numeric(19,4),
+    occurred_at timestamp not null,
+    price_per_share numeric(19,6),
+    quantity numeric(19,6),
+    realized_pnl numeric(19,4),
+    symbol varchar(255),
+    trade_side varchar(8) check (trade_side in ('BUY','SELL')),
+    type varchar(32) not null check (type in ('DEPOSIT','WITHDRAWAL','TRADE','TRANSFER_IN')),
+    account_id TEXT not null,
+    primary key (id)
+);
+
+insert into transactions_v3 (id, cash_amount, cash_balance_after, exchange, gross_amount, occurred_at,
+                             price_per_share, quantity, realized_pnl, symbol, trade_side, type, account_id)
+select id, cash_amount, cash_balance_after, exchange, gross_amount, occurred_at,
+       price_per_share, quantity, realized_pnl, symbol, trade_side, type, account_id
+from transactions;
+
+drop table transactions;
+
+alter table transactions_v3 rename to transactions;
+
+create index if not exists idx_transactions_account_occurred
+    on transactions (account_id, occurred_at, id);
+
+create table daily_account_aggregates_v3 (
+    id integer,
+    account_id TEXT not null,
+    business_date date not null,
+    cash_amount numeric(19,4) not null,
+    gross_amount numeric(19,4) not null,
+    quantity numeric(19,6) not null,
+    trade_side varchar(8) check (trade_side in ('BUY','SELL')),
+    transaction_count bigint not null,
+    type varchar(32) not null check (type in ('DEPOSIT','WITHDRAWAL','TRADE','TRANSFER_IN')),
+    primary key (id)
+);
+
+insert into daily_account_aggregates_v3 (id, account_id, business_date, cash_amount, gross_amount, quantity,
+                                         trade_side, transaction_count, type)
+select id, account_id, business_date, cash_amount, gross_amount, quantity, trade_side, transaction_count, type
+from daily_account_aggregates;
+
+drop table daily_account_aggregates;
+
+alter table daily_account_aggregates_v3 rename to daily_account_aggregates;
+
+create index if not exists idx_daily_aggregates_account_date
+    on daily_account_aggregates (account_id, business_date);
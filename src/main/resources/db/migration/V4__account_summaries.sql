@@ -0,0 +1,20 @@
+-- 口座一覧・詳細の参照に使う非正規化した読み取りモデルです。
+-- accounts と holdings から再構築できるため、不整合時は削除して作り直せます。
+
+create table if not exists account_summaries (
+    account_id TEXT not null,
+    owner_name varchar(255) not null,
+    cash_balance TEXT not null,
+    cost_basis_method varchar(16) not null,
+    realized_pnl TEXT not null,
+    change_count bigint not null,
+    holding_count integer not null,
+    total_cost_basis TEXT not null,
+    holdings TEXT not null,
+    created_at timestamp not null,
+    last_activity_at timestamp not null,
+    primary key (account_id)
+);
+
+create index if not exists idx_account_summaries_created
+    on account_summaries (created_at, account_id);
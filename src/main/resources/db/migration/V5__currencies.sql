@@ -0,0 +1,22 @@
+-- 現金残高・保有銘柄・取引に通貨を持たせ、為替レートを保存するテーブルを追加します。
+-- 既存のデータはすべて米ドル建てで記録されていたため、通貨列の既定値は USD とします。
+
+alter table accounts add column cash_currency varchar(3) not null default 'USD';
+alter table accounts add column base_currency varchar(3) not null default 'JPY';
+
+alter table holdings add column currency varchar(3) not null default 'USD';
+
+alter table transactions add column currency varchar(3) not null default 'USD';
+alter table transactions add column fx_rate numeric(19,10);
+
+create table if not exists fx_rates (
+    currency varchar(3) not null,
+    units_per_usd TEXT not null,
+    updated_at integer not null,
+    primary key (currency)
+);
+
+-- 読み取りモデルに通貨を追加します。起動時に件数の不一致から再構築されるよう、既存の行は削除します。
+delete from account_summaries;
+alter table account_summaries add column cash_currency TEXT not null default 'USD';
+alter table account_summaries add column base_currency TEXT not null default 'JPY';
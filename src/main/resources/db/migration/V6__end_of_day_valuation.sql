@@ -0,0 +1,44 @@
+-- 日次の時価評価バッチが使う終値・口座ごとの評価額スナップショット・実行状況のテーブルです。
+-- 日付は ISO 形式（YYYY-MM-DD）の文字列、金額は丸めずに保持するため文字列で保存します。
+
+-- チャンクごとに ID 範囲で保有銘柄を読み出すための索引です。
+create index if not exists idx_holdings_account
+    on holdings (account_id);
+
+create table if not exists closing_prices (
+    business_date TEXT not null,
+    symbol varchar(255) not null,
+    currency varchar(3) not null,
+    price TEXT not null,
+    updated_at integer not null,
+    primary key (business_date, symbol)
+);
+
+create table if not exists equity_snapshots (
+    account_id TEXT not null,
+    business_date TEXT not null,
+    currency varchar(3) not null,
+    cash_balance TEXT not null,
+    market_value TEXT not null,
+    cost_basis TEXT not null,
+    equity TEXT not null,
+    holding_count integer not null,
+    unpriced_holdings integer not null,
+    valued_at integer not null,
+    primary key (account_id, business_date)
+);
+
+create table if not exists end_of_day_runs (
+    business_date TEXT not null,
+    status varchar(16) not null,
+    last_account_id TEXT,
+    accounts_total bigint not null,
+    accounts_valued bigint not null,
+    resumed_accounts bigint not null,
+    chunks_completed bigint not null,
+    unpriced_holdings bigint not null,
+    started_at integer not null,
+    updated_at integer not null,
+    completed_at integer,
+    primary key (business_date)
+);
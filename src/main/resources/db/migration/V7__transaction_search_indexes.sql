@@ -0,0 +1,23 @@
+-- 取引検索の条件ごとに使う複合索引です。
+-- いずれも等価条件の列を先頭に置き、並び順の (occurred_at, id) を末尾に置くことで、
+-- 条件に一致する範囲だけを新しい順に読み、LIMIT に達した時点で打ち切れるようにしています。
+-- アカウント単位の検索は V2 の idx_transactions_account_occurred (account_id, occurred_at, id) を使います。
+
+create index if not exists idx_transactions_account_symbol
+    on transactions (account_id, symbol, occurred_at, id);
+
+create index if not exists idx_transactions_symbol_occurred
+    on transactions (symbol, occurred_at, id);
+
+create index if not exists idx_transactions_exchange_occurred
+    on transactions (exchange, occurred_at, id);
+
+create index if not exists idx_transactions_type_side
+    on transactions (type, trade_side, occurred_at, id);
+
+create index if not exists idx_transactions_occurred
+    on transactions (occurred_at, id);
+
+-- 金額の範囲検索は入出金の向きによらず絶対値で行うため、式索引を使います。
+create index if not exists idx_transactions_abs_amount
+    on transactions (abs(cash_amount));
@@ -0,0 +1,13 @@
+-- 変更ログによるレプリケーションの位置を記録します。
+-- プライマリはコミットごとに最後に発番した変更ログの連番を、フォロワーは適用済みの連番と変更ログの読み取り位置を保存します。
+-- プライマリのファイルを複製してフォロワーを起動した場合は、複製時点の連番の次から適用を始めます。
+
+create table if not exists replication_state (
+    id integer not null check (id = 1),
+    last_seq integer not null,
+    log_offset integer not null,
+    updated_at integer not null,
+    primary key (id)
+);
+
+insert or ignore into replication_state (id, last_seq, log_offset, updated_at) values (1, 0, 0, 0);
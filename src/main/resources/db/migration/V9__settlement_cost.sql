@@ -0,0 +1,15 @@
+-- 実現損益を現金残高の通貨で算出するため、受渡時点のレートで換算した取得単価を保有銘柄と税務ロットに追加します。
+-- 現金残高と同じ通貨の銘柄は取得単価をそのまま補完します。外貨建ての既存の行は取得時点のレートが残っていないため
+-- null のままとし、売却時点のレートで換算します。
+
+alter table holdings add column average_settlement_cost numeric(19,6);
+alter table tax_lots add column settlement_cost_per_share numeric(19,6);
+
+update holdings set average_settlement_cost = average_cost
+where currency = (select cash_currency from accounts where accounts.id = holdings.account_id);
+
+update tax_lots set settlement_cost_per_share = cost_per_share
+where holding_id in (
+    select holdings.id from holdings join accounts on accounts.id = holdings.account_id
+    where holdings.currency = accounts.cash_currency
+);
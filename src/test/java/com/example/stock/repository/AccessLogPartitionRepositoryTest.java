@@ -0,0 +1,108 @@
+package com.example.stock.repository;
+
+import com.example.stock.model.AccessLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 文字列のまま保存された旧形式のアクセスログが、起動時に符号化形式の月パーティションへ移行されることを検証するテストです。
+ */
+class AccessLogPartitionRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void initializeShouldEncodeLegacyAndTextLayoutTables() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                "jdbc:sqlite:" + directory.resolve("access-logs.db"), true);
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            UUID blobId = UUID.randomUUID();
+            UUID textId = UUID.randomUUID();
+            UUID partitionId = UUID.randomUUID();
+
+            // 単一テーブル時代の access_logs: ID は 16 バイトの BLOB、日時は文字列で保存されています
+            jdbcTemplate.execute("create table access_logs (id blob primary key, page varchar(255), "
+                    + "path varchar(255), ip_address varchar(255), user_agent varchar(255), accessed_at timestamp)");
+            jdbcTemplate.update("insert into access_logs values (?, ?, ?, ?, ?, ?)",
+                    toBytes(blobId), "home", "/", "10.0.0.1", "Legacy", "2004-02-03 04:05:06.789");
+            jdbcTemplate.update("insert into access_logs values (?, ?, ?, ?, ?, ?)",
+                    textId.toString(), "trade", "/trade", "10.0.0.2", null, "2004-02-10T08:00:00Z");
+            // 符号化導入前の月パーティション: 日時はエポックミリ秒で、新形式と同じ名前の索引を持っています
+            jdbcTemplate.execute("create table access_logs_200403 (id text primary key, page varchar(255) not null, "
+                    + "path varchar(255) not null, ip_address varchar(255) not null, user_agent varchar(255), "
+                    + "accessed_at integer not null)");
+            jdbcTemplate.execute("create index idx_access_logs_200403_accessed_at on access_logs_200403 (accessed_at)");
+            jdbcTemplate.update("insert into access_logs_200403 values (?, ?, ?, ?, ?, ?)",
+                    partitionId.toString(), "home", "/", "10.0.0.1", "Partitioned",
+                    Instant.parse("2004-03-01T00:00:00Z").toEpochMilli());
+
+            AccessLogPartitionRepository repository = newRepository(jdbcTemplate, dataSource);
+
+            List<String> tables = jdbcTemplate.queryForList(
+                    "select name from sqlite_master where type = 'table' and name like 'access_logs%'", String.class);
+            assertEquals(List.of("access_logs_200402", "access_logs_200403", "access_logs_template"),
+                    tables.stream().sorted().toList());
+            // パーティションの索引はテンプレートの索引を複製して作成されます
+            assertEquals(List.of("idx_access_logs_200402_accessed_at", "idx_access_logs_200402_page_accessed_at"),
+                    jdbcTemplate.queryForList("select name from sqlite_master where type = 'index' "
+                            + "and tbl_name = 'access_logs_200402' and sql is not null order by name", String.class));
+            assertFalse(jdbcTemplate.queryForList("select name from pragma_table_info('access_logs_200403')",
+                    String.class).contains("page"));
+            assertEquals(List.of(YearMonth.of(2004, 3), YearMonth.of(2004, 2)), repository.findPartitions());
+
+            List<AccessLog> logs = repository.findRecent(null, 10);
+            assertEquals(List.of(partitionId, textId, blobId), logs.stream().map(AccessLog::getId).toList());
+            AccessLog partitioned = logs.get(0);
+            assertEquals("Partitioned", partitioned.getUserAgent());
+            assertEquals(Instant.parse("2004-03-01T00:00:00Z"), partitioned.getAccessedAt());
+            AccessLog withoutUserAgent = logs.get(1);
+            assertEquals("trade", withoutUserAgent.getPage());
+            assertEquals("/trade", withoutUserAgent.getPath());
+            assertNull(withoutUserAgent.getUserAgent());
+            assertEquals(Instant.parse("2004-02-10T08:00:00Z"), withoutUserAgent.getAccessedAt());
+            AccessLog fromBlob = logs.get(2);
+            assertEquals("10.0.0.1", fromBlob.getIpAddress());
+            assertEquals(Instant.parse("2004-02-03T04:05:06.789Z"), fromBlob.getAccessedAt());
+            assertEquals(List.of(partitionId, blobId),
+                    repository.findRecent("home", 10).stream().map(AccessLog::getId).toList());
+            assertEquals(List.of("home", "trade"), repository.findDistinctPages());
+
+            // 移行後に再起動しても行は増えません
+            AccessLogPartitionRepository restarted = newRepository(jdbcTemplate, dataSource);
+            assertEquals(2, restarted.countPartition(YearMonth.of(2004, 2)));
+            assertEquals(1, restarted.countPartition(YearMonth.of(2004, 3)));
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    private static AccessLogPartitionRepository newRepository(JdbcTemplate jdbcTemplate,
+                                                              SingleConnectionDataSource dataSource) {
+        new SchemaMigrator(dataSource).migrate();
+        AccessLogDictionary dictionary = new AccessLogDictionary(jdbcTemplate);
+        dictionary.initialize();
+        AccessLogPartitionRepository repository = new AccessLogPartitionRepository(jdbcTemplate,
+                new DataSourceTransactionManager(dataSource), dictionary);
+        repository.initialize();
+        return repository;
+    }
+
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}
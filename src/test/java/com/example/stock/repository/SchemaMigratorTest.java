@@ -0,0 +1,67 @@
+package com.example.stock.repository;
+
+import com.example.stock.repository.SchemaMigrator.Migration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * スキーマ移行の適用と再実行時の判定を検証するテストです。
+ */
+class SchemaMigratorTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void migrateShouldApplyPendingScriptsOnce() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                "jdbc:sqlite:" + directory.resolve("migration.db"), true);
+        try {
+            SchemaMigrator migrator = new SchemaMigrator(dataSource);
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            int latest = SchemaMigrator.MIGRATIONS.get(SchemaMigrator.MIGRATIONS.size() - 1).version();
+
+            assertEquals(0, migrator.currentVersion());
+            assertEquals(latest, migrator.migrate());
+            assertEquals(latest, migrator.migrate());
+
+            assertEquals(SchemaMigrator.MIGRATIONS.size(),
+                    jdbcTemplate.queryForObject("select count(*) from schema_version", Integer.class));
+            List<String> tables = jdbcTemplate.queryForList(
+                    "select name from sqlite_master where type = 'table'", String.class);
+            assertTrue(tables.containsAll(List.of("accounts", "holdings", "tax_lots", "transactions",
+                    "daily_account_aggregates", "access_log_rollups")), tables.toString());
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    @Test
+    void everyScriptShouldBeRegistered() throws IOException {
+        Resource[] scripts = new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/*.sql");
+
+        List<String> registered = SchemaMigrator.MIGRATIONS.stream()
+                .map(Migration::script)
+                .map(script -> script.substring(script.lastIndexOf('/') + 1))
+                .sorted()
+                .toList();
+        assertEquals(registered, Arrays.stream(scripts).map(Resource::getFilename).sorted().toList());
+        for (int i = 0; i < SchemaMigrator.MIGRATIONS.size(); i++) {
+            Migration migration = SchemaMigrator.MIGRATIONS.get(i);
+            assertEquals(i + 1, migration.version());
+            assertTrue(migration.script().endsWith("/V" + migration.version() + "__" + migration.description()
+                    + ".sql"), migration.script());
+        }
+    }
+}
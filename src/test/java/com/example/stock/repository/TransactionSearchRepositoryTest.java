@@ -0,0 +1,76 @@
+package com.example.stock.repository;
+
+import com.example.stock.model.TradeSide;
+import com.example.stock.model.TransactionType;
+import com.example.stock.repository.TransactionSearchRepository.Criteria;
+import com.example.stock.repository.TransactionSearchRepository.Cursor;
+import com.example.stock.repository.TransactionSearchRepository.Query;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 取引検索のすべての条件の組み合わせが、移行後のスキーマで全件走査にならないことを実行計画で確認するテストです。
+ */
+class TransactionSearchRepositoryTest {
+
+    private static final int FILTERS = 10;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void everyFilterCombinationShouldUseAnIndex() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                "jdbc:sqlite:" + directory.resolve("search.db"), true);
+        try {
+            new SchemaMigrator(dataSource).migrate();
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            List<String> scans = new ArrayList<>();
+            for (int mask = 0; mask < 1 << FILTERS; mask++) {
+                Query query = TransactionSearchRepository.buildQuery(criteria(mask), cursor(mask), 50);
+                List<String> plan = jdbcTemplate.query("explain query plan " + query.sql(),
+                        (rs, rowNum) -> rs.getString("detail"), query.args().toArray());
+                for (String step : plan) {
+                    if (step.startsWith("SCAN") && !step.contains("USING")) {
+                        scans.add(Integer.toBinaryString(mask) + ": " + plan);
+                    }
+                }
+            }
+            assertTrue(scans.isEmpty(), String.join("\n", scans));
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    private static Criteria criteria(int mask) {
+        return new Criteria(
+                has(mask, 0) ? UUID.randomUUID() : null,
+                has(mask, 1) ? "AAPL" : null,
+                has(mask, 2) ? "NASDAQ" : null,
+                has(mask, 3) ? TransactionType.TRADE : null,
+                has(mask, 4) ? TradeSide.BUY : null,
+                has(mask, 5) ? new BigDecimal("100") : null,
+                has(mask, 6) ? new BigDecimal("1000") : null,
+                has(mask, 7) ? Instant.parse("2024-01-01T00:00:00Z") : null,
+                has(mask, 8) ? Instant.parse("2025-01-01T00:00:00Z") : null);
+    }
+
+    private static Cursor cursor(int mask) {
+        return has(mask, 9) ? new Cursor(Instant.parse("2024-06-01T00:00:00Z"), 42) : null;
+    }
+
+    private static boolean has(int mask, int bit) {
+        return (mask & (1 << bit)) != 0;
+    }
+}
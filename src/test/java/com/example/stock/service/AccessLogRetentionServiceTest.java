@@ -0,0 +1,76 @@
+package com.example.stock.service;
+
+import com.example.stock.model.AccessLog;
+import com.example.stock.repository.AccessLogPartitionRepository;
+import com.example.stock.service.AccessLogRetentionService.ArchivedPartition;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 月パーティションへの振り分けと、期限切れパーティションのアーカイブを検証する統合テストです。
+ */
+@SpringBootTest(properties = "app.access-log.archive-dir=target/test-access-log-archive")
+@ActiveProfiles("test")
+class AccessLogRetentionServiceTest {
+
+    @Autowired
+    private AccessLogPartitionRepository repository;
+
+    @Autowired
+    private AccessLogRetentionService retentionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void expiredPartitionIsArchivedAndDropped() throws Exception {
+        YearMonth expired = YearMonth.of(2001, 1);
+        for (int i = 0; i < 3; i++) {
+            repository.save(AccessLog.restore(UUID.randomUUID(), "retention-test", "/index.html", "10.0.0." + i,
+                    "JUnit", Instant.parse("2001-01-1" + i + "T00:00:00Z")));
+        }
+        repository.save(new AccessLog("retention-test", "/index.html", "10.0.0.9", "JUnit"));
+        assertTrue(repository.findPartitions().contains(expired));
+        assertEquals(4, repository.findRecent("retention-test", 10).size());
+        assertEquals("10.0.0.9", repository.findRecent("retention-test", 1).get(0).getIpAddress());
+        assertTrue(repository.findDistinctPages().contains("retention-test"));
+
+        List<ArchivedPartition> archived = retentionService.archiveExpiredPartitions();
+
+        ArchivedPartition archive = archived.stream()
+                .filter(entry -> entry.partition().equals(expired))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(3, archive.rows());
+        assertFalse(repository.findPartitions().contains(expired));
+        assertEquals(1, repository.findRecent("retention-test", 10).size());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(Path.of(archive.file()))), StandardCharsets.UTF_8))) {
+            assertEquals(3, reader.lines().filter(line -> line.contains("retention-test")).count());
+        }
+
+        // アーカイブした月にだけ記録されていた IP は辞書から削除され、ページと稼働中の月の値は残ります
+        assertEquals(List.of("10.0.0.9"), jdbcTemplate.queryForList("select value from access_log_dimensions "
+                + "where kind = 'IP_ADDRESS' and value like '10.0.0.%' order by value", String.class));
+        assertTrue(repository.findDistinctPages().contains("retention-test"));
+        // 削除した値を再び記録すると新しいコードで採番され、参照できます
+        repository.save(new AccessLog("retention-test", "/index.html", "10.0.0.1", "JUnit"));
+        assertEquals("10.0.0.1", repository.findRecent("retention-test", 1).get(0).getIpAddress());
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.stock.service;
+
+import com.example.stock.model.AccessLog;
+import com.example.stock.model.RollupGranularity;
+import com.example.stock.service.AccessLogRollupService.Bucket;
+import com.example.stock.service.AccessLogRollupService.TrafficStats;
+import com.example.stock.web.AdminAccessLogController;
+import com.example.stock.web.dto.AccessLogBucketView;
+import com.example.stock.web.dto.AccessLogStatsView;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 取り込み時に分・時・日のバケットへ集計され、期間内のユニーク IP がバケットをまたいで合算されることを確認する
+ * 統合テストです。
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AccessLogRollupServiceTest {
+
+    private static final String PAGE = "rollup-test";
+
+    @Autowired
+    private AccessLogService accessLogService;
+
+    @Autowired
+    private AccessLogRollupService rollupService;
+
+    @Autowired
+    private AdminAccessLogController adminAccessLogController;
+
+    @Test
+    void logsShouldBeBucketedPerGranularityAndMergeUniqueIps() {
+        save(PAGE, "10.0.0.1", "2002-03-04T10:00:10Z");
+        save(PAGE, "10.0.0.2", "2002-03-04T10:00:50Z");
+        save(PAGE, "10.0.0.1", "2002-03-04T10:01:05Z");
+        save(PAGE, "10.0.0.3", "2002-03-04T11:30:00Z");
+        save("rollup-other", "10.0.0.4", "2002-03-04T10:00:20Z");
+        Instant from = Instant.parse("2002-03-04T00:00:00Z");
+        Instant to = Instant.parse("2002-03-05T00:00:00Z");
+
+        TrafficStats minutes = rollupService.getStats(RollupGranularity.MINUTE, PAGE, from, to);
+        assertEquals(4, minutes.totalHits());
+        // 10.0.0.1 は 2 つの分バケットに現れますが、期間全体では 1 件として数えます
+        assertEquals(3, minutes.uniqueIps());
+        assertEquals(List.of(
+                new Bucket(Instant.parse("2002-03-04T10:00:00Z"), 2, 2),
+                new Bucket(Instant.parse("2002-03-04T10:01:00Z"), 1, 1),
+                new Bucket(Instant.parse("2002-03-04T11:30:00Z"), 1, 1)), minutes.series());
+
+        TrafficStats hours = rollupService.getStats(RollupGranularity.HOUR, PAGE, from, to);
+        assertEquals(List.of(
+                new Bucket(Instant.parse("2002-03-04T10:00:00Z"), 3, 2),
+                new Bucket(Instant.parse("2002-03-04T11:00:00Z"), 1, 1)), hours.series());
+
+        TrafficStats days = rollupService.getStats(RollupGranularity.DAY, PAGE, from, to);
+        assertEquals(List.of(new Bucket(from, 4, 3)), days.series());
+
+        // ページを指定しない場合は全ページのバケットを合算します
+        TrafficStats allPages = rollupService.getStats(RollupGranularity.HOUR, null, from, to);
+        assertEquals(new Bucket(Instant.parse("2002-03-04T10:00:00Z"), 4, 3), allPages.series().get(0));
+    }
+
+    @Test
+    void minuteBucketsShouldBeMergedIntoHoursAndDaysAtQueryAndCompactionTime() {
+        String page = "rollup-compaction";
+        save(page, "10.2.0.1", "2100-01-02T10:00:10Z");
+        save(page, "10.2.0.2", "2100-01-02T10:59:50Z");
+        save(page, "10.2.0.1", "2100-01-02T11:05:00Z");
+        Instant from = Instant.parse("2100-01-02T00:00:00Z");
+        Instant to = Instant.parse("2100-01-03T00:00:00Z");
+        List<Bucket> hours = List.of(
+                new Bucket(Instant.parse("2100-01-02T10:00:00Z"), 2, 2),
+                new Bucket(Instant.parse("2100-01-02T11:00:00Z"), 1, 1));
+
+        // まとめる前は分バケットを問い合わせ時に合算します
+        assertEquals(hours, rollupService.getStats(RollupGranularity.HOUR, page, from, to).series());
+        assertEquals(List.of(new Bucket(from, 3, 2)),
+                rollupService.getStats(RollupGranularity.DAY, page, from, to).series());
+
+        // 11 時台はまだ締まっていないため、10 時台までをまとめます
+        assertTrue(rollupService.compact(Instant.parse("2100-01-02T11:30:00Z")) >= 2);
+        assertEquals(hours, rollupService.getStats(RollupGranularity.HOUR, page, from, to).series());
+        assertEquals(List.of(new Bucket(from, 3, 2)),
+                rollupService.getStats(RollupGranularity.DAY, page, from, to).series());
+
+        // まとめ済みの時間帯に後から届いたログは時・日のバケットへ直接反映します
+        save(page, "10.2.0.3", "2100-01-02T10:30:00Z");
+        rollupService.compact(Instant.parse("2100-01-03T00:00:00Z"));
+        assertEquals(List.of(
+                new Bucket(Instant.parse("2100-01-02T10:00:00Z"), 3, 3),
+                new Bucket(Instant.parse("2100-01-02T11:00:00Z"), 1, 1)),
+                rollupService.getStats(RollupGranularity.HOUR, page, from, to).series());
+        assertEquals(List.of(new Bucket(from, 4, 3)),
+                rollupService.getStats(RollupGranularity.DAY, page, from, to).series());
+    }
+
+    @Test
+    void statsEndpointShouldServeSeriesAndRejectInvalidRanges() {
+        save("rollup-endpoint", "10.1.0.1", "2003-05-06T07:08:09Z");
+        save("rollup-endpoint", "10.1.0.2", "2003-05-06T07:08:30Z");
+
+        AccessLogStatsView view = adminAccessLogController.stats(RollupGranularity.MINUTE, " rollup-endpoint ",
+                Instant.parse("2003-05-06T07:00:00Z"), Instant.parse("2003-05-06T08:00:00Z"));
+        assertEquals("rollup-endpoint", view.page());
+        assertEquals(2, view.totalHits());
+        assertEquals(2, view.uniqueIps());
+        assertEquals(List.of(new AccessLogBucketView(Instant.parse("2003-05-06T07:08:00Z"), 2, 2)), view.series());
+
+        assertThrows(ResponseStatusException.class, () -> adminAccessLogController.stats(RollupGranularity.MINUTE,
+                null, Instant.parse("2003-05-06T08:00:00Z"), Instant.parse("2003-05-06T07:00:00Z")));
+        assertThrows(ResponseStatusException.class, () -> adminAccessLogController.stats(RollupGranularity.MINUTE,
+                null, Instant.parse("2003-05-01T00:00:00Z"), Instant.parse("2003-05-06T00:00:00Z")));
+    }
+
+    private void save(String page, String ipAddress, String accessedAt) {
+        accessLogService.save(AccessLog.restore(UUID.randomUUID(), page, "/" + page, ipAddress, "JUnit",
+                Instant.parse(accessedAt)));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.stock.service;
+
+import com.example.stock.model.Account;
+import com.example.stock.model.TradeSide;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * コミットされた更新でアカウントの更新回数キャッシュが進むことを検証する統合テストです。
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountChangeTrackerTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountChangeTracker changeTracker;
+
+    @Test
+    void committedMutationsAdvanceCachedVersion() {
+        Account account = accountService.createAccount("Etag User", BigDecimal.ZERO);
+        UUID id = account.getId();
+        assertTrue(changeTracker.cachedVersion(id).isEmpty());
+
+        accountService.deposit(id, new BigDecimal("1000"));
+        accountService.executeTrade(id, TradeSide.BUY, "MSFT", "NASDAQ", new BigDecimal("2"), new BigDecimal("300"));
+
+        assertEquals(OptionalLong.of(2), changeTracker.cachedVersion(id));
+        assertEquals(2, accountService.getAccount(id).getChangeCount());
+
+        changeTracker.remember(id, 1);
+        assertEquals(OptionalLong.of(2), changeTracker.cachedVersion(id));
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.stock.service;
+
+import com.example.stock.exception.InvalidAccountOpeningException;
+import com.example.stock.model.Account;
+import com.example.stock.model.CostBasisMethod;
+import com.example.stock.model.Transaction;
+import com.example.stock.model.TransactionType;
+import com.example.stock.service.AccountOnboardingService.Result;
+import com.example.stock.service.AccountOpening.OpeningPosition;
+import com.example.stock.service.DailyAggregateService.ActivitySummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * アカウントの一括開設で口座・保有銘柄・初期取引・日次集計がまとめて保存されることを検証する統合テストです。
+ */
+@SpringBootTest(properties = "app.onboarding.batch-size=2")
+@ActiveProfiles("test")
+@Transactional
+class AccountOnboardingServiceTest {
+
+    @Autowired
+    private AccountOnboardingService onboardingService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private DailyAggregateService dailyAggregateService;
+
+    @Test
+    void openAccountsShouldPersistAccountsHoldingsAndOpeningTransactions() {
+        List<AccountOpening> openings = new ArrayList<>();
+        openings.add(new AccountOpening("Bulk 1", new BigDecimal("1000"), null, List.of()));
+        openings.add(new AccountOpening("Bulk 2", null, CostBasisMethod.AVERAGE_COST, List.of(
+                new OpeningPosition("aapl", "NASDAQ", new BigDecimal("10"), new BigDecimal("150")))));
+        openings.add(new AccountOpening("Bulk 3", new BigDecimal("50"), null, List.of(
+                new OpeningPosition("MSFT", "NASDAQ", new BigDecimal("3"), new BigDecimal("300")),
+                new OpeningPosition("7203", "TSE", new BigDecimal("100"), new BigDecimal("2500")))));
+
+        Result result = onboardingService.openAccounts(openings);
+
+        assertEquals(3, result.accountIds().size());
+        assertEquals(5, result.transactions());
+        assertTrue(result.accountsPerSecond() > 0);
+
+        Account second = accountService.getAccount(result.accountIds().get(1));
+        assertEquals("Bulk 2", second.getOwnerName());
+        assertEquals(CostBasisMethod.AVERAGE_COST, second.getCostBasisMethod());
+        assertEquals(0, second.getCashBalance().signum());
+        assertEquals(0, second.findHolding("AAPL").orElseThrow().getQuantity().compareTo(new BigDecimal("10")));
+        assertEquals(1, accountService.getTaxLots(second.getId(), "AAPL").size());
+
+        UUID thirdId = result.accountIds().get(2);
+        List<Transaction> transactions = accountService.getTransactions(thirdId);
+        assertEquals(3, transactions.size());
+        assertEquals(2, transactions.stream().filter(t -> t.getType() == TransactionType.TRANSFER_IN).count());
+        assertTrue(transactions.stream().allMatch(t -> t.getCashBalanceAfter().compareTo(new BigDecimal("50")) == 0));
+
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        ActivitySummary summary = dailyAggregateService.summarize(thirdId, today.minusDays(1), today);
+        assertEquals(0, summary.netDeposits().compareTo(new BigDecimal("50")));
+        assertEquals(0, summary.tradeCount());
+    }
+
+    @Test
+    void openAccountsShouldRejectAllWhenAnyOpeningIsInvalid() {
+        int before = accountService.getAccounts().size();
+        List<AccountOpening> openings = List.of(
+                new AccountOpening("Valid", new BigDecimal("10"), null, List.of()),
+                new AccountOpening("Invalid", null, null, List.of(
+                        new OpeningPosition("AAPL", "NASDAQ", BigDecimal.ZERO, new BigDecimal("1")))));
+
+        InvalidAccountOpeningException ex = assertThrows(InvalidAccountOpeningException.class,
+                () -> onboardingService.openAccounts(openings));
+        assertTrue(ex.getMessage().startsWith("Account #2: "), ex.getMessage());
+        assertEquals(before, accountService.getAccounts().size());
+    }
+}
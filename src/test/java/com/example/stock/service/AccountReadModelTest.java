@@ -0,0 +1,95 @@
+package com.example.stock.service;
+
+import com.example.stock.exception.InsufficientFundsException;
+import com.example.stock.model.Account;
+import com.example.stock.model.TradeSide;
+import com.example.stock.repository.AccountSummaryRepository;
+import com.example.stock.repository.AccountSummaryRepository.HoldingSummary;
+import com.example.stock.repository.AccountSummaryRepository.Summary;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 口座の読み取りモデルが更新のコミット時に書き込まれ、ロールバックした更新を反映せず、正規化テーブルから再構築できることを確認する統合テストです。
+ * <p>
+ * 読み取りモデルはコミット直前に書き込むため、このテストはデータをコミットした状態で実行します。
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountReadModelTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountReadModel readModel;
+
+    @Autowired
+    private AccountSummaryRepository summaryRepository;
+
+    @Autowired
+    private FxRateCache fxRateCache;
+
+    @Test
+    void summaryShouldFollowCommittedChangesAndSurviveRebuild() {
+        Account account = accountService.createAccount("Read Model User", new BigDecimal("10000"));
+        UUID id = account.getId();
+        Summary created = summaryRepository.find(id).orElseThrow();
+        assertEquals(0, created.cashBalance().compareTo(new BigDecimal("10000")));
+        assertEquals(0, created.holdingCount());
+
+        accountService.deposit(id, new BigDecimal("500"));
+        accountService.executeTrade(id, TradeSide.BUY, "RMODEL", "TSE", new BigDecimal("10"), new BigDecimal("100"));
+        Summary traded = summaryRepository.find(id).orElseThrow();
+        assertEquals(0, traded.cashBalance().compareTo(new BigDecimal("9500")));
+        assertEquals(1, traded.holdingCount());
+        assertEquals(0, traded.totalCostBasis().compareTo(new BigDecimal("1000")));
+        HoldingSummary holding = traded.holdings().get(0);
+        assertEquals("RMODEL", holding.symbol());
+        assertEquals(0, holding.quantity().compareTo(BigDecimal.TEN));
+        assertTrue(traded.changeCount() > created.changeCount());
+        assertFalse(traded.lastActivityAt().isBefore(created.lastActivityAt()));
+
+        assertThrows(InsufficientFundsException.class, () -> accountService.withdraw(id, new BigDecimal("1000000")));
+        assertEquals(traded, summaryRepository.find(id).orElseThrow());
+
+        assertTrue(readModel.rebuild() >= 1);
+        Summary rebuilt = summaryRepository.find(id).orElseThrow();
+        assertEquals(0, rebuilt.cashBalance().compareTo(traded.cashBalance()));
+        assertEquals(traded.changeCount(), rebuilt.changeCount());
+        assertEquals(traded.holdingCount(), rebuilt.holdingCount());
+        assertEquals(0, rebuilt.totalCostBasis().compareTo(traded.totalCostBasis()));
+        assertEquals(summaryRepository.countAccounts(), summaryRepository.count());
+    }
+
+    @Test
+    void costBasisShouldKeepSettlementAmountAcrossFxRateUpdates() {
+        UUID id = accountService.createAccount("Read Model FX User", new BigDecimal("10000")).getId();
+        accountService.executeTrade(id, TradeSide.BUY, "RMFX", "HKEX", new BigDecimal("78"), new BigDecimal("10"),
+                "HKD");
+        // 780 HKD ÷ 7.8
+        Summary bought = summaryRepository.find(id).orElseThrow();
+        assertEquals(0, bought.totalCostBasis().compareTo(new BigDecimal("100")));
+
+        BigDecimal original = fxRateCache.current().getUnitsPerUsd().get("HKD");
+        try {
+            // 取得原価は受渡金額で固定されるため、レートを更新しても行も ETag の元になる更新回数も変わりません
+            fxRateCache.update(Map.of("HKD", new BigDecimal("78")));
+            assertEquals(bought, summaryRepository.find(id).orElseThrow());
+            readModel.rebuild();
+            Summary rebuilt = summaryRepository.find(id).orElseThrow();
+            assertEquals(0, rebuilt.totalCostBasis().compareTo(bought.totalCostBasis()));
+            assertEquals(bought.changeCount(), rebuilt.changeCount());
+        } finally {
+            fxRateCache.update(Map.of("HKD", original));
+        }
+    }
+}
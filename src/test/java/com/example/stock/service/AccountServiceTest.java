@@ -2,19 +2,24 @@ package com.example.stock.service;
 
 import com.example.stock.exception.InsufficientFundsException;
 import com.example.stock.exception.InvalidTradeException;
+import com.example.stock.exception.UnsupportedCurrencyException;
 import com.example.stock.model.Account;
+import com.example.stock.model.CostBasisMethod;
 import com.example.stock.model.Holding;
 import com.example.stock.model.TradeSide;
 import com.example.stock.model.Transaction;
 import com.example.stock.model.TransactionType;
 import com.example.stock.repository.AccountRepository;
+import com.example.stock.repository.FxRateRepository;
 import com.example.stock.repository.TransactionRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.stubbing.Answer;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.math.MathContext;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
@@ -33,6 +38,7 @@ class AccountServiceTest {
     private AccountRepository accountRepository;
     private TransactionRepository transactionRepository;
     private AccountService accountService;
+    private FxRateCache fxRateCache;
     private Map<UUID, Account> store;
 
     @BeforeEach
@@ -40,7 +46,8 @@ class AccountServiceTest {
         store = new HashMap<>();
         accountRepository = mock(AccountRepository.class);
         transactionRepository = mock(TransactionRepository.class);
-        accountService = new AccountService(accountRepository, transactionRepository);
+        fxRateCache = new FxRateCache(mock(FxRateRepository.class), event -> { }, "JPY=150,HKD=7.8");
+        accountService = new AccountService(accountRepository, transactionRepository, event -> { }, fxRateCache);
 
         Answer<Account> saveAnswer = invocation -> {
             Account account = invocation.getArgument(0);
@@ -149,4 +156,98 @@ class AccountServiceTest {
         assertEquals(new BigDecimal("-120"), transaction.getCashAmount());
         assertEquals(new BigDecimal("380"), transaction.getCashBalanceAfter());
     }
+
+    @Test
+    void fifoSellShouldRealizePnlAgainstOldestLots() {
+        Account account = accountService.createAccount("Hana", new BigDecimal("10000"), CostBasisMethod.FIFO);
+        accountService.executeTrade(account.getId(), TradeSide.BUY, "NVDA", "NASDAQ", new BigDecimal("10"), new BigDecimal("100"));
+        accountService.executeTrade(account.getId(), TradeSide.BUY, "NVDA", "NASDAQ", new BigDecimal("10"), new BigDecimal("130"));
+        clearInvocations(transactionRepository);
+        accountService.executeTrade(account.getId(), TradeSide.SELL, "NVDA", "NASDAQ", new BigDecimal("15"), new BigDecimal("140"));
+
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+        verify(transactionRepository).save(captor.capture());
+        // 10 株 × (140 − 100) + 5 株 × (140 − 130)
+        assertEquals(0, captor.getValue().getRealizedPnl().compareTo(new BigDecimal("450")));
+
+        Account updated = accountService.getAccount(account.getId());
+        assertEquals(0, updated.getRealizedPnl().compareTo(new BigDecimal("450")));
+        Holding remaining = updated.findHolding("NVDA").orElseThrow();
+        assertEquals(1, remaining.getLots().size());
+        assertEquals(0, remaining.getLots().get(0).getQuantity().compareTo(new BigDecimal("5")));
+        assertEquals(0, remaining.getAverageCost().compareTo(new BigDecimal("130")));
+    }
+
+    @Test
+    void buyingIntoHoldingWithoutLotsShouldSeedLotFromPreTradeQuantity() {
+        Account account = accountService.createAccount("Kenji", new BigDecimal("10000"), CostBasisMethod.FIFO);
+        accountService.executeTrade(account.getId(), TradeSide.BUY, "NVDA", "NASDAQ", new BigDecimal("10"), new BigDecimal("100"));
+        // ロット導入前に作成された保有銘柄を再現します
+        Holding legacy = accountService.getAccount(account.getId()).findHolding("NVDA").orElseThrow();
+        ReflectionTestUtils.setField(legacy, "lots", new ArrayList<>());
+
+        accountService.executeTrade(account.getId(), TradeSide.BUY, "NVDA", "NASDAQ", new BigDecimal("10"), new BigDecimal("130"));
+
+        Holding holding = accountService.getAccount(account.getId()).findHolding("NVDA").orElseThrow();
+        assertEquals(0, holding.getQuantity().compareTo(new BigDecimal("20")));
+        assertEquals(0, holding.getAverageCost().compareTo(new BigDecimal("115")));
+        assertEquals(2, holding.getLots().size());
+        assertEquals(0, holding.getLots().get(0).getQuantity().compareTo(new BigDecimal("10")));
+        assertEquals(0, holding.getLots().get(0).getCostPerShare().compareTo(new BigDecimal("100")));
+        assertEquals(0, holding.getLots().stream().map(lot -> lot.getQuantity())
+                .reduce(BigDecimal.ZERO, BigDecimal::add).compareTo(holding.getQuantity()));
+    }
+
+    @Test
+    void averageCostSellShouldRealizePnlAgainstAverageCost() {
+        Account account = accountService.createAccount("Ivan", new BigDecimal("10000"), CostBasisMethod.AVERAGE_COST);
+        accountService.executeTrade(account.getId(), TradeSide.BUY, "NVDA", "NASDAQ", new BigDecimal("10"), new BigDecimal("100"));
+        accountService.executeTrade(account.getId(), TradeSide.BUY, "NVDA", "NASDAQ", new BigDecimal("10"), new BigDecimal("130"));
+        accountService.executeTrade(account.getId(), TradeSide.SELL, "NVDA", "NASDAQ", new BigDecimal("15"), new BigDecimal("140"));
+
+        Account updated = accountService.getAccount(account.getId());
+        // 15 株 × (140 − 115)
+        assertEquals(0, updated.getRealizedPnl().compareTo(new BigDecimal("375")));
+        assertEquals(0, updated.findHolding("NVDA").orElseThrow().getAverageCost().compareTo(new BigDecimal("115")));
+    }
+
+    @Test
+    void foreignCurrencyTradeShouldSettleCashAtCachedRate() {
+        Account account = accountService.createAccount("Judy", new BigDecimal("10000"));
+        accountService.executeTrade(account.getId(), TradeSide.BUY, "0700", "HKEX", new BigDecimal("78"),
+                new BigDecimal("10"), "hkd");
+
+        Account updated = accountService.getAccount(account.getId());
+        // 780 HKD ÷ 7.8
+        assertEquals(0, updated.getCashBalance().compareTo(new BigDecimal("9900")));
+        assertEquals("HKD", updated.findHolding("0700").orElseThrow().getCurrency());
+        assertThrows(InvalidTradeException.class, () -> accountService.executeTrade(account.getId(), TradeSide.SELL,
+                "0700", "HKEX", new BigDecimal("1"), new BigDecimal("10"), "USD"));
+        assertThrows(UnsupportedCurrencyException.class, () -> accountService.executeTrade(account.getId(),
+                TradeSide.BUY, "SAP", "XETRA", new BigDecimal("1"), new BigDecimal("10"), "CHF"));
+    }
+
+    @Test
+    void foreignCurrencySellShouldRealizeFxMoveInCashCurrency() {
+        Account fifo = accountService.createAccount("Ken", new BigDecimal("10000"));
+        Account average = accountService.createAccount("Lena", new BigDecimal("10000"), CostBasisMethod.AVERAGE_COST);
+        for (Account account : new Account[]{fifo, average}) {
+            accountService.executeTrade(account.getId(), TradeSide.BUY, "0700", "HKEX", new BigDecimal("78"),
+                    new BigDecimal("10"), "HKD");
+        }
+        assertEquals(0, fifo.findHolding("0700").orElseThrow().getAverageSettlementCost()
+                .compareTo(new BigDecimal("10").divide(new BigDecimal("7.8"), new MathContext(12))));
+
+        // 香港ドル高で 1 USD = 7.0 HKD になった後、同じ価格で売却します
+        fxRateCache.update(Map.of("JPY", new BigDecimal("150"), "HKD", new BigDecimal("7.0")));
+        for (Account account : new Account[]{fifo, average}) {
+            accountService.executeTrade(account.getId(), TradeSide.SELL, "0700", "HKEX", new BigDecimal("78"),
+                    new BigDecimal("10"), "HKD");
+
+            Account updated = accountService.getAccount(account.getId());
+            // 780 HKD ÷ 7.0 − 780 HKD ÷ 7.8 = 111.4286 − 100
+            assertEquals(0, updated.getRealizedPnl().compareTo(new BigDecimal("11.4286")));
+            assertEquals(0, updated.getCashBalance().compareTo(new BigDecimal("10011.4286")));
+        }
+    }
 }
@@ -0,0 +1,137 @@
+package com.example.stock.service;
+
+import com.example.stock.exception.InsufficientFundsException;
+import com.example.stock.model.AccessLog;
+import com.example.stock.model.TradeSide;
+import com.example.stock.repository.ReplicationRepository;
+import com.example.stock.repository.ReplicationRepository.AccountImage;
+import com.example.stock.repository.SchemaMigrator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * プライマリが書き出した変更ログを別のデータベースへ適用し、アカウントと取引が同じ行として複製されることを確認する
+ * 統合テストです。
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ChangeLogReplicationTest {
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void replicationProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.replication.role", () -> "primary");
+        registry.add("app.replication.change-log", () -> directory.resolve("change.log").toString());
+    }
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccessLogService accessLogService;
+
+    @Autowired
+    private ReplicationRepository primary;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void changeLogShouldReproduceCommittedAccountsOnFollower() throws IOException {
+        UUID id = accountService.createAccount("Replicated Holder", new BigDecimal("5000")).getId();
+        accountService.executeTrade(id, TradeSide.BUY, "AAPL", "NASDAQ", new BigDecimal("10"), new BigDecimal("150"));
+        accountService.executeTrade(id, TradeSide.BUY, "AAPL", "NASDAQ", new BigDecimal("5"), new BigDecimal("160"));
+        accountService.executeTrade(id, TradeSide.SELL, "AAPL", "NASDAQ", new BigDecimal("12"), new BigDecimal("170"));
+        int committed = readChangeLog().size();
+        assertThrows(InsufficientFundsException.class, () -> accountService.withdraw(id, new BigDecimal("100000")));
+        accessLogService.save(new AccessLog("replication", "/replication", "127.0.0.1", "JUnit"));
+
+        List<ChangeSet> changeSets = readChangeLog();
+        // ロールバックした出金は変更ログに残らず、アクセスログの保存が続く連番で記録されます
+        assertEquals(committed + 1, changeSets.size());
+        for (int i = 1; i < changeSets.size(); i++) {
+            assertEquals(changeSets.get(i - 1).seq() + 1, changeSets.get(i).seq());
+        }
+        assertEquals(1, changeSets.get(changeSets.size() - 1).accessLogs().size());
+
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                "jdbc:sqlite:" + directory.resolve("follower.db"), true);
+        try {
+            new SchemaMigrator(dataSource).migrate();
+            ReplicationRepository follower = new ReplicationRepository(new JdbcTemplate(dataSource));
+            // 同じ変更を 2 回適用しても結果は変わりません
+            for (int round = 0; round < 2; round++) {
+                for (ChangeSet changeSet : changeSets) {
+                    changeSet.accounts().forEach(follower::applyAccountImage);
+                    follower.applyTransactions(changeSet.transactions());
+                }
+            }
+
+            AccountImage expected = primary.findAccountImage(id).orElseThrow();
+            AccountImage actual = follower.findAccountImage(id).orElseThrow();
+            assertRowsEqual(List.of(expected.account()), List.of(actual.account()));
+            assertRowsEqual(expected.holdings(), actual.holdings());
+            assertRowsEqual(expected.taxLots(), actual.taxLots());
+            assertRowsEqual(List.of(expected.summary()), List.of(actual.summary()));
+            byte[] accountId = (byte[]) expected.account().get("id");
+            List<Map<String, Object>> expectedTransactions = transactionsOf(primary, accountId);
+            assertEquals(4, expectedTransactions.size());
+            assertRowsEqual(expectedTransactions, transactionsOf(follower, accountId));
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    private List<ChangeSet> readChangeLog() throws IOException {
+        return Files.readAllLines(directory.resolve("change.log")).stream()
+                .map(line -> ChangeSet.decode(objectMapper, line))
+                .toList();
+    }
+
+    private static List<Map<String, Object>> transactionsOf(ReplicationRepository repository, byte[] accountId) {
+        return repository.findTransactionsAfter(0).stream()
+                .filter(row -> Arrays.equals(accountId, (byte[]) row.get("account_id")))
+                .toList();
+    }
+
+    private static void assertRowsEqual(List<Map<String, Object>> expected, List<Map<String, Object>> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Map<String, Object> expectedRow = expected.get(i);
+            Map<String, Object> actualRow = actual.get(i);
+            assertEquals(expectedRow.keySet(), actualRow.keySet());
+            for (String column : expectedRow.keySet()) {
+                Object expectedValue = expectedRow.get(column);
+                Object actualValue = actualRow.get(column);
+                if (expectedValue instanceof byte[] bytes) {
+                    assertArrayEquals(bytes, (byte[]) actualValue, column);
+                } else if (expectedValue instanceof Number number) {
+                    assertEquals(number.doubleValue(), ((Number) actualValue).doubleValue(), column);
+                } else {
+                    assertEquals(expectedValue, actualValue, column);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.stock.service;
+
+import com.example.stock.model.Account;
+import com.example.stock.model.DailyAccountAggregate;
+import com.example.stock.model.TradeSide;
+import com.example.stock.service.DailyAggregateService.ActivitySummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 日次集計が取引と同時に更新され、履歴からの再構築と一致することを検証する統合テストです。
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class DailyAggregateServiceTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private DailyAggregateService dailyAggregateService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void summaryIsMaintainedIncrementallyAndMatchesRebuild() {
+        Account account = accountService.createAccount("Aggregate User", new BigDecimal("10000"));
+        UUID id = account.getId();
+        accountService.deposit(id, new BigDecimal("500"));
+        accountService.withdraw(id, new BigDecimal("200"));
+        accountService.executeTrade(id, TradeSide.BUY, "AAPL", "NASDAQ", new BigDecimal("10"), new BigDecimal("100"));
+        accountService.executeTrade(id, TradeSide.SELL, "AAPL", "NASDAQ", new BigDecimal("4"), new BigDecimal("110"));
+        // 780 HKD の買付は受渡金額の 100 USD で集計します
+        accountService.executeTrade(id, TradeSide.BUY, "0700", "HKEX", new BigDecimal("78"), new BigDecimal("10"),
+                "HKD");
+        entityManager.flush();
+
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        ActivitySummary incremental = dailyAggregateService.summarize(id, today.minusDays(1), today);
+        assertEquals(0, incremental.netDeposits().compareTo(new BigDecimal("10300")));
+        assertEquals(3, incremental.tradeCount());
+        assertEquals(0, incremental.buyNotional().compareTo(new BigDecimal("1100")));
+        assertEquals(0, incremental.sellNotional().compareTo(new BigDecimal("440")));
+        assertEquals(0, incremental.tradedNotional().compareTo(new BigDecimal("1540")));
+        // 開設時の入金と追加の入金は一意索引に対する upsert で同じ行へ加算されます
+        assertEquals(4, dailyAggregateService.getDailyAggregates(id, today, today).size());
+
+        assertEquals(6, dailyAggregateService.rebuild(id));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<DailyAccountAggregate> rows = dailyAggregateService.getDailyAggregates(id, today, today);
+        assertEquals(4, rows.size());
+        ActivitySummary rebuilt = dailyAggregateService.summarize(id, today, today);
+        assertEquals(0, rebuilt.netDeposits().compareTo(incremental.netDeposits()));
+        assertEquals(incremental.tradeCount(), rebuilt.tradeCount());
+        assertEquals(0, rebuilt.tradedNotional().compareTo(incremental.tradedNotional()));
+        assertEquals(0, rows.stream().filter(row -> row.getTradeSide() == TradeSide.BUY).findFirst().orElseThrow()
+                .getGrossAmount().compareTo(new BigDecimal("1100")));
+    }
+}
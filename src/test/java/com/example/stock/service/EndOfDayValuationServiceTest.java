@@ -0,0 +1,84 @@
+package com.example.stock.service;
+
+import com.example.stock.model.Account;
+import com.example.stock.model.TradeSide;
+import com.example.stock.repository.EndOfDayValuationRepository;
+import com.example.stock.repository.EndOfDayValuationRepository.ClosingPrice;
+import com.example.stock.repository.EndOfDayValuationRepository.EquitySnapshot;
+import com.example.stock.repository.EndOfDayValuationRepository.RunState;
+import com.example.stock.repository.EndOfDayValuationRepository.RunStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 日次の時価評価バッチが終値と為替レートで口座を評価し、中断した位置から再開できることを確認する統合テストです。
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EndOfDayValuationServiceTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private EndOfDayValuationService valuationService;
+
+    @Autowired
+    private EndOfDayValuationRepository repository;
+
+    @Test
+    void runShouldValueHoldingsAtClosingPrices() {
+        LocalDate date = LocalDate.of(2099, 1, 5);
+        Account account = accountService.createAccount("EOD Holder", new BigDecimal("10000"));
+        accountService.executeTrade(account.getId(), TradeSide.BUY, "EODA", "NASDAQ", new BigDecimal("10"),
+                new BigDecimal("100"));
+        accountService.executeTrade(account.getId(), TradeSide.BUY, "EODB", "NYSE", new BigDecimal("5"),
+                new BigDecimal("20"));
+        valuationService.saveClosingPrices(date, List.of(new ClosingPrice("eoda", "JPY", new BigDecimal("18000"))));
+
+        RunState state = valuationService.run(date, false);
+        assertEquals(RunStatus.COMPLETED, state.status());
+        assertEquals(state.accountsTotal(), state.accountsValued());
+        assertNotNull(state.completedAt());
+
+        EquitySnapshot snapshot = valuationService.getSnapshots(account.getId(), date, date).get(0);
+        // 現金 8900 + EODA 10 株 × 18000 円 ÷ 150 + 終値のない EODB は取得原価 100
+        assertEquals(0, snapshot.cashBalance().compareTo(new BigDecimal("8900")));
+        assertEquals(0, snapshot.marketValue().compareTo(new BigDecimal("1300")));
+        assertEquals(0, snapshot.costBasis().compareTo(new BigDecimal("1100")));
+        assertEquals(0, snapshot.equity().compareTo(new BigDecimal("10200")));
+        assertEquals(2, snapshot.holdingCount());
+        assertEquals(1, snapshot.unpricedHoldings());
+
+        assertSame(RunStatus.COMPLETED, valuationService.run(date, false).status());
+        assertEquals(state.completedAt(), valuationService.run(date, false).completedAt());
+    }
+
+    @Test
+    void interruptedRunShouldResumeAfterLastCompletedChunk() {
+        LocalDate date = LocalDate.of(2099, 1, 6);
+        Account account = accountService.createAccount("EOD Resume", new BigDecimal("500"));
+        Instant startedAt = Instant.now();
+        repository.saveRun(new RunState(date, RunStatus.RUNNING, account.getId(), 1, 7, 0, 2, 0, startedAt,
+                startedAt, null));
+
+        RunState resumed = valuationService.run(date, false);
+        assertEquals(RunStatus.COMPLETED, resumed.status());
+        assertEquals(7, resumed.resumedAccounts());
+        assertTrue(valuationService.getSnapshots(account.getId(), date, date).isEmpty());
+
+        RunState rerun = valuationService.run(date, true);
+        assertEquals(0, rerun.resumedAccounts());
+        assertEquals(rerun.accountsTotal(), rerun.accountsValued());
+        assertEquals(1, valuationService.getSnapshots(account.getId(), date, date).size());
+    }
+}
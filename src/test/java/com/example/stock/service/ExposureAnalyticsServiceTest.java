@@ -0,0 +1,82 @@
+package com.example.stock.service;
+
+import com.example.stock.model.Account;
+import com.example.stock.model.TradeSide;
+import com.example.stock.service.ExposureAnalyticsService.Dimension;
+import com.example.stock.service.ExposureAnalyticsService.Exposure;
+import com.example.stock.service.ExposureAnalyticsService.SymbolHolders;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * コミットされた売買がエクスポージャーのスナップショットへ反映され、再読み込みしても同じ集計になることを確認する統合テストです。
+ * <p>
+ * スナップショットはコミット後に更新されるため、このテストはデータをコミットした状態で実行します。
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ExposureAnalyticsServiceTest {
+
+    private static final String SYMBOL = "EXPO";
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private ExposureAnalyticsService analyticsService;
+
+    @Test
+    void snapshotShouldFollowCommittedTradesAndMatchAfterReload() {
+        Account large = accountService.createAccount("Large Holder", new BigDecimal("100000"));
+        Account small = accountService.createAccount("Small Holder", new BigDecimal("100000"));
+        accountService.executeTrade(large.getId(), TradeSide.BUY, SYMBOL, "EXPOX", new BigDecimal("30"),
+                new BigDecimal("100"));
+        accountService.executeTrade(small.getId(), TradeSide.BUY, SYMBOL, "EXPOX", new BigDecimal("10"),
+                new BigDecimal("100"));
+
+        SymbolHolders holders = analyticsService.getTopHolders(SYMBOL.toLowerCase(), 1);
+        assertEquals(2, holders.holderCount());
+        assertEquals(40, holders.quantity(), 1e-9);
+        assertEquals(4000, holders.costBasis(), 1e-9);
+        assertEquals(1, holders.holders().size());
+        assertEquals(large.getId(), holders.holders().get(0).accountId());
+        assertEquals(0.75, holders.topShare(), 1e-9);
+        assertEquals(0.75 * 0.75 + 0.25 * 0.25, holders.herfindahl(), 1e-9);
+
+        Exposure exchange = exposureOf(Dimension.EXCHANGE, "EXPOX");
+        assertEquals(2, exchange.holdings());
+        assertEquals(4000, exchange.costBasis(), 1e-9);
+
+        // 780 HKD の保有は米ドルへ換算して同じ取引市場の取得原価に合算します
+        accountService.executeTrade(small.getId(), TradeSide.BUY, "EXPH", "EXPOX", new BigDecimal("78"),
+                new BigDecimal("10"), "HKD");
+        assertEquals(4100, exposureOf(Dimension.EXCHANGE, "EXPOX").costBasis(), 1e-6);
+        assertEquals(100, exposureOf(Dimension.SYMBOL, "EXPH").costBasis(), 1e-6);
+        assertEquals("USD", analyticsService.getSnapshot().currency());
+
+        accountService.executeTrade(small.getId(), TradeSide.SELL, SYMBOL, "EXPOX", new BigDecimal("10"),
+                new BigDecimal("120"));
+        assertEquals(1, analyticsService.getTopHolders(SYMBOL, 10).holderCount());
+        assertEquals(3000, exposureOf(Dimension.SYMBOL, SYMBOL).costBasis(), 1e-9);
+
+        analyticsService.reload();
+        assertEquals(1, analyticsService.getTopHolders(SYMBOL, 10).holderCount());
+        assertEquals(100, exposureOf(Dimension.SYMBOL, "EXPH").costBasis(), 1e-6);
+        assertEquals(3000, exposureOf(Dimension.SYMBOL, SYMBOL).costBasis(), 1e-9);
+        assertTrue(analyticsService.getConcentration(5).herfindahl() > 0);
+        assertEquals(0, analyticsService.getTopHolders("NO-SUCH-SYMBOL", 10).holderCount());
+    }
+
+    private Exposure exposureOf(Dimension dimension, String key) {
+        return analyticsService.getExposures(dimension).stream()
+                .filter(exposure -> exposure.key().equals(key))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.stock.service;
+
+import com.example.stock.exception.InsufficientFundsException;
+import com.example.stock.model.Account;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 同時に届いた更新処理が 1 回のコミットにまとめられ、失敗した処理が他の処理に影響しないことを確認する統合テストです。
+ */
+@SpringBootTest(properties = {"app.group-commit.max-batch=8", "app.group-commit.max-wait=PT0.2S"})
+@ActiveProfiles("test")
+class GroupCommitExecutorTest {
+
+    @Autowired
+    private GroupCommitExecutor groupCommit;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Test
+    void concurrentMutationsShouldShareCommitsAndIsolateFailures() throws Exception {
+        UUID id = accountService.createAccount("Group Commit", new BigDecimal("100")).getId();
+        long committedBefore = groupCommit.snapshot().committed();
+        List<Supplier<Account>> mutations = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            mutations.add(() -> accountService.deposit(id, BigDecimal.TEN));
+        }
+        mutations.add(() -> accountService.withdraw(id, new BigDecimal("100000")));
+
+        ExecutorService clients = Executors.newFixedThreadPool(mutations.size());
+        try {
+            List<Future<Account>> results = new ArrayList<>();
+            for (Supplier<Account> mutation : mutations) {
+                results.add(clients.submit(() -> groupCommit.execute(mutation)));
+            }
+            for (int i = 0; i < 6; i++) {
+                assertNotNull(results.get(i).get());
+            }
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> results.get(6).get());
+            assertInstanceOf(InsufficientFundsException.class, failure.getCause());
+        } finally {
+            clients.shutdownNow();
+        }
+
+        assertEquals(0, accountService.getAccount(id).getCashBalance().compareTo(new BigDecimal("160")));
+        GroupCommitExecutor.Snapshot snapshot = groupCommit.snapshot();
+        assertTrue(snapshot.largestGroupSize() > 1, snapshot.toString());
+        assertEquals(6, snapshot.committed() - committedBefore);
+    }
+
+    @Test
+    void rejectedMutationShouldNotReExecuteOtherMembers() throws Exception {
+        UUID id = accountService.createAccount("Group Reject", new BigDecimal("100")).getId();
+        GroupCommitExecutor.Snapshot before = groupCommit.snapshot();
+        List<AtomicInteger> executions = new ArrayList<>();
+        List<Supplier<Account>> mutations = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            AtomicInteger counter = new AtomicInteger();
+            executions.add(counter);
+            mutations.add(() -> {
+                counter.incrementAndGet();
+                return accountService.deposit(id, BigDecimal.TEN);
+            });
+        }
+        mutations.add(3, () -> accountService.withdraw(id, new BigDecimal("100000")));
+
+        ExecutorService clients = Executors.newFixedThreadPool(mutations.size());
+        try {
+            List<Future<Account>> results = new ArrayList<>();
+            for (Supplier<Account> mutation : mutations) {
+                results.add(clients.submit(() -> groupCommit.execute(mutation)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                if (i == 3) {
+                    int index = i;
+                    ExecutionException failure = assertThrows(ExecutionException.class, () -> results.get(index).get());
+                    assertInstanceOf(InsufficientFundsException.class, failure.getCause());
+                } else {
+                    assertNotNull(results.get(i).get());
+                }
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+
+        // 拒否された出金はグループを止めず、他の入金は 1 回ずつしか実行されません
+        executions.forEach(counter -> assertEquals(1, counter.get()));
+        assertEquals(0, accountService.getAccount(id).getCashBalance().compareTo(new BigDecimal("160")));
+        GroupCommitExecutor.Snapshot after = groupCommit.snapshot();
+        assertEquals(before.retriedGroups(), after.retriedGroups(), after.toString());
+        assertEquals(1, after.rejected() - before.rejected());
+        assertEquals(6, after.committed() - before.committed());
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.stock.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimateShouldBeExactForSmallCardinalities() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 3; i++) {
+            sketch.add("192.168.0.1");
+            sketch.add("192.168.0.2");
+            sketch.add("10.0.0." + i);
+        }
+        assertEquals(5, sketch.estimate());
+    }
+
+    @Test
+    void estimateShouldStayWithinErrorBoundForLargeCardinalities() {
+        HyperLogLog sketch = new HyperLogLog();
+        int distinct = 50_000;
+        for (int i = 0; i < distinct; i++) {
+            sketch.add("10." + (i >> 16) + "." + ((i >> 8) & 0xff) + "." + (i & 0xff));
+        }
+        double error = Math.abs(sketch.estimate() - distinct) / (double) distinct;
+        assertTrue(error < 0.1, "error was " + error);
+    }
+
+    @Test
+    void mergeShouldEstimateUnionAndSurviveSerialization() {
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        for (int i = 0; i < 400; i++) {
+            first.add("a-" + i);
+            second.add("a-" + (i + 200));
+        }
+        HyperLogLog restored = HyperLogLog.fromBytes(first.toBytes());
+        restored.merge(second);
+        double error = Math.abs(restored.estimate() - 600) / 600.0;
+        assertTrue(error < 0.1, "error was " + error);
+    }
+}
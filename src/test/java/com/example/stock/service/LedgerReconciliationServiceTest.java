@@ -0,0 +1,82 @@
+package com.example.stock.service;
+
+import com.example.stock.model.Account;
+import com.example.stock.model.TradeSide;
+import com.example.stock.service.LedgerReconciliationService.Mismatch;
+import com.example.stock.service.LedgerReconciliationService.MismatchType;
+import com.example.stock.service.LedgerReconciliationService.Report;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 台帳照合が整合した履歴を通し、改ざんされた保有数量を検出し、チェックポイント以降だけを再検証することを確認する統合テストです。
+ * <p>
+ * 照合は別スレッドで独自のトランザクションを開始するため、このテストはデータをコミットした状態で実行します。
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class LedgerReconciliationServiceTest {
+
+    private static final String SYMBOL = "RECON";
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private LedgerReconciliationService reconciliationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reconcileShouldDetectMismatchesAndResumeFromCheckpoints() {
+        Account account = accountService.createAccount("Reconcile User", new BigDecimal("10000"));
+        UUID id = account.getId();
+        accountService.deposit(id, new BigDecimal("500.25"));
+        accountService.executeTrade(id, TradeSide.BUY, SYMBOL, "TSE", new BigDecimal("10"), new BigDecimal("101.5"));
+        accountService.executeTrade(id, TradeSide.SELL, SYMBOL, "TSE", new BigDecimal("4"), new BigDecimal("110"));
+        accountService.withdraw(id, new BigDecimal("20"));
+
+        Report full = reconciliationService.reconcile(true);
+        assertTrue(full.full());
+        assertTrue(full.transactions() >= 5);
+        assertTrue(mismatchesOf(full, id).isEmpty(), full.mismatches().toString());
+
+        accountService.deposit(id, new BigDecimal("1"));
+        Report incremental = reconciliationService.reconcile(false);
+        assertFalse(incremental.full());
+        assertTrue(incremental.transactions() >= 1);
+        assertTrue(incremental.transactions() < full.transactions());
+        assertTrue(mismatchesOf(incremental, id).isEmpty(), incremental.mismatches().toString());
+
+        jdbcTemplate.update("update holdings set quantity = quantity + 1 where symbol = ?", SYMBOL);
+        try {
+            List<Mismatch> mismatches = mismatchesOf(reconciliationService.reconcile(false), id);
+            assertEquals(1, mismatches.size());
+            Mismatch mismatch = mismatches.get(0);
+            assertEquals(MismatchType.HOLDING_QUANTITY, mismatch.type());
+            assertEquals(SYMBOL, mismatch.symbol());
+            assertEquals(0, mismatch.expected().compareTo(new BigDecimal("6")));
+            assertEquals(0, mismatch.actual().compareTo(new BigDecimal("7")));
+            assertTrue(reconciliationService.getLastReport().orElseThrow().mismatches().contains(mismatch));
+        } finally {
+            jdbcTemplate.update("update holdings set quantity = quantity - 1 where symbol = ?", SYMBOL);
+        }
+        assertTrue(mismatchesOf(reconciliationService.reconcile(false), id).isEmpty());
+    }
+
+    private static List<Mismatch> mismatchesOf(Report report, UUID accountId) {
+        return report.mismatches().stream()
+                .filter(mismatch -> mismatch.accountId().equals(accountId))
+                .toList();
+    }
+}
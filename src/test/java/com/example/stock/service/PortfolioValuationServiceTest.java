@@ -0,0 +1,43 @@
+package com.example.stock.service;
+
+import com.example.stock.model.CostBasisMethod;
+import com.example.stock.repository.AccountSummaryRepository.HoldingSummary;
+import com.example.stock.repository.AccountSummaryRepository.Summary;
+import com.example.stock.service.PortfolioValuationService.PositionValue;
+import com.example.stock.service.PortfolioValuationService.Valuation;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortfolioValuationServiceTest {
+
+    @Test
+    void valuateShouldReturnScaledAmountsThatAddUp() {
+        FxRateMatrix rates = new FxRateMatrix(Map.of("USD", BigDecimal.ONE, "JPY", new BigDecimal("150"),
+                "HKD", new BigDecimal("7.8")), Instant.parse("2024-01-02T00:00:00Z"));
+        Summary summary = new Summary(UUID.randomUUID(), "Mia", new BigDecimal("0.10"), "USD", "JPY",
+                CostBasisMethod.FIFO, BigDecimal.ZERO, 0, List.of(
+                new HoldingSummary("0700", "HKEX", "HKD", new BigDecimal("3"), new BigDecimal("0.10")),
+                new HoldingSummary("AAPL", "NASDAQ", "USD", new BigDecimal("0.3"), new BigDecimal("0.1"))),
+                2, BigDecimal.ZERO, Instant.EPOCH, Instant.EPOCH);
+
+        Valuation valuation = PortfolioValuationService.valuate(summary, "USD", rates);
+
+        // 0.30 HKD ÷ 7.8 = 0.0385、合計は丸めた明細の和になります
+        assertEquals(new BigDecimal("0.1000"), valuation.cashValue());
+        PositionValue hkd = valuation.positions().get(0);
+        assertEquals(new BigDecimal("0.3000"), hkd.costBasis());
+        assertEquals(new BigDecimal("0.0385"), hkd.value());
+        assertEquals(new BigDecimal("0.0300"), valuation.positions().get(1).value());
+        assertEquals(new BigDecimal("0.0685"), valuation.holdingsValue());
+        assertEquals(new BigDecimal("0.1685"), valuation.totalValue());
+        assertEquals(0, rates.rate(rates.indexOf("JPY"), rates.indexOf("HKD"))
+                .compareTo(new BigDecimal("0.052")));
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.stock.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicationRoleGuardTest {
+
+    @Test
+    void verifyShouldAcceptMatchingBeans() {
+        assertDoesNotThrow(() -> ReplicationRoleGuard.verify("standalone", false, false));
+        assertDoesNotThrow(() -> ReplicationRoleGuard.verify("primary", true, false));
+        assertDoesNotThrow(() -> ReplicationRoleGuard.verify("follower", false, true));
+    }
+
+    @Test
+    void verifyShouldRejectRoleDifferentFromBuild() {
+        // AOT でスタンドアロンとしてビルドしたイメージをプライマリ・フォロワーとして起動した場合
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> ReplicationRoleGuard.verify("follower", false, false));
+        assertTrue(ex.getMessage().contains("built for 'standalone'"));
+        assertThrows(IllegalStateException.class, () -> ReplicationRoleGuard.verify("primary", false, false));
+        assertThrows(IllegalStateException.class, () -> ReplicationRoleGuard.verify("standalone", false, true));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.stock.service;
+
+import com.example.stock.exception.InvalidTradeException;
+import com.example.stock.exception.UnknownSymbolException;
+import com.example.stock.model.TradeSide;
+import com.example.stock.service.SymbolMaster.Listing;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 銘柄マスタの前方一致検索と売買注文の照合を確認するテストです。
+ */
+class SymbolMasterTest {
+
+    private final SymbolMaster master = new SymbolMaster(new ClassPathResource("symbols/listings.csv"));
+
+    @Test
+    void completeShouldReturnPrefixMatchesInSymbolOrder() {
+        List<Listing> matches = master.complete("goo", 10);
+        assertEquals(List.of("GOOG", "GOOGL"), matches.stream().map(Listing::symbol).toList());
+        assertSame(master.get(master.idOf("GOOG")), matches.get(0));
+
+        assertEquals(3, master.complete("", 3).size());
+        assertEquals(1, master.complete("T", 1).size());
+        assertTrue(master.complete("ZZZ", 10).isEmpty());
+        assertEquals(-1, master.idOf("UNKNOWN"));
+    }
+
+    @Test
+    void validateShouldCanonicalizeKnownListingsAndRejectInvalidOrders() {
+        TradeOrder order = master.validate(new TradeOrder(TradeSide.BUY, " aapl ", "nasdaq", new BigDecimal("3"),
+                new BigDecimal("180")));
+        assertEquals("AAPL", order.symbol());
+        assertEquals("NASDAQ", order.exchange());
+
+        assertThrows(UnknownSymbolException.class, () -> master.validate(new TradeOrder(TradeSide.BUY, "NOPE",
+                "NASDAQ", BigDecimal.ONE, BigDecimal.ONE)));
+        assertThrows(UnknownSymbolException.class, () -> master.validate(new TradeOrder(TradeSide.BUY, "AAPL",
+                "NYSE", BigDecimal.ONE, BigDecimal.ONE)));
+        assertThrows(InvalidTradeException.class, () -> master.validate(new TradeOrder(TradeSide.BUY, "7203",
+                "TSE", new BigDecimal("150"), BigDecimal.ONE)));
+        assertThrows(InvalidTradeException.class, () -> master.validate(new TradeOrder(TradeSide.BUY, "7203",
+                "TSE", new BigDecimal("200"), BigDecimal.ONE, "USD")));
+        assertEquals("JPY", master.validate(new TradeOrder(TradeSide.BUY, "7203", "TSE", new BigDecimal("200"),
+                BigDecimal.ONE, "jpy")).currency());
+    }
+
+    @Test
+    void validateShouldAllowOddLotSells() {
+        TradeOrder order = master.validate(new TradeOrder(TradeSide.SELL, "7203", "TSE", new BigDecimal("150"),
+                new BigDecimal("3000")));
+        assertEquals(new BigDecimal("150"), order.quantity());
+    }
+
+    @Test
+    void validateShouldFillInListingCurrencyWhenOmitted() {
+        assertEquals("JPY", master.validate(new TradeOrder(TradeSide.BUY, "7203", "TSE", new BigDecimal("100"),
+                new BigDecimal("3000"))).currency());
+        assertEquals("JPY", master.validate(new TradeOrder(TradeSide.BUY, "7203", "TSE", new BigDecimal("100"),
+                new BigDecimal("3000"), " ")).currency());
+        assertEquals("USD", master.validate(new TradeOrder(TradeSide.SELL, "AAPL", "NASDAQ", BigDecimal.ONE,
+                new BigDecimal("180"))).currency());
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.stock.service;
+
+import com.example.stock.model.Account;
+import com.example.stock.model.TradeSide;
+import com.example.stock.model.TransactionType;
+import com.example.stock.repository.TransactionSearchRepository.Criteria;
+import com.example.stock.repository.TransactionSearchRepository.TransactionMatch;
+import com.example.stock.service.TransactionSearchService.Page;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 取引検索の絞り込みとキーセットページングを確認する統合テストです。
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TransactionSearchServiceTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionSearchService searchService;
+
+    @Test
+    void searchShouldFilterAndPageNewestFirst() {
+        Account account = accountService.createAccount("Search Holder", new BigDecimal("10000"));
+        UUID id = account.getId();
+        accountService.executeTrade(id, TradeSide.BUY, "SRCH", "NASDAQ", new BigDecimal("10"), new BigDecimal("50"));
+        accountService.executeTrade(id, TradeSide.BUY, "SRCH", "NASDAQ", new BigDecimal("2"), new BigDecimal("50"));
+        accountService.executeTrade(id, TradeSide.SELL, "SRCH", "NASDAQ", new BigDecimal("4"), new BigDecimal("60"));
+        accountService.executeTrade(id, TradeSide.BUY, "OTHR", "NYSE", new BigDecimal("1"), new BigDecimal("10"));
+
+        Page first = searchService.search(criteria(id, "srch", null, null, null), null, 2);
+        assertEquals(2, first.transactions().size());
+        assertNotNull(first.nextCursor());
+        assertEquals(TradeSide.SELL, first.transactions().get(0).side());
+        Page second = searchService.search(criteria(id, "srch", null, null, null), first.nextCursor(), 2);
+        assertEquals(1, second.transactions().size());
+        assertNull(second.nextCursor());
+        assertEquals(0, second.transactions().get(0).quantity().compareTo(BigDecimal.TEN));
+
+        List<TransactionMatch> buys = searchService.search(criteria(id, null, TradeSide.BUY, null, null), null, 10)
+                .transactions();
+        assertEquals(3, buys.size());
+        assertTrue(buys.stream().allMatch(match -> match.type() == TransactionType.TRADE));
+
+        List<TransactionMatch> large = searchService.search(
+                criteria(id, null, null, new BigDecimal("200"), new BigDecimal("500")), null, 10).transactions();
+        // 500 の買付と 240 の売却（10000 の入金と 100・10 の買付は範囲外）
+        assertEquals(2, large.size());
+
+        assertThrows(IllegalArgumentException.class, () -> searchService.search(criteria(id, null, null, null, null),
+                "not-a-cursor", 10));
+    }
+
+    private static Criteria criteria(UUID accountId, String symbol, TradeSide side, BigDecimal minAmount,
+                                     BigDecimal maxAmount) {
+        return new Criteria(accountId, symbol, null, null, side, minAmount, maxAmount, null, null);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.stock.service;
+
+import com.example.stock.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteConcurrencyLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final WriteConcurrencyLimiter limiter = new WriteConcurrencyLimiter(true, 2, 1, 4,
+            Duration.ofMillis(100), 0.5, now::get);
+
+    @Test
+    void executeShouldShedRequestsBeyondTheLimit() {
+        String result = limiter.execute(() -> limiter.execute(() -> {
+            assertThrows(ServiceOverloadedException.class, () -> limiter.execute(() -> "third"));
+            return "second";
+        }));
+
+        assertEquals("second", result);
+        assertEquals(1, limiter.snapshot().rejected());
+        assertEquals(0, limiter.snapshot().inFlight());
+    }
+
+    @Test
+    void limitShouldGrowWhenFastAndShrinkWhenSlow() {
+        limiter.execute(() -> "fast");
+        assertEquals(3, limiter.snapshot().limit());
+        limiter.execute(() -> "underutilized");
+        assertEquals(3, limiter.snapshot().limit());
+        limiter.execute(() -> limiter.execute(() -> "concurrent"));
+        assertEquals(4, limiter.snapshot().limit());
+
+        limiter.execute(() -> now.addAndGet(TimeUnit.MILLISECONDS.toNanos(150)));
+        assertEquals(2, limiter.snapshot().limit());
+        limiter.execute(() -> now.addAndGet(TimeUnit.MILLISECONDS.toNanos(150)));
+        assertEquals(1, limiter.snapshot().limit());
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.stock.web;
+
+import com.example.stock.exception.InvalidAccountOpeningException;
+import com.example.stock.model.CostBasisMethod;
+import com.example.stock.web.dto.CreateAccountRequest;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 一括開設用 CSV の読み込みを検証するテストです。
+ */
+class AccountCsvReaderTest {
+
+    @Test
+    void readShouldParseQuotedValuesAndHoldings() throws IOException {
+        String csv = "holdings,ownerName,initialDeposit,costBasisMethod\n"
+                + "\"AAPL:NASDAQ:10:150.5; 7203:TSE:100:2500\",\"Yamada, Taro\",1000.50,average_cost\n"
+                + "\n"
+                + ",\"Say \"\"Hi\"\"\",,\n";
+
+        List<CreateAccountRequest> requests = AccountCsvReader.read(new StringReader(csv), 10);
+
+        assertEquals(2, requests.size());
+        CreateAccountRequest first = requests.get(0);
+        assertEquals("Yamada, Taro", first.ownerName());
+        assertEquals(0, first.initialDeposit().compareTo(new BigDecimal("1000.50")));
+        assertEquals(CostBasisMethod.AVERAGE_COST, first.costBasisMethod());
+        assertEquals(2, first.holdings().size());
+        assertEquals("7203", first.holdings().get(1).symbol());
+        assertEquals(0, first.holdings().get(0).costPerShare().compareTo(new BigDecimal("150.5")));
+
+        CreateAccountRequest second = requests.get(1);
+        assertEquals("Say \"Hi\"", second.ownerName());
+        assertNull(second.initialDeposit());
+        assertNull(second.costBasisMethod());
+        assertTrue(second.holdings().isEmpty());
+    }
+
+    @Test
+    void readShouldRejectMalformedInput() {
+        assertThrows(InvalidAccountOpeningException.class,
+                () -> AccountCsvReader.read(new StringReader("name\nx\n"), 10));
+        InvalidAccountOpeningException ex = assertThrows(InvalidAccountOpeningException.class,
+                () -> AccountCsvReader.read(new StringReader("ownerName,initialDeposit\na,1\nb,abc\n"), 10));
+        assertTrue(ex.getMessage().startsWith("Line 3: "), ex.getMessage());
+        assertThrows(InvalidAccountOpeningException.class,
+                () -> AccountCsvReader.read(new StringReader("ownerName\na\nb\nc\n"), 2));
+    }
+}
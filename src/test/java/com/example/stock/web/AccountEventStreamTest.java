@@ -0,0 +1,239 @@
+package com.example.stock.web;
+
+import com.example.stock.model.Account;
+import com.example.stock.model.Transaction;
+import com.example.stock.model.TransactionType;
+import com.example.stock.service.TransactionRecordedEvent;
+import com.example.stock.web.dto.AccountEventView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 購読者ごとの上限付きキューと配信スレッドによるイベント配信を検証するテストです。
+ * 送信内容は {@link SseEmitter} を差し替えて記録します。
+ */
+class AccountEventStreamTest {
+
+    private final List<AccountEventStream> streams = new ArrayList<>();
+    private volatile CountDownLatch gate = new CountDownLatch(0);
+
+    @AfterEach
+    void shutdown() {
+        streams.forEach(AccountEventStream::shutdown);
+    }
+
+    @Test
+    void eventsShouldFanOutToAccountAndFirehoseSubscribers() throws InterruptedException {
+        AccountEventStream stream = newStream(10, 16, 2);
+        Account account = new Account("Subscriber", new BigDecimal("1000"));
+        Account other = new Account("Other", new BigDecimal("1000"));
+        RecordingEmitter accountEmitter = (RecordingEmitter) stream.subscribe(account.getId());
+        RecordingEmitter otherEmitter = (RecordingEmitter) stream.subscribe(other.getId());
+        RecordingEmitter firehose = (RecordingEmitter) stream.subscribeAll();
+        assertEquals(3, stream.getSubscriberCount());
+
+        stream.onTransactionRecorded(new TransactionRecordedEvent(deposit(account, "100")));
+
+        AccountEventView received = (AccountEventView) accountEmitter.events.poll(5, TimeUnit.SECONDS);
+        assertNotNull(received);
+        assertEquals(account.getId(), received.accountId());
+        // 変換は 1 回だけ行い、同じ DTO を全購読者へ配信します
+        assertSame(received, firehose.events.poll(5, TimeUnit.SECONDS));
+        stream.onTransactionRecorded(new TransactionRecordedEvent(deposit(other, "200")));
+        assertEquals(other.getId(), ((AccountEventView) otherEmitter.events.poll(5, TimeUnit.SECONDS)).accountId());
+        assertEquals(other.getId(), ((AccountEventView) firehose.events.poll(5, TimeUnit.SECONDS)).accountId());
+        assertNull(accountEmitter.events.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void eventsInOneTransactionShouldCarryTheStateAfterEachTransactionAndWaitForCommit()
+            throws InterruptedException {
+        AccountEventStream stream = newStream(10, 16, 1);
+        Account account = new Account("Batch", new BigDecimal("1000"));
+        RecordingEmitter emitter = (RecordingEmitter) stream.subscribe(account.getId());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            account.setCashBalance(new BigDecimal("1100"));
+            stream.onTransactionRecorded(new TransactionRecordedEvent(deposit(account, "100")));
+            account.setCashBalance(new BigDecimal("1300"));
+            stream.onTransactionRecorded(new TransactionRecordedEvent(deposit(account, "200")));
+            // コミットまでは配信しません
+            assertNull(emitter.events.poll(100, TimeUnit.MILLISECONDS));
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+            synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // 各イベントは配信時点ではなく、その取引を記録した時点の残高を表します
+        AccountEventView first = (AccountEventView) emitter.events.poll(5, TimeUnit.SECONDS);
+        AccountEventView second = (AccountEventView) emitter.events.poll(5, TimeUnit.SECONDS);
+        assertEquals(0, first.cashBalance().compareTo(new BigDecimal("1100")));
+        assertEquals(0, second.cashBalance().compareTo(new BigDecimal("1300")));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            stream.onTransactionRecorded(new TransactionRecordedEvent(deposit(account, "300")));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertNull(emitter.events.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void subscribeShouldRejectBeyondMaxSubscribers() {
+        AccountEventStream stream = newStream(2, 16, 1);
+        Account account = new Account("Subscriber", new BigDecimal("1000"));
+        stream.subscribe(account.getId());
+        stream.subscribeAll();
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> stream.subscribe(account.getId()));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatusCode());
+        assertThrows(ResponseStatusException.class, stream::subscribeAll);
+        assertEquals(2, stream.getSubscriberCount());
+    }
+
+    @Test
+    void overflowingQueueShouldEvictOnlyTheSlowSubscriber() throws InterruptedException {
+        AccountEventStream stream = newStream(10, 2, 2);
+        Account account = new Account("Subscriber", new BigDecimal("1000"));
+        gate = new CountDownLatch(1);
+        RecordingEmitter slow = (RecordingEmitter) stream.subscribe(account.getId());
+        gate = new CountDownLatch(0);
+        RecordingEmitter fast = (RecordingEmitter) stream.subscribeAll();
+        // 遅い購読者の配信スレッドが最初のハートビートの送信で止まるまで待ちます
+        assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+        assertTrue(fast.sending.await(5, TimeUnit.SECONDS));
+
+        publishAndAwait(stream, fast, deposit(account, "1"));
+        publishAndAwait(stream, fast, deposit(account, "2"));
+        // キューが満杯でもハートビートは捨てるだけで切断しません
+        stream.sendHeartbeats();
+        assertEquals(0, stream.getEvictedCount());
+        assertFalse(slow.completed);
+
+        publishAndAwait(stream, fast, deposit(account, "3"));
+        assertEquals(1, stream.getEvictedCount());
+        assertTrue(slow.completed);
+        assertFalse(fast.completed);
+        assertEquals(1, stream.getSubscriberCount());
+        slow.gate.countDown();
+        stream.subscribe(account.getId());
+        assertEquals(2, stream.getSubscriberCount());
+    }
+
+    @Test
+    void concurrentPublishersShouldNotStrandQueuedEvents() throws InterruptedException {
+        int publishers = 4;
+        int eventsPerPublisher = 2_000;
+        AccountEventStream stream = newStream(10, publishers * eventsPerPublisher, 4);
+        Account account = new Account("Subscriber", new BigDecimal("1000"));
+        RecordingEmitter emitter = (RecordingEmitter) stream.subscribe(account.getId());
+        Transaction transaction = deposit(account, "1");
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < publishers; p++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < eventsPerPublisher; i++) {
+                    stream.onTransactionRecorded(new TransactionRecordedEvent(transaction));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // 配信スレッドが掃き出しを終えた直後に積まれたイベントも、再スケジュールで必ず送信されます
+        for (int i = 0; i < publishers * eventsPerPublisher; i++) {
+            assertNotNull(emitter.events.poll(5, TimeUnit.SECONDS), "event " + i + " was not delivered");
+        }
+        assertEquals(0, stream.getEvictedCount());
+        assertEquals(1, emitter.maxConcurrentSends.get());
+    }
+
+    private AccountEventStream newStream(int maxSubscribers, int bufferSize, int dispatcherThreads) {
+        AccountEventStream stream = new AccountEventStream(maxSubscribers, bufferSize, Duration.ofMinutes(1),
+                dispatcherThreads) {
+            @Override
+            SseEmitter createEmitter(long timeoutMillis) {
+                return new RecordingEmitter(gate);
+            }
+        };
+        streams.add(stream);
+        return stream;
+    }
+
+    private static void publishAndAwait(AccountEventStream stream, RecordingEmitter emitter, Transaction transaction)
+            throws InterruptedException {
+        stream.onTransactionRecorded(new TransactionRecordedEvent(transaction));
+        assertNotNull(emitter.events.poll(5, TimeUnit.SECONDS));
+    }
+
+    private static Transaction deposit(Account account, String amount) {
+        return Transaction.cash(account, TransactionType.DEPOSIT, new BigDecimal(amount), account.getCashBalance());
+    }
+
+    /**
+     * 送信されたイベントのデータを記録し、{@code gate} が開くまで送信を止められるストリームです。
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<Object> events = new LinkedBlockingQueue<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch gate;
+        private final AtomicInteger activeSends = new AtomicInteger();
+        private final AtomicInteger maxConcurrentSends = new AtomicInteger();
+        private volatile boolean completed;
+
+        private RecordingEmitter(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            maxConcurrentSends.accumulateAndGet(activeSends.incrementAndGet(), Math::max);
+            try {
+                sending.countDown();
+                gate.await();
+                for (DataWithMediaType data : builder.build()) {
+                    if (!(data.getData() instanceof String)) {
+                        events.add(data.getData());
+                    }
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                activeSends.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.stock.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientIpResolverTest {
+
+    private final ClientIpResolver resolver = new ClientIpResolver(List.of("10.0.0.0/8", "::1"));
+
+    @Test
+    void forwardedHeadersShouldBeIgnoredFromUntrustedPeers() {
+        MockHttpServletRequest request = request("203.0.113.7", "198.51.100.1");
+        request.addHeader("X-Real-IP", "198.51.100.2");
+
+        assertEquals("203.0.113.7", resolver.resolve(request));
+    }
+
+    @Test
+    void forwardedForShouldSkipTrustedHopsFromTheRight() {
+        // 先頭の値はクライアントが自由に付与できるため、プロキシが追記した末尾側から判定します
+        assertEquals("203.0.113.7", resolver.resolve(request("10.0.0.5", "198.51.100.1, 203.0.113.7, 10.1.2.3")));
+        assertEquals("203.0.113.7", resolver.resolve(request("::1", "203.0.113.7")));
+        assertEquals("10.9.9.9", resolver.resolve(request("10.0.0.5", "10.9.9.9, 10.1.2.3")));
+
+        MockHttpServletRequest realIp = request("10.0.0.5", null);
+        realIp.addHeader("X-Real-IP", " 203.0.113.8 ");
+        assertEquals("203.0.113.8", resolver.resolve(realIp));
+        assertEquals("10.0.0.5", resolver.resolve(request("10.0.0.5", null)));
+    }
+
+    @Test
+    void invalidTrustedProxyShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new ClientIpResolver(List.of("proxy.example.com")));
+        assertThrows(IllegalArgumentException.class, () -> new ClientIpResolver(List.of("10.0.0.0/33")));
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/accounts");
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.stock.web;
+
+import com.example.stock.repository.AccountRepository;
+import com.example.stock.repository.TransactionRepository;
+import com.example.stock.web.StartupWarmup.Report;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 起動時ウォームアップがデータを残さずに完了することを検証する統合テストです。
+ */
+@SpringBootTest(properties = {
+        "app.warmup.batch-size=2",
+        "app.warmup.stable-rounds=1",
+        "app.warmup.max-duration=PT10S"
+})
+@ActiveProfiles("test")
+class StartupWarmupTest {
+
+    @Autowired
+    private StartupWarmup startupWarmup;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void warmUpShouldRollBackEveryCycle() {
+        long accounts = accountRepository.count();
+        long transactions = transactionRepository.count();
+
+        Report report = startupWarmup.warmUp();
+
+        assertTrue(report.completed());
+        assertTrue(report.cycles() >= 2, () -> "cycles: " + report.cycles());
+        assertEquals(report.cycles(), (long) report.rounds() * 2);
+        assertEquals(accounts, accountRepository.count());
+        assertEquals(transactions, transactionRepository.count());
+    }
+}
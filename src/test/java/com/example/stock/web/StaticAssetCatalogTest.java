@@ -0,0 +1,69 @@
+package com.example.stock.web;
+
+import com.example.stock.web.StaticAssetCatalog.StaticAsset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StaticAssetCatalogTest {
+
+    private final StaticAssetCatalog catalog = new StaticAssetCatalog();
+
+    @BeforeEach
+    void setUp() {
+        catalog.initialize();
+    }
+
+    @Test
+    void dataFilesShouldBeServedUnderContentHashedPath() {
+        String fingerprinted = catalog.fingerprintedPath("admin/data/codex-history.json").orElseThrow();
+
+        assertTrue(fingerprinted.matches("admin/data/codex-history\\.[0-9a-f]{12}\\.json"), fingerprinted);
+        assertSame(catalog.find("admin/data/codex-history.json").orElseThrow(),
+                catalog.find(fingerprinted).orElseThrow());
+        assertTrue(catalog.fingerprintedPath("admin/codex-history.html").isEmpty());
+    }
+
+    @Test
+    void htmlShouldReferenceFingerprintedPath() {
+        String fingerprinted = catalog.fingerprintedPath("admin/data/codex-history.json").orElseThrow();
+        String html = new String(catalog.find("admin/codex-history.html").orElseThrow().identity(),
+                StandardCharsets.UTF_8);
+
+        assertTrue(html.contains("'" + fingerprinted.substring("admin/".length()) + "'"));
+        assertFalse(html.contains("'data/codex-history.json'"));
+    }
+
+    @Test
+    void gzipVariantShouldDecompressToIdentity() throws IOException {
+        StaticAsset asset = catalog.find("index.html").orElseThrow();
+
+        assertNotNull(asset.gzip());
+        assertTrue(asset.gzip().length < asset.identity().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(asset.gzip()))) {
+            assertArrayEquals(asset.identity(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    void acceptEncodingShouldHonourQualityValues() {
+        assertTrue(PrecompressedResourceResolver.acceptsGzip(request("gzip, deflate, br")));
+        assertTrue(PrecompressedResourceResolver.acceptsGzip(request("br;q=1.0, *;q=0.5")));
+        assertFalse(PrecompressedResourceResolver.acceptsGzip(request("gzip;q=0, *")));
+        assertFalse(PrecompressedResourceResolver.acceptsGzip(request("identity")));
+        assertFalse(PrecompressedResourceResolver.acceptsGzip(new MockHttpServletRequest()));
+    }
+
+    private static MockHttpServletRequest request(String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Accept-Encoding", acceptEncoding);
+        return request;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.stock.web;
+
+import com.example.stock.model.Account;
+import com.example.stock.model.TradeSide;
+import com.example.stock.service.AccountReadModel;
+import com.example.stock.service.AccountService;
+import com.example.stock.service.SymbolMaster;
+import com.example.stock.service.TradeOrder;
+import com.example.stock.web.dto.TradeRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JSON とバイナリフレームの売買注文について、受信から応答までの処理時間を比較する計測です。
+ * <p>
+ * HTTP 層を除いた「解析＋検証」「約定」「応答の生成」をそれぞれ計測し、1 注文あたりの平均ナノ秒を
+ * {@code target/trade-frame-benchmark.csv} に追記します。通常のテストでは実行せず、次のように明示して実行します。
+ * <pre>
+ * mvn test -Dtest=TradeFrameBenchmarkTest -Dbenchmark=true [-Dbenchmark.iterations=5000]
+ * </pre>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TradeFrameBenchmarkTest {
+
+    private static final Path OUTPUT = Path.of("target", "trade-frame-benchmark.csv");
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountReadModel readModel;
+
+    @Autowired
+    private SymbolMaster symbolMaster;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Test
+    void compareJsonAndBinaryTradeHandling() throws IOException {
+        int iterations = Integer.getInteger("benchmark.iterations", 5000);
+        UUID id = accountService.createAccount("Benchmark", new BigDecimal("1000000")).getId();
+        byte[][] json = {
+                objectMapper.writeValueAsBytes(new TradeRequest(TradeSide.BUY, "AAPL", "NASDAQ", BigDecimal.ONE,
+                        new BigDecimal("187.25"), null)),
+                objectMapper.writeValueAsBytes(new TradeRequest(TradeSide.SELL, "AAPL", "NASDAQ", BigDecimal.ONE,
+                        new BigDecimal("187.25"), null))};
+        byte[][] frames = {frame(0, "AAPL", "NASDAQ", 1, 0, 18725, 2), frame(1, "AAPL", "NASDAQ", 1, 0, 18725, 2)};
+
+        // 同じ注文に解析されることを確認してから、JIT の最適化が落ち着くまで両方を空回しします
+        assertEquals(parseJson(json[0]), symbolMaster.validate(TradeFrames.decodeOrder(frames[0])));
+        run("json", id, iterations / 2, json, true);
+        run("binary", id, iterations / 2, frames, false);
+
+        Timings jsonTimings = run("json", id, iterations, json, true);
+        Timings binaryTimings = run("binary", id, iterations, frames, false);
+
+        boolean header = !Files.exists(OUTPUT);
+        Files.createDirectories(OUTPUT.getParent());
+        StringBuilder csv = new StringBuilder(header ? "format,iterations,parse_validate_ns,execute_ns,respond_ns\n" : "");
+        for (Timings timings : List.of(jsonTimings, binaryTimings)) {
+            String line = String.format(Locale.ROOT, "%s,%d,%d,%d,%d", timings.format, iterations,
+                    timings.parseNanos / iterations, timings.executeNanos / iterations,
+                    timings.respondNanos / iterations);
+            System.out.println(line);
+            csv.append(line).append('\n');
+        }
+        Files.writeString(OUTPUT, csv, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+    }
+
+    private Timings run(String format, UUID id, int iterations, byte[][] payloads, boolean json) throws IOException {
+        Timings timings = new Timings(format);
+        for (int i = 0; i < iterations; i++) {
+            byte[] payload = payloads[i % 2];
+            long started = System.nanoTime();
+            TradeOrder order = json ? parseJson(payload) : symbolMaster.validate(TradeFrames.decodeOrder(payload));
+            long parsed = System.nanoTime();
+            Account account = accountService.executeTrade(id, order.side(), order.symbol(), order.exchange(),
+                    order.quantity(), order.pricePerShare(), order.currency());
+            long executed = System.nanoTime();
+            byte[] response = json
+                    ? objectMapper.writeValueAsBytes(AccountViews.toSummary(readModel.getSummary(account.getId())))
+                    : TradeFrames.encodeResult(account, List.of(order.symbol()));
+            long responded = System.nanoTime();
+            assertTrue(response.length > 0);
+            timings.parseNanos += parsed - started;
+            timings.executeNanos += executed - parsed;
+            timings.respondNanos += responded - executed;
+        }
+        return timings;
+    }
+
+    private TradeOrder parseJson(byte[] payload) throws IOException {
+        TradeRequest request = objectMapper.readValue(payload, TradeRequest.class);
+        assertTrue(validator.validate(request).isEmpty());
+        return symbolMaster.validate(new TradeOrder(request.side(), request.symbol(), request.exchange(),
+                request.quantity(), request.pricePerShare(), request.currency()));
+    }
+
+    private static byte[] frame(int side, String symbol, String exchange, long quantity, int quantityScale,
+                                long price, int priceScale) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(1);
+        out.writeByte(side);
+        out.writeByte(symbol.length());
+        out.writeBytes(symbol);
+        out.writeByte(exchange.length());
+        out.writeBytes(exchange);
+        out.writeLong(quantity);
+        out.writeByte(quantityScale);
+        out.writeLong(price);
+        out.writeByte(priceScale);
+        return bytes.toByteArray();
+    }
+
+    private static final class Timings {
+        private final String format;
+        private long parseNanos;
+        private long executeNanos;
+        private long respondNanos;
+
+        private Timings(String format) {
+            this.format = format;
+        }
+    }
+}
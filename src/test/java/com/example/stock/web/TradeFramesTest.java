@@ -0,0 +1,113 @@
+package com.example.stock.web;
+
+import com.example.stock.model.Account;
+import com.example.stock.model.Holding;
+import com.example.stock.model.TradeSide;
+import com.example.stock.service.TradeOrder;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TradeFramesTest {
+
+    @Test
+    void decodeOrderShouldReadAllFields() throws IOException {
+        TradeOrder order = TradeFrames.decodeOrder(frame(out -> writeOrder(out, 1, "aapl", "NASDAQ", 25, 1, 18725, 2)));
+
+        assertEquals(new TradeOrder(TradeSide.SELL, "aapl", "NASDAQ", new BigDecimal("2.5"), new BigDecimal("187.25")),
+                order);
+    }
+
+    @Test
+    void decodeShouldRejectInvalidFrames() throws IOException {
+        assertThrows(ResponseStatusException.class,
+                () -> TradeFrames.decodeOrder(frame(out -> writeOrder(out, 0, "AAPL", "NASDAQ", 0, 0, 100, 0))));
+        assertThrows(ResponseStatusException.class,
+                () -> TradeFrames.decodeOrder(frame(out -> writeOrder(out, 2, "AAPL", "NASDAQ", 1, 0, 100, 0))));
+        assertThrows(ResponseStatusException.class,
+                () -> TradeFrames.decodeOrder(frame(out -> writeOrder(out, 0, " ", "NASDAQ", 1, 0, 100, 0))));
+        assertThrows(ResponseStatusException.class, () -> TradeFrames.decodeOrder(new byte[] {1, 0, 4}));
+        assertThrows(ResponseStatusException.class, () -> TradeFrames.decodeBatch(new byte[] {1, 0, 0}));
+        byte[] valid = frame(out -> writeOrder(out, 0, "AAPL", "NASDAQ", 1, 0, 100, 0));
+        byte[] trailing = ByteBuffer.allocate(valid.length + 1).put(valid).array();
+        assertThrows(ResponseStatusException.class, () -> TradeFrames.decodeOrder(trailing));
+    }
+
+    @Test
+    void decodeBatchShouldReadOrdersInSequence() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(1);
+        out.writeShort(2);
+        writeOrder(out, 0, "MSFT", "NASDAQ", 3, 0, 30000, 2);
+        writeOrder(out, 1, "MSFT", "NASDAQ", 1, 0, 31000, 2);
+
+        List<TradeOrder> orders = TradeFrames.decodeBatch(bytes.toByteArray());
+
+        assertEquals(2, orders.size());
+        assertEquals(TradeSide.BUY, orders.get(0).side());
+        assertEquals(new BigDecimal("310.00"), orders.get(1).pricePerShare());
+    }
+
+    @Test
+    void encodeResultShouldWriteBalancesAndTouchedHoldings() {
+        Account account = new Account("Binary", new BigDecimal("1234.5678"));
+        account.addHolding(new Holding("AAPL", "NASDAQ", new BigDecimal("10"), new BigDecimal("187.25")));
+
+        ByteBuffer result = ByteBuffer.wrap(TradeFrames.encodeResult(account, List.of("AAPL", "TSLA")));
+
+        assertEquals(1, result.get());
+        assertEquals(0L, result.getLong());
+        assertEquals(new BigDecimal("1234.5678"), BigDecimal.valueOf(result.getLong(), result.get()));
+        assertEquals(BigDecimal.ZERO, BigDecimal.valueOf(result.getLong(), result.get()));
+        assertEquals(2, result.getShort());
+        assertEquals("AAPL", readCode(result));
+        assertEquals(new BigDecimal("10"), BigDecimal.valueOf(result.getLong(), result.get()));
+        assertEquals(new BigDecimal("187.25"), BigDecimal.valueOf(result.getLong(), result.get()));
+        assertEquals("TSLA", readCode(result));
+        assertEquals(BigDecimal.ZERO, BigDecimal.valueOf(result.getLong(), result.get()));
+        assertEquals(BigDecimal.ZERO, BigDecimal.valueOf(result.getLong(), result.get()));
+        assertFalse(result.hasRemaining());
+    }
+
+    private static String readCode(ByteBuffer buffer) {
+        byte[] code = new byte[buffer.get()];
+        buffer.get(code);
+        return new String(code, StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] frame(FrameWriter writer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(1);
+        writer.write(out);
+        return bytes.toByteArray();
+    }
+
+    private static void writeOrder(DataOutputStream out, int side, String symbol, String exchange, long quantity,
+                                   int quantityScale, long price, int priceScale) throws IOException {
+        out.writeByte(side);
+        out.writeByte(symbol.length());
+        out.writeBytes(symbol);
+        out.writeByte(exchange.length());
+        out.writeBytes(exchange);
+        out.writeLong(quantity);
+        out.writeByte(quantityScale);
+        out.writeLong(price);
+        out.writeByte(priceScale);
+    }
+
+    @FunctionalInterface
+    private interface FrameWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.stock.web.auth;
+
+import com.example.stock.web.auth.RequestRateLimiter.Limit;
+import com.example.stock.web.auth.RequestRateLimiter.RouteGroup;
+import com.example.stock.web.auth.RequestRateLimiter.Scope;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    @Test
+    void tryAcquireShouldAllowBurstAndThenRefillOverTime() {
+        RequestRateLimiter limiter = limiter(100);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire(RouteGroup.TRADING, "10.0.0.1", null));
+        }
+        long wait = limiter.tryAcquire(RouteGroup.TRADING, "10.0.0.1", null);
+        assertEquals(TimeUnit.SECONDS.toNanos(1), wait);
+        assertEquals(0, limiter.tryAcquire(RouteGroup.TRADING, "10.0.0.2", null));
+        assertEquals(0, limiter.tryAcquire(RouteGroup.READS, "10.0.0.1", null));
+
+        now.addAndGet(wait);
+        assertEquals(0, limiter.tryAcquire(RouteGroup.TRADING, "10.0.0.1", null));
+        assertTrue(limiter.tryAcquire(RouteGroup.TRADING, "10.0.0.1", null) > 0);
+    }
+
+    @Test
+    void ipAndSessionLimitsShouldBeEnforcedSeparately() {
+        RequestRateLimiter limiter = limiter(100);
+
+        // 主体の上限（2）は IP を変えても共有されます
+        assertEquals(0, limiter.tryAcquire(RouteGroup.TRADING, "10.0.0.1", "user:a"));
+        assertEquals(0, limiter.tryAcquire(RouteGroup.TRADING, "10.0.0.2", "user:a"));
+        assertTrue(limiter.tryAcquire(RouteGroup.TRADING, "10.0.0.3", "user:a") > 0);
+        // 主体の上限で拒否した分は IP のトークンを消費しません
+        assertEquals(0, limiter.tryAcquire(RouteGroup.TRADING, "10.0.0.3", "user:b"));
+        assertEquals(0, limiter.tryAcquire(RouteGroup.TRADING, "10.0.0.3", "user:c"));
+        assertEquals(0, limiter.tryAcquire(RouteGroup.TRADING, "10.0.0.3", "user:d"));
+
+        // IP の上限（3）は同じ IP の主体すべてで共有されます
+        assertTrue(limiter.tryAcquire(RouteGroup.TRADING, "10.0.0.3", "user:e") > 0);
+        assertTrue(limiter.tryAcquire(RouteGroup.TRADING, "10.0.0.3", null) > 0);
+    }
+
+    @Test
+    void fullTableShouldEvictTheBucketClosestToRefillInsteadOfSharingOne() {
+        RequestRateLimiter limiter = limiter(2);
+
+        limiter.tryAcquire(RouteGroup.LOGIN, "10.0.0.1", null);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(RouteGroup.LOGIN, "10.0.0.2", null);
+        }
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire(RouteGroup.LOGIN, "10.0.0." + (10 + i), null));
+        }
+        assertEquals(2, limiter.trackedClients(Scope.IP, RouteGroup.LOGIN));
+        assertTrue(limiter.getEvictedCount() > 0);
+
+        // 新しいクライアントが来ても、それぞれ自分のバケットで判定されます
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire(RouteGroup.LOGIN, "10.0.0.99", null));
+        }
+        assertTrue(limiter.tryAcquire(RouteGroup.LOGIN, "10.0.0.99", null) > 0);
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        limiter.purgeIdleBuckets();
+        assertEquals(0, limiter.trackedClients(Scope.IP, RouteGroup.LOGIN));
+    }
+
+    @Test
+    void fullTableShouldFreeABatchPerScanSoFollowingClientsSkipTheScan() {
+        RequestRateLimiter limiter = limiter(80);
+
+        for (int i = 0; i < 80; i++) {
+            assertEquals(0, limiter.tryAcquire(RouteGroup.READS, "10.1.0." + i, null));
+        }
+        assertEquals(0, limiter.tryAcquire(RouteGroup.READS, "10.2.0.0", null));
+        // 1 回の走査で上限の 1/8（10 件）を空けます
+        assertEquals(10, limiter.getEvictedCount());
+        assertEquals(71, limiter.trackedClients(Scope.IP, RouteGroup.READS));
+
+        // 空けた枠が埋まるまでは追い出しません
+        for (int i = 1; i < 10; i++) {
+            assertEquals(0, limiter.tryAcquire(RouteGroup.READS, "10.2.0." + i, null));
+        }
+        assertEquals(10, limiter.getEvictedCount());
+        assertEquals(80, limiter.trackedClients(Scope.IP, RouteGroup.READS));
+        // 枠が埋まると、次の新しいクライアントで再び 1/8 を空けます
+        assertEquals(0, limiter.tryAcquire(RouteGroup.READS, "10.2.0.10", null));
+        assertEquals(20, limiter.getEvictedCount());
+    }
+
+    @Test
+    void classifyShouldMapRoutesToGroups() {
+        assertEquals(RouteGroup.LOGIN, RequestRateLimiter.classify("POST", "/api/auth/login"));
+        assertEquals(RouteGroup.TRADING, RequestRateLimiter.classify("POST", "/api/accounts/1/trade"));
+        assertEquals(RouteGroup.READS, RequestRateLimiter.classify("GET", "/api/accounts/1"));
+        assertEquals(RouteGroup.ACCESS_LOGS, RequestRateLimiter.classify("POST", "/api/access-logs"));
+        assertNull(RequestRateLimiter.classify("GET", "/index.html"));
+    }
+
+    private RequestRateLimiter limiter(int maxClients) {
+        Map<RouteGroup, Limit> ipLimits = new EnumMap<>(RouteGroup.class);
+        Map<RouteGroup, Limit> sessionLimits = new EnumMap<>(RouteGroup.class);
+        for (RouteGroup group : RouteGroup.values()) {
+            ipLimits.put(group, new Limit(3, 60));
+            sessionLimits.put(group, new Limit(2, 60));
+        }
+        return new RequestRateLimiter(true, maxClients, ipLimits, sessionLimits, now::get);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.stock.web.auth;
+
+import com.example.stock.web.auth.SessionTokenCodec.SessionToken;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionTokenCodecTest {
+
+    private static final byte[] SECRET = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+    private static final Instant NOW = Instant.parse("2024-05-01T00:00:00Z");
+
+    private final SessionTokenCodec codec = new SessionTokenCodec(SECRET, Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void decodeShouldRestoreEncodedToken() {
+        SessionToken token = new SessionToken("USER", "user@example.com", "山田 太郎\n", NOW.plusSeconds(60), "jti-1");
+
+        SessionToken decoded = codec.decode(codec.encode(token)).orElseThrow();
+
+        assertEquals(token, decoded);
+    }
+
+    @Test
+    void decodeShouldRejectTamperedOrForeignTokens() {
+        String encoded = codec.encode(new SessionToken("USER", "user@example.com", "利用者", NOW.plusSeconds(60), "jti-1"));
+        String forged = codec.encode(new SessionToken("ADMIN", "admin", "管理者", NOW.plusSeconds(60), "jti-2"));
+        String tampered = forged.substring(0, forged.indexOf('.')) + encoded.substring(encoded.indexOf('.'));
+        SessionTokenCodec otherKey = new SessionTokenCodec("another-secret".getBytes(StandardCharsets.UTF_8),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+
+        assertTrue(codec.decode(tampered).isEmpty());
+        assertTrue(otherKey.decode(encoded).isEmpty());
+        assertTrue(codec.decode("not-a-token").isEmpty());
+        assertTrue(codec.decode("@@@.@@@").isEmpty());
+    }
+
+    @Test
+    void decodeShouldRejectExpiredTokens() {
+        String encoded = codec.encode(new SessionToken("USER", "user@example.com", "利用者", NOW, "jti-1"));
+
+        assertTrue(codec.decode(encoded).isEmpty());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.stock.web.json;
+
+import com.example.stock.model.CostBasisMethod;
+import com.example.stock.model.TradeSide;
+import com.example.stock.model.TransactionType;
+import com.example.stock.web.dto.AccountSummary;
+import com.example.stock.web.dto.HoldingView;
+import com.example.stock.web.dto.TransactionView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountJsonSerializersTest {
+
+    private final ObjectMapper defaultMapper = mapper(false);
+    private final ObjectMapper customMapper = mapper(true);
+
+    @Test
+    void outputShouldMatchDefaultJacksonSerialization() throws Exception {
+        Random random = new Random(42);
+        List<Object> samples = new ArrayList<>();
+        Instant[] instants = {
+                Instant.EPOCH,
+                Instant.parse("1969-12-31T23:59:59.999Z"),
+                Instant.parse("2000-02-29T12:00:00Z"),
+                Instant.parse("2024-05-01T09:30:15.120Z"),
+                Instant.parse("2024-12-31T23:59:59.000123Z"),
+                Instant.parse("2026-10-19T13:40:09.730394030Z"),
+                Instant.parse("+12000-01-01T00:00:00Z")
+        };
+        BigDecimal[] decimals = {
+                null, BigDecimal.ZERO, new BigDecimal("10070.00"), new BigDecimal("-200"), new BigDecimal("1E+3"),
+                new BigDecimal("0.0000001"), new BigDecimal("123456789012345678901234.5"),
+                new BigDecimal("9223372036854775807"), new BigDecimal("99999999999999999999")
+        };
+        for (Instant instant : instants) {
+            for (BigDecimal decimal : decimals) {
+                samples.add(new TransactionView(random.nextLong(), TransactionType.TRADE, TradeSide.SELL, "AAPL",
+                        null, decimal, decimal, "HKD", decimal, decimal, decimal, decimal, decimal, instant));
+            }
+            samples.add(new TransactionView(null, TransactionType.DEPOSIT, null, null, null, null, null,
+                    "USD", null, new BigDecimal("500"), null, new BigDecimal("10500.25"), null, instant));
+        }
+        for (int i = 0; i < 200; i++) {
+            Instant instant = Instant.ofEpochSecond(random.nextInt(Integer.MAX_VALUE), random.nextInt(1_000_000_000));
+            BigDecimal amount = BigDecimal.valueOf(random.nextLong() % 10_000_000, random.nextInt(6));
+            samples.add(new AccountSummary(UUID.randomUUID(), "名義 \"" + i + "\"", amount, "USD", "JPY",
+                    CostBasisMethod.AVERAGE_COST, amount.negate(),
+                    List.of(new HoldingView("MSFT", "NASDAQ", "USD", amount, null)), 1, amount, instant,
+                    instant.plusSeconds(i)));
+        }
+        samples.add(new AccountSummary(null, null, null, null, null, null, null, null, 0, null, null, null));
+
+        for (Object sample : samples) {
+            assertEquals(defaultMapper.writeValueAsString(sample), customMapper.writeValueAsString(sample));
+        }
+        assertEquals(defaultMapper.writeValueAsString(samples), customMapper.writeValueAsString(samples));
+    }
+
+    private static ObjectMapper mapper(boolean custom) {
+        JsonMapper.Builder builder = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (custom) {
+            SimpleModule module = new SimpleModule();
+            module.addSerializer(new AccountJsonSerializers.AccountSummarySerializer());
+            module.addSerializer(new AccountJsonSerializers.HoldingViewSerializer());
+            module.addSerializer(new AccountJsonSerializers.TransactionViewSerializer());
+            builder.addModule(module);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,2 @@
+-- Hibernate がテスト用に生成したスキーマへ、マイグレーションでのみ作成する制約を追加します。
+create unique index if not exists ux_daily_aggregates_key on daily_account_aggregates (account_id, business_date, type, ifnull(trade_side, ''));